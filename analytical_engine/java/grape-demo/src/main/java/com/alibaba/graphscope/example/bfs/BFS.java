@@ -20,7 +20,6 @@ import com.alibaba.graphscope.app.ParallelAppBase;
 import com.alibaba.graphscope.context.ParallelContextBase;
 import com.alibaba.graphscope.ds.EmptyType;
 import com.alibaba.graphscope.ds.Vertex;
-import com.alibaba.graphscope.ds.VertexRange;
 import com.alibaba.graphscope.ds.adaptor.AdjList;
 import com.alibaba.graphscope.ds.adaptor.Nbr;
 import com.alibaba.graphscope.fragment.IFragment;
@@ -57,7 +56,7 @@ public class BFS implements ParallelAppBase<Long, Long, Double, Long, BFSContext
                     if (fragment.isOuterVertex(neighbor)) {
                         messageManager.syncStateOnOuterVertexNoMsg(fragment, neighbor, 0);
                     } else {
-                        ctx.currentInnerUpdated.set(neighbor);
+                        ctx.currentFrontier.insert(neighbor);
                     }
                 }
             }
@@ -71,48 +70,51 @@ public class BFS implements ParallelAppBase<Long, Long, Double, Long, BFSContext
             ParallelContextBase<Long, Long, Double, Long> context,
             ParallelMessageManager messageManager) {
         BFSContext ctx = (BFSContext) context;
-        VertexRange<Long> innerVertices = fragment.innerVertices();
         int nextDepth = ctx.currentDepth + 1;
-        ctx.nextInnerUpdated.clear();
+        ctx.nextFrontier.clear();
 
         BiConsumer<Vertex<Long>, EmptyType> receiveMsg =
                 (vertex, msg) -> {
                     if (ctx.partialResults.get(vertex) == Integer.MAX_VALUE) {
                         ctx.partialResults.set(vertex, ctx.currentDepth);
-                        ctx.currentInnerUpdated.set(vertex);
+                        ctx.currentFrontier.insert(vertex);
                     }
                 };
         Supplier<EmptyType> msgSupplier = () -> EmptyType.factory.create();
         messageManager.parallelProcess(
                 fragment, ctx.threadNum, ctx.executor, msgSupplier, receiveMsg);
 
-        BiConsumer<Vertex<Long>, Integer> vertexProcessConsumer =
-                (cur, finalTid) -> {
-                    AdjList<Long, Long> adjList = fragment.getOutgoingAdjList(cur);
-                    for (Nbr<Long, Long> nbr : adjList.iterable()) {
-                        Vertex<Long> vertex = nbr.neighbor();
-                        if (ctx.partialResults.get(vertex) == Integer.MAX_VALUE) {
-                            ctx.partialResults.set(vertex, nextDepth);
-                            if (fragment.isOuterVertex(vertex)) {
-                                messageManager.syncStateOnOuterVertexNoMsg(
-                                        fragment, vertex, finalTid);
-                            } else {
-                                ctx.nextInnerUpdated.insert(vertex);
-                            }
-                        }
+        // push from a small frontier, or pull into unvisited vertices from a large one.
+        edgeMap(
+                fragment,
+                ctx.currentFrontier,
+                ctx.nextFrontier,
+                ctx.threadNum,
+                ctx.executor,
+                vertex -> ctx.partialResults.get(vertex) == Integer.MAX_VALUE,
+                (src, dst, edata, finalTid) -> {
+                    if (ctx.partialResults.get(dst) == Integer.MAX_VALUE) {
+                        ctx.partialResults.set(dst, nextDepth);
+                        return true;
                     }
+                    return false;
+                });
+
+        BiConsumer<Vertex<Long>, Integer> msgSender =
+                (vertex, finalTid) -> {
+                    messageManager.syncStateOnOuterVertexNoMsg(fragment, vertex, finalTid);
                 };
         forEachVertex(
-                innerVertices,
+                fragment.outerVertices(),
                 ctx.threadNum,
                 ctx.executor,
-                ctx.currentInnerUpdated,
-                vertexProcessConsumer);
+                ctx.nextFrontier.getVertexSet(),
+                msgSender);
 
         ctx.currentDepth = nextDepth;
-        if (!ctx.nextInnerUpdated.empty()) {
+        if (!ctx.nextFrontier.empty()) {
             messageManager.forceContinue();
         }
-        ctx.currentInnerUpdated.assign(ctx.nextInnerUpdated);
+        ctx.currentFrontier.swap(ctx.nextFrontier);
     }
 }
@@ -20,8 +20,8 @@ import com.alibaba.fastjson.JSONObject;
 import com.alibaba.graphscope.context.ParallelContextBase;
 import com.alibaba.graphscope.context.VertexDataContext;
 import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.ds.VertexFrontier;
 import com.alibaba.graphscope.ds.VertexRange;
-import com.alibaba.graphscope.ds.VertexSet;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.parallel.ParallelMessageManager;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
@@ -43,7 +43,7 @@ public class BFSContext extends VertexDataContext<IFragment<Long, Long, Double,
 
     public long sourceOid;
     public IntArrayWrapper partialResults;
-    public VertexSet currentInnerUpdated, nextInnerUpdated;
+    public VertexFrontier currentFrontier, nextFrontier;
     public int currentDepth;
     public int threadNum;
     public ExecutorService executor;
@@ -66,8 +66,8 @@ public class BFSContext extends VertexDataContext<IFragment<Long, Long, Double,
             threadNum = jsonObject.getInteger("threadNum");
         }
         partialResults = new IntArrayWrapper(frag.getVerticesNum().intValue(), Integer.MAX_VALUE);
-        currentInnerUpdated = new VertexSet(frag.innerVertices());
-        nextInnerUpdated = new VertexSet(frag.innerVertices());
+        currentFrontier = new VertexFrontier(frag.vertices());
+        nextFrontier = new VertexFrontier(frag.vertices());
         currentDepth = 0;
         executor = Executors.newFixedThreadPool(threadNum);
         messageManager.initChannels(threadNum);
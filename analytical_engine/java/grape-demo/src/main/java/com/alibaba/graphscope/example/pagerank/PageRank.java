@@ -33,7 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.function.BiConsumer;
-import java.util.function.Supplier;
+import java.util.function.ObjDoubleConsumer;
 
 public class PageRank extends Communicator
         implements ParallelAppBase<Long, Long, Long, Double, PageRankContext>, ParallelEngine {
@@ -61,9 +61,8 @@ public class PageRank extends Communicator
                         ctx.pagerank.set(vertex, base);
                     } else {
                         ctx.pagerank.set(vertex, base / edgeNum);
-                        DoubleMsg msg = FFITypeFactoryhelper.newDoubleMsg(base / edgeNum);
-                        parallelMessageManager.sendMsgThroughOEdges(
-                                fragment, vertex, msg, finalTid);
+                        parallelMessageManager.sendDoubleMsgThroughOEdges(
+                                fragment, vertex, base / edgeNum, finalTid);
                     }
                 };
         forEachVertex(innerVertices, ctx.thread_num, ctx.executor, calc);
@@ -107,13 +106,12 @@ public class PageRank extends Communicator
 
         // process received messages
         {
-            BiConsumer<Vertex<Long>, DoubleMsg> consumer =
+            ObjDoubleConsumer<Vertex<Long>> consumer =
                     ((vertex, aDouble) -> {
-                        ctx.pagerank.set(vertex, aDouble.getData());
+                        ctx.pagerank.set(vertex, aDouble);
                     });
-            Supplier<DoubleMsg> msgSupplier = () -> DoubleMsg.factory.create();
-            parallelMessageManager.parallelProcess(
-                    fragment, ctx.thread_num, ctx.executor, msgSupplier, consumer);
+            parallelMessageManager.parallelProcessDouble(
+                    fragment, ctx.thread_num, ctx.executor, consumer);
         } // finish receive data
 
         BiConsumer<Vertex<Long>, Integer> calc =
@@ -128,10 +126,8 @@ public class PageRank extends Communicator
                         }
                         cur = (cur * ctx.alpha + base) / ctx.degree.get(vertex);
                         ctx.nextResult.set(vertex, cur);
-                        DoubleMsg msg =
-                                FFITypeFactoryhelper.newDoubleMsg(ctx.nextResult.get(vertex));
-                        parallelMessageManager.sendMsgThroughOEdges(
-                                fragment, vertex, msg, finalTid);
+                        parallelMessageManager.sendDoubleMsgThroughOEdges(
+                                fragment, vertex, cur, finalTid);
                     }
                 });
         forEachVertex(innerVertices, ctx.thread_num, ctx.executor, calc);
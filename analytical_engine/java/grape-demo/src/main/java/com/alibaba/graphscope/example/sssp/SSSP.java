@@ -19,7 +19,7 @@ package com.alibaba.graphscope.example.sssp;
 import com.alibaba.graphscope.app.ParallelAppBase;
 import com.alibaba.graphscope.context.ParallelContextBase;
 import com.alibaba.graphscope.ds.Vertex;
-import com.alibaba.graphscope.ds.VertexSet;
+import com.alibaba.graphscope.ds.VertexFrontier;
 import com.alibaba.graphscope.ds.adaptor.AdjList;
 import com.alibaba.graphscope.ds.adaptor.Nbr;
 import com.alibaba.graphscope.fragment.IFragment;
@@ -46,7 +46,6 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
             ParallelMessageManager mm) {
         SSSPContext context = (SSSPContext) contextBase;
         mm.initChannels(context.thread_num());
-        context.nextModified.clear();
 
         Vertex<Long> source = FFITypeFactoryhelper.newVertexLong();
 
@@ -60,8 +59,7 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
                         + source.getValue());
 
         AtomicLongArrayWrapper partialResults = context.partialResults;
-        VertexSet curModified = context.curModified;
-        VertexSet nextModified = context.nextModified;
+        VertexFrontier curFrontier = context.curFrontier;
         LongMsg msg = FFITypeFactoryhelper.newLongMsg();
         if (sourceInThisFrag) {
             partialResults.set(source, 0);
@@ -73,12 +71,11 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
                     msg.setData(partialResults.get(vertex));
                     mm.syncStateOnOuterVertex(fragment, vertex, msg, 0);
                 } else {
-                    nextModified.set(vertex);
+                    curFrontier.insert(vertex);
                 }
             }
         }
         mm.forceContinue();
-        curModified.assign(nextModified);
     }
 
     @Override
@@ -87,7 +84,7 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
             ParallelContextBase<Long, Long, Long, Long> contextBase,
             ParallelMessageManager messageManager) {
         SSSPContext context = (SSSPContext) contextBase;
-        context.nextModified.clear();
+        context.nextFrontier.clear();
 
         // Parallel process the message with the support of JavaMessageInBuffer.
         context.receiveMessageTime -= System.nanoTime();
@@ -103,10 +100,10 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
         sendMessage(context, fragment, messageManager);
         context.sendMessageTime += System.nanoTime();
 
-        if (!context.nextModified.partialEmpty(0, (int) fragment.getInnerVerticesNum())) {
+        if (!context.nextFrontier.empty()) {
             messageManager.forceContinue();
         }
-        context.curModified.assign(context.nextModified);
+        context.curFrontier.swap(context.nextFrontier);
     }
 
     private void receiveMessage(
@@ -120,7 +117,7 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
                     long preValue = context.partialResults.get(vertex);
                     if (preValue > msg.getData()) {
                         context.partialResults.compareAndSetMin(vertex, msg.getData());
-                        context.curModified.set(vertex);
+                        context.curFrontier.insert(vertex);
                     }
                 };
         messageManager.parallelProcess(
@@ -128,27 +125,21 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
     }
 
     private void execute(SSSPContext context, IFragment<Long, Long, Long, Long> frag) {
-        int innerVerticesNum = (int) frag.getInnerVerticesNum();
-
-        BiConsumer<Vertex<Long>, Integer> consumer =
-                (vertex, finalTid) -> {
-                    long curDist = context.partialResults.get(vertex);
-                    AdjList<Long, Long> nbrs = frag.getOutgoingAdjList(vertex);
-                    for (Nbr<Long, Long> nbr : nbrs.iterable()) {
-                        long curLid = nbr.neighbor().getValue();
-                        long nextDist = curDist + nbr.data();
-                        if (nextDist < context.partialResults.get(curLid)) {
-                            context.partialResults.compareAndSetMin(curLid, nextDist);
-                            context.nextModified.set(curLid);
-                        }
-                    }
-                };
-        forEachVertex(
-                frag.innerVertices(),
+        // push from a small frontier, or pull into all vertices from a large one.
+        edgeMap(
+                frag,
+                context.curFrontier,
+                context.nextFrontier,
                 context.threadNum,
                 context.executor,
-                context.curModified,
-                consumer);
+                (src, dst, edata, finalTid) -> {
+                    long nextDist = context.partialResults.get(src) + edata;
+                    if (nextDist < context.partialResults.get(dst)) {
+                        context.partialResults.compareAndSetMin(dst, nextDist);
+                        return true;
+                    }
+                    return false;
+                });
     }
 
     private void sendMessage(
@@ -158,15 +149,14 @@ public class SSSP implements ParallelAppBase<Long, Long, Long, Long, SSSPContext
         // for outer vertices sync data
         BiConsumer<Vertex<Long>, Integer> msgSender =
                 (vertex, finalTid) -> {
-                    LongMsg msg =
-                            FFITypeFactoryhelper.newLongMsg(context.partialResults.get(vertex));
-                    messageManager.syncStateOnOuterVertex(frag, vertex, msg, finalTid);
+                    messageManager.syncStateOnOuterVertex(
+                            frag, vertex, context.partialResults.get(vertex), finalTid);
                 };
         forEachVertex(
                 frag.outerVertices(),
                 context.threadNum,
                 context.executor,
-                context.nextModified,
+                context.nextFrontier.getVertexSet(),
                 msgSender);
     }
 }
@@ -21,7 +21,7 @@ import com.alibaba.graphscope.context.ParallelContextBase;
 import com.alibaba.graphscope.context.VertexDataContext;
 import com.alibaba.graphscope.ds.GSVertexArray;
 import com.alibaba.graphscope.ds.Vertex;
-import com.alibaba.graphscope.ds.VertexSet;
+import com.alibaba.graphscope.ds.VertexFrontier;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.parallel.ParallelMessageManager;
 import com.alibaba.graphscope.utils.AtomicLongArrayWrapper;
@@ -40,8 +40,8 @@ public class SSSPContext extends VertexDataContext<IFragment<Long, Long, Long, L
 
     public ExecutorService executor;
     public AtomicLongArrayWrapper partialResults;
-    public VertexSet curModified;
-    public VertexSet nextModified;
+    public VertexFrontier curFrontier;
+    public VertexFrontier nextFrontier;
 
     public double execTime = 0.0;
     public double sendMessageTime = 0.0;
@@ -65,7 +65,7 @@ public class SSSPContext extends VertexDataContext<IFragment<Long, Long, Long, L
             logger.error("No src in params");
             return;
         }
-        sourceOid = jsonObject.getLong("threadNum");
+        sourceOid = jsonObject.getLong("src");
         if (!jsonObject.containsKey("threadNum")) {
             logger.warn("No threadNum in params");
             threadNum = 1;
@@ -74,8 +74,8 @@ public class SSSPContext extends VertexDataContext<IFragment<Long, Long, Long, L
         }
         Long allVertexNum = frag.getVerticesNum();
         partialResults = new AtomicLongArrayWrapper(allVertexNum.intValue(), Long.MAX_VALUE);
-        curModified = new VertexSet(0, allVertexNum.intValue());
-        nextModified = new VertexSet(0, allVertexNum.intValue());
+        curFrontier = new VertexFrontier(frag.vertices());
+        nextFrontier = new VertexFrontier(frag.vertices());
 
         executor = Executors.newFixedThreadPool(threadNum);
         chunkSize = 1024;
@@ -20,8 +20,8 @@ import com.alibaba.fastjson.JSONObject;
 import com.alibaba.graphscope.context.ParallelContextBase;
 import com.alibaba.graphscope.context.VertexDataContext;
 import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.ds.VertexFrontier;
 import com.alibaba.graphscope.ds.VertexRange;
-import com.alibaba.graphscope.ds.VertexSet;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.parallel.ParallelMessageManager;
 import com.alibaba.graphscope.utils.AtomicLongArrayWrapper;
@@ -41,8 +41,8 @@ public class WCCContext extends VertexDataContext<IFragment<Long, Long, Long, Do
 
     private static Logger logger = LoggerFactory.getLogger(WCCContext.class);
 
-    public VertexSet currModified;
-    public VertexSet nextModified;
+    public VertexFrontier currFrontier;
+    public VertexFrontier nextFrontier;
     public AtomicLongArrayWrapper comp_id;
     public int threadNum;
     public ExecutorService executor;
@@ -61,8 +61,8 @@ public class WCCContext extends VertexDataContext<IFragment<Long, Long, Long, Do
         }
         logger.info("thread num " + threadNum);
         comp_id = new AtomicLongArrayWrapper(frag.getVerticesNum().intValue(), Long.MAX_VALUE);
-        currModified = new VertexSet(frag.vertices());
-        nextModified = new VertexSet(frag.vertices());
+        currFrontier = new VertexFrontier(frag.vertices());
+        nextFrontier = new VertexFrontier(frag.vertices());
         executor = Executors.newFixedThreadPool(threadNum);
         innerVerticesNum = (int) frag.getInnerVerticesNum();
     }
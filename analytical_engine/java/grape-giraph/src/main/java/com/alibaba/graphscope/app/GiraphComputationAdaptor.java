@@ -15,19 +15,25 @@
  */
 package com.alibaba.graphscope.app;
 
+import static org.apache.giraph.conf.GiraphConstants.RESTART_FROM_LATEST_CHECKPOINT;
+import static org.apache.giraph.conf.GiraphConstants.RESTART_SUPERSTEP;
+
 import com.alibaba.graphscope.communication.Communicator;
 import com.alibaba.graphscope.context.DefaultContextBase;
 import com.alibaba.graphscope.context.GiraphComputationAdaptorContext;
 import com.alibaba.graphscope.ds.Vertex;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.graph.AggregatorManager;
+import com.alibaba.graphscope.graph.CheckpointManager;
 import com.alibaba.graphscope.graph.GiraphVertexIdManager;
 import com.alibaba.graphscope.graph.VertexDataManager;
 import com.alibaba.graphscope.parallel.DefaultMessageManager;
+import com.alibaba.graphscope.parallel.message.LongMsg;
 import com.alibaba.graphscope.parallel.mm.GiraphMessageManager;
 import com.alibaba.graphscope.parallel.mm.MessageIterable;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
 
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.giraph.graph.AbstractComputation;
 import org.apache.giraph.master.MasterCompute;
 import org.apache.giraph.worker.WorkerContext;
@@ -94,6 +100,15 @@ public class GiraphComputationAdaptor<OID_T, VID_T, VDATA_T, EDATA_T> extends Co
             return;
         }
 
+        long restartSuperstep = getRestartSuperstep(ctx);
+        if (restartSuperstep > 0) {
+            // Messages in checkpoint are of the incoming message class after first round.
+            ctx.updateIncomingMessageClass(userComputation.getConf());
+            restore(ctx, restartSuperstep);
+            superstep(graph, ctx, messageManager);
+            return;
+        }
+
         workerContext.preSuperstep();
         /** Execute master compute before super step */
         if (ctx.hasMasterCompute()) {
@@ -200,6 +215,82 @@ public class GiraphComputationAdaptor<OID_T, VID_T, VDATA_T, EDATA_T> extends Co
             DefaultMessageManager messageManager) {
 
         GiraphComputationAdaptorContext ctx = (GiraphComputationAdaptorContext) context;
+        GiraphMessageManager giraphMessageManager = ctx.getGiraphMessageManager();
+
+        // 0. receive messages
+        giraphMessageManager.receiveMessages();
+
+        // All the state to continue from this superstep is available now.
+        CheckpointManager checkpointManager = ctx.getCheckpointManager();
+        long superstep = ctx.getUserComputation().getSuperstep();
+        if (checkpointManager.shouldCheckpoint(superstep)) {
+            checkpointManager.checkpoint(superstep, ctx.getCheckpointState()::snapshot);
+        }
+        superstep(graph, ctx, messageManager);
+    }
+
+    /**
+     * The superstep to restart from, which is specified by giraph.restartSuperstep, or the latest
+     * checkpoint available on all workers if giraph.restartFromLatestCheckpoint is set.
+     *
+     * @return the superstep, or -1 to start from scratch.
+     */
+    private long getRestartSuperstep(GiraphComputationAdaptorContext ctx) {
+        ImmutableClassesGiraphConfiguration conf = ctx.getUserComputation().getConf();
+        long superstep = conf.getLong(RESTART_SUPERSTEP, -1);
+        if (superstep < 0 && RESTART_FROM_LATEST_CHECKPOINT.get(conf)) {
+            CheckpointManager checkpointManager = ctx.getCheckpointManager();
+            superstep = agreeOnCheckpoint(checkpointManager, checkpointManager.latestSuperstep());
+        }
+        logger.info("Restart superstep: {}", superstep);
+        return superstep;
+    }
+
+    /**
+     * Restore the state from the checkpoint of the superstep. If any worker fails in reading its
+     * checkpoint, e.g. the file is corrupted, all workers fall back to the previous checkpoint
+     * available on all of them.
+     */
+    private void restore(GiraphComputationAdaptorContext ctx, long superstep) {
+        CheckpointManager checkpointManager = ctx.getCheckpointManager();
+        while (superstep > 0) {
+            boolean restored = checkpointManager.restore(superstep, ctx.getCheckpointState());
+            if (agreeMin(restored ? 1 : 0) == 1) {
+                return;
+            }
+            long previous = checkpointManager.previousSuperstep(superstep);
+            superstep = agreeOnCheckpoint(checkpointManager, previous);
+            logger.warn("Fail to restore on some workers, fall back to superstep {}", superstep);
+        }
+        // the state has been partially overwritten, so it can not start from scratch either
+        throw new IllegalStateException("No checkpoint can be restored on all workers");
+    }
+
+    /**
+     * @return the minimum of the candidates of all workers if all workers have the checkpoint of
+     *     it, otherwise -1.
+     */
+    private long agreeOnCheckpoint(CheckpointManager checkpointManager, long candidate) {
+        long superstep = agreeMin(candidate);
+        // A worker may lack the agreed one if it failed in writing some checkpoints.
+        return agreeMin(checkpointManager.hasCheckpoint(superstep) ? superstep : -1);
+    }
+
+    private long agreeMin(long value) {
+        LongMsg local = FFITypeFactoryhelper.newLongMsg();
+        LongMsg agreed = FFITypeFactoryhelper.newLongMsg();
+        local.setData(value);
+        min(local, agreed);
+        return agreed.getData();
+    }
+
+    /**
+     * Run one superstep with the messages received.
+     */
+    private void superstep(
+            IFragment<OID_T, VID_T, VDATA_T, EDATA_T> graph,
+            GiraphComputationAdaptorContext ctx,
+            DefaultMessageManager messageManager) {
         AbstractComputation userComputation = ctx.getUserComputation();
         GiraphMessageManager giraphMessageManager = ctx.getGiraphMessageManager();
         WorkerContext workerContext = ctx.getWorkerContext();
@@ -207,9 +298,6 @@ public class GiraphComputationAdaptor<OID_T, VID_T, VDATA_T, EDATA_T> extends Co
         // Worker context
         workerContext.preSuperstep();
 
-        // 0. receive messages
-        giraphMessageManager.receiveMessages();
-
         /** execute master compute on master node if there is */
         if (ctx.hasMasterCompute()) {
             MasterCompute masterCompute = ctx.getMasterCompute();
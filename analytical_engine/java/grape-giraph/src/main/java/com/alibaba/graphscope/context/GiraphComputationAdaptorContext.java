@@ -26,6 +26,8 @@ import com.alibaba.graphscope.ds.GSVertexArray;
 import com.alibaba.graphscope.factory.GiraphComputationFactory;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.graph.AggregatorManager;
+import com.alibaba.graphscope.graph.CheckpointManager;
+import com.alibaba.graphscope.graph.CheckpointState;
 import com.alibaba.graphscope.graph.GiraphEdgeManager;
 import com.alibaba.graphscope.graph.GiraphVertexIdManager;
 import com.alibaba.graphscope.graph.VertexDataManager;
@@ -123,6 +125,9 @@ public class GiraphComputationAdaptorContext<OID_T, VID_T, VDATA_T, EDATA_T>
 
     private SuperstepClasses superstepClasses;
 
+    private CheckpointManager checkpointManager;
+    private CheckpointState checkpointState;
+
     public AbstractComputation getUserComputation() {
         return userComputation;
     }
@@ -147,6 +152,17 @@ public class GiraphComputationAdaptorContext<OID_T, VID_T, VDATA_T, EDATA_T>
         return aggregatorManager;
     }
 
+    public CheckpointManager getCheckpointManager() {
+        return checkpointManager;
+    }
+
+    /**
+     * State of this worker at the beginning of a superstep, to be checkpointed or restored.
+     */
+    public CheckpointState getCheckpointState() {
+        return checkpointState;
+    }
+
     public void setClassLoader(URLClassLoader classLoader) {
         this.classLoader = classLoader;
         logger.info("set class loader search path {}", urlsToString(classLoader.getURLs()));
@@ -401,6 +417,19 @@ public class GiraphComputationAdaptorContext<OID_T, VID_T, VDATA_T, EDATA_T>
         } else {
             logger.info("No master compute class specified");
         }
+
+        checkpointManager = CheckpointManager.create(conf, frag.fid());
+        checkpointState =
+                new CheckpointState(
+                        conf,
+                        userComputation,
+                        workerContext,
+                        masterCompute,
+                        halted,
+                        vertexDataManager,
+                        innerVerticesNum,
+                        giraphMessageManager,
+                        aggregatorManager);
     }
 
     /**
@@ -478,6 +507,7 @@ public class GiraphComputationAdaptorContext<OID_T, VID_T, VDATA_T, EDATA_T>
 
         // Copy data in vertexDataManager to vertexDataContext.data()
 
+        checkpointManager.close(true);
     }
 
     public void updateIncomingMessageClass(ImmutableClassesGiraphConfiguration conf) {
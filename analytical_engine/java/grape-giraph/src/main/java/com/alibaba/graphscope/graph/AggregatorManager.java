@@ -22,6 +22,10 @@ import org.apache.giraph.aggregators.Aggregator;
 import org.apache.giraph.reducers.ReduceOperation;
 import org.apache.hadoop.io.Writable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Providing management for creating and using aggregators.
  */
@@ -142,4 +146,18 @@ public interface AggregatorManager {
     void acceptNettyMessage(NettyMessage aggregatorMessage);
 
     void reduce(String name, Object value);
+
+    /**
+     * Write current values of all aggregators, for checkpointing.
+     *
+     * @param out output.
+     */
+    void writeValues(DataOutput out) throws IOException;
+
+    /**
+     * Restore values of aggregators written by {@link #writeValues(DataOutput)}.
+     *
+     * @param in input.
+     */
+    void readValues(DataInput in) throws IOException;
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph;
+
+import static org.apache.giraph.conf.GiraphConstants.CHECKPOINT_DIRECTORY;
+import static org.apache.giraph.conf.GiraphConstants.CHECKPOINT_FREQUENCY;
+import static org.apache.giraph.conf.GiraphConstants.CLEANUP_CHECKPOINTS_AFTER_SUCCESS;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.hadoop.io.Writable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checkpoints of the state of one worker at the beginning of supersteps, in local directory.
+ *
+ * <p>A snapshot of the state is taken before computing the superstep, then written to a
+ * compressed temp file in a background thread overlapped with computing, see {@link
+ * CheckpointSnapshot}. At most one checkpoint is being written. The latest two checkpoints are
+ * kept, so that a checkpoint available on all workers exists even if some workers failed in
+ * writing the latest one, and a worker failing to read one can fall back to the previous one.
+ */
+public class CheckpointManager {
+
+    private static Logger logger = LoggerFactory.getLogger(CheckpointManager.class);
+    private static final Pattern FILE_PATTERN = Pattern.compile("superstep-(\\d+)-frag-(\\d+)");
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int KEEP_CHECKPOINTS = 2;
+
+    private final File directory;
+    private final int frequency;
+    private final int fid;
+    private final boolean cleanup;
+    private final ExecutorService writer;
+    private Future<?> pendingWrite;
+
+    public CheckpointManager(File directory, int frequency, int fid, boolean cleanup) {
+        this.directory = directory;
+        this.frequency = frequency;
+        this.fid = fid;
+        this.cleanup = cleanup;
+        this.writer =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "checkpoint-writer-" + fid);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        if (frequency > 0 && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Fail to create checkpoint directory " + directory);
+        }
+    }
+
+    public static CheckpointManager create(
+            ImmutableClassesGiraphConfiguration<?, ?, ?> conf, int fid) {
+        return new CheckpointManager(
+                new File(CHECKPOINT_DIRECTORY.get(conf)),
+                CHECKPOINT_FREQUENCY.get(conf),
+                fid,
+                CLEANUP_CHECKPOINTS_AFTER_SUCCESS.get(conf));
+    }
+
+    /**
+     * @return true if the state should be checkpointed at the beginning of the superstep.
+     */
+    public boolean shouldCheckpoint(long superstep) {
+        return frequency > 0 && superstep > 0 && superstep % frequency == 0;
+    }
+
+    /**
+     * Take a snapshot of the state and write it asynchronously. The time blocking the computation,
+     * i.e. waiting for the previous checkpoint and taking the snapshot, and the time of writing are
+     * reported. A failed checkpoint is logged, and the job proceeds with the previous checkpoints.
+     *
+     * @param superstep the superstep to begin.
+     * @param state     take the snapshot of the state of the worker.
+     */
+    public void checkpoint(long superstep, Supplier<CheckpointSnapshot> state) {
+        long start = System.currentTimeMillis();
+        waitPendingWrite();
+        long waited = System.currentTimeMillis() - start;
+        CheckpointSnapshot snapshot = state.get();
+        logger.info(
+                "Frag [{}] checkpoint superstep {}, blocked computation for {} ms"
+                        + " (waiting previous checkpoint {} ms)",
+                fid,
+                superstep,
+                System.currentTimeMillis() - start,
+                waited);
+        pendingWrite = writer.submit(() -> write(superstep, snapshot));
+    }
+
+    /**
+     * Wait until the checkpoint being written, if any, is finished.
+     */
+    public void waitPendingWrite() {
+        if (pendingWrite == null) {
+            return;
+        }
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            // failures are handled in writing
+            logger.error("Frag [{}] unexpected failure in checkpoint", fid, e.getCause());
+        }
+        pendingWrite = null;
+    }
+
+    private void write(long superstep, CheckpointSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        File file = checkpointFile(superstep);
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try {
+            try (FileOutputStream fileOutput = new FileOutputStream(tmpFile)) {
+                LZ4BlockOutputStream lz4Output = new LZ4BlockOutputStream(fileOutput, BLOCK_SIZE);
+                DataOutputStream output = new DataOutputStream(lz4Output);
+                output.writeLong(superstep);
+                snapshot.write(output);
+                output.flush();
+                lz4Output.finish();
+                // the checkpoint is durable before it is visible
+                fileOutput.getFD().sync();
+            }
+            // readers never see a partially written checkpoint
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Frag [{}] fail to checkpoint superstep {}", fid, superstep, e);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                logger.warn("Fail to delete {}", tmpFile);
+            }
+            return;
+        } finally {
+            snapshot.release();
+        }
+        List<Long> supersteps = listSupersteps();
+        supersteps.sort(null);
+        for (int i = 0; i < supersteps.size() - KEEP_CHECKPOINTS; ++i) {
+            deleteCheckpoint(supersteps.get(i));
+        }
+        logger.info(
+                "Frag [{}] checkpoint superstep {} written to {} of {} bytes in {} ms",
+                fid,
+                superstep,
+                file,
+                file.length(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return the latest superstep of checkpoints written by this worker, or -1 if none.
+     */
+    public long latestSuperstep() {
+        return previousSuperstep(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the latest superstep of checkpoints written by this worker before the superstep, or
+     *     -1 if none.
+     */
+    public long previousSuperstep(long superstep) {
+        return listSupersteps().stream()
+                .mapToLong(Long::longValue)
+                .filter(s -> s < superstep)
+                .max()
+                .orElse(-1L);
+    }
+
+    /**
+     * @return true if the checkpoint of the superstep is written by this worker.
+     */
+    public boolean hasCheckpoint(long superstep) {
+        return superstep > 0 && checkpointFile(superstep).isFile();
+    }
+
+    /**
+     * Read the state in the checkpoint of the superstep.
+     *
+     * @return false if the checkpoint can not be read, and the state may be partially restored.
+     */
+    public boolean restore(long superstep, Writable state) {
+        long start = System.currentTimeMillis();
+        File file = checkpointFile(superstep);
+        try (DataInputStream input =
+                new DataInputStream(
+                        new LZ4BlockInputStream(
+                                new BufferedInputStream(new FileInputStream(file))))) {
+            long written = input.readLong();
+            if (written != superstep) {
+                throw new IllegalStateException(
+                        "Expect checkpoint of superstep " + superstep + " but got " + written);
+            }
+            state.readFields(input);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Frag [{}] fail to restore superstep {} from {}", fid, superstep, file, e);
+            return false;
+        }
+        logger.info(
+                "Frag [{}] restored superstep {} from {} in {} ms",
+                fid,
+                superstep,
+                file,
+                System.currentTimeMillis() - start);
+        return true;
+    }
+
+    /**
+     * @param success whether the job finishes successfully, checkpoints are deleted if required.
+     */
+    public void close(boolean success) {
+        waitPendingWrite();
+        writer.shutdown();
+        if (success && cleanup) {
+            for (long superstep : listSupersteps()) {
+                deleteCheckpoint(superstep);
+            }
+        }
+    }
+
+    private List<Long> listSupersteps() {
+        List<Long> supersteps = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return supersteps;
+        }
+        for (String name : names) {
+            Matcher matcher = FILE_PATTERN.matcher(name);
+            if (matcher.matches() && Integer.parseInt(matcher.group(2)) == fid) {
+                supersteps.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return supersteps;
+    }
+
+    private File checkpointFile(long superstep) {
+        return new File(directory, "superstep-" + superstep + "-frag-" + fid);
+    }
+
+    private void deleteCheckpoint(long superstep) {
+        File file = checkpointFile(superstep);
+        if (!file.delete()) {
+            logger.warn("Fail to delete checkpoint {}", file);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of a worker captured at the beginning of a superstep, which stays unchanged while the
+ * superstep is computed, so that it can be written to the checkpoint in background.
+ */
+public interface CheckpointSnapshot {
+
+    void write(DataOutput out) throws IOException;
+
+    /**
+     * Release the resources held by the snapshot, called once after it is written or dropped.
+     */
+    default void release() {}
+
+    /**
+     * A snapshot serialized in memory. The bytes are kept in chunks, so the size is not bounded
+     * by an array and no copy is made in growing.
+     */
+    class Bytes extends OutputStream implements CheckpointSnapshot {
+        private static final int CHUNK_SIZE = 1024 * 1024;
+
+        private final List<byte[]> chunks = new ArrayList<>();
+        // bytes written to the last chunk
+        private int position = CHUNK_SIZE;
+
+        @Override
+        public void write(int b) {
+            if (position == CHUNK_SIZE) {
+                chunks.add(new byte[CHUNK_SIZE]);
+                position = 0;
+            }
+            chunks.get(chunks.size() - 1)[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (position == CHUNK_SIZE) {
+                    chunks.add(new byte[CHUNK_SIZE]);
+                    position = 0;
+                }
+                int n = Math.min(len, CHUNK_SIZE - position);
+                System.arraycopy(b, off, chunks.get(chunks.size() - 1), position, n);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        public long size() {
+            return chunks.isEmpty() ? 0 : (long) (chunks.size() - 1) * CHUNK_SIZE + position;
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            for (int i = 0; i < chunks.size(); ++i) {
+                out.write(chunks.get(i), 0, i + 1 < chunks.size() ? CHUNK_SIZE : position);
+            }
+        }
+
+        @Override
+        public void release() {
+            chunks.clear();
+            position = CHUNK_SIZE;
+        }
+    }
+}
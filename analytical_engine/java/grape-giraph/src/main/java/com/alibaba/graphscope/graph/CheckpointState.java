@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph;
+
+import com.alibaba.graphscope.parallel.mm.GiraphMessageManager;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.giraph.graph.AbstractComputation;
+import org.apache.giraph.master.MasterCompute;
+import org.apache.giraph.utils.ReflectionUtils;
+import org.apache.giraph.worker.WorkerContext;
+import org.apache.hadoop.io.Writable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+
+/**
+ * Vertex values, halted vertices, messages to be received, aggregated values, worker context and
+ * master compute, which are all the state to continue from the beginning of a superstep.
+ *
+ * <p>A {@link #snapshot()} serializes all but the messages to memory, and the messages are
+ * written from the frozen message store in the order of lid, see {@link
+ * GiraphMessageManager#snapshotMessages()}.
+ */
+public class CheckpointState implements Writable {
+
+    private final ImmutableClassesGiraphConfiguration conf;
+    private final AbstractComputation userComputation;
+    private final WorkerContext workerContext;
+    /**
+     * Null if there is no master compute.
+     */
+    private final MasterCompute masterCompute;
+
+    private final BitSet halted;
+    private final VertexDataManager vertexDataManager;
+    private final long innerVerticesNum;
+    private final GiraphMessageManager giraphMessageManager;
+    private final AggregatorManager aggregatorManager;
+
+    public CheckpointState(
+            ImmutableClassesGiraphConfiguration conf,
+            AbstractComputation userComputation,
+            WorkerContext workerContext,
+            MasterCompute masterCompute,
+            BitSet halted,
+            VertexDataManager vertexDataManager,
+            long innerVerticesNum,
+            GiraphMessageManager giraphMessageManager,
+            AggregatorManager aggregatorManager) {
+        this.conf = conf;
+        this.userComputation = userComputation;
+        this.workerContext = workerContext;
+        this.masterCompute = masterCompute;
+        this.halted = halted;
+        this.vertexDataManager = vertexDataManager;
+        this.innerVerticesNum = innerVerticesNum;
+        this.giraphMessageManager = giraphMessageManager;
+        this.aggregatorManager = aggregatorManager;
+    }
+
+    /**
+     * @return the snapshot of the state, which is not changed by computing the superstep.
+     */
+    public CheckpointSnapshot snapshot() {
+        CheckpointSnapshot.Bytes head = new CheckpointSnapshot.Bytes();
+        CheckpointSnapshot.Bytes tail = new CheckpointSnapshot.Bytes();
+        try (DataOutputStream out = new DataOutputStream(head)) {
+            out.writeLong(userComputation.getSuperstep());
+            long[] words = halted.toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+            for (long lid = 0; lid < innerVerticesNum; ++lid) {
+                vertexDataManager.getVertexData(lid).write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CheckpointSnapshot messages = giraphMessageManager.snapshotMessages();
+        boolean taken = false;
+        try (DataOutputStream out = new DataOutputStream(tail)) {
+            aggregatorManager.writeValues(out);
+            workerContext.write(out);
+            out.writeBoolean(masterCompute != null);
+            if (masterCompute != null) {
+                out.writeLong(masterCompute.getSuperstep());
+                out.writeBoolean(masterCompute.isHalted());
+                masterCompute.write(out);
+            }
+            taken = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!taken) {
+                messages.release();
+            }
+        }
+        return new CheckpointSnapshot() {
+            @Override
+            public void write(DataOutput out) throws IOException {
+                head.write(out);
+                messages.write(out);
+                tail.write(out);
+            }
+
+            @Override
+            public void release() {
+                head.release();
+                messages.release();
+                tail.release();
+            }
+        };
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        CheckpointSnapshot snapshot = snapshot();
+        try {
+            snapshot.write(out);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        int superstep = (int) in.readLong();
+        userComputation.setCurStep(superstep);
+        workerContext.setCurStep(superstep);
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; ++i) {
+            words[i] = in.readLong();
+        }
+        halted.clear();
+        halted.or(BitSet.valueOf(words));
+        for (long lid = 0; lid < innerVerticesNum; ++lid) {
+            Writable value = conf.createVertexValue();
+            value.readFields(in);
+            vertexDataManager.setVertexData(lid, value);
+        }
+        // messages partially restored from a broken checkpoint are dropped
+        giraphMessageManager.clearMessages();
+        long lid;
+        while ((lid = in.readLong()) >= 0) {
+            while (in.readBoolean()) {
+                Writable msg =
+                        (Writable) ReflectionUtils.newInstance(conf.getIncomingMessageValueClass());
+                msg.readFields(in);
+                giraphMessageManager.restoreMessage(lid, msg);
+            }
+        }
+        aggregatorManager.readValues(in);
+        workerContext.readFields(in);
+        if (in.readBoolean()) {
+            masterCompute.setSuperStep((int) in.readLong());
+            boolean masterHalted = in.readBoolean();
+            masterCompute.readFields(in);
+            if (masterHalted) {
+                masterCompute.haltComputation();
+            }
+        }
+    }
+}
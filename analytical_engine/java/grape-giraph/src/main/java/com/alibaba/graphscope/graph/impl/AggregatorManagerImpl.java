@@ -39,9 +39,10 @@ import org.slf4j.LoggerFactory;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.TreeMap;
 
 public class AggregatorManagerImpl
         implements AggregatorManager, WorkerAggregatorUsage, WorkerGlobalCommUsage {
@@ -53,19 +54,23 @@ public class AggregatorManagerImpl
     private final ImmutableClassesGiraphConfiguration<?, ?, ?> conf;
     //    private HashMap<String,Aggregator> unPersistentAggregators;
     /**
-     * after aggregation, all data will be available in this stream
+     * stream to read data received from other workers, created with the communicator
      */
-    FFIByteVectorInputStream inputStream = new FFIByteVectorInputStream();
+    FFIByteVectorInputStream inputStream;
     /**
      * a temp stream for us to write data into byte array
      */
-    FFIByteVectorOutputStream outputStream = new FFIByteVectorOutputStream();
+    FFIByteVectorOutputStream outputStream;
     /**
      * vector to receive mpi message
      */
-    FFIByteVector received = (FFIByteVector) FFIByteVectorFactory.INSTANCE.create();
+    FFIByteVector received;
+
+    /**
+     * sorted by name, so that values of aggregators are packed in the same order on all workers
+     */
+    private TreeMap<String, AggregatorWrapper<Writable>> aggregators;
 
-    private HashMap<String, AggregatorWrapper<Writable>> aggregators;
     private int workerId;
     private int workerNum;
     /**
@@ -76,7 +81,7 @@ public class AggregatorManagerImpl
     public AggregatorManagerImpl(
             ImmutableClassesGiraphConfiguration<?, ?, ?> conf, int workerId, int workerNum) {
         this.conf = conf;
-        aggregators = new HashMap<>();
+        aggregators = new TreeMap<>();
         this.workerId = workerId;
         this.workerNum = workerNum;
     }
@@ -84,6 +89,10 @@ public class AggregatorManagerImpl
     @Override
     public void init(FFICommunicator communicator) {
         this.communicator = communicator;
+        // native buffers are only needed to communicate, not to register or restore aggregators
+        inputStream = new FFIByteVectorInputStream();
+        outputStream = new FFIByteVectorOutputStream();
+        received = (FFIByteVector) FFIByteVectorFactory.INSTANCE.create();
     }
 
     /**
@@ -177,6 +186,37 @@ public class AggregatorManagerImpl
     @Override
     public void reduceMerge(String name, Writable value) {}
 
+    /**
+     * Write current values of all aggregators with their names, for checkpointing.
+     */
+    @Override
+    public void writeValues(DataOutput out) throws IOException {
+        out.writeInt(aggregators.size());
+        for (Entry<String, AggregatorWrapper<Writable>> entry : aggregators.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().getCurrentValue().write(out);
+        }
+    }
+
+    /**
+     * Restore values written by {@link #writeValues(DataOutput)}, aggregators are registered again
+     * by master compute before restoring.
+     */
+    @Override
+    public void readValues(DataInput in) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            String name = in.readUTF();
+            AggregatorWrapper<Writable> wrapper = aggregators.get(name);
+            if (wrapper == null) {
+                throw new IllegalStateException("No such aggregator " + name + " to restore");
+            }
+            Writable value = wrapper.getReduceOp().createInitialValue();
+            value.readFields(in);
+            wrapper.setCurrentValue(value);
+        }
+    }
+
     /**
      * Set aggregated value. Can be used for initialization or reset.
      *
@@ -269,117 +309,125 @@ public class AggregatorManagerImpl
     }
 
     /**
-     * Synchronize aggregator values between workers after superstep.
+     * Synchronize aggregator values between workers after superstep. Values of all aggregators are
+     * packed into one buffer, and reduced with a recursive doubling allreduce, so it takes
+     * O(log(workerNum)) rounds of message exchange no matter how many aggregators there are.
      */
     @Override
     public void postSuperstep() {
-        // for each aggregator, let master node receive all data, then master distribute to all
-        // other
-        // node. in byte vector.
+        if (workerNum <= 1) {
+            logger.debug("only one worker, skip aggregating..");
+            return;
+        }
+        if (aggregators.isEmpty()) {
+            return;
+        }
         for (Entry<String, AggregatorWrapper<Writable>> entry : aggregators.entrySet()) {
-            String aggregatorKey = entry.getKey();
-            Writable value = entry.getValue().getCurrentValue();
-            if (value == null) {
+            if (entry.getValue().getCurrentValue() == null) {
                 logger.error("aggregator wrapper is null for " + entry.getKey());
                 return;
             }
-            Preconditions.checkState(value != null);
+        }
+        try {
+            allReduce();
+        } catch (IOException e) {
+            // workers would go on with different aggregated values
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            outputStream.reset();
-            inputStream.clear();
-
-            try {
-                if (workerNum > 1) {
-                    value.write(outputStream);
-                    outputStream.finishSetting();
-                    if (workerId == 0) {
-                        inputStream.digestVector(outputStream.getVector());
-                        for (int src_worker = 1; src_worker < workerNum; ++src_worker) {
-                            communicator.receiveFrom(src_worker, received);
-                            logger.info(
-                                    "Receive from src_worker: "
-                                            + src_worker
-                                            + ", size : "
-                                            + received.size());
-                            inputStream.digestVector(received);
-                        }
-
-                        // Reset
-                        AggregatorWrapper wrapper = entry.getValue();
-                        wrapper.setCurrentValue(wrapper.getReduceOp().createInitialValue());
-
-                        // digest input stream
-                        logger.info(
-                                "master: "
-                                        + workerId
-                                        + " aggregator: "
-                                        + aggregatorKey
-                                        + " ,receive msg: "
-                                        + inputStream.longAvailable());
-                        Writable msg =
-                                ReflectionUtils.newInstance(wrapper.getCurrentValue().getClass());
-                        logger.info("Parse aggregation msg in " + msg.getClass().getName());
-                        // parse to writables
-                        while (inputStream.longAvailable() > 0) {
-                            msg.readFields(inputStream);
-                            // apply aggregator on received writables.
-                            wrapper.reduce(msg);
-                            logger.info(
-                                    "worker: "
-                                            + workerId
-                                            + "aggregator: "
-                                            + aggregatorKey
-                                            + " reduce: "
-                                            + msg
-                                            + ", to"
-                                            + wrapper.getCurrentValue());
-                        }
-                        logger.info(
-                                "server: "
-                                        + workerId
-                                        + "aggregator: "
-                                        + aggregatorKey
-                                        + " after aggregation: "
-                                        + wrapper.getCurrentValue());
-                        // Wrap result in output stream
-                        outputStream.reset();
-                        wrapper.currentValue.write(outputStream);
-
-                        // Send what received to all worker
-                        for (int dstWroker = 1; dstWroker < workerNum; ++dstWroker) {
-                            communicator.sendTo(dstWroker, outputStream.getVector());
-                        }
-                    } else {
-                        logger.info(
-                                "worker: "
-                                        + workerId
-                                        + " sending size: "
-                                        + outputStream.getVector().size()
-                                        + " to worker 0");
-                        communicator.sendTo(0, outputStream.getVector());
-
-                        communicator.receiveFrom(0, received);
-                        inputStream.digestVector(received);
-                        logger.info(
-                                "worker: "
-                                        + workerId
-                                        + " receive size: "
-                                        + inputStream.longAvailable()
-                                        + " from worker 0");
-                        AggregatorWrapper wrapper = entry.getValue();
-                        Writable msg =
-                                ReflectionUtils.newInstance(wrapper.getCurrentValue().getClass());
-                        msg.readFields(inputStream);
-                        logger.info("Worker " + workerId + " ] received final value: " + msg);
-                        wrapper.setCurrentValue(msg);
-                    }
-                } else {
-                    logger.info("only one worker, skip aggregating..");
-                }
-
-            } catch (IOException e) {
-                e.printStackTrace();
+    /**
+     * Workers beyond the largest power of two first fold their values into a partner, then the
+     * remaining workers exchange values with the peer at distance 1, 2, 4.., at last the partners
+     * send the reduced values back.
+     */
+    private void allReduce() throws IOException {
+        int pof2 = Integer.highestOneBit(workerNum);
+        int extra = workerNum - pof2;
+        if (workerId >= pof2) {
+            int partner = workerId - pof2;
+            packValues();
+            communicator.sendTo(partner, outputStream.getVector());
+            communicator.receiveFrom(partner, received);
+            inputStream.setVector(received);
+            unpackValues(inputStream);
+            return;
+        }
+        if (workerId < extra) {
+            communicator.receiveFrom(workerId + pof2, received);
+            reduceReceived();
+        }
+        for (int mask = 1; mask < pof2; mask <<= 1) {
+            int peer = workerId ^ mask;
+            packValues();
+            // lower one sends first, so that blocking sends in both directions never deadlock
+            if (workerId < peer) {
+                communicator.sendTo(peer, outputStream.getVector());
+                communicator.receiveFrom(peer, received);
+            } else {
+                communicator.receiveFrom(peer, received);
+                communicator.sendTo(peer, outputStream.getVector());
             }
+            reduceReceived();
+        }
+        if (workerId < extra) {
+            packValues();
+            communicator.sendTo(workerId + pof2, outputStream.getVector());
+        }
+        if (logger.isDebugEnabled()) {
+            for (Entry<String, AggregatorWrapper<Writable>> entry : aggregators.entrySet()) {
+                logger.debug(
+                        "worker: "
+                                + workerId
+                                + " aggregator: "
+                                + entry.getKey()
+                                + " after aggregation: "
+                                + entry.getValue().getCurrentValue());
+            }
+        }
+    }
+
+    private void packValues() throws IOException {
+        outputStream.reset();
+        packValues(outputStream);
+        outputStream.finishSetting();
+    }
+
+    private void reduceReceived() throws IOException {
+        inputStream.setVector(received);
+        reduceValues(inputStream);
+        Preconditions.checkState(
+                inputStream.longAvailable() == 0,
+                "Unexpected remaining bytes " + inputStream.longAvailable());
+    }
+
+    /**
+     * Write current values of all aggregators, in the order of aggregator names which is the same
+     * on every worker.
+     */
+    void packValues(DataOutput out) throws IOException {
+        for (AggregatorWrapper<Writable> wrapper : aggregators.values()) {
+            wrapper.getCurrentValue().write(out);
+        }
+    }
+
+    /**
+     * Reduce values written by {@link #packValues(DataOutput)} of another worker to current values.
+     */
+    void reduceValues(DataInput in) throws IOException {
+        for (AggregatorWrapper<Writable> wrapper : aggregators.values()) {
+            wrapper.reduceFrom(in);
+        }
+    }
+
+    /**
+     * Overwrite current values with values written by {@link #packValues(DataOutput)}.
+     */
+    void unpackValues(DataInput in) throws IOException {
+        for (AggregatorWrapper<Writable> wrapper : aggregators.values()) {
+            Writable msg = ReflectionUtils.newInstance(wrapper.getCurrentValue().getClass());
+            msg.readFields(in);
+            wrapper.setCurrentValue(msg);
         }
     }
 
@@ -443,6 +491,14 @@ public class AggregatorManagerImpl
          * Current value, set by master manually
          */
         private A currentValue;
+        /**
+         * Not null if the aggregator is a builtin primitive one
+         */
+        private PrimitiveAggregatorOp primitiveOp;
+        /**
+         * Reused to deserialize values from other workers
+         */
+        private A receivedValue;
 
         /**
          * Constructor
@@ -459,6 +515,7 @@ public class AggregatorManagerImpl
                 Class<? extends Aggregator<A>> aggregatorClass, boolean persistent) {
             this.persistent = persistent;
             this.reduceOp = new AggregatorReduceOperation<>(aggregatorClass, conf);
+            this.primitiveOp = PrimitiveAggregatorOp.of(aggregatorClass);
         }
 
         public AggregatorReduceOperation<A> getReduceOp() {
@@ -487,9 +544,25 @@ public class AggregatorManagerImpl
         }
 
         public void reduce(A value) {
-            logger.info("Before reduce: " + currentValue + ", " + value);
+            logger.debug("Before reduce: {}, {}", currentValue, value);
             currentValue = reduceOp.reduce(currentValue, value);
-            logger.info("After reduce: " + currentValue);
+            logger.debug("After reduce: {}", currentValue);
+        }
+
+        /**
+         * Read a value of other worker from input, and reduce it to current value.
+         */
+        public void reduceFrom(DataInput in) throws IOException {
+            if (primitiveOp != null) {
+                primitiveOp.reduce(currentValue, in);
+                return;
+            }
+            if (receivedValue == null
+                    || !receivedValue.getClass().equals(currentValue.getClass())) {
+                receivedValue = (A) ReflectionUtils.newInstance(currentValue.getClass());
+            }
+            receivedValue.readFields(in);
+            reduce(receivedValue);
         }
 
         @Override
@@ -237,6 +237,37 @@ public class AggregatorManagerNettyImpl
     @Override
     public void reduceMerge(String name, Writable value) {}
 
+    /**
+     * Write current values of all aggregators with their names, for checkpointing.
+     */
+    @Override
+    public void writeValues(DataOutput out) throws IOException {
+        out.writeInt(aggregators.size());
+        for (Entry<String, AggregatorWrapper<Writable>> entry : aggregators.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().getCurrentValue().write(out);
+        }
+    }
+
+    /**
+     * Restore values written by {@link #writeValues(DataOutput)}, aggregators are registered again
+     * by master compute before restoring.
+     */
+    @Override
+    public void readValues(DataInput in) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            String name = in.readUTF();
+            AggregatorWrapper<Writable> wrapper = aggregators.get(name);
+            if (wrapper == null) {
+                throw new IllegalStateException("No such aggregator " + name + " to restore");
+            }
+            Writable value = wrapper.getReduceOp().createInitialValue();
+            value.readFields(in);
+            wrapper.setCurrentValue(value);
+        }
+    }
+
     /**
      * Set aggregated value. Can be used for initialization or reset.
      *
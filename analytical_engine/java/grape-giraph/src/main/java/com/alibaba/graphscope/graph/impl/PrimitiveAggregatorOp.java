@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.alibaba.graphscope.graph.impl;
+
+import org.apache.giraph.aggregators.Aggregator;
+import org.apache.giraph.aggregators.DoubleMaxAggregator;
+import org.apache.giraph.aggregators.DoubleMinAggregator;
+import org.apache.giraph.aggregators.DoubleSumAggregator;
+import org.apache.giraph.aggregators.IntMaxAggregator;
+import org.apache.giraph.aggregators.IntMinAggregator;
+import org.apache.giraph.aggregators.IntSumAggregator;
+import org.apache.giraph.aggregators.LongMaxAggregator;
+import org.apache.giraph.aggregators.LongMinAggregator;
+import org.apache.giraph.aggregators.LongSumAggregator;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Reduce operations of the builtin primitive aggregators, which reduce a serialized value into the
+ * current value directly, without instantiating a writable and going through the aggregator.
+ */
+enum PrimitiveAggregatorOp {
+    LONG_SUM(LongSumAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            LongWritable value = (LongWritable) current;
+            value.set(value.get() + in.readLong());
+        }
+    },
+    LONG_MIN(LongMinAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            LongWritable value = (LongWritable) current;
+            value.set(Math.min(value.get(), in.readLong()));
+        }
+    },
+    LONG_MAX(LongMaxAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            LongWritable value = (LongWritable) current;
+            value.set(Math.max(value.get(), in.readLong()));
+        }
+    },
+    DOUBLE_SUM(DoubleSumAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            DoubleWritable value = (DoubleWritable) current;
+            value.set(value.get() + in.readDouble());
+        }
+    },
+    DOUBLE_MIN(DoubleMinAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            DoubleWritable value = (DoubleWritable) current;
+            value.set(Math.min(value.get(), in.readDouble()));
+        }
+    },
+    DOUBLE_MAX(DoubleMaxAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            DoubleWritable value = (DoubleWritable) current;
+            value.set(Math.max(value.get(), in.readDouble()));
+        }
+    },
+    INT_SUM(IntSumAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            IntWritable value = (IntWritable) current;
+            value.set(value.get() + in.readInt());
+        }
+    },
+    INT_MIN(IntMinAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            IntWritable value = (IntWritable) current;
+            value.set(Math.min(value.get(), in.readInt()));
+        }
+    },
+    INT_MAX(IntMaxAggregator.class) {
+        @Override
+        void reduce(Writable current, DataInput in) throws IOException {
+            IntWritable value = (IntWritable) current;
+            value.set(Math.max(value.get(), in.readInt()));
+        }
+    };
+
+    private final Class<? extends Aggregator> aggregatorClass;
+
+    PrimitiveAggregatorOp(Class<? extends Aggregator> aggregatorClass) {
+        this.aggregatorClass = aggregatorClass;
+    }
+
+    /**
+     * Read a value written by {@link Writable#write} of the current value, and reduce it into the
+     * current value.
+     */
+    abstract void reduce(Writable current, DataInput in) throws IOException;
+
+    /**
+     * @return the primitive op of the aggregator, or null if the aggregator is not a builtin
+     *     primitive one.
+     */
+    static PrimitiveAggregatorOp of(Class<?> aggregatorClass) {
+        for (PrimitiveAggregatorOp op : values()) {
+            if (op.aggregatorClass.equals(aggregatorClass)) {
+                return op;
+            }
+        }
+        return null;
+    }
+}
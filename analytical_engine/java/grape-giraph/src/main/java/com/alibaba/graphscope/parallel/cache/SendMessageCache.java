@@ -61,4 +61,9 @@ public interface SendMessageCache<I extends WritableComparable, M extends Writab
     void flushMessage();
 
     void clear();
+
+    /**
+     * Release the buffers held by cache, after which the cache can not be used any more.
+     */
+    void close();
 }
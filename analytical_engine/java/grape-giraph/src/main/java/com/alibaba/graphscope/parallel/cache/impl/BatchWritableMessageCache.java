@@ -137,6 +137,12 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
         }
     }
 
+    /**
+     * Cached messages are on heap, nothing to release.
+     */
+    @Override
+    public void close() {}
+
     /**
      * After the execution, we need to flush all message still in cache.
      */
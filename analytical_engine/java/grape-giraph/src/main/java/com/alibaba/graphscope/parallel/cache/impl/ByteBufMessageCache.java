@@ -74,10 +74,7 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
         cacheStream = new ByteBufOutputStream[fragNum];
 
         for (int i = 0; i < fragNum; ++i) {
-            cache[i] = conf.getNettyAllocator().buffer(cacheMaximum);
-            cacheStream[i] = new ByteBufOutputStream(cache[i]);
-            cache[i].writeInt(0);
-            cache[i].writeByte(0);
+            resetCache(i);
         }
     }
 
@@ -91,16 +88,10 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
                         dstFragId,
                         cache[dstFragId].readableBytes(),
                         cacheMaximum);
-                //                ByteBufRequest request = new
-                // ByteBufRequest(cache[dstFragId].copy());
-                ByteBufRequest request = new ByteBufRequest(cache[dstFragId].copy()); // try no copy
-                // the data in this buffer [cache] will be flushed to netty cache.
-                client.sendMessage(dstFragId, request);
-                // don't need to create new cache, just reset the cache.
-                // CAUTION: remember to set first 5 bytes when we flush the buffer.
-                cache[dstFragId].clear();
-                cache[dstFragId].writeInt(0);
-                cache[dstFragId].writeByte(0);
+                // Hand the full buffer over to netty without copy, it is sent in background while
+                // messages are written to a new buffer from the pool.
+                client.sendMessage(dstFragId, new ByteBufRequest(cache[dstFragId]));
+                resetCache(dstFragId);
             }
         }
         try {
@@ -145,15 +136,28 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
         }
     }
 
+    /**
+     * Release the buffers allocated after the last flush, the buffers already sent are released by
+     * netty once written.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < fragNum; ++i) {
+            if (cache[i] != null) {
+                cache[i].release();
+                cache[i] = null;
+                cacheStream[i] = null;
+            }
+        }
+    }
+
     private void sendCurrentMessageInCache() {
         for (int dstFragId = 0; dstFragId < cache.length; ++dstFragId) {
             if (logger.isDebugEnabled()) {
                 logger.debug("worker {} to {}, cache {}", fragId, dstFragId, cache[dstFragId]);
             }
             if (dstFragId != fragId && cache[dstFragId].readableBytes() > 0) {
-                // ByteBufRequest request = new ByteBufRequest(cache[dstFragId].copy());
-                // try no copy
-                ByteBufRequest request = new ByteBufRequest(cache[dstFragId].copy());
+                ByteBufRequest request = new ByteBufRequest(cache[dstFragId]);
 
                 if (logger.isDebugEnabled()) {
                     logger.debug(
@@ -163,8 +167,20 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
                             dstFragId);
                 }
                 client.sendMessage(dstFragId, request);
+                resetCache(dstFragId);
             }
         }
         logger.debug("frag [{}] finish flushing cache", fragId);
     }
+
+    /**
+     * Allocate a new pooled buffer for the cache, with first 5 bytes reserved for the header of
+     * request.
+     */
+    private void resetCache(int dstFragId) {
+        cache[dstFragId] = conf.getNettyAllocator().directBuffer(cacheMaximum);
+        cacheStream[dstFragId] = new ByteBufOutputStream(cache[dstFragId]);
+        cache[dstFragId].writeInt(0);
+        cache[dstFragId].writeByte(0);
+    }
 }
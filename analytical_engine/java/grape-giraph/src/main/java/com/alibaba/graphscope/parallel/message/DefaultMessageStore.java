@@ -18,6 +18,7 @@ package com.alibaba.graphscope.parallel.message;
 
 import com.alibaba.graphscope.ds.Vertex;
 import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
 import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
 import com.alibaba.graphscope.stdcxx.FFIByteVector;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
@@ -33,8 +34,9 @@ import org.apache.hadoop.io.WritableComparable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -47,8 +49,8 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
     private static Logger logger = LoggerFactory.getLogger(DefaultMessageStore.class);
     private static int INIT_CAPACITY = 2;
 
-    private IFragment<?, GS_VID_T, ?, ?> fragment;
-    private ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf;
+    protected IFragment<?, GS_VID_T, ?, ?> fragment;
+    protected ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf;
     private Vertex<GS_VID_T> vertex;
     /**
      * lid 2 messages
@@ -111,11 +113,7 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
         if (!fragment.innerVertexGid2Vertex(gid, vertex)) {
             throw new IllegalStateException("gid to vertex convertion failed: " + gid);
         }
-        GS_VID_T lid = vertex.getValue();
-        if (!messages.containsKey(lid)) {
-            messages.put(lid, new ArrayList<>());
-        }
-        messages.get(lid).add(writable);
+        addLidMessage(vertex.getValue(), writable);
     }
 
     @Override
@@ -192,6 +190,31 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
         return () -> Collections.emptyIterator();
     }
 
+    /**
+     * The messages are kept as objects in memory, thus they are serialized to memory for the
+     * snapshot.
+     */
+    @Override
+    public CheckpointSnapshot snapshot() {
+        CheckpointSnapshot.Bytes bytes = new CheckpointSnapshot.Bytes();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (long lid = 0; lid < innerVerticesNum; ++lid) {
+                if (messageAvailable(lid)) {
+                    out.writeLong(lid);
+                    for (MSG_T msg : getMessages(lid)) {
+                        out.writeBoolean(true);
+                        msg.write(out);
+                    }
+                    out.writeBoolean(false);
+                }
+            }
+            out.writeLong(-1L);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
     /**
      * For a bytestream provided by FFIByteVector, read from it and digest its content.
      *
@@ -15,6 +15,8 @@
  */
 package com.alibaba.graphscope.parallel.message;
 
+import static org.apache.giraph.conf.GiraphConstants.MESSAGE_SPILL_THRESHOLD;
+
 import com.alibaba.graphscope.fragment.IFragment;
 
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
@@ -40,6 +42,10 @@ public class DefaultMessageStoreFactory<I extends WritableComparable, M extends
      */
     @Override
     public MessageStore<I, M, GS_VID_T> newStore(MessageClasses<I, M> messageClasses) {
+        if (MESSAGE_SPILL_THRESHOLD.get(conf) > 0) {
+            logger.info("Using spillable Message store");
+            return new SpillableMessageStore<I, M, GS_VID_T>(fragment, conf);
+        }
         logger.info("Using default Message store");
         return new DefaultMessageStore<I, M, GS_VID_T>(fragment, conf);
     }
@@ -0,0 +1,617 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.message;
+
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+import org.apache.hadoop.io.Writable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Messages bound with lid, kept in memory as serialized bytes until the buffered bytes reach the
+ * threshold, then sorted by lid and spilled to local disk as a lz4 compressed run.
+ *
+ * <p>The runs and the messages remaining in memory are merged when reading, with a cursor which
+ * moves forward with the lid, thus reading messages in ascending lid (the order of vertices in
+ * compute) streams each run once. Reading a lid less than the cursor restarts the merge.
+ *
+ * <p>To bound the open files and buffers in merging, runs are merged in tiers: a new run is at
+ * level 0, and once a level has {@link #MERGE_FACTOR} runs they are merged into one run of the
+ * next level. Each message is rewritten once per level, i.e. log(runs) times, and at most
+ * (MERGE_FACTOR - 1) runs per level are open when reading.
+ *
+ * @param <MSG_T> message type
+ */
+public class MessageSpiller<MSG_T extends Writable> {
+
+    private static Logger logger = LoggerFactory.getLogger(MessageSpiller.class);
+    private static final int INIT_CAPACITY = 1024;
+    private static final int BLOCK_SIZE = 64 * 1024;
+    // lid, offset and the index of sorting for each buffered message
+    private static final int INDEX_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final long END_OF_RUN = -1L;
+    private static final int MERGE_FACTOR = 32;
+
+    private final long threshold;
+    private final File spillDir;
+    private final Supplier<MSG_T> messageFactory;
+
+    private final BytesOutput buffer = new BytesOutput();
+    private final DataOutputStream bufferOutput = new DataOutputStream(buffer);
+    private long[] lids = new long[INIT_CAPACITY];
+    private int[] offsets = new int[INIT_CAPACITY];
+    private int count;
+
+    // run files of each level, from the oldest to the newest in a level
+    private final List<List<File>> levels = new ArrayList<>();
+    // run files read by snapshots being written, with the number of the snapshots
+    private final Map<File, Integer> frozen = new HashMap<>();
+    // the sources in merging, which are opened lazily by the first read after writing
+    private List<Run> runs;
+    private long cursor;
+
+    /**
+     * @param threshold      the maximum bytes buffered in memory before spilling
+     * @param spillDir       the directory of run files
+     * @param messageFactory create message instances to be read into
+     */
+    public MessageSpiller(long threshold, File spillDir, Supplier<MSG_T> messageFactory) {
+        this.threshold = threshold;
+        this.spillDir = spillDir;
+        this.messageFactory = messageFactory;
+    }
+
+    public synchronized void add(long lid, MSG_T msg) {
+        closeRuns();
+        if (count == lids.length) {
+            lids = Arrays.copyOf(lids, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        lids[count] = lid;
+        offsets[count] = buffer.size();
+        try {
+            msg.write(bufferOutput);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count += 1;
+        if (getBufferedBytes() >= threshold) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the approximate bytes of messages and their index buffered in memory
+     */
+    public long getBufferedBytes() {
+        return buffer.size() + (long) count * INDEX_BYTES;
+    }
+
+    public int getSpilledRuns() {
+        int runs = 0;
+        for (List<File> files : levels) {
+            runs += files.size();
+        }
+        return runs;
+    }
+
+    public boolean isEmpty() {
+        return count == 0 && getSpilledRuns() == 0;
+    }
+
+    /**
+     * Check for lid, any messages available, the messages are not consumed.
+     */
+    public synchronized boolean contains(long lid) {
+        for (Run run : seekRuns(lid)) {
+            if (run.lid == lid) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the messages of lid, which are consumed from the runs.
+     */
+    public synchronized List<MSG_T> get(long lid) {
+        List<MSG_T> messages = null;
+        for (Run run : seekRuns(lid)) {
+            if (run.lid == lid) {
+                if (messages == null) {
+                    messages = new ArrayList<>();
+                }
+                run.read(messages);
+            }
+        }
+        return messages == null ? Collections.emptyList() : messages;
+    }
+
+    /**
+     * Drop all the messages and delete the run files.
+     */
+    public synchronized void clear() {
+        closeRuns();
+        for (List<File> files : levels) {
+            deleteRunFiles(files);
+        }
+        levels.clear();
+        buffer.reset();
+        count = 0;
+        if (lids.length > INIT_CAPACITY) {
+            lids = new long[INIT_CAPACITY];
+            offsets = new int[INIT_CAPACITY];
+        }
+    }
+
+    /**
+     * Freeze the messages for a checkpoint, see {@link MessageStore#snapshot()}. The buffered
+     * messages are spilled first, so the snapshot streams the run files only, and the run files
+     * are kept until the snapshot is released, even if the messages are cleared or merged in the
+     * meantime.
+     */
+    public synchronized CheckpointSnapshot freeze() {
+        closeRuns();
+        if (count > 0) {
+            spill();
+        }
+        List<File> runFiles = new ArrayList<>(getSpilledRuns());
+        // older runs are in higher levels, so messages of a lid are written in the order of arrival
+        for (int level = levels.size() - 1; level >= 0; --level) {
+            runFiles.addAll(levels.get(level));
+        }
+        for (File runFile : runFiles) {
+            frozen.merge(runFile, 1, Integer::sum);
+        }
+        return new CheckpointSnapshot() {
+            @Override
+            public void write(DataOutput out) throws IOException {
+                writeRuns(runFiles, out);
+            }
+
+            @Override
+            public void release() {
+                unfreeze(runFiles);
+            }
+        };
+    }
+
+    private synchronized void unfreeze(List<File> runFiles) {
+        List<File> deleted = new ArrayList<>();
+        for (File runFile : runFiles) {
+            if (frozen.merge(runFile, -1, Integer::sum) == 0) {
+                frozen.remove(runFile);
+                if (levels.stream().noneMatch(files -> files.contains(runFile))) {
+                    deleted.add(runFile);
+                }
+            }
+        }
+        deleteRunFiles(deleted);
+    }
+
+    /**
+     * Merge the runs in the format of checkpoints, the messages are copied as bytes. The runs are
+     * opened by the caller only, so this does not interfere with reading from the spiller.
+     */
+    private void writeRuns(List<File> runFiles, DataOutput output) throws IOException {
+        List<FileRun> sources = new ArrayList<>(runFiles.size());
+        try {
+            for (File runFile : runFiles) {
+                sources.add(new FileRun(runFile));
+            }
+            byte[] bytes = new byte[0];
+            while (true) {
+                long lid = END_OF_RUN;
+                for (FileRun source : sources) {
+                    if (source.lid >= 0 && (lid < 0 || source.lid < lid)) {
+                        lid = source.lid;
+                    }
+                }
+                if (lid < 0) {
+                    break;
+                }
+                output.writeLong(lid);
+                for (FileRun source : sources) {
+                    while (source.lid == lid) {
+                        bytes = source.copy(output, bytes);
+                    }
+                }
+                output.writeBoolean(false);
+            }
+            output.writeLong(END_OF_RUN);
+        } finally {
+            for (FileRun source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    private void spill() {
+        long[] sorted = sortBuffered();
+        File file = createRunFile();
+        try (DataOutputStream output = openRunOutput(file)) {
+            byte[] bytes = buffer.bytes();
+            int i = 0;
+            while (i < sorted.length) {
+                long lid = lids[(int) sorted[i]];
+                int j = i;
+                while (j < sorted.length && lids[(int) sorted[j]] == lid) {
+                    ++j;
+                }
+                output.writeLong(lid);
+                output.writeInt(j - i);
+                for (; i < j; ++i) {
+                    int idx = (int) sorted[i];
+                    int length = messageLength(idx);
+                    output.writeInt(length);
+                    output.write(bytes, offsets[idx], length);
+                }
+            }
+            output.writeLong(END_OF_RUN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info(
+                "spill {} messages of {} bytes to {}", count, getBufferedBytes(), file.getPath());
+        if (levels.isEmpty()) {
+            levels.add(new ArrayList<>());
+        }
+        levels.get(0).add(file);
+        buffer.reset();
+        count = 0;
+        for (int level = 0; level < levels.size(); ++level) {
+            List<File> files = levels.get(level);
+            if (files.size() < MERGE_FACTOR) {
+                break;
+            }
+            File merged = mergeRuns(files);
+            files.clear();
+            if (level + 1 == levels.size()) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level + 1).add(merged);
+        }
+    }
+
+    /**
+     * Merge the runs into one and delete them, the messages are copied as bytes.
+     *
+     * @return the merged run file.
+     */
+    private File mergeRuns(List<File> runFiles) {
+        File file = createRunFile();
+        List<FileRun> sources = new ArrayList<>(runFiles.size());
+        try (DataOutputStream output = openRunOutput(file)) {
+            for (File runFile : runFiles) {
+                sources.add(new FileRun(runFile));
+            }
+            while (true) {
+                long lid = END_OF_RUN;
+                for (FileRun source : sources) {
+                    if (source.lid >= 0 && (lid < 0 || source.lid < lid)) {
+                        lid = source.lid;
+                    }
+                }
+                if (lid < 0) {
+                    break;
+                }
+                for (FileRun source : sources) {
+                    while (source.lid == lid) {
+                        source.transfer(output);
+                    }
+                }
+            }
+            output.writeLong(END_OF_RUN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (FileRun source : sources) {
+                source.close();
+            }
+        }
+        logger.info("merge {} runs of spilled messages to {}", runFiles.size(), file.getPath());
+        deleteRunFiles(runFiles);
+        return file;
+    }
+
+    private void deleteRunFiles(List<File> runFiles) {
+        for (File runFile : runFiles) {
+            if (frozen.containsKey(runFile)) {
+                // deleted once the snapshots reading it are released
+                continue;
+            }
+            if (!runFile.delete()) {
+                logger.warn("fail to delete spilled messages {}", runFile);
+            }
+        }
+    }
+
+    private File createRunFile() {
+        try {
+            File file = File.createTempFile("messages-", ".run", spillDir);
+            file.deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DataOutputStream openRunOutput(File file) throws IOException {
+        return new DataOutputStream(
+                new LZ4BlockOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(file), BLOCK_SIZE),
+                        BLOCK_SIZE));
+    }
+
+    /**
+     * @return the indices of buffered messages in ascending lid, messages of the same lid keep
+     *     the order of arrival. Sorted as primitive keys of (lid, index), as lid of inner vertices
+     *     and the index are both less than 2^31.
+     */
+    private long[] sortBuffered() {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            keys[i] = lids[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; ++i) {
+            keys[i] &= 0xFFFFFFFFL;
+        }
+        return keys;
+    }
+
+    private int messageLength(int idx) {
+        return (idx + 1 < count ? offsets[idx + 1] : buffer.size()) - offsets[idx];
+    }
+
+    private List<Run> seekRuns(long lid) {
+        if (runs == null || lid < cursor) {
+            openRuns();
+        }
+        cursor = lid;
+        for (Run run : runs) {
+            while (run.lid >= 0 && run.lid < lid) {
+                run.skip();
+            }
+        }
+        return runs;
+    }
+
+    private void openRuns() {
+        closeRuns();
+        runs = new ArrayList<>(getSpilledRuns() + 1);
+        // older runs are in higher levels, so messages of a lid are read in the order of arrival
+        for (int level = levels.size() - 1; level >= 0; --level) {
+            for (File file : levels.get(level)) {
+                runs.add(new FileRun(file));
+            }
+        }
+        if (count > 0) {
+            runs.add(new MemoryRun(sortBuffered()));
+        }
+        cursor = 0;
+    }
+
+    private void closeRuns() {
+        if (runs != null) {
+            for (Run run : runs) {
+                run.close();
+            }
+            runs = null;
+        }
+    }
+
+    /**
+     * Messages grouped by lid in ascending order, {@link #lid} is the lid of the current group, or
+     * negative if all groups are consumed. Consecutive groups may have the same lid in a merged
+     * run, and {@link #read} consumes all of them.
+     */
+    private abstract class Run {
+        protected long lid = END_OF_RUN;
+
+        abstract void read(List<MSG_T> messages);
+
+        abstract void skip();
+
+        void close() {}
+
+        protected MSG_T readMessage(DataInputStream input) throws IOException {
+            MSG_T msg = messageFactory.get();
+            msg.readFields(input);
+            return msg;
+        }
+    }
+
+    private class FileRun extends Run {
+        private final DataInputStream input;
+        private int size;
+
+        FileRun(File file) {
+            try {
+                input =
+                        new DataInputStream(
+                                new LZ4BlockInputStream(
+                                        new BufferedInputStream(new FileInputStream(file))));
+                next();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void next() throws IOException {
+            lid = input.readLong();
+            size = lid < 0 ? 0 : input.readInt();
+        }
+
+        @Override
+        void read(List<MSG_T> messages) {
+            long current = lid;
+            try {
+                while (lid == current) {
+                    for (int i = 0; i < size; ++i) {
+                        input.readInt();
+                        messages.add(readMessage(input));
+                    }
+                    next();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Copy the current group to the output as bytes.
+         */
+        void transfer(DataOutputStream output) throws IOException {
+            output.writeLong(lid);
+            output.writeInt(size);
+            byte[] bytes = new byte[0];
+            for (int i = 0; i < size; ++i) {
+                int length = input.readInt();
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                input.readFully(bytes, 0, length);
+                output.writeInt(length);
+                output.write(bytes, 0, length);
+            }
+            next();
+        }
+
+        /**
+         * Copy the messages of the current group to the output as bytes, each prefixed by true.
+         *
+         * @return the buffer used in copying, to be reused.
+         */
+        byte[] copy(DataOutput output, byte[] bytes) throws IOException {
+            for (int i = 0; i < size; ++i) {
+                int length = input.readInt();
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                input.readFully(bytes, 0, length);
+                output.writeBoolean(true);
+                output.write(bytes, 0, length);
+            }
+            next();
+            return bytes;
+        }
+
+        @Override
+        void skip() {
+            try {
+                for (int i = 0; i < size; ++i) {
+                    input.skipBytes(input.readInt());
+                }
+                next();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                logger.warn("fail to close spilled messages", e);
+            }
+        }
+    }
+
+    private class MemoryRun extends Run {
+        private final long[] sorted;
+        private int pos;
+
+        MemoryRun(long[] sorted) {
+            this.sorted = sorted;
+            this.lid = sorted.length > 0 ? lids[(int) sorted[0]] : END_OF_RUN;
+        }
+
+        @Override
+        void read(List<MSG_T> messages) {
+            try {
+                while (pos < sorted.length && lids[(int) sorted[pos]] == lid) {
+                    int idx = (int) sorted[pos++];
+                    messages.add(
+                            readMessage(
+                                    new DataInputStream(
+                                            new ByteArrayInputStream(
+                                                    buffer.bytes(),
+                                                    offsets[idx],
+                                                    messageLength(idx)))));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            lid = pos < sorted.length ? lids[(int) sorted[pos]] : END_OF_RUN;
+        }
+
+        @Override
+        void skip() {
+            while (pos < sorted.length && lids[(int) sorted[pos]] == lid) {
+                ++pos;
+            }
+            lid = pos < sorted.length ? lids[(int) sorted[pos]] : END_OF_RUN;
+        }
+    }
+
+    /**
+     * Expose the internal buffer to avoid copying when spilling.
+     */
+    private static class BytesOutput extends ByteArrayOutputStream {
+        BytesOutput() {
+            super(INIT_CAPACITY * 8);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            if (buf.length > INIT_CAPACITY * 8) {
+                buf = new byte[INIT_CAPACITY * 8];
+            }
+        }
+    }
+}
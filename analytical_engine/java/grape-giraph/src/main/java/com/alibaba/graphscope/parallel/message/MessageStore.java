@@ -16,6 +16,7 @@
 
 package com.alibaba.graphscope.parallel.message;
 
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
 import com.alibaba.graphscope.stdcxx.FFIByteVector;
 
 import io.netty.buffer.ByteBuf;
@@ -68,6 +69,14 @@ public interface MessageStore<I extends WritableComparable, M extends Writable,
 
     Iterable<M> getMessages(Long lid);
 
+    /**
+     * Snapshot the messages, which are not added to before the store is cleared, i.e. the
+     * messages of current superstep. The snapshot writes the messages in ascending lid, each lid
+     * followed by its messages, each prefixed by true and the messages of a lid ended by false,
+     * and all ended by lid -1. Clearing the store does not affect a snapshot being written.
+     */
+    CheckpointSnapshot snapshot();
+
     /**
      * For a bytestream provided by FFIByteVector, read from it and digest its content.
      *
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.message;
+
+import static org.apache.giraph.conf.GiraphConstants.MESSAGE_SPILL_DIR;
+import static org.apache.giraph.conf.GiraphConstants.MESSAGE_SPILL_THRESHOLD;
+
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.giraph.utils.ReflectionUtils;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Message store bounded in memory, messages are spilled to local disk once the buffered bytes
+ * reach <code>giraph.messageSpillThreshold</code>, and streamed back in the order of lid during
+ * compute. See {@link MessageSpiller}.
+ */
+public class SpillableMessageStore<
+                OID_T extends WritableComparable, MSG_T extends Writable, GS_VID_T>
+        extends DefaultMessageStore<OID_T, MSG_T, GS_VID_T> {
+
+    private static Logger logger = LoggerFactory.getLogger(SpillableMessageStore.class);
+
+    private MessageSpiller<MSG_T> spiller;
+
+    public SpillableMessageStore(
+            IFragment<?, GS_VID_T, ?, ?> fragment,
+            ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf) {
+        super(fragment, conf);
+        long threshold = MESSAGE_SPILL_THRESHOLD.get(conf);
+        File spillDir;
+        try {
+            spillDir =
+                    Files.createTempDirectory(
+                                    new File(MESSAGE_SPILL_DIR.get(conf)).toPath(),
+                                    "messages-" + fragment.fid() + "-")
+                            .toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spillDir.deleteOnExit();
+        logger.info(
+                "worker [{}] spill messages to {} over {} bytes",
+                fragment.fid(),
+                spillDir,
+                threshold);
+        this.spiller =
+                new MessageSpiller<>(
+                        threshold,
+                        spillDir,
+                        () -> ReflectionUtils.newInstance(conf.getIncomingMessageValueClass()));
+    }
+
+    @Override
+    public void addLidMessage(GS_VID_T lid, MSG_T writable) {
+        spiller.add(((Number) lid).longValue(), writable);
+    }
+
+    @Override
+    public void swap(MessageStore<OID_T, MSG_T, GS_VID_T> other) {
+        if (other instanceof SpillableMessageStore) {
+            SpillableMessageStore<OID_T, MSG_T, GS_VID_T> otherStore =
+                    (SpillableMessageStore<OID_T, MSG_T, GS_VID_T>) other;
+            if (!this.fragment.equals(otherStore.fragment)) {
+                logger.error("fragment not the same");
+                return;
+            }
+            MessageSpiller<MSG_T> tmp = this.spiller;
+            this.spiller = otherStore.spiller;
+            otherStore.spiller = tmp;
+        } else {
+            logger.error("Can not swap with a non-spillableMessageStore obj");
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        spiller.clear();
+    }
+
+    @Override
+    public boolean anyMessageReceived() {
+        return !spiller.isEmpty();
+    }
+
+    @Override
+    public boolean messageAvailable(GS_VID_T lid) {
+        return spiller.contains(((Number) lid).longValue());
+    }
+
+    @Override
+    public boolean messageAvailable(Long lid) {
+        return spiller.contains(lid);
+    }
+
+    /**
+     * The messages are frozen in the spilled runs, which are streamed by the snapshot.
+     */
+    @Override
+    public CheckpointSnapshot snapshot() {
+        return spiller.freeze();
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(GS_VID_T lid) {
+        return spiller.get(((Number) lid).longValue());
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(Long lid) {
+        return spiller.get(lid);
+    }
+}
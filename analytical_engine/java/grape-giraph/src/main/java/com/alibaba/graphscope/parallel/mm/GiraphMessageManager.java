@@ -15,6 +15,9 @@
  */
 package com.alibaba.graphscope.parallel.mm;
 
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
+import com.alibaba.graphscope.parallel.message.MessageStore;
+
 import org.apache.giraph.graph.Vertex;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
@@ -50,6 +53,29 @@ public interface GiraphMessageManager<
      */
     boolean messageAvailable(long lid);
 
+    /**
+     * Put back a message received by this vertex in current superstep, used when restoring from
+     * a checkpoint.
+     *
+     * @param lid     local id.
+     * @param message message.
+     */
+    void restoreMessage(long lid, IN_MSG_T message);
+
+    /**
+     * Drop the messages received by all vertices in current superstep, used when restoring from a
+     * checkpoint.
+     */
+    void clearMessages();
+
+    /**
+     * Snapshot the messages received in current superstep, which are written to a checkpoint in
+     * background while computing the superstep, see {@link MessageStore#snapshot()}.
+     *
+     * @return the snapshot, to be released after written.
+     */
+    CheckpointSnapshot snapshotMessages();
+
     /**
      * Send one message to dstOid.
      *
@@ -19,6 +19,7 @@ import static org.apache.giraph.conf.GiraphConstants.MESSAGE_STORE_FACTORY_CLASS
 
 import com.alibaba.graphscope.communication.FFICommunicator;
 import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
 import com.alibaba.graphscope.parallel.DefaultMessageManager;
 import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.message.MessageStoreFactory;
@@ -140,6 +141,28 @@ public abstract class AbstractMessageManager<
         return currentIncomingMessageStore.messageAvailable(lid);
     }
 
+    @Override
+    public void restoreMessage(long lid, IN_MSG_T message) {
+        checkLid(lid);
+        GS_VID_T vid;
+        if (conf.getGrapeVidClass().equals(Long.class)) {
+            vid = (GS_VID_T) (Long) lid;
+        } else {
+            vid = (GS_VID_T) (Integer) (int) lid;
+        }
+        currentIncomingMessageStore.addLidMessage(vid, message);
+    }
+
+    @Override
+    public void clearMessages() {
+        currentIncomingMessageStore.clearAll();
+    }
+
+    @Override
+    public CheckpointSnapshot snapshotMessages() {
+        return currentIncomingMessageStore.snapshot();
+    }
+
     /**
      * As this is called after superStep and before presuperStep's swapping, we check
      * nextIncomingMessage Store.
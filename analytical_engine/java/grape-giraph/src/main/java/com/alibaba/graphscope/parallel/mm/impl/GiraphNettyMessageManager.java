@@ -216,6 +216,7 @@ public class GiraphNettyMessageManager<
     public void postApplication() {
         logger.info("Closing Client...");
         client.close();
+        outMessageCache.close();
         logger.info("Closing Server...");
         server.close();
     }
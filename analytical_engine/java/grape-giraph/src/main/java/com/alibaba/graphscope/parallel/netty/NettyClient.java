@@ -32,14 +32,13 @@ import com.google.common.collect.MapMaker;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.FixedLengthFrameDecoder;
 
 import org.apache.giraph.conf.GiraphConstants;
@@ -143,7 +142,8 @@ public class NettyClient {
 
     void startClient(final UncaughtExceptionHandler exceptionHandler) {
         workGroup =
-                new NioEventLoopGroup(
+                NettyUtils.createEventLoopGroup(
+                        conf,
                         1,
                         ThreadUtils.createThreadFactory(
                                 "netty-client-worker-" + networkMap.getSelfWorkerId() + "-%d",
@@ -158,13 +158,18 @@ public class NettyClient {
                 .option(ChannelOption.SO_RCVBUF, receiveBufferSize)
                 .option(ChannelOption.ALLOCATOR, conf.getNettyAllocator())
                 .group(workGroup)
-                .channel(NioSocketChannel.class)
+                .channel(NettyUtils.getSocketChannelClass(conf))
                 .handler(
                         new ChannelInitializer<SocketChannel>() {
                             @Override
                             protected void initChannel(SocketChannel ch) throws Exception {
                                 ChannelPipeline p = ch.pipeline();
                                 p.addLast(new FixedLengthFrameDecoder(RESPONSE_BYTES));
+                                ChannelHandler compressionEncoder =
+                                        NettyUtils.getCompressionEncoder(conf);
+                                if (Objects.nonNull(compressionEncoder)) {
+                                    p.addLast(compressionEncoder);
+                                }
                                 p.addLast(new WritableRequestEncoder(conf));
                                 //                        p.addLast(new
                                 // WritableRequestDecoder(conf));
@@ -340,8 +345,9 @@ public class NettyClient {
         if (dstFragId == workerId) {
             throw new IllegalStateException("Shouldn't reach here:" + dstFragId + ", " + workerId);
         }
-        //        ChannelFuture requestFuture = channels[dstFragId].writeAndFlush(request);
-        ChannelFuture requestFuture = channels[dstFragId].write(request);
+        // Flush immediately, the request is encoded and sent by the event loop while the caller
+        // goes on computing.
+        channels[dstFragId].writeAndFlush(request);
         //        pendingRequests.get(dstFragId).offer(requestFuture);
         // Must already been initialized to 0 in presuperstep.
         pendingRequests.put(dstFragId, pendingRequests.get(dstFragId) + 1);
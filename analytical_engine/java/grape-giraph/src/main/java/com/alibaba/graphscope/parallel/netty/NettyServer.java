@@ -29,6 +29,7 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.AdaptiveRecvByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
@@ -37,9 +38,7 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 
@@ -56,6 +55,7 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class NettyServer<OID_T extends WritableComparable, GS_VID_T> {
@@ -127,13 +127,15 @@ public class NettyServer<OID_T extends WritableComparable, GS_VID_T> {
         tcpBacklog = conf.getWorkerNum();
 
         bossGroup =
-                new NioEventLoopGroup(
+                NettyUtils.createEventLoopGroup(
+                        conf,
                         bossThreadSize,
                         ThreadUtils.createThreadFactory(
                                 "netty-server-boss-" + networkMap.getSelfWorkerId() + "-%d",
                                 exceptionHandler));
         workerGroup =
-                new NioEventLoopGroup(
+                NettyUtils.createEventLoopGroup(
+                        conf,
                         workerThreadSize,
                         ThreadUtils.createThreadFactory(
                                 "netty-server-worker-" + networkMap.getSelfWorkerId() + "-%d",
@@ -144,7 +146,7 @@ public class NettyServer<OID_T extends WritableComparable, GS_VID_T> {
         bootstrap = new ServerBootstrap();
         bootstrap
                 .group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(NettyUtils.getServerSocketChannelClass(conf))
                 .option(ChannelOption.SO_BACKLOG, tcpBacklog)
                 .option(ChannelOption.ALLOCATOR, conf.getNettyAllocator())
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
@@ -170,6 +172,11 @@ public class NettyServer<OID_T extends WritableComparable, GS_VID_T> {
                                                 ctx.fireChannelActive();
                                             }
                                         });
+                                ChannelHandler compressionDecoder =
+                                        NettyUtils.getCompressionDecoder(conf);
+                                if (Objects.nonNull(compressionDecoder)) {
+                                    p.addLast("compressionDecoder", compressionDecoder);
+                                }
                                 p.addLast(
                                         "requestFrameDecoder",
                                         new LengthFieldBasedFrameDecoder(
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.netty;
+
+import static org.apache.giraph.conf.GiraphConstants.NETTY_COMPRESSION_ALGORITHM;
+import static org.apache.giraph.conf.GiraphConstants.NETTY_USE_EPOLL;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.compression.Lz4FrameDecoder;
+import io.netty.handler.codec.compression.Lz4FrameEncoder;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Transport and compression shared by netty client and server. Native epoll transport is used on
+ * linux when it is available, which saves the copies and selector wakeups of nio.
+ */
+public class NettyUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyUtils.class);
+
+    public static final String LZ4 = "LZ4";
+
+    public static boolean useEpoll(ImmutableClassesGiraphConfiguration conf) {
+        if (!NETTY_USE_EPOLL.get(conf)) {
+            return false;
+        }
+        if (!Epoll.isAvailable()) {
+            logger.info(
+                    "Native epoll transport is not available, fallback to nio: {}",
+                    Epoll.unavailabilityCause().toString());
+            return false;
+        }
+        return true;
+    }
+
+    public static EventLoopGroup createEventLoopGroup(
+            ImmutableClassesGiraphConfiguration conf, int threads, ThreadFactory threadFactory) {
+        if (useEpoll(conf)) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        }
+        return new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    public static Class<? extends SocketChannel> getSocketChannelClass(
+            ImmutableClassesGiraphConfiguration conf) {
+        return useEpoll(conf) ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public static Class<? extends ServerSocketChannel> getServerSocketChannelClass(
+            ImmutableClassesGiraphConfiguration conf) {
+        return useEpoll(conf) ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * Compress the encoded requests on client side.
+     *
+     * @param conf configuration.
+     * @return null if compression is disabled.
+     */
+    public static ChannelHandler getCompressionEncoder(ImmutableClassesGiraphConfiguration conf) {
+        return useCompression(conf) ? new Lz4FrameEncoder() : null;
+    }
+
+    /**
+     * Decompress the requests on server side, before frame decoder.
+     *
+     * @param conf configuration.
+     * @return null if compression is disabled.
+     */
+    public static ChannelHandler getCompressionDecoder(ImmutableClassesGiraphConfiguration conf) {
+        return useCompression(conf) ? new Lz4FrameDecoder() : null;
+    }
+
+    private static boolean useCompression(ImmutableClassesGiraphConfiguration conf) {
+        String algorithm = NETTY_COMPRESSION_ALGORITHM.get(conf);
+        if (Objects.isNull(algorithm) || algorithm.isEmpty()) {
+            return false;
+        }
+        if (!LZ4.equalsIgnoreCase(algorithm)) {
+            throw new IllegalStateException("Unsupported compression algorithm: " + algorithm);
+        }
+        return true;
+    }
+}
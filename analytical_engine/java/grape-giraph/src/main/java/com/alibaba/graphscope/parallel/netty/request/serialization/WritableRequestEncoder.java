@@ -76,14 +76,18 @@ public class WritableRequestEncoder extends ChannelOutboundHandlerAdapter {
                             buf.readableBytes() - SIZE_OF_INT,
                             bufRequest.getRequestType().getClazz().getName());
                 }
-                //                buf.retain();
-                ctx.writeAndFlush(buf, promise); // can be released
-                //                promise.await();
+                // the buffer of message cache is handed over without copy, and released after
+                // being written. Flush is left to the caller.
+                ctx.write(buf, promise);
             } else {
                 if (requestSize == WritableRequest.UNKNOWN_SIZE) {
+                    // Grow by appending components instead of reallocating and copying the
+                    // written bytes, so no large buffer is reserved ahead for unknown size.
                     logger.debug(
-                            "Unknown size of request, using default size: {}", bufferStartingSize);
-                    buf = ctx.alloc().buffer(bufferStartingSize);
+                            "Unknown size of request, using composite buffer instead of default"
+                                + " size: {}",
+                            bufferStartingSize);
+                    buf = ctx.alloc().compositeDirectBuffer(Integer.MAX_VALUE);
                 } else {
                     requestSize += SIZE_OF_BYTE + SIZE_OF_INT;
                     buf = ctx.alloc().buffer(requestSize);
@@ -110,7 +114,7 @@ public class WritableRequestEncoder extends ChannelOutboundHandlerAdapter {
                             request.getRequestType().getClazz().getName(),
                             buf.readableBytes());
                 }
-                ctx.writeAndFlush(buf, promise);
+                ctx.write(buf, promise);
             }
         } else {
             logger.error("Encoder: got instance " + msg + ", expect a WritableRequest");
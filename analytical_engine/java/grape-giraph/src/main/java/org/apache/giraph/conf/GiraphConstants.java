@@ -362,6 +362,15 @@ public interface GiraphConstants {
     IntConfOption NETTY_SERVER_WORKER_THREADS =
             new IntConfOption("giraph.nettyServerWorkerThreads", 16, "Netty server worker threads");
 
+    /**
+     * Use native epoll transport in netty if available
+     */
+    BooleanConfOption NETTY_USE_EPOLL =
+            new BooleanConfOption(
+                    "giraph.useNettyEpoll",
+                    true,
+                    "Should netty use native epoll transport when it is available?");
+
     /**
      * Use the execution handler in netty on the client?
      */
@@ -521,6 +530,26 @@ public interface GiraphConstants {
                     MessageStoreFactory.class,
                     "Message Store Factory Class that is to be used");
 
+    /**
+     * Bytes of incoming messages buffered in memory before spilling to local disk, non-positive
+     * value disables spilling.
+     */
+    LongConfOption MESSAGE_SPILL_THRESHOLD =
+            new LongConfOption(
+                    "giraph.messageSpillThreshold",
+                    -1,
+                    "Spill the incoming messages to local disk once the buffered bytes "
+                            + "reach the threshold, -1 means keeping all messages in memory");
+
+    /**
+     * Local directory for the spilled messages.
+     */
+    StrConfOption MESSAGE_SPILL_DIR =
+            new StrConfOption(
+                    "giraph.messageSpillDir",
+                    System.getProperty("java.io.tmpdir"),
+                    "Local directory to spill the incoming messages to");
+
     BooleanConfOption USE_PRIMITIVE_MESSAGE_STORE =
             new BooleanConfOption(
                     "giraph.userPrimitiveMessageStore",
@@ -1451,6 +1480,17 @@ public interface GiraphConstants {
      */
     String RESTART_SUPERSTEP = "giraph.restartSuperstep";
 
+    /**
+     * Restart from the latest checkpoint which is available on all workers, if no superstep is
+     * specified by {@link #RESTART_SUPERSTEP}.
+     */
+    BooleanConfOption RESTART_FROM_LATEST_CHECKPOINT =
+            new BooleanConfOption(
+                    "giraph.restartFromLatestCheckpoint",
+                    false,
+                    "Restart from the latest checkpoint available on all workers, start from "
+                            + "scratch if there is none");
+
     /**
      * If application is restarted manually we need to specify job ID to restart from.
      */
@@ -85,6 +85,13 @@ public abstract class AbstractComputation<
         curStep++;
     }
 
+    /**
+     * Called by our framework when restoring from a checkpoint.
+     */
+    public void setCurStep(int step) {
+        curStep = step;
+    }
+
     /**
      * Prepare for computation. This method is executed exactly once prior to {@link
      * #compute(Vertex, Iterable)} being called for any of the vertices in the partition.
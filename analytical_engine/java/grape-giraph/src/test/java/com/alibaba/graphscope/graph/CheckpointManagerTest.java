@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph;
+
+import org.apache.hadoop.io.LongWritable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+public class CheckpointManagerTest {
+    private static final int FID = 1;
+
+    private File directory;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("checkpoint-manager-test").toFile();
+    }
+
+    @After
+    public void close() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void checkpointTest() {
+        CheckpointManager manager = new CheckpointManager(directory, 2, FID, true);
+        Assert.assertEquals(-1, manager.latestSuperstep());
+        for (long superstep = 0; superstep <= 8; ++superstep) {
+            if (manager.shouldCheckpoint(superstep)) {
+                LongWritable value = new LongWritable(superstep * 10);
+                manager.checkpoint(superstep, () -> value::write);
+            }
+        }
+        manager.close(false);
+        Assert.assertEquals(8, manager.latestSuperstep());
+        // only the latest two are kept
+        Assert.assertEquals(2, directory.listFiles().length);
+        Assert.assertTrue(manager.hasCheckpoint(6));
+        Assert.assertFalse(manager.hasCheckpoint(4));
+
+        CheckpointManager restarted = new CheckpointManager(directory, 2, FID, true);
+        LongWritable state = new LongWritable();
+        Assert.assertTrue(restarted.restore(6, state));
+        Assert.assertEquals(60, state.get());
+        Assert.assertTrue(restarted.restore(8, state));
+        Assert.assertEquals(80, state.get());
+        // checkpoints of other fragments are invisible
+        Assert.assertEquals(
+                -1, new CheckpointManager(directory, 2, FID + 1, true).latestSuperstep());
+
+        restarted.close(true);
+        Assert.assertEquals(0, directory.listFiles().length);
+    }
+
+    // the snapshot is taken before the checkpoint returns, and written in background
+    @Test
+    public void asyncTest() throws Exception {
+        CheckpointManager manager = new CheckpointManager(directory, 2, FID, true);
+        CountDownLatch writing = new CountDownLatch(1);
+        LongWritable value = new LongWritable(20);
+        manager.checkpoint(
+                2,
+                () -> {
+                    long snapshot = value.get();
+                    return out -> {
+                        try {
+                            writing.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                        out.writeLong(snapshot);
+                    };
+                });
+        // the computation goes on while writing
+        value.set(21);
+        Assert.assertFalse(manager.hasCheckpoint(2));
+        writing.countDown();
+        manager.waitPendingWrite();
+        Assert.assertTrue(manager.hasCheckpoint(2));
+        Assert.assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".tmp")).length);
+
+        LongWritable state = new LongWritable();
+        Assert.assertTrue(manager.restore(2, state));
+        Assert.assertEquals(20, state.get());
+        manager.close(true);
+    }
+
+    // a worker failing to read the latest checkpoint falls back to the previous one
+    @Test
+    public void corruptedTest() throws Exception {
+        CheckpointManager manager = new CheckpointManager(directory, 2, FID, true);
+        for (long superstep = 2; superstep <= 4; superstep += 2) {
+            LongWritable value = new LongWritable(superstep * 10);
+            manager.checkpoint(superstep, () -> value::write);
+        }
+        manager.waitPendingWrite();
+        File latest = new File(directory, "superstep-4-frag-" + FID);
+        byte[] bytes = Files.readAllBytes(latest.toPath());
+        Files.write(latest.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        LongWritable state = new LongWritable();
+        Assert.assertFalse(manager.restore(4, state));
+        Assert.assertEquals(2, manager.previousSuperstep(4));
+        Assert.assertTrue(manager.restore(2, state));
+        Assert.assertEquals(20, state.get());
+        Assert.assertEquals(-1, manager.previousSuperstep(2));
+        // a failed snapshot does not fail the job
+        manager.checkpoint(
+                6,
+                () ->
+                        out -> {
+                            throw new IOException("disk full");
+                        });
+        manager.waitPendingWrite();
+        Assert.assertFalse(manager.hasCheckpoint(6));
+        Assert.assertEquals(4, manager.latestSuperstep());
+        manager.close(true);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph;
+
+import com.alibaba.graphscope.graph.impl.AggregatorManagerImpl;
+import com.alibaba.graphscope.parallel.message.MessageSpiller;
+import com.alibaba.graphscope.parallel.mm.GiraphMessageManager;
+
+import org.apache.giraph.aggregators.LongSumAggregator;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.giraph.graph.AbstractComputation;
+import org.apache.giraph.worker.WorkerContext;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checkpoint the state of a worker to file and restore it into a fresh worker.
+ */
+public class CheckpointStateTest {
+    private static final int VERTICES = 200;
+    private static final long SUPERSTEP = 6;
+    /** Small enough to spill the messages of a few vertices. */
+    private static final long SPILL_THRESHOLD = 1024;
+
+    private File directory;
+    private File spillDir;
+    private ImmutableClassesGiraphConfiguration conf;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("checkpoint-state-test").toFile();
+        spillDir = Files.createTempDirectory("checkpoint-state-spill").toFile();
+        conf = Mockito.mock(ImmutableClassesGiraphConfiguration.class);
+        Mockito.when(conf.createVertexValue()).thenAnswer(invocation -> new DoubleWritable());
+        Mockito.doReturn(LongWritable.class).when(conf).getIncomingMessageValueClass();
+    }
+
+    @After
+    public void close() {
+        for (File dir : new File[] {directory, spillDir}) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void restoreTest() throws Exception {
+        // the worker to checkpoint
+        BitSet halted = new BitSet(VERTICES);
+        MapVertexDataManager vertexData = new MapVertexDataManager();
+        MessageSpiller<LongWritable> messages =
+                new MessageSpiller<>(SPILL_THRESHOLD, spillDir, LongWritable::new);
+        for (int lid = 0; lid < VERTICES; ++lid) {
+            vertexData.setVertexData(lid, new DoubleWritable(lid * 0.5));
+            if (lid % 3 == 0) {
+                halted.set(lid);
+            }
+        }
+        // messages to even vertices, in reverse order of lid to get multiple runs
+        for (long src = 0; src < 10; ++src) {
+            for (long lid = VERTICES - 2; lid >= 0; lid -= 2) {
+                messages.add(lid, new LongWritable(lid * 100 + src));
+            }
+        }
+        Assert.assertTrue(messages.getSpilledRuns() > 1);
+        AggregatorManager aggregators = newAggregatorManager();
+        aggregators.setAggregatedValue("sum", new LongWritable(42));
+        AbstractComputation computation = Mockito.mock(AbstractComputation.class);
+        Mockito.when(computation.getSuperstep()).thenReturn(SUPERSTEP);
+        WorkerContext workerContext = Mockito.mock(WorkerContext.class);
+        CheckpointState state =
+                new CheckpointState(
+                        conf,
+                        computation,
+                        workerContext,
+                        null,
+                        halted,
+                        vertexData,
+                        VERTICES,
+                        newMessageManager(messages),
+                        aggregators);
+
+        CheckpointManager manager = new CheckpointManager(directory, 2, 0, true);
+        CheckpointSnapshot snapshot = state.snapshot();
+        // computing the superstep while the snapshot is written, the messages are consumed and
+        // cleared by the end of the superstep
+        for (int lid = 0; lid < VERTICES; ++lid) {
+            messages.get(lid);
+            vertexData.setVertexData(lid, new DoubleWritable(-1));
+        }
+        halted.set(0, VERTICES);
+        messages.clear();
+        messages.add(1, new LongWritable(-1));
+        aggregators.setAggregatedValue("sum", new LongWritable(-1));
+        manager.checkpoint(SUPERSTEP, () -> snapshot);
+        manager.waitPendingWrite();
+        Assert.assertTrue(manager.hasCheckpoint(SUPERSTEP));
+        // the frozen runs are deleted once written
+        Assert.assertEquals(0, spillDir.listFiles((dir, name) -> name.endsWith(".run")).length);
+
+        // a fresh worker after failure, with messages restored from a broken checkpoint
+        BitSet restoredHalted = new BitSet(VERTICES);
+        restoredHalted.set(1);
+        MapVertexDataManager restoredVertexData = new MapVertexDataManager();
+        MessageSpiller<LongWritable> restoredMessages =
+                new MessageSpiller<>(SPILL_THRESHOLD, spillDir, LongWritable::new);
+        restoredMessages.add(1, new LongWritable(-1));
+        AggregatorManager restoredAggregators = newAggregatorManager();
+        AbstractComputation restoredComputation = Mockito.mock(AbstractComputation.class);
+        WorkerContext restoredWorkerContext = Mockito.mock(WorkerContext.class);
+        CheckpointState restoredState =
+                new CheckpointState(
+                        conf,
+                        restoredComputation,
+                        restoredWorkerContext,
+                        null,
+                        restoredHalted,
+                        restoredVertexData,
+                        VERTICES,
+                        newMessageManager(restoredMessages),
+                        restoredAggregators);
+        Assert.assertTrue(
+                new CheckpointManager(directory, 2, 0, true).restore(SUPERSTEP, restoredState));
+
+        Mockito.verify(restoredComputation).setCurStep((int) SUPERSTEP);
+        Mockito.verify(restoredWorkerContext).setCurStep((int) SUPERSTEP);
+        for (int lid = 0; lid < VERTICES; ++lid) {
+            Assert.assertEquals(lid % 3 == 0, restoredHalted.get(lid));
+        }
+        for (int lid = 0; lid < VERTICES; ++lid) {
+            Assert.assertEquals(lid * 0.5, restoredVertexData.getVertexData(lid).get(), 1e-9);
+        }
+        for (long lid = 0; lid < VERTICES; ++lid) {
+            if (lid % 2 == 1) {
+                Assert.assertFalse(restoredMessages.contains(lid));
+                continue;
+            }
+            Assert.assertTrue(restoredMessages.contains(lid));
+            long sum = 0;
+            int cnt = 0;
+            for (LongWritable msg : restoredMessages.get(lid)) {
+                sum += msg.get();
+                cnt += 1;
+            }
+            Assert.assertEquals(10, cnt);
+            Assert.assertEquals(lid * 100 * 10 + 45, sum);
+        }
+        Assert.assertEquals(
+                42L, ((LongWritable) restoredAggregators.getAggregatedValue("sum")).get());
+
+        messages.clear();
+        restoredMessages.clear();
+        manager.close(true);
+    }
+
+    private AggregatorManager newAggregatorManager() throws Exception {
+        AggregatorManager aggregators = new AggregatorManagerImpl(conf, 0, 1);
+        aggregators.registerPersistentAggregator("sum", LongSumAggregator.class);
+        return aggregators;
+    }
+
+    private GiraphMessageManager newMessageManager(MessageSpiller<LongWritable> messages) {
+        GiraphMessageManager messageManager = Mockito.mock(GiraphMessageManager.class);
+        Mockito.when(messageManager.messageAvailable(Mockito.anyLong()))
+                .thenAnswer(invocation -> messages.contains(invocation.getArgument(0)));
+        Mockito.when(messageManager.getMessages(Mockito.anyLong()))
+                .thenAnswer(invocation -> messages.get(invocation.getArgument(0)));
+        Mockito.doAnswer(
+                        invocation -> {
+                            messages.add(invocation.getArgument(0), invocation.getArgument(1));
+                            return null;
+                        })
+                .when(messageManager)
+                .restoreMessage(Mockito.anyLong(), Mockito.any());
+        Mockito.doAnswer(
+                        invocation -> {
+                            messages.clear();
+                            return null;
+                        })
+                .when(messageManager)
+                .clearMessages();
+        Mockito.when(messageManager.snapshotMessages()).thenAnswer(invocation -> messages.freeze());
+        return messageManager;
+    }
+
+    private static class MapVertexDataManager implements VertexDataManager<DoubleWritable> {
+        private final Map<Long, DoubleWritable> values = new HashMap<>();
+
+        @Override
+        public DoubleWritable getVertexData(long lid) {
+            return values.get(lid);
+        }
+
+        @Override
+        public void setVertexData(long lid, DoubleWritable vertexData) {
+            values.put(lid, vertexData);
+        }
+    }
+}
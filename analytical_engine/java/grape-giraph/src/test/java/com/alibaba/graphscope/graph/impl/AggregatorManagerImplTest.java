@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graph.impl;
+
+import org.apache.giraph.aggregators.BooleanAndAggregator;
+import org.apache.giraph.aggregators.DoubleMaxAggregator;
+import org.apache.giraph.aggregators.IntMinAggregator;
+import org.apache.giraph.aggregators.LongSumAggregator;
+import org.apache.giraph.aggregators.TextAppendAggregator;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Pack, reduce and unpack aggregator values of 3 workers the way postSuperstep exchanges them,
+ * without the native communicator.
+ */
+public class AggregatorManagerImplTest {
+    private static final int WORKERS = 3;
+
+    private AggregatorManagerImpl[] workers;
+
+    @Before
+    public void init() throws Exception {
+        ImmutableClassesGiraphConfiguration conf =
+                Mockito.mock(ImmutableClassesGiraphConfiguration.class);
+        workers = new AggregatorManagerImpl[WORKERS];
+        for (int i = 0; i < WORKERS; ++i) {
+            workers[i] = new AggregatorManagerImpl(conf, i, WORKERS);
+            // registered in different orders, values are packed in the order of names
+            if (i % 2 == 0) {
+                workers[i].registerAggregator("sum", LongSumAggregator.class);
+                workers[i].registerAggregator("max", DoubleMaxAggregator.class);
+                workers[i].registerAggregator("min", IntMinAggregator.class);
+                workers[i].registerAggregator("text", TextAppendAggregator.class);
+                workers[i].registerPersistentAggregator("and", BooleanAndAggregator.class);
+            } else {
+                workers[i].registerPersistentAggregator("and", BooleanAndAggregator.class);
+                workers[i].registerAggregator("text", TextAppendAggregator.class);
+                workers[i].registerAggregator("min", IntMinAggregator.class);
+                workers[i].registerAggregator("max", DoubleMaxAggregator.class);
+                workers[i].registerAggregator("sum", LongSumAggregator.class);
+            }
+            workers[i].aggregate("sum", new LongWritable(10L * (i + 1)));
+            workers[i].aggregate("max", new DoubleWritable(i * 1.5));
+            workers[i].aggregate("min", new IntWritable(5 - i));
+            workers[i].aggregate("text", new Text("w" + i));
+            workers[i].aggregate("and", new BooleanWritable(i != 1));
+        }
+    }
+
+    private static byte[] pack(AggregatorManagerImpl worker) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            worker.packValues(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void assertReduced(AggregatorManagerImpl worker) {
+        Assert.assertEquals(60L, ((LongWritable) worker.getAggregatedValue("sum")).get());
+        Assert.assertEquals(3.0, ((DoubleWritable) worker.getAggregatedValue("max")).get(), 0);
+        Assert.assertEquals(3, ((IntWritable) worker.getAggregatedValue("min")).get());
+        Assert.assertEquals("w0w1w2", worker.getAggregatedValue("text").toString());
+        Assert.assertFalse(((BooleanWritable) worker.getAggregatedValue("and")).get());
+    }
+
+    @Test
+    public void reduceTest() throws IOException {
+        for (int i = 1; i < WORKERS; ++i) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(pack(workers[i])));
+            workers[0].reduceValues(in);
+            Assert.assertEquals(0, in.available());
+        }
+        assertReduced(workers[0]);
+
+        byte[] reduced = pack(workers[0]);
+        for (int i = 1; i < WORKERS; ++i) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(reduced));
+            workers[i].unpackValues(in);
+            Assert.assertEquals(0, in.available());
+            assertReduced(workers[i]);
+        }
+        // unpacked values are not shared with the input, reducing one worker leaves others
+        workers[1].aggregate("sum", new LongWritable(1));
+        Assert.assertEquals(61L, ((LongWritable) workers[1].getAggregatedValue("sum")).get());
+        Assert.assertEquals(60L, ((LongWritable) workers[2].getAggregatedValue("sum")).get());
+    }
+
+    // values of other workers are reduced into the current ones, not kept by reference
+    @Test
+    public void reduceTwiceTest() throws IOException {
+        byte[] packed = pack(workers[1]);
+        workers[0].reduceValues(new DataInputStream(new ByteArrayInputStream(packed)));
+        workers[0].reduceValues(new DataInputStream(new ByteArrayInputStream(packed)));
+        Assert.assertEquals(50L, ((LongWritable) workers[0].getAggregatedValue("sum")).get());
+        Assert.assertEquals("w0w1w1", workers[0].getAggregatedValue("text").toString());
+        Assert.assertEquals(20L, ((LongWritable) workers[1].getAggregatedValue("sum")).get());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.cache;
+
+import static org.apache.giraph.conf.GiraphConstants.MAX_OUT_MSG_CACHE_SIZE;
+
+import com.alibaba.graphscope.parallel.cache.impl.ByteBufMessageCache;
+import com.alibaba.graphscope.parallel.netty.NettyClient;
+import com.alibaba.graphscope.parallel.netty.request.impl.ByteBufRequest;
+
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.hadoop.io.LongWritable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fragment 0 of 2, each message of gid and long takes 16 bytes after the 5 bytes header.
+ */
+public class ByteBufMessageCacheTest {
+    private static final int FNUM = 2;
+    private static final int CACHE_SIZE = 64;
+
+    /** Buffers in the order of allocation. */
+    private List<ByteBuf> allocated;
+
+    private List<ByteBufRequest> sent;
+    private ByteBufMessageCache<LongWritable, LongWritable, Long> cache;
+
+    @Before
+    public void init() {
+        allocated = new ArrayList<>();
+        ByteBufAllocator allocator =
+                new AbstractByteBufAllocator(true) {
+                    @Override
+                    protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+                        return Unpooled.buffer(initialCapacity, maxCapacity);
+                    }
+
+                    @Override
+                    protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+                        return Unpooled.directBuffer(initialCapacity, maxCapacity);
+                    }
+
+                    // record the buffer handed out, which may wrap the new one for leak detection
+                    @Override
+                    public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+                        ByteBuf buf = super.directBuffer(initialCapacity, maxCapacity);
+                        allocated.add(buf);
+                        return buf;
+                    }
+
+                    @Override
+                    public boolean isDirectBufferPooled() {
+                        return false;
+                    }
+                };
+        ImmutableClassesGiraphConfiguration conf =
+                Mockito.mock(ImmutableClassesGiraphConfiguration.class);
+        Mockito.when(conf.getInt(Mockito.eq(MAX_OUT_MSG_CACHE_SIZE.getKey()), Mockito.anyInt()))
+                .thenReturn(CACHE_SIZE);
+        Mockito.when(conf.getNettyAllocator()).thenReturn(allocator);
+
+        sent = new ArrayList<>();
+        NettyClient client = Mockito.mock(NettyClient.class);
+        Mockito.doAnswer(
+                        invocation -> {
+                            Assert.assertEquals(1, (int) invocation.getArgument(0));
+                            sent.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(client)
+                .sendMessage(Mockito.anyInt(), Mockito.any());
+        cache = new ByteBufMessageCache<>(FNUM, 0, client, conf);
+        Assert.assertEquals(FNUM, allocated.size());
+    }
+
+    @Test
+    public void zeroCopyTest() {
+        for (long i = 0; i < 3; ++i) {
+            cache.sendMessage(1, i, new LongWritable(i * 10));
+        }
+        Assert.assertTrue(sent.isEmpty());
+        // no room for the 4th message, the full buffer is sent as it is
+        cache.sendMessage(1, 3L, new LongWritable(30));
+        Assert.assertEquals(1, sent.size());
+        ByteBuf buf = sent.get(0).getBuffer();
+        Assert.assertSame(allocated.get(1), buf);
+        Assert.assertEquals(1, buf.refCnt());
+        Assert.assertEquals(5 + 3 * 16, buf.readableBytes());
+        for (long i = 0; i < 3; ++i) {
+            Assert.assertEquals(i, buf.getLong(5 + 16 * (int) i));
+            Assert.assertEquals(i * 10, buf.getLong(5 + 16 * (int) i + 8));
+        }
+        // the 4th message goes to a new buffer
+        Assert.assertEquals(FNUM + 1, allocated.size());
+        Assert.assertEquals(5 + 16, allocated.get(FNUM).readableBytes());
+
+        cache.flushMessage();
+        Assert.assertEquals(2, sent.size());
+        Assert.assertSame(allocated.get(FNUM), sent.get(1).getBuffer());
+        buf.release();
+        sent.get(1).getBuffer().release();
+    }
+
+    @Test
+    public void closeTest() {
+        cache.sendMessage(0, 0L, new LongWritable(0));
+        cache.sendMessage(1, 1L, new LongWritable(10));
+        cache.flushMessage();
+        Assert.assertEquals(1, sent.size());
+        ByteBuf sentBuf = sent.get(0).getBuffer();
+
+        cache.close();
+        // buffers still held by the cache are released, the sent one is owned by the request
+        for (ByteBuf buf : allocated) {
+            Assert.assertEquals(buf == sentBuf ? 1 : 0, buf.refCnt());
+        }
+        sentBuf.release();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.message;
+
+import com.alibaba.graphscope.graph.CheckpointSnapshot;
+
+import org.apache.hadoop.io.LongWritable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class MessageSpillerTest {
+    private static final long THRESHOLD = 64 * 1024;
+    private static final int VERTICES = 1000;
+
+    private File spillDir;
+    private MessageSpiller<LongWritable> spiller;
+
+    @Before
+    public void init() throws IOException {
+        spillDir = Files.createTempDirectory("message-spiller-test").toFile();
+        spiller = new MessageSpiller<>(THRESHOLD, spillDir, LongWritable::new);
+    }
+
+    @After
+    public void close() {
+        spiller.clear();
+        spillDir.delete();
+    }
+
+    /**
+     * Each vertex sends a message to all the vertices, which is the high fan-out case, the
+     * messages in memory never exceed the threshold.
+     */
+    @Test
+    public void spillTest() {
+        for (long src = 0; src < VERTICES; ++src) {
+            for (long dst = VERTICES - 1; dst >= 0; --dst) {
+                spiller.add(dst, new LongWritable(src));
+                Assert.assertTrue(spiller.getBufferedBytes() < THRESHOLD);
+            }
+        }
+        Assert.assertTrue(spiller.getSpilledRuns() > 1);
+        // hundreds of runs are spilled, merged in tiers of 32 runs
+        Assert.assertTrue(spiller.getSpilledRuns() < 2 * 32);
+        Assert.assertEquals(spiller.getSpilledRuns(), spillDir.listFiles().length);
+        long expectedSum = (long) VERTICES * (VERTICES - 1) / 2;
+        // skip the odd vertices as halted vertices without messages checked
+        for (long lid = 0; lid < VERTICES; lid += 2) {
+            Assert.assertTrue(spiller.contains(lid));
+            long sum = 0;
+            int cnt = 0;
+            for (LongWritable msg : spiller.get(lid)) {
+                // in the order of arrival across runs of all levels
+                Assert.assertEquals(cnt, msg.get());
+                sum += msg.get();
+                cnt += 1;
+            }
+            Assert.assertEquals(VERTICES, cnt);
+            Assert.assertEquals(expectedSum, sum);
+        }
+        Assert.assertFalse(spiller.contains(VERTICES));
+        // read again from the beginning
+        Assert.assertEquals(VERTICES, spiller.get(1).size());
+        spiller.clear();
+        Assert.assertTrue(spiller.isEmpty());
+        Assert.assertEquals(0, spillDir.listFiles().length);
+    }
+
+    @Test
+    public void memoryOnlyTest() {
+        spiller.add(3, new LongWritable(1));
+        spiller.add(1, new LongWritable(2));
+        spiller.add(3, new LongWritable(3));
+        Assert.assertEquals(0, spiller.getSpilledRuns());
+        Assert.assertFalse(spiller.contains(0));
+        Assert.assertEquals("[2]", spiller.get(1).toString());
+        Assert.assertFalse(spiller.contains(2));
+        Assert.assertEquals("[1, 3]", spiller.get(3).toString());
+        Assert.assertTrue(spiller.get(4).isEmpty());
+    }
+
+    /**
+     * The frozen runs are written after the messages are read, cleared and added again, as a
+     * checkpoint written in background while the superstep is computed.
+     */
+    @Test
+    public void freezeTest() throws IOException {
+        for (long src = 0; src < 100; ++src) {
+            for (long dst = VERTICES - 1; dst >= 0; dst -= 3) {
+                spiller.add(dst, new LongWritable(src));
+            }
+        }
+        Assert.assertTrue(spiller.getBufferedBytes() > 0);
+        CheckpointSnapshot snapshot = spiller.freeze();
+        // the buffered messages are spilled for the snapshot
+        Assert.assertEquals(0, spiller.getBufferedBytes());
+        int runs = spiller.getSpilledRuns();
+        Assert.assertTrue(runs > 1);
+        Assert.assertEquals(100, spiller.get(VERTICES - 1).size());
+        spiller.clear();
+        spiller.add(1, new LongWritable(-1));
+        // the frozen runs are kept until the snapshot is released
+        Assert.assertEquals(runs, spillDir.listFiles().length);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(new DataOutputStream(bytes));
+        snapshot.release();
+        Assert.assertEquals(0, spillDir.listFiles().length);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        LongWritable msg = new LongWritable();
+        for (long lid = (VERTICES - 1) % 3; lid < VERTICES; lid += 3) {
+            Assert.assertEquals(lid, input.readLong());
+            for (long src = 0; src < 100; ++src) {
+                Assert.assertTrue(input.readBoolean());
+                msg.readFields(input);
+                Assert.assertEquals(src, msg.get());
+            }
+            Assert.assertFalse(input.readBoolean());
+        }
+        Assert.assertEquals(-1L, input.readLong());
+        Assert.assertEquals(0, input.available());
+        Assert.assertEquals("[-1]", spiller.get(1).toString());
+    }
+}
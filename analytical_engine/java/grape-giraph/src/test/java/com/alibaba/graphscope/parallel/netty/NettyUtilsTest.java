@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.netty;
+
+import static org.apache.giraph.conf.GiraphConstants.NETTY_COMPRESSION_ALGORITHM;
+import static org.apache.giraph.conf.GiraphConstants.NETTY_USE_EPOLL;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.Executors;
+
+public class NettyUtilsTest {
+    private ImmutableClassesGiraphConfiguration conf;
+
+    @Before
+    public void init() {
+        conf = Mockito.mock(ImmutableClassesGiraphConfiguration.class);
+    }
+
+    private void setEpoll(boolean useEpoll) {
+        Mockito.when(conf.getBoolean(Mockito.eq(NETTY_USE_EPOLL.getKey()), Mockito.anyBoolean()))
+                .thenReturn(useEpoll);
+    }
+
+    private void setCompression(String algorithm) {
+        Mockito.when(conf.get(Mockito.eq(NETTY_COMPRESSION_ALGORITHM.getKey()), Mockito.any()))
+                .thenReturn(algorithm);
+    }
+
+    @Test
+    public void nioTest() {
+        setEpoll(false);
+        Assert.assertFalse(NettyUtils.useEpoll(conf));
+        Assert.assertEquals(NioSocketChannel.class, NettyUtils.getSocketChannelClass(conf));
+        Assert.assertEquals(
+                NioServerSocketChannel.class, NettyUtils.getServerSocketChannelClass(conf));
+        EventLoopGroup group =
+                NettyUtils.createEventLoopGroup(conf, 1, Executors.defaultThreadFactory());
+        Assert.assertTrue(group instanceof NioEventLoopGroup);
+        group.shutdownGracefully();
+    }
+
+    @Test
+    public void epollTest() {
+        setEpoll(true);
+        // fallback to nio if native transport is not available on this platform
+        boolean available = Epoll.isAvailable();
+        Assert.assertEquals(available, NettyUtils.useEpoll(conf));
+        Assert.assertEquals(
+                available ? EpollSocketChannel.class : NioSocketChannel.class,
+                NettyUtils.getSocketChannelClass(conf));
+        Assert.assertEquals(
+                available ? EpollServerSocketChannel.class : NioServerSocketChannel.class,
+                NettyUtils.getServerSocketChannelClass(conf));
+        EventLoopGroup group =
+                NettyUtils.createEventLoopGroup(conf, 1, Executors.defaultThreadFactory());
+        Assert.assertEquals(available, group instanceof EpollEventLoopGroup);
+        group.shutdownGracefully();
+    }
+
+    @Test
+    public void noCompressionTest() {
+        setCompression("");
+        Assert.assertNull(NettyUtils.getCompressionEncoder(conf));
+        Assert.assertNull(NettyUtils.getCompressionDecoder(conf));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unsupportedCompressionTest() {
+        setCompression("snappy");
+        NettyUtils.getCompressionEncoder(conf);
+    }
+
+    @Test
+    public void lz4Test() {
+        setCompression("lz4");
+        EmbeddedChannel client = new EmbeddedChannel(NettyUtils.getCompressionEncoder(conf));
+        EmbeddedChannel server = new EmbeddedChannel(NettyUtils.getCompressionDecoder(conf));
+
+        byte[] bytes = new byte[64 * 1024];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (i % 7);
+        }
+        Assert.assertTrue(client.writeOutbound(Unpooled.wrappedBuffer(bytes)));
+        Assert.assertTrue(client.finish());
+        ByteBuf compressed;
+        int compressedBytes = 0;
+        while ((compressed = client.readOutbound()) != null) {
+            compressedBytes += compressed.readableBytes();
+            server.writeInbound(compressed);
+        }
+        Assert.assertTrue(compressedBytes < bytes.length);
+
+        ByteBuf decompressed = Unpooled.buffer(bytes.length);
+        ByteBuf buf;
+        while ((buf = server.readInbound()) != null) {
+            decompressed.writeBytes(buf);
+            buf.release();
+        }
+        Assert.assertEquals(Unpooled.wrappedBuffer(bytes), decompressed);
+        decompressed.release();
+        server.finishAndReleaseAll();
+    }
+}
@@ -108,6 +108,7 @@ public class GraphXParallelAdaptorContext<VDATA_T, EDATA_T, MSG>
 
     private static Logger logger =
             LoggerFactory.getLogger(GraphXParallelAdaptorContext.class.getName());
+    private static final long DEFAULT_PIPELINE_FLUSH_THRESHOLD = 4 * 1024 * 1024;
     private GraphXConf<VDATA_T, EDATA_T, MSG> conf;
     private GraphXParallelPIE<VDATA_T, EDATA_T, MSG> graphXProxy;
     private String appName, vineyardSocket;
@@ -175,6 +176,13 @@ public class GraphXParallelAdaptorContext<VDATA_T, EDATA_T, MSG>
 
         try {
             graphXProxy.init(frag, messageManager, maxIterations, myParallelism, workerIdToFidStr);
+            if (jsonObject.getBooleanValue("pipelined_superstep")) {
+                long flushThreshold =
+                        jsonObject.containsKey("pipeline_flush_threshold")
+                                ? jsonObject.getLongValue("pipeline_flush_threshold")
+                                : DEFAULT_PIPELINE_FLUSH_THRESHOLD;
+                graphXProxy.enablePipelinedSuperstep(flushThreshold);
+            }
         } catch (Exception e) {
             e.printStackTrace();
             throw new IllegalStateException("initialization error");
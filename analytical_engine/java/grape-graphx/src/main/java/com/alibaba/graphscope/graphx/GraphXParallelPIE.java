@@ -111,6 +111,12 @@ public class GraphXParallelPIE<VD, ED, MSG_T> {
             ieOffsetBeginArray,
             ieOffsetEndArray;
     private int[] fid2WorkerId;
+    /**
+     * In pipelined superstep, messages to outer vertices are flushed as buffers fill during
+     * iterateEdge, and the received buffers are digested while vprog runs on outer vertices.
+     */
+    private boolean pipelined = false;
+
     private MessageInBuffer.Factory bufferFactory = FFITypeFactoryhelper.newMessageInBuffer();
 
     public PrimitiveArray<VD> getNewVdataArray() {
@@ -220,6 +226,17 @@ public class GraphXParallelPIE<VD, ED, MSG_T> {
                 (time01 - time00) / 1000000);
     }
 
+    /**
+     * Should be called after init.
+     *
+     * @param flushThreshold bytes of the buffer to one dst fragment to trigger a flush.
+     */
+    public void enablePipelinedSuperstep(long flushThreshold) {
+        messageStore.enablePipelinedFlush(messageManager, fid2WorkerId, flushThreshold);
+        pipelined = messageStore.isPipelinedFlushEnabled();
+        logger.info("Frag {} pipelined superstep: {}", fid, pipelined);
+    }
+
     long getId(int lid) {
         return lid2Oid[lid];
     }
@@ -401,10 +418,18 @@ public class GraphXParallelPIE<VD, ED, MSG_T> {
         nextSet.clearAll();
         bitsetTime += System.nanoTime();
 
-        receiveTime -= System.nanoTime();
-        ///////////////////////////////////// Receive message////////////////////
-        receiveMessage();
-        receiveTime += System.nanoTime();
+        if (pipelined) {
+            // vprog on outer vertices doesn't depend on the received messages, which are all
+            // sent to inner vertices.
+            receiveTime -= System.nanoTime();
+            receiveMessageAndRunOuterVProg();
+            receiveTime += System.nanoTime();
+        } else {
+            receiveTime -= System.nanoTime();
+            ///////////////////////////////////// Receive message////////////////////
+            receiveMessage();
+            receiveTime += System.nanoTime();
+        }
 
         if (curSet.cardinality() > 0) {
             logger.debug(
@@ -413,7 +438,9 @@ public class GraphXParallelPIE<VD, ED, MSG_T> {
                     projectedFragment.fid(),
                     curSet.cardinality());
             vprogTime -= System.nanoTime();
-            parallelExecute((begin, end, threadId) -> runVProg(begin, end, false), verticesNum);
+            parallelExecute(
+                    (begin, end, threadId) -> runVProg(begin, end, false),
+                    pipelined ? innerVerticesNum : verticesNum);
             vprogTime += System.nanoTime();
 
             msgSendTime -= System.nanoTime();
@@ -491,6 +518,52 @@ public class GraphXParallelPIE<VD, ED, MSG_T> {
         }
     }
 
+    /**
+     * Digest received buffers and run vprog on outer vertices in the same pass. Threads take
+     * buffers first, and move on to ranges of outer vertices once no buffer is left, so the threads
+     * are not idle when there are fewer buffers than threads.
+     */
+    private void receiveMessageAndRunOuterVProg() {
+        AtomicInteger getter = new AtomicInteger(innerVerticesNum);
+        CountDownLatch countDownLatch = new CountDownLatch(numCores);
+        for (int tid = 0; tid < numCores; ++tid) {
+            final int finalTid = tid;
+            executorService.execute(
+                    () -> {
+                        MessageInBuffer messageInBuffer = bufferFactory.create();
+                        FFIByteVector tmpVector =
+                                (FFIByteVector) FFIByteVectorFactory.INSTANCE.create();
+                        long bytesOfReceivedMsg = 0;
+                        while (messageManager.getMessageInBuffer(messageInBuffer)) {
+                            messageInBuffer.getPureMessage(tmpVector);
+                            tmpVector.touch();
+                            messageStore.digest(iFragment, tmpVector, curSet, finalTid);
+                            bytesOfReceivedMsg += tmpVector.size();
+                        }
+                        logger.debug(
+                                "Frag [{}] Totally received {} bytes",
+                                projectedFragment.fid(),
+                                bytesOfReceivedMsg);
+                        int begin, end;
+                        while (true) {
+                            begin = Math.min(getter.getAndAdd(BATCH_SIZE), verticesNum);
+                            end = Math.min(begin + BATCH_SIZE, verticesNum);
+                            if (begin >= end) {
+                                break;
+                            }
+                            runVProg(begin, end, false);
+                        }
+                        countDownLatch.countDown();
+                    });
+        }
+        try {
+            countDownLatch.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+            executorService.shutdown();
+        }
+    }
+
     /**
      * Receive message sent via sendMsgThoughIEdges.
      */
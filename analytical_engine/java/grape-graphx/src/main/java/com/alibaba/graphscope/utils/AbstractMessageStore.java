@@ -42,6 +42,7 @@ import java.util.concurrent.ExecutorService;
 
 public abstract class AbstractMessageStore<T> implements MessageStore<T> {
     Logger logger = LoggerFactory.getLogger(AbstractMessageStore.class.getName());
+    private static final int DIGEST_LOCK_STRIPES = 1024;
 
     protected Vertex<Long> tmpVertex[];
     protected ThreadSafeBitSet nextSet;
@@ -49,6 +50,11 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
     protected FFIByteVectorOutputStream[] outputStream;
     protected GraphXConf<?, ?, ?> conf;
     protected int ivnum;
+    /**
+     * Buffers are digested by several threads, a message is merged into the value of its vertex
+     * under the lock of that vertex's stripe.
+     */
+    private Object[] digestLocks;
 
     abstract void threadSafeSet(int ind, T value);
 
@@ -70,8 +76,31 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
         idParser = new IdParser(fnum);
         this.nextSet = nextSet;
         this.conf = conf;
+        digestLocks = new Object[DIGEST_LOCK_STRIPES];
+        for (int i = 0; i < DIGEST_LOCK_STRIPES; ++i) {
+            digestLocks[i] = new Object();
+        }
     }
 
+    protected Object digestLock(int lid) {
+        return digestLocks[lid & (DIGEST_LOCK_STRIPES - 1)];
+    }
+
+    /** Only supported by stores of primitive messages, others keep flushing after iterateEdge. */
+    @Override
+    public void enablePipelinedFlush(
+            ParallelMessageManager messageManager, int[] fid2WorkerId, long flushThreshold) {
+        logger.warn("Pipelined flush is not supported by {}, skip", getClass().getSimpleName());
+    }
+
+    @Override
+    public boolean isPipelinedFlushEnabled() {
+        return false;
+    }
+
+    /** Called with each message to an outer vertex, when pipelined flush is enabled. */
+    void pipelineMessage(IFragment<Long, Long, ?, ?> fragment, int lid, T msg, int threadId) {}
+
     /**
      * we assume this function is thread safe
      */
@@ -150,6 +179,11 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
                 threadSafeSet(lid, msg._2());
                 nextSet.set(lid);
             }
+            if (lid >= ivnum && isPipelinedFlushEnabled()) {
+                // The outer vertex still keeps the combined message locally, and the partially
+                // combined messages sent in the pipeline are merged again by the remote owner.
+                pipelineMessage(fragment, lid, msg._2(), threadId);
+            }
             if (lid > ivnum) {
                 logger.info(
                         "add message to outer vertex {}, ivnum {}, msg {}", lid, ivnum, msg._2());
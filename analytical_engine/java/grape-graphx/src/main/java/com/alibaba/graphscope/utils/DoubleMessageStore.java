@@ -22,8 +22,12 @@ import com.alibaba.graphscope.graphx.GraphXConf;
 import com.alibaba.graphscope.parallel.MessageInBuffer;
 import com.alibaba.graphscope.parallel.message.DoubleMsg;
 import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
+import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
 import com.alibaba.graphscope.stdcxx.FFIByteVector;
 
+import it.unimi.dsi.fastutil.ints.Int2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,13 +35,15 @@ import scala.Function2;
 
 import java.io.IOException;
 
-public class DoubleMessageStore extends AbstractMessageStore<Double> {
+public class DoubleMessageStore extends PrimitiveMessageStore<Double> {
 
     private Logger logger = LoggerFactory.getLogger(DoubleMessageStore.class.getName());
 
     private AtomicDoubleArrayWrapper values;
     private Function2<Double, Double, Double> mergeMessage;
     protected DoubleMsg[] msgWrappers;
+    /** Messages to outer vertices combined by lid, indexed by thread id and dst fid. */
+    private Int2DoubleOpenHashMap[][] pending;
 
     public DoubleMessageStore(
             int len,
@@ -105,6 +111,51 @@ public class DoubleMessageStore extends AbstractMessageStore<Double> {
         logger.info("Frag [{}] try to send {} msg to outer vertices", fragment.fid(), cnt);
     }
 
+    @Override
+    int messageBytes() {
+        return 8;
+    }
+
+    @Override
+    void initPending(int numCores, int fnum) {
+        pending = new Int2DoubleOpenHashMap[numCores][fnum];
+        for (int i = 0; i < numCores; ++i) {
+            for (int j = 0; j < fnum; ++j) {
+                pending[i][j] = new Int2DoubleOpenHashMap();
+            }
+        }
+    }
+
+    @Override
+    int combinePending(int threadId, int dstFid, int lid, Double msg) {
+        Int2DoubleOpenHashMap map = pending[threadId][dstFid];
+        if (map.containsKey(lid)) {
+            map.put(lid, mergeMessage.apply(map.get(lid), msg).doubleValue());
+        } else {
+            map.put(lid, msg.doubleValue());
+        }
+        return map.size();
+    }
+
+    @Override
+    void writePending(
+            IFragment<Long, Long, ?, ?> fragment,
+            int threadId,
+            int dstFid,
+            FFIByteVectorOutputStream stream)
+            throws IOException {
+        Int2DoubleOpenHashMap map = pending[threadId][dstFid];
+        Vertex<Long> vertex = tmpVertex[threadId];
+        IntIterator iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            int lid = iterator.nextInt();
+            vertex.setValue((long) lid);
+            stream.writeLong(fragment.getOuterVertexGid(vertex));
+            stream.writeDouble(map.get(lid));
+        }
+        map.clear();
+    }
+
     @Override
     public void digest(
             IFragment<Long, Long, ?, ?> fragment,
@@ -133,11 +184,13 @@ public class DoubleMessageStore extends AbstractMessageStore<Double> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 double msg = inputStream.readDouble();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                synchronized (digestLock(lid)) {
+                    if (curSet.get(lid)) {
+                        values.set(lid, mergeMessage.apply(values.get(lid), msg));
+                    } else {
+                        values.set(lid, msg);
+                        curSet.set(lid);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -22,8 +22,12 @@ import com.alibaba.graphscope.graphx.GraphXConf;
 import com.alibaba.graphscope.parallel.MessageInBuffer;
 import com.alibaba.graphscope.parallel.message.IntMsg;
 import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
+import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
 import com.alibaba.graphscope.stdcxx.FFIByteVector;
 
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,13 +35,15 @@ import scala.Function2;
 
 import java.io.IOException;
 
-public class IntMessageStore extends AbstractMessageStore<Integer> {
+public class IntMessageStore extends PrimitiveMessageStore<Integer> {
 
     private Logger logger = LoggerFactory.getLogger(IntMessageStore.class.getName());
 
     private AtomicIntegerArrayWrapper values;
     private Function2<Integer, Integer, Integer> mergeMessage;
     protected IntMsg[] msgWrappers;
+    /** Messages to outer vertices combined by lid, indexed by thread id and dst fid. */
+    private Int2IntOpenHashMap[][] pending;
 
     public IntMessageStore(
             int len,
@@ -101,6 +107,51 @@ public class IntMessageStore extends AbstractMessageStore<Integer> {
         logger.debug("Frag [{}] try to send {} msg to outer vertices", fragment.fid(), cnt);
     }
 
+    @Override
+    int messageBytes() {
+        return 4;
+    }
+
+    @Override
+    void initPending(int numCores, int fnum) {
+        pending = new Int2IntOpenHashMap[numCores][fnum];
+        for (int i = 0; i < numCores; ++i) {
+            for (int j = 0; j < fnum; ++j) {
+                pending[i][j] = new Int2IntOpenHashMap();
+            }
+        }
+    }
+
+    @Override
+    int combinePending(int threadId, int dstFid, int lid, Integer msg) {
+        Int2IntOpenHashMap map = pending[threadId][dstFid];
+        if (map.containsKey(lid)) {
+            map.put(lid, mergeMessage.apply(map.get(lid), msg).intValue());
+        } else {
+            map.put(lid, msg.intValue());
+        }
+        return map.size();
+    }
+
+    @Override
+    void writePending(
+            IFragment<Long, Long, ?, ?> fragment,
+            int threadId,
+            int dstFid,
+            FFIByteVectorOutputStream stream)
+            throws IOException {
+        Int2IntOpenHashMap map = pending[threadId][dstFid];
+        Vertex<Long> vertex = tmpVertex[threadId];
+        IntIterator iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            int lid = iterator.nextInt();
+            vertex.setValue((long) lid);
+            stream.writeLong(fragment.getOuterVertexGid(vertex));
+            stream.writeInt(map.get(lid));
+        }
+        map.clear();
+    }
+
     @Override
     public void digest(
             IFragment<Long, Long, ?, ?> fragment,
@@ -122,11 +173,13 @@ public class IntMessageStore extends AbstractMessageStore<Integer> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 int msg = inputStream.readInt();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                synchronized (digestLock(lid)) {
+                    if (curSet.get(lid)) {
+                        values.set(lid, mergeMessage.apply(values.get(lid), msg));
+                    } else {
+                        values.set(lid, msg);
+                        curSet.set(lid);
+                    }
                 }
             }
         } catch (Exception e) {
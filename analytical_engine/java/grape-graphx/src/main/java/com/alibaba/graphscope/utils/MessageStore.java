@@ -55,6 +55,16 @@ public interface MessageStore<T> extends PrimitiveArray<T> {
             int dstLid)
             throws InterruptedException;
 
+    /**
+     * Send messages to outer vertices during iterateEdge, once the buffer of a dst fragment exceeds
+     * the threshold, so that network transfer overlaps with the edge iteration. Messages to the
+     * same outer vertex are combined per thread before sending, and the receiver merges them.
+     */
+    void enablePipelinedFlush(
+            ParallelMessageManager messageManager, int[] fid2WorkerId, long flushThreshold);
+
+    boolean isPipelinedFlushEnabled();
+
     void flushMessages(
             ThreadSafeBitSet nextSet,
             ParallelMessageManager messageManager,
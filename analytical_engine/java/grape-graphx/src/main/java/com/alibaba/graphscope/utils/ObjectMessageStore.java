@@ -160,11 +160,13 @@ public class ObjectMessageStore<T> extends AbstractMessageStore<T> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 T msg = (T) inputStream.readObject();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                synchronized (digestLock(lid)) {
+                    if (curSet.get(lid)) {
+                        values.set(lid, mergeMessage.apply(values.get(lid), msg));
+                    } else {
+                        values.set(lid, msg);
+                        curSet.set(lid);
+                    }
                 }
             }
         } catch (Exception e) {
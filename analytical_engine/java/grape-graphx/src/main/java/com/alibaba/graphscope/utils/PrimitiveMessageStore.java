@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graphx.GraphXConf;
+import com.alibaba.graphscope.parallel.ParallelMessageManager;
+import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Message store of fixed-size messages, which supports pipelined flush. Each thread combines the
+ * messages to outer vertices per lid in its own pending buffer of the dst fragment, and the buffer
+ * is written and sent once the combined messages reach the flush threshold.
+ */
+public abstract class PrimitiveMessageStore<T> extends AbstractMessageStore<T> {
+    private Logger logger = LoggerFactory.getLogger(PrimitiveMessageStore.class.getName());
+
+    /** Indexed by thread id and dst fid, only touched by the owner thread. */
+    private FFIByteVectorOutputStream[][] threadOutputStream;
+
+    private ParallelMessageManager pipelineMessageManager;
+    private int[] pipelineFid2WorkerId;
+    private int pipelineFlushCount;
+
+    public PrimitiveMessageStore(
+            int fnum, int numCores, ThreadSafeBitSet nextSet, GraphXConf<?, ?, ?> conf, int ivnum) {
+        super(fnum, numCores, nextSet, conf, ivnum);
+    }
+
+    /** Bytes of one serialized message, without the gid. */
+    abstract int messageBytes();
+
+    /** Create the empty pending buffers, indexed by thread id and dst fid. */
+    abstract void initPending(int numCores, int fnum);
+
+    /**
+     * Merge the message into the pending buffer of the thread and dst fragment.
+     *
+     * @return number of distinct lids in the pending buffer.
+     */
+    abstract int combinePending(int threadId, int dstFid, int lid, T msg);
+
+    /**
+     * Write the pending messages as gid and value, in the format of writeMessageToStream, and clear
+     * the pending buffer.
+     */
+    abstract void writePending(
+            IFragment<Long, Long, ?, ?> fragment,
+            int threadId,
+            int dstFid,
+            FFIByteVectorOutputStream stream)
+            throws IOException;
+
+    @Override
+    public void enablePipelinedFlush(
+            ParallelMessageManager messageManager, int[] fid2WorkerId, long flushThreshold) {
+        int numCores = tmpVertex.length;
+        int fnum = outputStream.length;
+        threadOutputStream = new FFIByteVectorOutputStream[numCores][fnum];
+        for (int i = 0; i < numCores; ++i) {
+            for (int j = 0; j < fnum; ++j) {
+                threadOutputStream[i][j] = new FFIByteVectorOutputStream();
+            }
+        }
+        initPending(numCores, fnum);
+        this.pipelineFid2WorkerId = fid2WorkerId;
+        long flushCount = flushThreshold / (8 + messageBytes());
+        this.pipelineFlushCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE, flushCount));
+        this.pipelineMessageManager = messageManager;
+        logger.info(
+                "Enable pipelined flush, threshold {} bytes, {} messages",
+                flushThreshold,
+                pipelineFlushCount);
+    }
+
+    @Override
+    public boolean isPipelinedFlushEnabled() {
+        return pipelineMessageManager != null;
+    }
+
+    @Override
+    void pipelineMessage(IFragment<Long, Long, ?, ?> fragment, int lid, T msg, int threadId) {
+        Vertex<Long> vertex = tmpVertex[threadId];
+        vertex.setValue((long) lid);
+        int dstFid = idParser.getFragId(fragment.getOuterVertexGid(vertex));
+        if (combinePending(threadId, dstFid, lid, msg) >= pipelineFlushCount) {
+            sendPending(fragment, threadId, dstFid);
+        }
+    }
+
+    @Override
+    public void flushMessages(
+            ThreadSafeBitSet nextSet,
+            ParallelMessageManager messageManager,
+            IFragment<Long, Long, ?, ?> fragment,
+            int[] fid2WorkerId,
+            ExecutorService executorService)
+            throws IOException {
+        if (pipelineMessageManager == null) {
+            super.flushMessages(nextSet, messageManager, fragment, fid2WorkerId, executorService);
+            return;
+        }
+        // send the rest of each thread, via the channel of that thread.
+        CountDownLatch countDownLatch = new CountDownLatch(threadOutputStream.length);
+        for (int i = 0; i < threadOutputStream.length; ++i) {
+            final int tid = i;
+            executorService.execute(
+                    () -> {
+                        for (int dstFid = 0; dstFid < fragment.fnum(); ++dstFid) {
+                            sendPending(fragment, tid, dstFid);
+                        }
+                        countDownLatch.countDown();
+                    });
+        }
+        try {
+            countDownLatch.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+            executorService.shutdown();
+        }
+    }
+
+    /** Send the pending messages to dst fragment, while other threads keep iterating. */
+    private void sendPending(IFragment<Long, Long, ?, ?> fragment, int threadId, int dstFid) {
+        FFIByteVectorOutputStream stream = threadOutputStream[threadId][dstFid];
+        try {
+            writePending(fragment, threadId, dstFid, stream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error in writing messages to frag " + dstFid, e);
+        }
+        stream.finishSetting();
+        if (stream.getVector().size() > 0) {
+            pipelineMessageManager.sendToFragment(
+                    pipelineFid2WorkerId[dstFid], stream.getVector(), threadId);
+        }
+        stream.reset();
+    }
+}
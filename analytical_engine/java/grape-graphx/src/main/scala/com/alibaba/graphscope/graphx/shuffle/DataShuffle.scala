@@ -1,8 +1,8 @@
 package com.alibaba.graphscope.graphx.shuffle
 
 import org.apache.spark.internal.Logging
-import org.apache.spark.util.collection.OpenHashSet
 
+import java.io.{Externalizable, ObjectInput, ObjectOutput, ObjectStreamException}
 import scala.reflect.ClassTag
 
 abstract class DataShuffle[VD, ED](
@@ -26,15 +26,17 @@ abstract class DataShuffle[VD, ED](
   def getEdataIterator: Iterator[ED]
 }
 
-/** The shuffled graph data are with default values, no custom value
+/** The shuffled graph data are with default values, no custom value. The oids are sorted and distinct, which
+  * makes them cheap to merge at the receiver side. When serialized, the data is written in a columnar form by
+  * [[DefaultDataShuffleBlock]].
   */
 class DefaultDataShuffle[VD: ClassTag, ED: ClassTag](
     dstPid: Int,
-    val oids: OpenHashSet[Long],
+    val oids: Array[Long],
     srcOids: Array[Long],
     dstOids: Array[Long],
-    defaultVD: VD,
-    defaultED: ED
+    val defaultVD: VD,
+    val defaultED: ED
 ) extends DataShuffle[VD, ED](dstPid, srcOids, dstOids)
     with Logging {
 
@@ -44,9 +46,50 @@ class DefaultDataShuffle[VD: ClassTag, ED: ClassTag](
 
   override def getEdataIterator: Iterator[ED] = Iterator(defaultED)
 
-  override def numVertices: Long = oids.size
+  override def numVertices: Long = oids.length
 
   override def numEdges: Long = srcOids.length
+
+  def vdClassTag: ClassTag[VD] = implicitly[ClassTag[VD]]
+
+  def edClassTag: ClassTag[ED] = implicitly[ClassTag[ED]]
+
+  @throws[ObjectStreamException]
+  private def writeReplace(): AnyRef = new DefaultDataShuffleBlock[VD, ED](this)
+}
+
+/** Serialized form of [[DefaultDataShuffle]], see [[ShuffleCodec]].
+  */
+class DefaultDataShuffleBlock[VD, ED](private var shuffle: DefaultDataShuffle[VD, ED]) extends Externalizable {
+
+  def this() = this(null)
+
+  override def writeExternal(out: ObjectOutput): Unit = {
+    out.writeInt(shuffle.dstPid)
+    out.writeObject(shuffle.vdClassTag)
+    out.writeObject(shuffle.edClassTag)
+    out.writeObject(shuffle.defaultVD)
+    out.writeObject(shuffle.defaultED)
+    ShuffleCodec.writeSortedOids(out, shuffle.oids)
+    ShuffleCodec.writeEdges(out, shuffle.srcOids, shuffle.dstOids)
+  }
+
+  override def readExternal(in: ObjectInput): Unit = {
+    val dstPid     = in.readInt()
+    val vdClassTag = in.readObject().asInstanceOf[ClassTag[VD]]
+    val edClassTag = in.readObject().asInstanceOf[ClassTag[ED]]
+    val defaultVD  = in.readObject().asInstanceOf[VD]
+    val defaultED  = in.readObject().asInstanceOf[ED]
+    val oids       = ShuffleCodec.readSortedOids(in)
+    val (srcOids, dstOids) = ShuffleCodec.readEdges(in)
+    shuffle = new DefaultDataShuffle[VD, ED](dstPid, oids, srcOids, dstOids, defaultVD, defaultED)(
+      vdClassTag,
+      edClassTag
+    )
+  }
+
+  @throws[ObjectStreamException]
+  private[shuffle] def readResolve(): AnyRef = shuffle
 }
 
 class CustomDataShuffle[VD: ClassTag, ED: ClassTag](
@@ -19,6 +19,7 @@ package com.alibaba.graphscope.graphx.shuffle
 import org.apache.spark.internal.Logging
 import org.apache.spark.util.collection.OpenHashSet
 
+import java.io.{Externalizable, ObjectInput, ObjectOutput, ObjectStreamException}
 import java.util.concurrent.ArrayBlockingQueue
 import scala.collection.mutable.ArrayBuffer
 import scala.reflect.ClassTag
@@ -38,6 +39,63 @@ class EdgeShuffle[VD: ClassTag, ED: ClassTag](
 
   override def toString: String =
     "EdgeShuffleV2:{from " + fromPid + ",to " + dstPid + ",srcs: " + srcs.length + ",dsts: " + dsts.length
+
+  def vdClassTag: ClassTag[VD] = implicitly[ClassTag[VD]]
+
+  def edClassTag: ClassTag[ED] = implicitly[ClassTag[ED]]
+
+  @throws[ObjectStreamException]
+  private def writeReplace(): AnyRef = new EdgeShuffleBlock[VD, ED](this)
+}
+
+/** Serialized form of [[EdgeShuffle]], oids and edges are written by [[ShuffleCodec]], while the attributes
+  * are left to java serialization.
+  */
+class EdgeShuffleBlock[VD, ED](private var shuffle: EdgeShuffle[VD, ED]) extends Externalizable {
+
+  def this() = this(null)
+
+  override def writeExternal(out: ObjectOutput): Unit = {
+    out.writeInt(shuffle.fromPid)
+    out.writeInt(shuffle.dstPid)
+    out.writeObject(shuffle.vdClassTag)
+    out.writeObject(shuffle.edClassTag)
+    ShuffleCodec.writeOids(out, shuffle.oidArray)
+    if (shuffle.oidSet == null) {
+      ShuffleCodec.writeSortedOids(out, null)
+    } else {
+      ShuffleCodec.writeSortedOids(out, ShuffleCodec.toSortedArray(shuffle.oidSet))
+    }
+    ShuffleCodec.writeEdges(out, shuffle.srcs, shuffle.dsts)
+    out.writeObject(shuffle.attrs)
+    out.writeObject(shuffle.vertexAttrs)
+  }
+
+  override def readExternal(in: ObjectInput): Unit = {
+    val fromPid    = in.readInt()
+    val dstPid     = in.readInt()
+    val vdClassTag = in.readObject().asInstanceOf[ClassTag[VD]]
+    val edClassTag = in.readObject().asInstanceOf[ClassTag[ED]]
+    val oidArray   = ShuffleCodec.readOids(in)
+    val setOids    = ShuffleCodec.readSortedOids(in)
+    val oidSet = if (setOids == null) {
+      null
+    } else {
+      val set = new OpenHashSet[Long](math.max(setOids.length, 1))
+      setOids.foreach(set.add)
+      set
+    }
+    val (srcs, dsts) = ShuffleCodec.readEdges(in)
+    val attrs        = in.readObject().asInstanceOf[Array[ED]]
+    val vertexAttrs  = in.readObject().asInstanceOf[Array[VD]]
+    shuffle = new EdgeShuffle[VD, ED](fromPid, dstPid, oidArray, oidSet, srcs, dsts, attrs, vertexAttrs)(
+      vdClassTag,
+      edClassTag
+    )
+  }
+
+  @throws[ObjectStreamException]
+  private[shuffle] def readResolve(): AnyRef = shuffle
 }
 
 class EdgeShuffleReceived[ED: ClassTag] extends Logging {
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graphx.shuffle
+
+import org.apache.spark.util.collection.OpenHashSet
+
+import java.io.{DataInput, DataOutput}
+
+/** Columnar encoding of the oids and edges moved in shuffles. Oids and edge endpoints are written as delta
+  * encoded var-longs in a single pass, so no element is boxed and the payload is much smaller than the plain
+  * long arrays or the backing arrays of an OpenHashSet.
+  */
+object ShuffleCodec {
+
+  def toSortedArray(set: OpenHashSet[Long]): Array[Long] = {
+    val res  = new Array[Long](set.size)
+    val iter = set.iterator
+    var i    = 0
+    while (i < res.length) {
+      res(i) = iter.next()
+      i += 1
+    }
+    java.util.Arrays.sort(res)
+    res
+  }
+
+  def countDistinctSorted(sorted: Array[Long]): Int = {
+    var cnt = 0
+    var i   = 0
+    while (i < sorted.length) {
+      if (i == 0 || sorted(i) != sorted(i - 1)) {
+        cnt += 1
+      }
+      i += 1
+    }
+    cnt
+  }
+
+  /** Write sorted distinct oids, null is allowed. */
+  def writeSortedOids(out: DataOutput, oids: Array[Long]): Unit = {
+    if (oids == null) {
+      writeVarLong(out, -1L)
+    } else {
+      writeVarLong(out, oids.length)
+      var prev = 0L
+      var i    = 0
+      while (i < oids.length) {
+        if (i == 0) {
+          writeVarLong(out, zigZag(oids(i)))
+        } else {
+          writeVarLong(out, oids(i) - prev)
+        }
+        prev = oids(i)
+        i += 1
+      }
+    }
+  }
+
+  def readSortedOids(in: DataInput): Array[Long] = {
+    val length = readVarLong(in)
+    if (length < 0) {
+      null
+    } else {
+      val oids = new Array[Long](length.toInt)
+      var prev = 0L
+      var i    = 0
+      while (i < oids.length) {
+        if (i == 0) {
+          prev = unZigZag(readVarLong(in))
+        } else {
+          prev += readVarLong(in)
+        }
+        oids(i) = prev
+        i += 1
+      }
+      oids
+    }
+  }
+
+  /** Write oids in any order as zig-zag deltas of the previous one, null is allowed. */
+  def writeOids(out: DataOutput, oids: Array[Long]): Unit = {
+    if (oids == null) {
+      writeVarLong(out, -1L)
+    } else {
+      writeVarLong(out, oids.length)
+      writeDeltas(out, oids)
+    }
+  }
+
+  def readOids(in: DataInput): Array[Long] = {
+    val length = readVarLong(in)
+    if (length < 0) {
+      null
+    } else {
+      readDeltas(in, length.toInt)
+    }
+  }
+
+  /** Write edges as the zig-zag deltas of srcs followed by those of dsts, edge order is kept. Edges are mostly
+    * clustered by src, which makes the src deltas a single byte. Null arrays are allowed, as long as srcs and
+    * dsts are both null.
+    */
+  def writeEdges(out: DataOutput, srcs: Array[Long], dsts: Array[Long]): Unit = {
+    if (srcs == null) {
+      require(dsts == null, "should be both null")
+      writeVarLong(out, -1L)
+    } else {
+      require(srcs.length == dsts.length, s"Edge src and dst array neq ${srcs.length}, ${dsts.length}")
+      writeVarLong(out, srcs.length)
+      writeDeltas(out, srcs)
+      writeDeltas(out, dsts)
+    }
+  }
+
+  def readEdges(in: DataInput): (Array[Long], Array[Long]) = {
+    val length = readVarLong(in)
+    if (length < 0) {
+      (null, null)
+    } else {
+      val srcs = readDeltas(in, length.toInt)
+      val dsts = readDeltas(in, length.toInt)
+      (srcs, dsts)
+    }
+  }
+
+  /** Bytes of the chunks deltas are written in, see [[writeDeltas]]. */
+  private val ChunkSize = 1 << 16
+
+  /** Bytes of the longest var-long. */
+  private val MaxVarLongSize = 10
+
+  /** Deltas are encoded into a byte array and written in chunks of whole var-longs, each prefixed by its byte
+    * length. The array grows up to [[ChunkSize]] as needed, so it is bounded no matter how many oids there are.
+    */
+  private def writeDeltas(out: DataOutput, oids: Array[Long]): Unit = {
+    var buf  = new Array[Byte](math.min(oids.length.toLong * 2 + 16, ChunkSize.toLong).toInt)
+    var pos  = 0
+    var prev = 0L
+    var i    = 0
+    while (i < oids.length) {
+      if (buf.length - pos < MaxVarLongSize) {
+        if (buf.length < ChunkSize) {
+          buf = java.util.Arrays.copyOf(buf, math.min(buf.length.toLong * 2, ChunkSize.toLong).toInt)
+        } else {
+          writeVarLong(out, pos)
+          out.write(buf, 0, pos)
+          pos = 0
+        }
+      }
+      var value = zigZag(oids(i) - prev)
+      while ((value & ~0x7fL) != 0L) {
+        buf(pos) = ((value & 0x7f) | 0x80).toByte
+        pos += 1
+        value >>>= 7
+      }
+      buf(pos) = value.toByte
+      pos += 1
+      prev = oids(i)
+      i += 1
+    }
+    if (pos > 0) {
+      writeVarLong(out, pos)
+      out.write(buf, 0, pos)
+    }
+  }
+
+  private def readDeltas(in: DataInput, length: Int): Array[Long] = {
+    val oids = new Array[Long](length)
+    var buf  = Array.emptyByteArray
+    var size = 0
+    var pos  = 0
+    var prev = 0L
+    var i    = 0
+    while (i < length) {
+      if (pos == size) {
+        size = readVarLong(in).toInt
+        if (buf.length < size) {
+          buf = new Array[Byte](size)
+        }
+        in.readFully(buf, 0, size)
+        pos = 0
+      }
+      var value = 0L
+      var shift = 0
+      var b     = 0
+      do {
+        b = buf(pos)
+        pos += 1
+        value |= (b & 0x7fL) << shift
+        shift += 7
+      } while ((b & 0x80) != 0)
+      prev += unZigZag(value)
+      oids(i) = prev
+      i += 1
+    }
+    oids
+  }
+
+  def writeVarLong(out: DataOutput, v: Long): Unit = {
+    var value = v
+    while ((value & ~0x7fL) != 0L) {
+      out.writeByte(((value & 0x7f) | 0x80).toInt)
+      value >>>= 7
+    }
+    out.writeByte(value.toInt)
+  }
+
+  def readVarLong(in: DataInput): Long = {
+    var result = 0L
+    var shift  = 0
+    var b      = 0
+    do {
+      b = in.readByte()
+      result |= (b & 0x7fL) << shift
+      shift += 7
+    } while ((b & 0x80) != 0)
+    result
+  }
+
+  private def zigZag(v: Long): Long = (v << 1) ^ (v >> 63)
+
+  private def unZigZag(v: Long): Long = (v >>> 1) ^ -(v & 1)
+}
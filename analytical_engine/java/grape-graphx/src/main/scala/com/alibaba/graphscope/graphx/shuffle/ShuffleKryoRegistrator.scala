@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graphx.shuffle
+
+import com.esotericsoftware.kryo.io.{Input, KryoObjectInput, KryoObjectOutput, Output}
+import com.esotericsoftware.kryo.{Kryo, Serializer}
+import org.apache.spark.serializer.KryoRegistrator
+
+/** Kryo ignores writeReplace and Externalizable, and would write the shuffles field by field, including the
+  * backing arrays of the OpenHashSet. The serializers registered here write the same blocks as java
+  * serialization does. [[org.apache.spark.sql.GSSparkSession]] adds the registrator to spark.kryo.registrator.
+  */
+class ShuffleKryoRegistrator extends KryoRegistrator {
+  override def registerClasses(kryo: Kryo): Unit = {
+    kryo.register(classOf[EdgeShuffle[_, _]], new EdgeShuffleKryoSerializer)
+    kryo.register(classOf[DefaultDataShuffle[_, _]], new DefaultDataShuffleKryoSerializer)
+  }
+}
+
+class EdgeShuffleKryoSerializer extends Serializer[EdgeShuffle[_, _]] {
+  override def write(kryo: Kryo, output: Output, shuffle: EdgeShuffle[_, _]): Unit = {
+    new EdgeShuffleBlock(shuffle.asInstanceOf[EdgeShuffle[Any, Any]])
+      .writeExternal(new KryoObjectOutput(kryo, output))
+  }
+
+  override def read(kryo: Kryo, input: Input, clazz: Class[EdgeShuffle[_, _]]): EdgeShuffle[_, _] = {
+    val block = new EdgeShuffleBlock[Any, Any]()
+    block.readExternal(new KryoObjectInput(kryo, input))
+    block.readResolve().asInstanceOf[EdgeShuffle[_, _]]
+  }
+}
+
+class DefaultDataShuffleKryoSerializer extends Serializer[DefaultDataShuffle[_, _]] {
+  override def write(kryo: Kryo, output: Output, shuffle: DefaultDataShuffle[_, _]): Unit = {
+    new DefaultDataShuffleBlock(shuffle.asInstanceOf[DefaultDataShuffle[Any, Any]])
+      .writeExternal(new KryoObjectOutput(kryo, output))
+  }
+
+  override def read(
+      kryo: Kryo,
+      input: Input,
+      clazz: Class[DefaultDataShuffle[_, _]]
+  ): DefaultDataShuffle[_, _] = {
+    val block = new DefaultDataShuffleBlock[Any, Any]()
+    block.readExternal(new KryoObjectInput(kryo, input))
+    block.readResolve().asInstanceOf[DefaultDataShuffle[_, _]]
+  }
+}
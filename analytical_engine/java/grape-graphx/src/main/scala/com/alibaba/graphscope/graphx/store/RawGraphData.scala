@@ -4,22 +4,20 @@ import com.alibaba.graphscope.graphx.shuffle.{
   CustomDataShuffle,
   DataShuffle,
   DataShuffleHolder,
-  DefaultDataShuffle
+  DefaultDataShuffle,
+  ShuffleCodec
 }
 import com.alibaba.graphscope.graphx.store.RawGraphData.{
   mergeInnerOids,
-  mergeInnerOpenHashSet,
+  mergeSortedOids,
   processCustomShufflesToEdges,
   processDefaultShufflesToEdges
 }
-import com.alibaba.graphscope.graphx.utils.GrapeUtils.hashSet2Vector
 import com.alibaba.graphscope.graphx.utils.{ExecutorUtils, GrapeUtils, ScalaFFIFactory}
 import com.alibaba.graphscope.graphx.{GraphXRawData, VineyardClient}
 import com.alibaba.graphscope.stdcxx.StdVector
 import org.apache.spark.internal.Logging
-import org.apache.spark.util.collection.OpenHashSet
 
-import java.util.concurrent.ArrayBlockingQueue
 import java.util.concurrent.atomic.AtomicInteger
 import scala.reflect.ClassTag
 
@@ -51,13 +49,12 @@ class RawGraphData[VD: ClassTag, ED: ClassTag](
     val sampleShuffle = shuffles(0)
     val (mergedOidVector, mergedVdataVector): (StdVector[Long], StdVector[VD]) = sampleShuffle match {
       case defaultShuffle: DefaultDataShuffle[VD, ED] => {
-        val mergedSet = mergeInnerOpenHashSet(
+        val oids = mergeSortedOids(
           shuffles.map(_.asInstanceOf[DefaultDataShuffle[VD, ED]].oids)
         )
         log.info(
-          s"Got ${mergedSet.size} vertices from ${shuffles.size} shuffles after merge"
+          s"Got ${oids.size()} vertices from ${shuffles.size} shuffles after merge"
         )
-        val oids = hashSet2Vector(mergedSet)
 
         val vdatas = GrapeUtils.buildVectorWithDefaultValue[VD](
           oids.size().toInt,
@@ -142,47 +139,37 @@ class RawGraphData[VD: ClassTag, ED: ClassTag](
 
 object RawGraphData extends Logging {
 
-  def mergeInnerOpenHashSet(
-      oidSets: Array[OpenHashSet[Long]]
-  ): OpenHashSet[Long] = {
-    val t0    = System.nanoTime()
-    val queue = new ArrayBlockingQueue[OpenHashSet[Long]](8 * oidSets.length)
-    for (i <- oidSets.indices) {
-      require(queue.offer(oidSets(i)))
+  /** Merge sorted oid arrays received from all shuffles, the distinct oids are written to the vector
+    * directly.
+    */
+  def mergeSortedOids(oidArrays: Array[Array[Long]]): StdVector[Long] = {
+    val t0      = System.nanoTime()
+    val rawSize = oidArrays.map(_.length.toLong).sum
+    require(rawSize <= Int.MaxValue, s"too many oids in one partition ${rawSize}")
+    val all    = new Array[Long](rawSize.toInt)
+    var offset = 0
+    for (oids <- oidArrays) {
+      System.arraycopy(oids, 0, all, offset, oids.length)
+      offset += oids.length
     }
-    val coreNum = Math.min(queue.size(), 64)
-    log.info(
-      s"using ${coreNum} threads for local inner vertex join, queue size ${queue.size()}"
-    )
-    val threads = new Array[Thread](coreNum)
-    for (i <- 0 until coreNum) {
-      threads(i) = new Thread() {
-        override def run(): Unit = {
-          while (queue.size() > 1) {
-            val tuple = this.synchronized {
-              if (queue.size() > 1) {
-                val first  = queue.take()
-                val second = queue.take()
-                if (first.size < second.size) {
-                  (second, first)
-                } else (first, second)
-              } else null
-            }
-            if (tuple != null) {
-              require(queue.offer(tuple._1.union(tuple._2)))
-            }
-          }
-        }
+    java.util.Arrays.parallelSort(all)
+    val distinct = ShuffleCodec.countDistinctSorted(all)
+    val vector   = ScalaFFIFactory.newLongVector
+    vector.resize(distinct)
+    var i = 0
+    var j = 0
+    while (i < all.length) {
+      if (i == 0 || all(i) != all(i - 1)) {
+        vector.set(j, all(i))
+        j += 1
       }
-      threads(i).start()
-    }
-    for (i <- 0 until coreNum) {
-      threads(i).join()
+      i += 1
     }
-    require(queue.size() == 1)
     val t1 = System.nanoTime()
-    log.info(s"merge openHashSet cost ${(t1 - t0) / 1000000} ms")
-    queue.take()
+    log.info(
+      s"merge ${oidArrays.length} sorted oid arrays, raw size ${rawSize}, distinct ${distinct}, cost ${(t1 - t0) / 1000000} ms"
+    )
+    vector
   }
 
   def mergeInnerOids[VD: ClassTag](
@@ -178,7 +178,7 @@ class GSSparkSession(sparkContext: SparkContext) extends SparkSession(sparkConte
               ind,
               new DefaultDataShuffle[Int, Int](
                 ind,
-                pid2Oids(ind),
+                ShuffleCodec.toSortedArray(pid2Oids(ind)),
                 pid2src(ind).trim().array,
                 pid2Dst(ind).trim().array,
                 defaultVD = 1,
@@ -319,6 +319,17 @@ object GSSparkSession extends Logging {
     defaultSession.set(null)
   }
 
+  /** Append [[ShuffleKryoRegistrator]] to the kryo registrators, so that the shuffled graph data are written in
+    * the columnar form when kryo is the serializer.
+    */
+  private[sql] def addKryoRegistrator(conf: SparkConf): Unit = {
+    val registrator  = classOf[ShuffleKryoRegistrator].getName
+    val registrators = conf.get("spark.kryo.registrator", "").split(",").map(_.trim).filter(_.nonEmpty)
+    if (!registrators.contains(registrator)) {
+      conf.set("spark.kryo.registrator", (registrators :+ registrator).mkString(","))
+    }
+  }
+
   /** Returns the currently active SparkSession, otherwise the default one. If there is no default SparkSession,
     * throws an exception.
     *
@@ -839,6 +850,7 @@ object GSSparkSession extends Logging {
             sparkConf.setAppName(java.util.UUID.randomUUID().toString)
           }
 
+          addKryoRegistrator(sparkConf)
           SparkContext.getOrCreate(sparkConf)
           // Do not update `SparkConf` for existing `SparkContext`, as it's shared by all sessions.
         }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graphx.utils.IdParser;
+import com.alibaba.graphscope.parallel.ParallelMessageManager;
+import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
+import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
+import com.alibaba.graphscope.stdcxx.FFIByteVector;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import scala.runtime.AbstractFunction2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Fragment 0 of 2, with inner vertices [0, 10) and outer vertices [10, 20) owned by fragment 1. */
+public class DoubleMessageStoreTest {
+    private static final int FNUM = 2;
+    private static final int IVNUM = 10;
+    private static final int TVNUM = 20;
+    private static final int NUM_CORES = 4;
+
+    private IdParser idParser = new IdParser(FNUM);
+    private IFragment<Long, Long, ?, ?> fragment;
+    private ParallelMessageManager messageManager;
+    /** Messages received by fragment 1, merged by gid. */
+    private Map<Long, Double> received;
+    /** Number of vectors sent to fragment 1. */
+    private int sentVectors;
+
+    private AbstractFunction2<Double, Double, Double> sum =
+            new AbstractFunction2<Double, Double, Double>() {
+                @Override
+                public Double apply(Double a, Double b) {
+                    return a + b;
+                }
+            };
+
+    @Before
+    public void setUp() {
+        fragment = Mockito.mock(IFragment.class);
+        Mockito.when(fragment.fid()).thenReturn(0);
+        Mockito.when(fragment.fnum()).thenReturn(FNUM);
+        Mockito.when(fragment.getVerticesNum()).thenReturn((long) TVNUM);
+        Mockito.when(fragment.getInnerVerticesNum()).thenReturn((long) IVNUM);
+        Mockito.when(fragment.getOuterVertexGid(Mockito.any()))
+                .thenAnswer(
+                        invocation -> {
+                            Vertex<Long> vertex = (Vertex<Long>) invocation.getArguments()[0];
+                            return idParser.generateGlobalId(1, vertex.getValue() - IVNUM);
+                        });
+        Mockito.when(fragment.gid2Vertex(Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(
+                        invocation -> {
+                            long gid = (Long) invocation.getArguments()[0];
+                            Vertex<Long> vertex = (Vertex<Long>) invocation.getArguments()[1];
+                            vertex.setValue(idParser.getLocalId(gid));
+                            return idParser.getFragId(gid) == 0;
+                        });
+
+        received = new HashMap<>();
+        sentVectors = 0;
+        messageManager = Mockito.mock(ParallelMessageManager.class);
+        Mockito.doAnswer(
+                        invocation -> {
+                            Assert.assertEquals(1, invocation.getArguments()[0]);
+                            FFIByteVector vector = (FFIByteVector) invocation.getArguments()[1];
+                            FFIByteVectorInputStream inputStream =
+                                    new FFIByteVectorInputStream(vector);
+                            synchronized (this) {
+                                sentVectors += 1;
+                                while (inputStream.available() > 0) {
+                                    long gid = inputStream.readLong();
+                                    double msg = inputStream.readDouble();
+                                    received.merge(gid, msg, Double::sum);
+                                }
+                            }
+                            return null;
+                        })
+                .when(messageManager)
+                .sendToFragment(Mockito.anyInt(), Mockito.any(), Mockito.anyInt());
+    }
+
+    private DoubleMessageStore newStore() {
+        ThreadSafeBitSet nextSet =
+                new ThreadSafeBitSet(ThreadSafeBitSet.DEFAULT_LOG2_SEGMENT_SIZE_IN_BITS, TVNUM);
+        return new DoubleMessageStore(TVNUM, FNUM, NUM_CORES, IVNUM, sum, nextSet, null);
+    }
+
+    private long outerGid(int lid) {
+        return idParser.generateGlobalId(1, lid - IVNUM);
+    }
+
+    @Test
+    public void testPipelinedMessagesAreCombined() throws Exception {
+        DoubleMessageStore store = newStore();
+        store.enablePipelinedFlush(messageManager, new int[] {0, 1}, 1 << 20);
+        Assert.assertTrue(store.isPipelinedFlushEnabled());
+        for (int i = 0; i < 100; ++i) {
+            store.pipelineMessage(fragment, 12, 1.0, 0);
+            store.pipelineMessage(fragment, 15, 2.0, 0);
+            store.pipelineMessage(fragment, 12, 3.0, 1);
+        }
+        Assert.assertEquals(0, sentVectors);
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_CORES);
+        store.flushMessages(null, messageManager, fragment, new int[] {0, 1}, executor);
+        executor.shutdown();
+        // one vector per thread, each thread sends one combined message per lid.
+        Assert.assertEquals(2, sentVectors);
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals(400.0, received.get(outerGid(12)), 1e-9);
+        Assert.assertEquals(200.0, received.get(outerGid(15)), 1e-9);
+    }
+
+    @Test
+    public void testPipelinedFlushThreshold() {
+        DoubleMessageStore store = newStore();
+        // room for two messages of gid and double.
+        store.enablePipelinedFlush(messageManager, new int[] {0, 1}, 32);
+        store.pipelineMessage(fragment, 10, 1.0, 0);
+        store.pipelineMessage(fragment, 10, 1.0, 0);
+        Assert.assertEquals(0, sentVectors);
+        store.pipelineMessage(fragment, 11, 1.0, 0);
+        Assert.assertEquals(1, sentVectors);
+        Assert.assertEquals(2.0, received.get(outerGid(10)), 1e-9);
+        Assert.assertEquals(1.0, received.get(outerGid(11)), 1e-9);
+
+        // the pending buffer is cleared after sending.
+        store.pipelineMessage(fragment, 10, 5.0, 0);
+        store.pipelineMessage(fragment, 11, 5.0, 0);
+        Assert.assertEquals(2, sentVectors);
+        Assert.assertEquals(7.0, received.get(outerGid(10)), 1e-9);
+        Assert.assertEquals(6.0, received.get(outerGid(11)), 1e-9);
+    }
+
+    @Test
+    public void testConcurrentDigest() throws Exception {
+        DoubleMessageStore store = newStore();
+        ThreadSafeBitSet curSet =
+                new ThreadSafeBitSet(ThreadSafeBitSet.DEFAULT_LOG2_SEGMENT_SIZE_IN_BITS, TVNUM);
+        int vectorsPerThread = 8;
+        int rounds = 1000;
+        FFIByteVector[][] vectors = new FFIByteVector[NUM_CORES][vectorsPerThread];
+        for (int t = 0; t < NUM_CORES; ++t) {
+            for (int v = 0; v < vectorsPerThread; ++v) {
+                FFIByteVectorOutputStream outputStream = new FFIByteVectorOutputStream();
+                for (int r = 0; r < rounds; ++r) {
+                    for (int lid = 0; lid < IVNUM; ++lid) {
+                        outputStream.writeLong(idParser.generateGlobalId(0, lid));
+                        outputStream.writeDouble(1.0);
+                    }
+                }
+                outputStream.finishSetting();
+                vectors[t][v] = outputStream.getVector();
+            }
+        }
+
+        Thread[] threads = new Thread[NUM_CORES];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < NUM_CORES; ++t) {
+            final int tid = t;
+            threads[t] =
+                    new Thread(
+                            () -> {
+                                try {
+                                    start.await();
+                                } catch (InterruptedException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                                for (FFIByteVector vector : vectors[tid]) {
+                                    store.digest(fragment, vector, curSet, tid);
+                                }
+                            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int lid = 0; lid < IVNUM; ++lid) {
+            Assert.assertTrue(curSet.get(lid));
+            Assert.assertEquals(
+                    (double) NUM_CORES * vectorsPerThread * rounds, store.get(lid), 1e-9);
+        }
+        Assert.assertFalse(curSet.get(IVNUM));
+    }
+}
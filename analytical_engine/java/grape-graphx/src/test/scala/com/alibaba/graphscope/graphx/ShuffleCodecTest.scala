@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.graphx
+
+import com.alibaba.graphscope.graphx.shuffle.{
+  DataShuffle,
+  DefaultDataShuffle,
+  EdgeShuffle,
+  EdgeShuffleKryoSerializer,
+  ShuffleCodec,
+  ShuffleKryoRegistrator
+}
+import org.apache.spark.SparkConf
+import org.apache.spark.serializer.KryoSerializer
+import org.apache.spark.util.collection.OpenHashSet
+import org.junit.runner.RunWith
+import org.scalatest.FunSuite
+import org.scalatest.junit.JUnitRunner
+
+import java.io.{
+  ByteArrayInputStream,
+  ByteArrayOutputStream,
+  DataInputStream,
+  DataOutputStream,
+  ObjectInputStream,
+  ObjectOutputStream
+}
+import scala.util.Random
+
+@RunWith(classOf[JUnitRunner])
+class ShuffleCodecTest extends FunSuite {
+  test("sorted oids") {
+    val set = new OpenHashSet[Long](16)
+    Array(5L, -3L, 100L, 5L, Long.MaxValue, Long.MinValue).foreach(set.add)
+    val oids = ShuffleCodec.toSortedArray(set)
+    assert(oids.sameElements(Array(Long.MinValue, -3L, 5L, 100L, Long.MaxValue)))
+
+    val bo = new ByteArrayOutputStream()
+    ShuffleCodec.writeSortedOids(new DataOutputStream(bo), oids)
+    val res = ShuffleCodec.readSortedOids(new DataInputStream(new ByteArrayInputStream(bo.toByteArray)))
+    assert(res.sameElements(oids))
+  }
+
+  test("edges") {
+    val srcs = Array(1L, 1L, 2L, 1000000L, -1L)
+    val dsts = Array(2L, 3L, 3L, 1L, 1000000L)
+    val bo   = new ByteArrayOutputStream()
+    ShuffleCodec.writeEdges(new DataOutputStream(bo), srcs, dsts)
+    ShuffleCodec.writeEdges(new DataOutputStream(bo), null, null)
+    val in           = new DataInputStream(new ByteArrayInputStream(bo.toByteArray))
+    val (src1, dst1) = ShuffleCodec.readEdges(in)
+    assert(src1.sameElements(srcs))
+    assert(dst1.sameElements(dsts))
+    val (src2, dst2) = ShuffleCodec.readEdges(in)
+    assert(src2 == null && dst2 == null)
+  }
+
+  test("unsorted oids") {
+    val oids = Array(7L, -3L, Long.MaxValue, Long.MinValue, 7L, 0L)
+    val bo   = new ByteArrayOutputStream()
+    ShuffleCodec.writeOids(new DataOutputStream(bo), oids)
+    ShuffleCodec.writeOids(new DataOutputStream(bo), null)
+    val in = new DataInputStream(new ByteArrayInputStream(bo.toByteArray))
+    assert(ShuffleCodec.readOids(in).sameElements(oids))
+    assert(ShuffleCodec.readOids(in) == null)
+  }
+
+  test("edge shuffle serialization") {
+    val oidSet = new OpenHashSet[Long](4)
+    Array(1L, 2L, 7L).foreach(oidSet.add)
+    val shuffle = new EdgeShuffle[Int, Double](
+      0,
+      3,
+      Array(7L, 1L, 2L),
+      oidSet,
+      Array(1L, 1L, 2L, 7L),
+      Array(2L, 7L, 8L, -9L),
+      Array(0.5, 1.5, 2.5, 3.5),
+      Array(70, 10, 20)
+    )
+    val bo = new ByteArrayOutputStream()
+    new ObjectOutputStream(bo).writeObject(shuffle)
+    val res = new ObjectInputStream(new ByteArrayInputStream(bo.toByteArray))
+      .readObject()
+      .asInstanceOf[EdgeShuffle[Int, Double]]
+    assert(res.fromPid == 0 && res.dstPid == 3)
+    assert(res.oidArray.sameElements(shuffle.oidArray))
+    assert(res.oidSet.size == 3 && Array(1L, 2L, 7L).forall(res.oidSet.contains))
+    assert(res.srcs.sameElements(shuffle.srcs))
+    assert(res.dsts.sameElements(shuffle.dsts))
+    assert(res.attrs.sameElements(shuffle.attrs))
+    assert(res.vertexAttrs.sameElements(shuffle.vertexAttrs))
+  }
+
+  test("default data shuffle serialization") {
+    val shuffle = new DefaultDataShuffle[Int, Double](
+      3,
+      Array(1L, 2L, 7L),
+      Array(1L, 2L, 7L, 1L),
+      Array(2L, 7L, 8L, 9L),
+      1,
+      2.0
+    )
+    val bo = new ByteArrayOutputStream()
+    new ObjectOutputStream(bo).writeObject(shuffle)
+    val res = new ObjectInputStream(new ByteArrayInputStream(bo.toByteArray))
+      .readObject()
+      .asInstanceOf[DataShuffle[Int, Double]]
+    assert(res.isInstanceOf[DefaultDataShuffle[Int, Double]])
+    val casted = res.asInstanceOf[DefaultDataShuffle[Int, Double]]
+    assert(casted.dstPid == 3)
+    assert(casted.oids.sameElements(shuffle.oids))
+    assert(casted.srcOids.sameElements(shuffle.srcOids))
+    assert(casted.dstOids.sameElements(shuffle.dstOids))
+    assert(casted.getVdataIterator.next() == 1)
+    assert(casted.getEdataIterator.next() == 2.0)
+  }
+
+  test("oids in chunks") {
+    val random = new Random(7)
+    val oids   = Array.fill(100000)(random.nextLong())
+    val bo     = new ByteArrayOutputStream()
+    ShuffleCodec.writeOids(new DataOutputStream(bo), oids)
+    ShuffleCodec.writeOids(new DataOutputStream(bo), Array.emptyLongArray)
+    // random oids take about 10 bytes each, which are written in a number of chunks
+    assert(bo.size() > 10 * 65536)
+    val in = new DataInputStream(new ByteArrayInputStream(bo.toByteArray))
+    assert(ShuffleCodec.readOids(in).sameElements(oids))
+    assert(ShuffleCodec.readOids(in).isEmpty)
+    assert(in.available() == 0)
+  }
+
+  test("kryo serialization") {
+    val conf = new SparkConf().set("spark.kryo.registrator", classOf[ShuffleKryoRegistrator].getName)
+    val serializer = new KryoSerializer(conf)
+    assert(serializer.newKryo().getSerializer(classOf[EdgeShuffle[_, _]]).isInstanceOf[EdgeShuffleKryoSerializer])
+    val instance = serializer.newInstance()
+
+    val oidSet = new OpenHashSet[Long](4)
+    Array(1L, 2L, 7L).foreach(oidSet.add)
+    val edgeShuffle = new EdgeShuffle[Int, Double](
+      0,
+      3,
+      Array(7L, 1L, 2L),
+      oidSet,
+      Array(1L, 1L, 2L, 7L),
+      Array(2L, 7L, 8L, -9L),
+      Array(0.5, 1.5, 2.5, 3.5),
+      Array(70, 10, 20)
+    )
+    val edgeRes = instance.deserialize[EdgeShuffle[Int, Double]](instance.serialize(edgeShuffle))
+    assert(edgeRes.fromPid == 0 && edgeRes.dstPid == 3)
+    assert(edgeRes.oidArray.sameElements(edgeShuffle.oidArray))
+    assert(edgeRes.oidSet.size == 3 && Array(1L, 2L, 7L).forall(edgeRes.oidSet.contains))
+    assert(edgeRes.srcs.sameElements(edgeShuffle.srcs))
+    assert(edgeRes.dsts.sameElements(edgeShuffle.dsts))
+    assert(edgeRes.attrs.sameElements(edgeShuffle.attrs))
+    assert(edgeRes.vertexAttrs.sameElements(edgeShuffle.vertexAttrs))
+    assert(edgeRes.edClassTag == edgeShuffle.edClassTag)
+
+    val dataShuffle = new DefaultDataShuffle[Int, Double](
+      3,
+      Array(1L, 2L, 7L),
+      Array(1L, 2L, 7L, 1L),
+      Array(2L, 7L, 8L, 9L),
+      1,
+      2.0
+    )
+    val dataRes = instance.deserialize[DataShuffle[Int, Double]](instance.serialize(dataShuffle))
+    assert(dataRes.isInstanceOf[DefaultDataShuffle[Int, Double]])
+    val casted = dataRes.asInstanceOf[DefaultDataShuffle[Int, Double]]
+    assert(casted.dstPid == 3)
+    assert(casted.oids.sameElements(dataShuffle.oids))
+    assert(casted.srcOids.sameElements(dataShuffle.srcOids))
+    assert(casted.dstOids.sameElements(dataShuffle.dstOids))
+    assert(casted.getVdataIterator.next() == 1)
+    assert(casted.getEdataIterator.next() == 2.0)
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.ds;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A set of active vertices in a VertexRange, which is kept both as a dense bitmap and, while the
+ * set is small, as a sparse queue of the inserted vertices. Iterating a sparse frontier only
+ * touches the queued vertices instead of scanning the whole range. Once more than 1/{@link
+ * #SPARSE_RATIO} of the range is inserted, the queue is dropped and the frontier becomes dense.
+ *
+ * <p>{@link #insert} is thread-safe, other methods should not be called concurrently with insert.
+ *
+ * @see com.alibaba.graphscope.parallel.ParallelEngine#edgeMap
+ */
+public class VertexFrontier {
+    public static final int SPARSE_RATIO = 20;
+
+    private VertexSet vertexSet;
+    private long[] queue;
+    private AtomicLong queueSize;
+
+    public VertexFrontier(VertexRange<Long> vertices) {
+        vertexSet = new VertexSet(vertices);
+        long capacity = Math.max(1, (vertexSet.getRight() - vertexSet.getLeft()) / SPARSE_RATIO);
+        queue = new long[(int) Math.min(capacity, Integer.MAX_VALUE - 8)];
+        queueSize = new AtomicLong(0);
+    }
+
+    /**
+     * Insert a vertex, the vertex should be in the range of this frontier.
+     *
+     * @return true if the vertex is not in the frontier before.
+     */
+    public boolean insert(long lid) {
+        if (!vertexSet.getBitSet().setBitWithRet(lid - vertexSet.getLeft())) {
+            return false;
+        }
+        // the counter keeps growing past the capacity, which marks the frontier as dense.
+        long index = queueSize.getAndIncrement();
+        if (index < queue.length) {
+            queue[(int) index] = lid;
+        }
+        return true;
+    }
+
+    public boolean insert(Vertex<Long> vertex) {
+        return insert(vertex.getValue());
+    }
+
+    /** @return true if the vertex is in the range of this frontier and is inserted. */
+    public boolean contains(long lid) {
+        return lid >= vertexSet.getLeft() && lid < vertexSet.getRight() && vertexSet.get(lid);
+    }
+
+    public boolean contains(Vertex<Long> vertex) {
+        return contains(vertex.getValue());
+    }
+
+    public boolean isDense() {
+        return queueSize.get() > queue.length;
+    }
+
+    public long size() {
+        return isDense() ? vertexSet.count() : queueSize.get();
+    }
+
+    public boolean empty() {
+        return queueSize.get() == 0;
+    }
+
+    /** The queued vertices, only the first {@link #size()} ones are valid, and only if sparse. */
+    public long[] getSparseVertices() {
+        return queue;
+    }
+
+    public VertexSet getVertexSet() {
+        return vertexSet;
+    }
+
+    public long getLeft() {
+        return vertexSet.getLeft();
+    }
+
+    public long getRight() {
+        return vertexSet.getRight();
+    }
+
+    public void clear() {
+        long size = queueSize.get();
+        if (size > queue.length) {
+            vertexSet.clear();
+        } else {
+            // only reset the bits set, which is cheaper than clearing the whole bitmap.
+            Bitset bitset = vertexSet.getBitSet();
+            for (int i = 0; i < size; ++i) {
+                bitset.resetBit(queue[i] - vertexSet.getLeft());
+            }
+        }
+        queueSize.set(0);
+    }
+
+    /** Swap the content with another frontier, which is usually the one for next round. */
+    public void swap(VertexFrontier other) {
+        VertexSet tmpSet = vertexSet;
+        vertexSet = other.vertexSet;
+        other.vertexSet = tmpSet;
+        long[] tmpQueue = queue;
+        queue = other.queue;
+        other.queue = tmpQueue;
+        AtomicLong tmpSize = queueSize;
+        queueSize = other.queueSize;
+        other.queueSize = tmpSize;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel;
+
+import com.alibaba.graphscope.ds.Vertex;
+
+/**
+ * Per-edge update applied by {@link ParallelEngine#edgeMap}.
+ *
+ * @param <EDATA_T> edge data type.
+ */
+@FunctionalInterface
+public interface EdgeMapFunction<EDATA_T> {
+    /**
+     * Update dst with the value of src along the edge. May be called concurrently for the same dst
+     * when pushing, so the update should be atomic.
+     *
+     * @param src source vertex, which is in the current frontier.
+     * @param dst destination vertex.
+     * @param edata edge data.
+     * @param tid thread id.
+     * @return true if dst is updated and should be in the next frontier.
+     */
+    boolean update(Vertex<Long> src, Vertex<Long> dst, EDATA_T edata, int tid);
+}
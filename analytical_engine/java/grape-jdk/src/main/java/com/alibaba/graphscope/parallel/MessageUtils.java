@@ -2,10 +2,54 @@ package com.alibaba.graphscope.parallel;
 
 import com.alibaba.graphscope.fragment.adaptor.ArrowProjectedAdaptor;
 import com.alibaba.graphscope.fragment.adaptor.ImmutableEdgecutFragmentAdaptor;
+import com.alibaba.graphscope.parallel.message.DoubleMsg;
+import com.alibaba.graphscope.parallel.message.IntMsg;
+import com.alibaba.graphscope.parallel.message.LongMsg;
 import com.alibaba.graphscope.utils.Unused;
 
 public class MessageUtils {
 
+    /**
+     * Factories of the messages reused by threads, replaced in tests where native messages can't
+     * be created.
+     */
+    static DoubleMsg.Factory doubleMsgFactory = DoubleMsg.factory;
+
+    static LongMsg.Factory longMsgFactory = LongMsg.factory;
+
+    static IntMsg.Factory intMsgFactory = IntMsg.factory;
+
+    /**
+     * Messages are serialized into the channel buffer when sent, so each thread can reuse one
+     * message instance per primitive type, instead of creating a native message for every send.
+     */
+    private static final ThreadLocal<DoubleMsg> THREAD_LOCAL_DOUBLE_MSG =
+            ThreadLocal.withInitial(() -> doubleMsgFactory.create());
+
+    private static final ThreadLocal<LongMsg> THREAD_LOCAL_LONG_MSG =
+            ThreadLocal.withInitial(() -> longMsgFactory.create());
+
+    private static final ThreadLocal<IntMsg> THREAD_LOCAL_INT_MSG =
+            ThreadLocal.withInitial(() -> intMsgFactory.create());
+
+    public static DoubleMsg threadLocalDoubleMsg(double value) {
+        DoubleMsg msg = THREAD_LOCAL_DOUBLE_MSG.get();
+        msg.setData(value);
+        return msg;
+    }
+
+    public static LongMsg threadLocalLongMsg(long value) {
+        LongMsg msg = THREAD_LOCAL_LONG_MSG.get();
+        msg.setData(value);
+        return msg;
+    }
+
+    public static IntMsg threadLocalIntMsg(int value) {
+        IntMsg msg = THREAD_LOCAL_INT_MSG.get();
+        msg.setData(value);
+        return msg;
+    }
+
     public static <OID_T, VID_T, VDATA_T, EDATA_T, MSG_T> Unused getUnused(
             ImmutableEdgecutFragmentAdaptor<OID_T, VID_T, VDATA_T, EDATA_T> immutableAdaptor,
             Class<? extends MSG_T> msgClass) {
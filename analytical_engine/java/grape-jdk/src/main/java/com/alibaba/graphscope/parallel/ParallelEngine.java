@@ -16,8 +16,11 @@
 package com.alibaba.graphscope.parallel;
 
 import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.ds.VertexFrontier;
 import com.alibaba.graphscope.ds.VertexRange;
 import com.alibaba.graphscope.ds.VertexSet;
+import com.alibaba.graphscope.ds.adaptor.Nbr;
+import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.parallel.message.DoubleMsg;
 import com.alibaba.graphscope.parallel.message.PrimitiveMessage;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
@@ -29,7 +32,9 @@ import org.slf4j.LoggerFactory;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public interface ParallelEngine {
@@ -464,4 +469,182 @@ public interface ParallelEngine {
             executor.shutdown();
         }
     }
+
+    /**
+     * Apply update on the edges going out of the current frontier, and insert the updated
+     * destinations into the next frontier. Only inner vertices in the current frontier are taken as
+     * sources, while destinations can be any vertex in the range of the next frontier.
+     *
+     * <p>When the current frontier is sparse and its out-edges are few, the out-edges of the
+     * frontier vertices are pushed. Otherwise each vertex in the range of the next frontier pulls
+     * from its incoming edges whose sources are in the current frontier, and stops as soon as cond
+     * turns false, which visits much fewer edges than pushing a large frontier. Pulling is only
+     * used when incoming edges are loaded in the fragment.
+     *
+     * @param fragment fragment to traverse.
+     * @param current current frontier.
+     * @param next next frontier, updated vertices are inserted.
+     * @param threadNum number of threads to use.
+     * @param executor ThreadPoolExecutor to use.
+     * @param cond whether a destination can still be updated, null means always.
+     * @param update the per-edge update.
+     * @return true if pulled, false if pushed.
+     * @see VertexFrontier
+     */
+    default <OID_T, VDATA_T, EDATA_T> boolean edgeMap(
+            IFragment<OID_T, Long, VDATA_T, EDATA_T> fragment,
+            VertexFrontier current,
+            VertexFrontier next,
+            int threadNum,
+            ExecutorService executor,
+            Predicate<Vertex<Long>> cond,
+            EdgeMapFunction<EDATA_T> update) {
+        if (current.empty()) {
+            return false;
+        }
+        long innerBegin = fragment.innerVertices().beginValue();
+        long innerEnd = fragment.innerVertices().endValue();
+        long[] sources = current.getSparseVertices();
+        boolean pull = false;
+        long inEdgeNum = fragment.getInEdgeNum();
+        if (inEdgeNum > 0) {
+            if (current.isDense()) {
+                pull = true;
+            } else {
+                // estimate the edges to push, as |F| + outDegree(F), against the edges to pull.
+                long threshold = inEdgeNum / VertexFrontier.SPARSE_RATIO;
+                int size = (int) current.size();
+                long work = size;
+                Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
+                for (int i = 0; i < size && work <= threshold; ++i) {
+                    if (sources[i] >= innerBegin && sources[i] < innerEnd) {
+                        vertex.setValue(sources[i]);
+                        work += fragment.getOutgoingAdjList(vertex).size();
+                    }
+                }
+                pull = work > threshold;
+            }
+        }
+
+        boolean sparse = !pull && !current.isDense();
+        int begin, end;
+        if (pull) {
+            begin = (int) next.getLeft();
+            end = (int) next.getRight();
+        } else if (sparse) {
+            begin = 0;
+            end = (int) current.size();
+        } else {
+            begin = (int) Math.max(current.getLeft(), innerBegin);
+            end = (int) Math.min(current.getRight(), innerEnd);
+        }
+        final boolean finalPull = pull;
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
+        AtomicInteger atomicInteger = new AtomicInteger(begin);
+        int originEnd = end;
+        for (int tid = 0; tid < threadNum; ++tid) {
+            final int finalTid = tid;
+            executor.execute(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
+                                while (true) {
+                                    int curBegin =
+                                            Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
+                                    int curEnd = Math.min(curBegin + chunkSize, originEnd);
+                                    if (curBegin >= originEnd) {
+                                        break;
+                                    }
+                                    for (int i = curBegin; i < curEnd; ++i) {
+                                        if (finalPull) {
+                                            vertex.setValue((long) i);
+                                            if (cond != null && !cond.test(vertex)) {
+                                                continue;
+                                            }
+                                            for (Nbr<Long, EDATA_T> nbr :
+                                                    fragment.getIncomingAdjList(vertex)
+                                                            .iterable()) {
+                                                Vertex<Long> src = nbr.neighbor();
+                                                long lid = src.getValue();
+                                                if (lid >= innerBegin
+                                                        && lid < innerEnd
+                                                        && current.contains(lid)
+                                                        && update.update(
+                                                                src,
+                                                                vertex,
+                                                                nbr.data(),
+                                                                finalTid)) {
+                                                    next.insert(i);
+                                                    if (cond != null && !cond.test(vertex)) {
+                                                        break;
+                                                    }
+                                                }
+                                            }
+                                        } else {
+                                            long lid = sparse ? sources[i] : i;
+                                            if (sparse && (lid < innerBegin || lid >= innerEnd)) {
+                                                continue;
+                                            }
+                                            if (!sparse && !current.contains(lid)) {
+                                                continue;
+                                            }
+                                            vertex.setValue(lid);
+                                            for (Nbr<Long, EDATA_T> nbr :
+                                                    fragment.getOutgoingAdjList(vertex)
+                                                            .iterable()) {
+                                                Vertex<Long> dst = nbr.neighbor();
+                                                if ((cond == null || cond.test(dst))
+                                                        && update.update(
+                                                                vertex,
+                                                                dst,
+                                                                nbr.data(),
+                                                                finalTid)) {
+                                                    next.insert(dst);
+                                                }
+                                            }
+                                        }
+                                    }
+                                }
+                            } catch (RuntimeException e) {
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                countDownLatch.countDown();
+                            }
+                        }
+                    });
+        }
+        try {
+            countDownLatch.await();
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for edgeMap to finish", e);
+            executor.shutdown();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("edgeMap interrupted", e);
+        }
+        if (failure.get() != null) {
+            logger.error("edgeMap failed", failure.get());
+            throw failure.get();
+        }
+        return pull;
+    }
+
+    /**
+     * Apply update on the edges going out of the current frontier, without a condition on
+     * destinations.
+     *
+     * @see #edgeMap(IFragment, VertexFrontier, VertexFrontier, int, ExecutorService, Predicate,
+     *     EdgeMapFunction)
+     */
+    default <OID_T, VDATA_T, EDATA_T> boolean edgeMap(
+            IFragment<OID_T, Long, VDATA_T, EDATA_T> fragment,
+            VertexFrontier current,
+            VertexFrontier next,
+            int threadNum,
+            ExecutorService executor,
+            EdgeMapFunction<EDATA_T> update) {
+        return edgeMap(fragment, current, next, threadNum, executor, null, update);
+    }
 }
@@ -38,11 +38,17 @@ import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.fragment.ImmutableEdgecutFragment;
 import com.alibaba.graphscope.fragment.adaptor.ArrowProjectedAdaptor;
 import com.alibaba.graphscope.fragment.adaptor.ImmutableEdgecutFragmentAdaptor;
+import com.alibaba.graphscope.parallel.message.DoubleMsg;
+import com.alibaba.graphscope.parallel.message.IntMsg;
+import com.alibaba.graphscope.parallel.message.LongMsg;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Supplier;
 
 /**
@@ -202,6 +208,124 @@ public interface ParallelMessageManager extends MessageManagerBase {
         return false;
     }
 
+    /**
+     * Send the primitive state of an outer vertex to the fragment where it is an inner vertex,
+     * without creating a message instance for each call. The type of message is named by the
+     * method, so that a value of another type, e.g. an int literal, is converted rather than sent
+     * as a message of its own type.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean syncDoubleStateOnOuterVertex(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            double msg,
+            int channelId) {
+        return syncStateOnOuterVertex(
+                frag, vertex, MessageUtils.threadLocalDoubleMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean syncLongStateOnOuterVertex(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            long msg,
+            int channelId) {
+        return syncStateOnOuterVertex(
+                frag, vertex, MessageUtils.threadLocalLongMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean syncIntStateOnOuterVertex(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            int msg,
+            int channelId) {
+        return syncStateOnOuterVertex(frag, vertex, MessageUtils.threadLocalIntMsg(msg), channelId);
+    }
+
+    /**
+     * Send a primitive message to other fragments through outgoing edges, without creating a
+     * message instance for each call.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendDoubleMsgThroughOEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            double msg,
+            int channelId) {
+        return sendMsgThroughOEdges(
+                frag, vertex, MessageUtils.threadLocalDoubleMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendLongMsgThroughOEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            long msg,
+            int channelId) {
+        return sendMsgThroughOEdges(frag, vertex, MessageUtils.threadLocalLongMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendIntMsgThroughOEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            int msg,
+            int channelId) {
+        return sendMsgThroughOEdges(frag, vertex, MessageUtils.threadLocalIntMsg(msg), channelId);
+    }
+
+    /**
+     * Send a primitive message to other fragments through incoming and outgoing edges, without
+     * creating a message instance for each call.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendDoubleMsgThroughEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            double msg,
+            int channelId) {
+        return sendMsgThroughEdges(frag, vertex, MessageUtils.threadLocalDoubleMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendLongMsgThroughEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            long msg,
+            int channelId) {
+        return sendMsgThroughEdges(frag, vertex, MessageUtils.threadLocalLongMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendIntMsgThroughEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            int msg,
+            int channelId) {
+        return sendMsgThroughEdges(frag, vertex, MessageUtils.threadLocalIntMsg(msg), channelId);
+    }
+
+    /**
+     * Send a primitive message to other fragments through incoming edges, without creating a
+     * message instance for each call.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendDoubleMsgThroughIEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            double msg,
+            int channelId) {
+        return sendMsgThroughIEdges(
+                frag, vertex, MessageUtils.threadLocalDoubleMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendLongMsgThroughIEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            long msg,
+            int channelId) {
+        return sendMsgThroughIEdges(frag, vertex, MessageUtils.threadLocalLongMsg(msg), channelId);
+    }
+
+    default <OID_T, VID_T, VDATA_T, EDATA_T> boolean sendIntMsgThroughIEdges(
+            @CXXReference IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            @CXXReference Vertex<VID_T> vertex,
+            int msg,
+            int channelId) {
+        return sendMsgThroughIEdges(frag, vertex, MessageUtils.threadLocalIntMsg(msg), channelId);
+    }
+
     /**
      * Init the message manager which number of possible channels. Each channel will swap messages
      * in parallel.
@@ -519,4 +643,60 @@ public interface ParallelMessageManager extends MessageManagerBase {
             executor.shutdown();
         }
     }
+
+    /**
+     * Parallel processing the double messages received from last super step, no message instance
+     * is exposed to the consumer.
+     *
+     * @param frag      fragment.
+     * @param threadNum number of threads to use.
+     * @param executor  thread pool executor.
+     * @param consumer  consumer of the receiving vertex and the message.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> void parallelProcessDouble(
+            IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            int threadNum,
+            ExecutorService executor,
+            ObjDoubleConsumer<Vertex<VID_T>> consumer) {
+        parallelProcess(
+                frag,
+                threadNum,
+                executor,
+                () -> DoubleMsg.factory.create(),
+                (Vertex<VID_T> vertex, DoubleMsg msg) -> consumer.accept(vertex, msg.getData()));
+    }
+
+    /**
+     * Parallel processing the long messages received from last super step, see {@link
+     * #parallelProcessDouble}.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> void parallelProcessLong(
+            IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            int threadNum,
+            ExecutorService executor,
+            ObjLongConsumer<Vertex<VID_T>> consumer) {
+        parallelProcess(
+                frag,
+                threadNum,
+                executor,
+                () -> LongMsg.factory.create(),
+                (Vertex<VID_T> vertex, LongMsg msg) -> consumer.accept(vertex, msg.getData()));
+    }
+
+    /**
+     * Parallel processing the int messages received from last super step, see {@link
+     * #parallelProcessDouble}.
+     */
+    default <OID_T, VID_T, VDATA_T, EDATA_T> void parallelProcessInt(
+            IFragment<OID_T, VID_T, VDATA_T, EDATA_T> frag,
+            int threadNum,
+            ExecutorService executor,
+            ObjIntConsumer<Vertex<VID_T>> consumer) {
+        parallelProcess(
+                frag,
+                threadNum,
+                executor,
+                () -> IntMsg.factory.create(),
+                (Vertex<VID_T> vertex, IntMsg msg) -> consumer.accept(vertex, msg.getData()));
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.parallel.message.DoubleMsg;
+import com.alibaba.graphscope.parallel.message.IntMsg;
+import com.alibaba.graphscope.parallel.message.LongMsg;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Primitive messages are sent through the reused message of the type named by the method, the
+ * native messages are replaced by mocks.
+ */
+public class ParallelMessageManagerTest {
+    private IFragment<Long, Long, Long, Double> frag;
+    private Vertex<Long> vertex;
+    private ParallelMessageManager messageManager;
+
+    // the default methods of a mocked interface can't be called for real
+    private abstract static class MessageManager implements ParallelMessageManager {}
+
+    @BeforeClass
+    public static void mockMessages() {
+        DoubleMsg.Factory doubleMsgFactory = Mockito.mock(DoubleMsg.Factory.class);
+        Mockito.when(doubleMsgFactory.create())
+                .thenAnswer(invocation -> Mockito.mock(DoubleMsg.class));
+        LongMsg.Factory longMsgFactory = Mockito.mock(LongMsg.Factory.class);
+        Mockito.when(longMsgFactory.create())
+                .thenAnswer(invocation -> Mockito.mock(LongMsg.class));
+        IntMsg.Factory intMsgFactory = Mockito.mock(IntMsg.Factory.class);
+        Mockito.when(intMsgFactory.create())
+                .thenAnswer(invocation -> Mockito.mock(IntMsg.class));
+        MessageUtils.doubleMsgFactory = doubleMsgFactory;
+        MessageUtils.longMsgFactory = longMsgFactory;
+        MessageUtils.intMsgFactory = intMsgFactory;
+    }
+
+    @Before
+    public void init() {
+        frag = Mockito.mock(IFragment.class);
+        vertex = Mockito.mock(Vertex.class);
+        // the primitive methods call the real ones, the generic ones are recorded only
+        messageManager = Mockito.mock(MessageManager.class);
+        Mockito.when(
+                        messageManager.sendDoubleMsgThroughOEdges(
+                                Mockito.any(),
+                                Mockito.any(),
+                                Mockito.anyDouble(),
+                                Mockito.anyInt()))
+                .thenCallRealMethod();
+        Mockito.when(
+                        messageManager.sendLongMsgThroughOEdges(
+                                Mockito.any(),
+                                Mockito.any(),
+                                Mockito.anyLong(),
+                                Mockito.anyInt()))
+                .thenCallRealMethod();
+        Mockito.when(
+                        messageManager.sendIntMsgThroughEdges(
+                                Mockito.any(),
+                                Mockito.any(),
+                                Mockito.anyInt(),
+                                Mockito.anyInt()))
+                .thenCallRealMethod();
+        Mockito.when(
+                        messageManager.sendLongMsgThroughIEdges(
+                                Mockito.any(),
+                                Mockito.any(),
+                                Mockito.anyLong(),
+                                Mockito.anyInt()))
+                .thenCallRealMethod();
+        Mockito.when(
+                        messageManager.syncDoubleStateOnOuterVertex(
+                                Mockito.any(),
+                                Mockito.any(),
+                                Mockito.anyDouble(),
+                                Mockito.anyInt()))
+                .thenCallRealMethod();
+    }
+
+    private Object sentThroughOEdges() {
+        ArgumentCaptor<Object> msg = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(messageManager)
+                .sendMsgThroughOEdges(
+                        Mockito.same(frag), Mockito.same(vertex), msg.capture(), Mockito.eq(1));
+        return msg.getValue();
+    }
+
+    @Test
+    public void intLiteralTest() {
+        // an int literal is sent as a long message by the long method
+        messageManager.sendLongMsgThroughOEdges(frag, vertex, 3, 1);
+        Object msg = sentThroughOEdges();
+        Assert.assertTrue(msg instanceof LongMsg);
+        Mockito.verify((LongMsg) msg).setData(3L);
+    }
+
+    @Test
+    public void doubleMsgTest() {
+        messageManager.sendDoubleMsgThroughOEdges(frag, vertex, 0.5, 1);
+        Object msg = sentThroughOEdges();
+        Assert.assertTrue(msg instanceof DoubleMsg);
+        Mockito.verify((DoubleMsg) msg).setData(0.5);
+    }
+
+    @Test
+    public void sendThroughEdgesTest() {
+        messageManager.sendIntMsgThroughEdges(frag, vertex, 7, 2);
+        ArgumentCaptor<IntMsg> intMsg = ArgumentCaptor.forClass(IntMsg.class);
+        Mockito.verify(messageManager)
+                .sendMsgThroughEdges(
+                        Mockito.same(frag),
+                        Mockito.same(vertex),
+                        intMsg.capture(),
+                        Mockito.eq(2));
+        Mockito.verify(intMsg.getValue()).setData(7);
+
+        messageManager.sendLongMsgThroughIEdges(frag, vertex, 8L, 3);
+        ArgumentCaptor<LongMsg> longMsg = ArgumentCaptor.forClass(LongMsg.class);
+        Mockito.verify(messageManager)
+                .sendMsgThroughIEdges(
+                        Mockito.same(frag),
+                        Mockito.same(vertex),
+                        longMsg.capture(),
+                        Mockito.eq(3));
+        Mockito.verify(longMsg.getValue()).setData(8L);
+
+        messageManager.syncDoubleStateOnOuterVertex(frag, vertex, 1.5, 4);
+        ArgumentCaptor<DoubleMsg> doubleMsg = ArgumentCaptor.forClass(DoubleMsg.class);
+        Mockito.verify(messageManager)
+                .syncStateOnOuterVertex(
+                        Mockito.same(frag),
+                        Mockito.same(vertex),
+                        doubleMsg.capture(),
+                        Mockito.eq(4));
+        Mockito.verify(doubleMsg.getValue()).setData(1.5);
+    }
+
+    @Test
+    public void reuseTest() throws Exception {
+        LongMsg msg = MessageUtils.threadLocalLongMsg(1L);
+        Assert.assertSame(msg, MessageUtils.threadLocalLongMsg(2L));
+        Mockito.verify(msg).setData(1L);
+        Mockito.verify(msg).setData(2L);
+        // each thread has its own message
+        LongMsg other =
+                CompletableFuture.supplyAsync(() -> MessageUtils.threadLocalLongMsg(9L)).get();
+        Assert.assertNotSame(msg, other);
+        Mockito.verify(other).setData(9L);
+        Mockito.verify(msg, Mockito.never()).setData(9L);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.ds;
+
+import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexFrontierTest {
+
+    private VertexFrontier newFrontier(long begin, long end) {
+        VertexRange<Long> vertices = FFITypeFactoryhelper.newVertexRangeLong();
+        vertices.SetRange(begin, end);
+        return new VertexFrontier(vertices);
+    }
+
+    @Test
+    public void testSparse() {
+        // capacity of the queue is 1000 / SPARSE_RATIO = 50.
+        VertexFrontier frontier = newFrontier(100L, 1100L);
+        Assert.assertTrue(frontier.empty());
+        Assert.assertTrue(frontier.insert(105L));
+        Assert.assertFalse(frontier.insert(105L));
+        Assert.assertTrue(frontier.insert(1099L));
+        Assert.assertFalse(frontier.isDense());
+        Assert.assertEquals(2, frontier.size());
+        Assert.assertEquals(105L, frontier.getSparseVertices()[0]);
+        Assert.assertEquals(1099L, frontier.getSparseVertices()[1]);
+        Assert.assertTrue(frontier.contains(105L));
+        Assert.assertFalse(frontier.contains(106L));
+        Assert.assertFalse(frontier.contains(99L));
+
+        frontier.clear();
+        Assert.assertTrue(frontier.empty());
+        Assert.assertFalse(frontier.contains(105L));
+        Assert.assertFalse(frontier.contains(1099L));
+    }
+
+    @Test
+    public void testFullQueueStaysSparse() {
+        VertexFrontier frontier = newFrontier(0L, 1000L);
+        for (long i = 0; i < 50; ++i) {
+            Assert.assertTrue(frontier.insert(i * 2));
+        }
+        Assert.assertFalse(frontier.isDense());
+        Assert.assertEquals(50, frontier.size());
+    }
+
+    @Test
+    public void testOverflowToDense() {
+        VertexFrontier frontier = newFrontier(0L, 1000L);
+        for (long i = 0; i < 300; ++i) {
+            Assert.assertTrue(frontier.insert(i * 3));
+        }
+        Assert.assertTrue(frontier.isDense());
+        Assert.assertEquals(300, frontier.size());
+        for (long i = 0; i < 300; ++i) {
+            Assert.assertTrue(frontier.contains(i * 3));
+            Assert.assertFalse(frontier.contains(i * 3 + 1));
+        }
+        // inserts past the capacity are still deduplicated by the bitmap.
+        Assert.assertFalse(frontier.insert(897L));
+        Assert.assertEquals(300, frontier.size());
+
+        // no bit is left behind by clearing a dense frontier.
+        frontier.clear();
+        Assert.assertTrue(frontier.empty());
+        Assert.assertFalse(frontier.isDense());
+        Assert.assertEquals(0, frontier.getVertexSet().count());
+        Assert.assertTrue(frontier.insert(897L));
+        Assert.assertEquals(1, frontier.size());
+    }
+
+    @Test
+    public void testConcurrentOverflow() throws InterruptedException {
+        VertexFrontier frontier = newFrontier(0L, 10000L);
+        int threadNum = 4;
+        Thread[] threads = new Thread[threadNum];
+        for (int t = 0; t < threadNum; ++t) {
+            final int tid = t;
+            threads[t] =
+                    new Thread(
+                            () -> {
+                                for (long i = tid; i < 10000; i += threadNum) {
+                                    frontier.insert(i);
+                                }
+                            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(frontier.isDense());
+        Assert.assertEquals(10000, frontier.size());
+    }
+
+    @Test
+    public void testSwap() {
+        VertexFrontier current = newFrontier(0L, 1000L);
+        VertexFrontier next = newFrontier(0L, 1000L);
+        for (long i = 0; i < 100; ++i) {
+            next.insert(i);
+        }
+        current.insert(500L);
+        current.swap(next);
+        Assert.assertTrue(current.isDense());
+        Assert.assertEquals(100, current.size());
+        Assert.assertFalse(next.isDense());
+        Assert.assertEquals(1, next.size());
+        Assert.assertTrue(next.contains(500L));
+    }
+}
@@ -30,4 +30,12 @@ public class BackupConfig {
 
     public static final Config<Integer> STORE_BACKUP_THREAD_COUNT =
             Config.intConfig("store.backup.thread.count", 1);
+
+    // shared by the partitions of a store, each of the backup threads copies with an equal share,
+    // 0 for unlimited
+    public static final Config<Integer> STORE_BACKUP_RATE_LIMIT_MB_PER_SECOND =
+            Config.intConfig("store.backup.rate.limit.mb.per.second", 0);
+
+    public static final Config<Boolean> STORE_RESTORE_VERIFY_ENABLE =
+            Config.boolConfig("store.restore.verify.enable", true);
 }
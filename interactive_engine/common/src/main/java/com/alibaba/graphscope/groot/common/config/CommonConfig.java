@@ -38,6 +38,21 @@ public class CommonConfig {
 
     public static final Config<Integer> RPC_MAX_BYTES_MB = Config.intConfig("rpc.max.bytes.mb", 16);
 
+    // number of connections to a node for each traffic class, e.g. rpc.channel.write.count
+    public static final String RPC_CHANNEL_COUNT_FORMAT = "rpc.channel.%s.count";
+
+    public static final Config<Integer> RPC_CHANNEL_CONTROL_COUNT =
+            Config.intConfig(String.format(RPC_CHANNEL_COUNT_FORMAT, "control"), 1);
+
+    public static final Config<Integer> RPC_CHANNEL_WRITE_COUNT =
+            Config.intConfig(String.format(RPC_CHANNEL_COUNT_FORMAT, "write"), 2);
+
+    public static final Config<Integer> RPC_CHANNEL_QUERY_COUNT =
+            Config.intConfig(String.format(RPC_CHANNEL_COUNT_FORMAT, "query"), 1);
+
+    public static final Config<String> RPC_WRITE_COMPRESSION =
+            Config.stringConfig("rpc.write.compression", ""); // others: gzip
+
     public static final Config<Integer> STORE_NODE_COUNT =
             Config.intConfig(String.format(NODE_COUNT_FORMAT, RoleType.STORE.getName()), 1);
 
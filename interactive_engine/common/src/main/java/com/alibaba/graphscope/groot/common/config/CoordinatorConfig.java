@@ -30,4 +30,10 @@ public class CoordinatorConfig {
 
     public static final Config<String> FILE_META_STORE_PATH =
             Config.stringConfig("file.meta.store.path", "./meta");
+
+    public static final Config<Long> GC_RESYNC_INTERVAL_MS =
+            Config.longConfig("gc.resync.interval.ms", 2000L);
+
+    public static final Config<Integer> GC_SYNC_THREAD_COUNT =
+            Config.intConfig("gc.sync.thread.count", 4);
 }
@@ -26,6 +26,8 @@ public class DataLoadConfig {
     public static final String SEPARATOR = "separator";
     public static final String SKIP_HEADER = "skip.header";
     public static final String LDBC_CUSTOMIZE = "ldbc.customize";
+    // number of threads in each map task, the lines are parsed and encoded in parallel if > 1
+    public static final String MAPPER_THREADS = "mapper.threads";
     /* end */
 
     /** job on ODPS configurations **/
@@ -23,6 +23,12 @@ public class IngestorConfig {
     public static final Config<Integer> INGESTOR_SENDER_OPERATION_MAX_COUNT =
             Config.intConfig("ingestor.sender.operation.max.count", 8192);
 
+    public static final Config<Integer> INGESTOR_SENDER_WINDOW_SIZE =
+            Config.intConfig("ingestor.sender.window.size", 4);
+
+    public static final Config<Long> INGESTOR_SENDER_BACKOFF_MS =
+            Config.longConfig("ingestor.sender.backoff.ms", 100L);
+
     public static final Config<Long> INGESTOR_CHECK_PROCESSOR_INTERVAL_MS =
             Config.longConfig("ingestor.check.processor.interval.ms", 3000L);
 }
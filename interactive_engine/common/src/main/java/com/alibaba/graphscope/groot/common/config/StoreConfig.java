@@ -20,6 +20,15 @@ public class StoreConfig {
     public static final Config<Integer> STORE_WRITE_THREAD_COUNT =
             Config.intConfig("store.write.thread.count", 1);
 
+    // partitions are assigned to the lanes, batches of a partition are written in order by its lane
+    public static final Config<Integer> STORE_WRITE_LANE_COUNT =
+            Config.intConfig(
+                    "store.write.lane.count",
+                    Math.max(Math.min(Runtime.getRuntime().availableProcessors(), 16), 1));
+
+    public static final Config<Integer> STORE_WRITE_INFLIGHT_BATCH_COUNT =
+            Config.intConfig("store.write.inflight.batch.count", 128);
+
     public static final Config<Integer> STORE_QUEUE_BUFFER_SIZE =
             Config.intConfig("store.queue.buffer.size", 128);
 
@@ -72,7 +72,20 @@ oC_PatternPart
        ;
 
 oC_AnonymousPatternPart
-                    :  oC_PatternElement ;
+                    :  oC_ShortestPathPattern
+                        | oC_PatternElement
+                        ;
+
+// shortestPath((a)-[*1..5]->(b))
+// allShortestPaths((a)-[*1..5]->(b))
+oC_ShortestPathPattern
+                   :  ( SHORTESTPATH '(' oC_PatternElement ')' )
+                       | ( ALLSHORTESTPATHS '(' oC_PatternElement ')' )
+                       ;
+
+SHORTESTPATH : ( 'S' | 's' ) ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'T' | 't' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'H' | 'h' ) ;
+
+ALLSHORTESTPATHS : ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'T' | 't' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'S' | 's' ) ;
 
 oC_PatternElement
               :  ( oC_NodePattern ( SP? oC_PatternElementChain )* )
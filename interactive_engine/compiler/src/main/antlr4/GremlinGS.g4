@@ -77,6 +77,7 @@ traversalMethod
     | traversalMethod_inV   // inV()
     | traversalMethod_outV  // outV()
     | traversalMethod_endV  // endV()
+    | traversalMethod_shortestPath  // shortestPath()
     | traversalMethod_otherV  // otherV()
     | traversalMethod_not  // not()
     | traversalMethod_union // union()
@@ -168,7 +169,7 @@ traversalMethod_bothE
 	;
 
 // case-insensitive
-// with('PATH_OPT', 'SIMPLE' | 'ARBITRARY')
+// with('PATH_OPT', 'SIMPLE' | 'ARBITRARY' | 'ANY_SHORTEST' | 'ALL_SHORTEST')
 // with('RESULT_OPT', 'ALL_V' | 'END_V')
 // with('UNTIL', expression)
 // with('ARGS_EVAL_TIMEOUT', 2000L) // set evaluation timeout to 2 seconds
@@ -207,6 +208,13 @@ traversalMethod_endV
 	: 'endV' LPAREN RPAREN
 	;
 
+// out('1..5').shortestPath(), equivalent to out('1..5').with('PATH_OPT', 'ANY_SHORTEST')
+// out('1..5').allShortestPaths(), equivalent to out('1..5').with('PATH_OPT', 'ALL_SHORTEST')
+traversalMethod_shortestPath
+	: 'shortestPath' LPAREN RPAREN
+	| 'allShortestPaths' LPAREN RPAREN
+	;
+
 // limit(n)
 traversalMethod_limit
 	: 'limit' LPAREN integerLiteral RPAREN
@@ -24,6 +24,8 @@ import com.alibaba.graphscope.common.config.*;
 import com.alibaba.graphscope.common.ir.meta.reader.LocalMetaDataReader;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
+import com.alibaba.graphscope.common.manager.QueryManager;
+import com.alibaba.graphscope.common.manager.QueryScheduler;
 import com.alibaba.graphscope.common.store.ExperimentalMetaFetcher;
 import com.alibaba.graphscope.cypher.service.CypherBootstrapper;
 import com.alibaba.graphscope.gremlin.integration.result.GraphProperties;
@@ -68,16 +70,26 @@ public class GraphServer {
     public void start() throws Exception {
         ExecutionClient executionClient = ExecutionClient.Factory.create(configs, channelFetcher);
         GraphPlanner graphPlanner = new GraphPlanner(configs);
+        QueryManager queryManager = new QueryManager(new QueryScheduler(configs));
         if (!FrontendConfig.GREMLIN_SERVER_DISABLED.get(configs)) {
             this.gremlinServer =
                     new IrGremlinServer(
-                            configs, graphPlanner, channelFetcher, metaQueryCallback, testGraph);
+                            configs,
+                            graphPlanner,
+                            channelFetcher,
+                            metaQueryCallback,
+                            queryManager,
+                            testGraph);
             this.gremlinServer.start();
         }
         if (!FrontendConfig.NEO4J_BOLT_SERVER_DISABLED.get(configs)) {
             this.cypherBootstrapper =
                     new CypherBootstrapper(
-                            configs, graphPlanner, metaQueryCallback, executionClient);
+                            configs,
+                            graphPlanner,
+                            metaQueryCallback,
+                            executionClient,
+                            queryManager);
             Path neo4jHomePath = getNeo4jHomePath();
             this.cypherBootstrapper.start(
                     neo4jHomePath,
@@ -25,7 +25,6 @@ import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
 import com.alibaba.graphscope.gaia.proto.IrResult;
 import com.google.common.collect.Lists;
-import com.google.protobuf.InvalidProtocolBufferException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,8 +35,10 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * http client to send request to hqps engine service
@@ -65,7 +66,10 @@ public class HttpExecutionClient extends ExecutionClient<URI> {
             ExecutionResponseListener listener,
             QueryTimeoutConfig timeoutConfig)
             throws Exception {
+        // the responses of all servers are sent to the listener, until any of them fails
+        ExecutionResponseListener terminalListener = new TerminalListener(listener);
         List<CompletableFuture> responseFutures = Lists.newArrayList();
+        List<Runnable> cancelHooks = Lists.newArrayList();
         for (URI httpURI : channelFetcher.fetch()) {
             HttpRequest httpRequest =
                     HttpRequest.newBuilder()
@@ -75,47 +79,36 @@ public class HttpExecutionClient extends ExecutionClient<URI> {
                                     HttpRequest.BodyPublishers.ofByteArray(
                                             (byte[]) request.getRequestPhysical().build()))
                             .build();
-            CompletableFuture<HttpResponse<byte[]>> responseFuture =
-                    httpClient
-                            .sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
-                            .orTimeout(timeoutConfig.getChannelTimeoutMS(), TimeUnit.MILLISECONDS)
-                            .whenComplete(
-                                    (bytes, exception) -> {
-                                        if (exception != null) {
-                                            listener.onError(exception);
-                                        }
-                                        try {
-                                            IrResult.CollectiveResults results =
-                                                    IrResult.CollectiveResults.parseFrom(
-                                                            bytes.body());
-                                            for (IrResult.Results irResult :
-                                                    results.getResultsList()) {
-                                                listener.onNext(irResult.getRecord());
-                                            }
-                                        } catch (InvalidProtocolBufferException e) {
-                                            listener.onError(e);
-                                        }
-                                    });
+            // records are decoded and sent to the listener as the response body arrives
+            StreamingResultsSubscriber resultsSubscriber =
+                    new StreamingResultsSubscriber(terminalListener);
+            CompletableFuture<HttpResponse<Void>> sendFuture =
+                    httpClient.sendAsync(
+                            httpRequest,
+                            HttpResponse.BodyHandlers.fromSubscriber(resultsSubscriber));
+            cancelHooks.add(
+                    () -> {
+                        sendFuture.cancel(true);
+                        resultsSubscriber.cancel(new CancellationException("request is failed"));
+                    });
+            CompletableFuture<Void> responseFuture =
+                    sendFuture
+                            .thenCompose(response -> resultsSubscriber.getCompletion())
+                            .orTimeout(timeoutConfig.getChannelTimeoutMS(), TimeUnit.MILLISECONDS);
             responseFutures.add(responseFuture);
         }
-        CompletableFuture<Void> joinFuture =
-                CompletableFuture.runAsync(
-                        () -> {
-                            try {
-                                CompletableFuture.allOf(
-                                                responseFutures.toArray(new CompletableFuture[0]))
-                                        .get();
-                                listener.onCompleted();
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-        joinFuture.whenComplete(
-                (aVoid, exception) -> {
-                    if (exception != null) {
-                        listener.onError(exception);
-                    }
-                });
+        for (CompletableFuture<Void> responseFuture : responseFutures) {
+            responseFuture.whenComplete(
+                    (ignored, exception) -> {
+                        if (exception != null) {
+                            // stop receiving the responses, e.g. when the request times out
+                            cancelHooks.forEach(Runnable::run);
+                            terminalListener.onError(exception);
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responseFutures.toArray(new CompletableFuture[0]))
+                .thenRun(terminalListener::onCompleted);
     }
 
     private URI resolvePath(URI original, ExecutionRequest request) {
@@ -131,4 +124,45 @@ public class HttpExecutionClient extends ExecutionClient<URI> {
 
     @Override
     public void close() throws Exception {}
+
+    /**
+     * forward the callbacks to the listener until the terminal one, i.e. the first of onCompleted
+     * and onError, the callbacks afterwards do nothing
+     */
+    private static class TerminalListener implements ExecutionResponseListener {
+        private final ExecutionResponseListener listener;
+        private boolean terminated;
+
+        public TerminalListener(ExecutionResponseListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void onNext(IrResult.Record record) {
+            if (!terminated) {
+                listener.onNext(record);
+            }
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            if (!terminated) {
+                terminated = true;
+                listener.onCompleted();
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (!terminated) {
+                terminated = true;
+                listener.onError(t);
+            }
+        }
+
+        @Override
+        public void onSubmitted(Consumer<String> cancelHook) {
+            listener.onSubmitted(cancelHook);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.graphscope.common.client.channel.ChannelFetcher;
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.PegasusConfig;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * set the servers of a job, a point lookup of the vertices owned by a single server is only sent to
+ * that server, other jobs are sent to all servers.
+ * The engine routes the data by the store id of the partition, which only matches the worker ids of
+ * a job running on all the servers, or on a single server where any worker can be picked, so the
+ * lookups spanning several servers are still sent to all servers.
+ */
+public class PointLookupRouter {
+    private final Configs graphConfig;
+    private final ChannelFetcher channelFetcher;
+
+    public PointLookupRouter(Configs graphConfig, ChannelFetcher channelFetcher) {
+        this.graphConfig = graphConfig;
+        this.channelFetcher = channelFetcher;
+    }
+
+    /**
+     * @param builder
+     * @param lookupIds ids of the vertices to look up, null if the job is not a point lookup
+     * @return
+     */
+    public PegasusClient.JobConfig.Builder setServers(
+            PegasusClient.JobConfig.Builder builder, @Nullable List<Long> lookupIds) {
+        Set<Long> servers = getServers(lookupIds);
+        if (servers == null) {
+            return builder.setAll(PegasusClient.Empty.newBuilder().build());
+        }
+        return builder.setPart(PegasusClient.ServerList.newBuilder().addAllServers(servers));
+    }
+
+    private @Nullable Set<Long> getServers(@Nullable List<Long> lookupIds) {
+        if (!PegasusConfig.PEGASUS_ROUTE_POINT_LOOKUP.get(graphConfig)
+                || ObjectUtils.isEmpty(lookupIds)) {
+            return null;
+        }
+        Set<Long> servers = new TreeSet<>();
+        for (Long id : lookupIds) {
+            int serverId = channelFetcher.getServerIdByVertexId(id);
+            if (serverId < 0) {
+                return null;
+            }
+            servers.add((long) serverId);
+        }
+        return (servers.size() == 1) ? servers : null;
+    }
+}
@@ -23,6 +23,7 @@ import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.config.PegasusConfig;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.alibaba.pegasus.JobHandle;
 import com.alibaba.pegasus.RpcChannel;
 import com.alibaba.pegasus.RpcClient;
 import com.alibaba.pegasus.intf.ResultProcessor;
@@ -39,11 +40,13 @@ import java.util.concurrent.atomic.AtomicReference;
 public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
     private final Configs graphConfig;
     private final AtomicReference<RpcClient> rpcClientRef;
+    private final PointLookupRouter router;
 
     public RpcExecutionClient(Configs graphConfig, ChannelFetcher<RpcChannel> channelFetcher) {
         super(channelFetcher);
         this.graphConfig = graphConfig;
         this.rpcClientRef = new AtomicReference<>();
+        this.router = new PointLookupRouter(graphConfig, channelFetcher);
     }
 
     @Override
@@ -60,7 +63,7 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
                 PegasusClient.JobRequest.newBuilder()
                         .setPlan(ByteString.copyFrom((byte[]) request.getRequestPhysical().build()))
                         .build();
-        PegasusClient.JobConfig jobConfig =
+        PegasusClient.JobConfig.Builder jobConfigBuilder =
                 PegasusClient.JobConfig.newBuilder()
                         .setJobId(request.getRequestId())
                         .setJobName(request.getRequestName())
@@ -68,37 +71,38 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
                         .setBatchSize(PegasusConfig.PEGASUS_BATCH_SIZE.get(graphConfig))
                         .setMemoryLimit(PegasusConfig.PEGASUS_MEMORY_LIMIT.get(graphConfig))
                         .setBatchCapacity(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.get(graphConfig))
-                        .setTimeLimit(timeoutConfig.getEngineTimeoutMS())
-                        .setAll(
-                                com.alibaba.pegasus.service.protocol.PegasusClient.Empty
-                                        .newBuilder()
-                                        .build())
-                        .build();
+                        .setTimeLimit(timeoutConfig.getEngineTimeoutMS());
+        // send the point lookup to the servers owning the vertices only
+        PegasusClient.JobConfig jobConfig =
+                router.setServers(jobConfigBuilder, request.getLookupIds()).build();
         jobRequest = jobRequest.toBuilder().setConf(jobConfig).build();
-        rpcClient.submit(
-                jobRequest,
-                new ResultProcessor() {
-                    @Override
-                    public void process(PegasusClient.JobResponse jobResponse) {
-                        try {
-                            listener.onNext(
-                                    IrResult.Results.parseFrom(jobResponse.getResp()).getRecord());
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
+        JobHandle jobHandle =
+                rpcClient.submit(
+                        jobRequest,
+                        new ResultProcessor() {
+                            @Override
+                            public void process(PegasusClient.JobResponse jobResponse) {
+                                try {
+                                    listener.onNext(
+                                            IrResult.Results.parseFrom(jobResponse.getResp())
+                                                    .getRecord());
+                                } catch (Exception e) {
+                                    throw new RuntimeException(e);
+                                }
+                            }
 
-                    @Override
-                    public void finish() {
-                        listener.onCompleted();
-                    }
+                            @Override
+                            public void finish() {
+                                listener.onCompleted();
+                            }
 
-                    @Override
-                    public void error(Status status) {
-                        listener.onError(status.asException());
-                    }
-                },
-                timeoutConfig.getChannelTimeoutMS());
+                            @Override
+                            public void error(Status status) {
+                                listener.onError(status.asException());
+                            }
+                        },
+                        timeoutConfig.getChannelTimeoutMS());
+        listener.onSubmitted(reason -> jobHandle.cancel(reason));
     }
 
     @Override
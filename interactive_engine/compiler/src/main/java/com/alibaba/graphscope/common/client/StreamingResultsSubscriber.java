@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.graphscope.common.client.type.ExecutionResponseListener;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * decode {@link IrResult.CollectiveResults} from the http response body incrementally, each of
+ * {@link IrResult.Results} is encoded as a length-delimited field in the body, which is decoded and
+ * sent to the listener once all its bytes arrive, instead of buffering the whole body.
+ * The next chunk is requested only after the records of the current one are consumed by the
+ * listener, so a slow listener applies back pressure to the response stream.
+ * The subscriber can be cancelled, e.g. when the request times out, after which the subscription is
+ * cancelled and no more chunk is requested or decoded.
+ */
+public class StreamingResultsSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+    // field number of `results` in CollectiveResults
+    private static final int RESULTS_FIELD_NUMBER = 1;
+    private static final int WIRETYPE_VARINT = 0;
+    private static final int WIRETYPE_FIXED64 = 1;
+    private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+    private static final int WIRETYPE_FIXED32 = 5;
+
+    private final ExecutionResponseListener listener;
+    private final CompletableFuture<Void> completion;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    // bytes received but not decoded yet
+    private byte[] buffer;
+    private int start;
+    private int end;
+    // the last varint read
+    private long varint;
+
+    public StreamingResultsSubscriber(ExecutionResponseListener listener) {
+        this.listener = listener;
+        this.completion = new CompletableFuture<>();
+        this.buffer = new byte[1024];
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        // cancelled before the response arrives
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+        if (cancelled) return;
+        try {
+            for (ByteBuffer chunk : chunks) {
+                append(chunk);
+            }
+            decode();
+            if (!cancelled) {
+                subscription.request(1);
+            }
+        } catch (Exception e) {
+            subscription.cancel();
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        completion.completeExceptionally(t);
+    }
+
+    @Override
+    public void onComplete() {
+        if (start != end) {
+            completion.completeExceptionally(
+                    new InvalidProtocolBufferException(
+                            "response is truncated, " + (end - start) + " bytes left"));
+        } else {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * cancel the subscription and complete the subscriber with the cause, the chunks arriving
+     * afterwards are dropped
+     * @param cause
+     */
+    public void cancel(Throwable cause) {
+        cancelled = true;
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        completion.completeExceptionally(cause);
+    }
+
+    /**
+     * @return the future completed when the whole response is decoded
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    private void append(ByteBuffer chunk) {
+        int size = chunk.remaining();
+        if (buffer.length - end < size) {
+            int remaining = end - start;
+            if (buffer.length - remaining < size) {
+                buffer =
+                        Arrays.copyOfRange(
+                                buffer, start, Math.max(2 * buffer.length, remaining + size));
+            } else {
+                System.arraycopy(buffer, start, buffer, 0, remaining);
+            }
+            start = 0;
+            end = remaining;
+        }
+        chunk.get(buffer, end, size);
+        end += size;
+    }
+
+    // decode all complete fields in the buffer
+    private void decode() throws InvalidProtocolBufferException {
+        while (start < end && !cancelled) {
+            int offset = readVarint(start);
+            if (offset < 0) return;
+            int fieldNumber = (int) (varint >>> 3);
+            int wireType = (int) (varint & 0x7);
+            switch (wireType) {
+                case WIRETYPE_VARINT:
+                    offset = readVarint(offset);
+                    if (offset < 0) return;
+                    break;
+                case WIRETYPE_FIXED64:
+                    offset += 8;
+                    break;
+                case WIRETYPE_FIXED32:
+                    offset += 4;
+                    break;
+                case WIRETYPE_LENGTH_DELIMITED:
+                    offset = readVarint(offset);
+                    if (offset < 0) return;
+                    if (varint < 0 || varint > Integer.MAX_VALUE) {
+                        throw new InvalidProtocolBufferException(
+                                "invalid length " + varint + " in response");
+                    }
+                    int length = (int) varint;
+                    if (end - offset < length) return;
+                    if (fieldNumber == RESULTS_FIELD_NUMBER) {
+                        IrResult.Results results =
+                                IrResult.Results.parseFrom(ByteBuffer.wrap(buffer, offset, length));
+                        listener.onNext(results.getRecord());
+                    }
+                    offset += length;
+                    break;
+                default:
+                    throw new InvalidProtocolBufferException(
+                            "invalid wire type " + wireType + " in response");
+            }
+            if (offset > end) return;
+            start = offset;
+        }
+    }
+
+    /**
+     * read a varint into {@link #varint}
+     * @return the offset after the varint, or -1 if the varint is incomplete
+     */
+    private int readVarint(int offset) throws InvalidProtocolBufferException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (offset >= end) return -1;
+            byte b = buffer[offset++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                varint = result;
+                return offset;
+            }
+        }
+        throw new InvalidProtocolBufferException("malformed varint in response");
+    }
+}
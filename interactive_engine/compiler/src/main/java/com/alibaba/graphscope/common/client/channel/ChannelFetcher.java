@@ -27,6 +27,16 @@ public interface ChannelFetcher<T> {
 
     Type getType();
 
+    /**
+     * get the server which owns the vertex, the id of a server is the index of its channel in
+     * {@link #fetch()}
+     * @param vertexId
+     * @return -1 if the owner is unknown
+     */
+    default int getServerIdByVertexId(long vertexId) {
+        return -1;
+    }
+
     enum Type {
         RPC,
         HTTP
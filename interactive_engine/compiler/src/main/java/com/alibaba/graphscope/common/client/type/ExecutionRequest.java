@@ -19,6 +19,10 @@ package com.alibaba.graphscope.common.client.type;
 import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
 import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
 /**
  * request to submit to remote engine service
  */
@@ -27,16 +31,27 @@ public class ExecutionRequest {
     private final String requestName;
     private final LogicalPlan requestLogical;
     private final PhysicalBuilder requestPhysical;
+    private final @Nullable List<Long> lookupIds;
 
     public ExecutionRequest(
             long requestId,
             String requestName,
             LogicalPlan requestLogical,
             PhysicalBuilder requestPhysical) {
+        this(requestId, requestName, requestLogical, requestPhysical, null);
+    }
+
+    public ExecutionRequest(
+            long requestId,
+            String requestName,
+            LogicalPlan requestLogical,
+            PhysicalBuilder requestPhysical,
+            @Nullable List<Long> lookupIds) {
         this.requestId = requestId;
         this.requestName = requestName;
         this.requestLogical = requestLogical;
         this.requestPhysical = requestPhysical;
+        this.lookupIds = lookupIds;
     }
 
     public long getRequestId() {
@@ -54,4 +69,9 @@ public class ExecutionRequest {
     public PhysicalBuilder getRequestPhysical() {
         return requestPhysical;
     }
+
+    // ids of the vertices to look up if the request is a point lookup, otherwise null
+    public @Nullable List<Long> getLookupIds() {
+        return lookupIds;
+    }
 }
@@ -18,6 +18,8 @@ package com.alibaba.graphscope.common.client.type;
 
 import com.alibaba.graphscope.gaia.proto.IrResult;
 
+import java.util.function.Consumer;
+
 /**
  * listener to handle response from remote engine service
  */
@@ -27,4 +29,11 @@ public interface ExecutionResponseListener {
     void onCompleted();
 
     void onError(Throwable t);
+
+    /**
+     * called after the request is submitted, the hook cancels the execution in the remote engine
+     * with the given reason
+     * @param cancelHook
+     */
+    default void onSubmitted(Consumer<String> cancelHook) {}
 }
@@ -42,4 +42,35 @@ public class FrontendConfig {
 
     public static final Config<String> CALCITE_DEFAULT_CHARSET =
             Config.stringConfig("calcite.default.charset", "UTF-8");
+
+    // max number of the cached plans of stored procedure calls, see ProcedurePlanCache
+    public static final Config<Integer> QUERY_PROCEDURE_PLAN_CACHE_SIZE =
+            Config.intConfig("query.procedure.plan.cache.size", 1024);
+
+    // admission control of queries before submitting to the engine, see QueryScheduler
+    public static final Config<Boolean> QUERY_SCHEDULER_ENABLED =
+            Config.boolConfig("query.scheduler.enabled", false);
+
+    // a query of no more hops than this is classified as a short query if there is no user hint
+    public static final Config<Integer> QUERY_SCHEDULER_SHORT_MAX_HOPS =
+            Config.intConfig("query.scheduler.short.max.hops", 1);
+
+    public static final Config<Integer> QUERY_SCHEDULER_SHORT_CONCURRENCY =
+            Config.intConfig("query.scheduler.short.concurrency", 64);
+
+    public static final Config<Integer> QUERY_SCHEDULER_SHORT_QUEUE_SIZE =
+            Config.intConfig("query.scheduler.short.queue.size", 1024);
+
+    // total `pegasus.memory.limit` of the running short queries, unlimited by default
+    public static final Config<Integer> QUERY_SCHEDULER_SHORT_MEMORY_BUDGET =
+            Config.intConfig("query.scheduler.short.memory.budget", Integer.MAX_VALUE);
+
+    public static final Config<Integer> QUERY_SCHEDULER_LONG_CONCURRENCY =
+            Config.intConfig("query.scheduler.long.concurrency", 8);
+
+    public static final Config<Integer> QUERY_SCHEDULER_LONG_QUEUE_SIZE =
+            Config.intConfig("query.scheduler.long.queue.size", 128);
+
+    public static final Config<Integer> QUERY_SCHEDULER_LONG_MEMORY_BUDGET =
+            Config.intConfig("query.scheduler.long.memory.budget", Integer.MAX_VALUE);
 }
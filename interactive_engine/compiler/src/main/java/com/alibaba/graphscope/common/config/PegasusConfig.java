@@ -34,4 +34,8 @@ public class PegasusConfig {
 
     public static final Config<Long> PEGASUS_GRPC_TIMEOUT =
             Config.longConfig("pegasus.grpc.timeout", 6000000L);
+
+    // send a point lookup only to the server owning the vertices to look up
+    public static final Config<Boolean> PEGASUS_ROUTE_POINT_LOOKUP =
+            Config.boolConfig("pegasus.route.point.lookup", false);
 }
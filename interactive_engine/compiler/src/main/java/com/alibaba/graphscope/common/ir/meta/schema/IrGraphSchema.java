@@ -110,6 +110,6 @@ public class IrGraphSchema implements GraphSchema {
 
     @Override
     public int getVersion() {
-        return this.getVersion();
+        return this.graphSchema.getVersion();
     }
 }
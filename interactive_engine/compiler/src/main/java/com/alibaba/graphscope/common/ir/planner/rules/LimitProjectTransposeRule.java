@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.planner.rules;
+
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalProject;
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalSort;
+import com.google.common.collect.ImmutableList;
+
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.rules.TransformationRule;
+import org.apache.calcite.tools.RelBuilderFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * push a limit (sort without collations) under a projection, i.e. `Match (a) Return a.name Limit
+ * 10`, the names are only evaluated for the limited results, and the limit can be further fused
+ * into the graph operators by {@link LimitPushDownRule}
+ */
+public class LimitProjectTransposeRule<C extends LimitProjectTransposeRule.Config>
+        extends RelRule<C> implements TransformationRule {
+    protected LimitProjectTransposeRule(C config) {
+        super(config);
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        GraphLogicalSort limit = call.rel(0);
+        GraphLogicalProject project = call.rel(1);
+        RelNode newLimit =
+                GraphLogicalSort.create(
+                        project.getInput(), limit.getCollation(), limit.offset, limit.fetch);
+        call.transformTo(project.copy(project.getTraitSet(), ImmutableList.of(newLimit)));
+    }
+
+    public static class Config implements RelRule.Config {
+        public static LimitProjectTransposeRule.Config DEFAULT =
+                new Config()
+                        .withOperandSupplier(
+                                b0 ->
+                                        b0.operand(GraphLogicalSort.class)
+                                                .predicate(
+                                                        k ->
+                                                                k.getCollation()
+                                                                        .getFieldCollations()
+                                                                        .isEmpty())
+                                                .oneInput(
+                                                        b1 ->
+                                                                b1.operand(
+                                                                                GraphLogicalProject
+                                                                                        .class)
+                                                                        .anyInputs()));
+
+        private RelRule.OperandTransform operandSupplier;
+        private @Nullable String description;
+        private RelBuilderFactory builderFactory;
+
+        @Override
+        public RelRule toRule() {
+            return new LimitProjectTransposeRule(this);
+        }
+
+        @Override
+        public Config withRelBuilderFactory(RelBuilderFactory relBuilderFactory) {
+            this.builderFactory = relBuilderFactory;
+            return this;
+        }
+
+        @Override
+        public Config withDescription(@Nullable String s) {
+            this.description = s;
+            return this;
+        }
+
+        @Override
+        public Config withOperandSupplier(OperandTransform operandTransform) {
+            this.operandSupplier = operandTransform;
+            return this;
+        }
+
+        @Override
+        public OperandTransform operandSupplier() {
+            return this.operandSupplier;
+        }
+
+        @Override
+        public @Nullable String description() {
+            return this.description;
+        }
+
+        @Override
+        public RelBuilderFactory relBuilderFactory() {
+            return this.builderFactory;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.planner.rules;
+
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalSort;
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalGetV;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalSource;
+import com.google.common.collect.ImmutableList;
+
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.plan.hep.HepRelVertex;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.rules.TransformationRule;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.tools.RelBuilderFactory;
+import org.apache.commons.lang3.ObjectUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.math.BigDecimal;
+
+/**
+ * fuse a limit into the graph operator under it, i.e. `g.V().limit(10)` or `g.V().out().limit(10)`,
+ * the source fetches at most `offset + fetch` vertices from each partition, and the expand fetches
+ * at most `offset + fetch` neighbors for each input vertex. The limit itself is kept to get the exact
+ * results globally. A scan with fused filters is skipped, since the limit can only be applied
+ * after the filtering.
+ */
+public class LimitPushDownRule<C extends LimitPushDownRule.Config> extends RelRule<C>
+        implements TransformationRule {
+    protected LimitPushDownRule(C config) {
+        super(config);
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        GraphLogicalSort limit = call.rel(0);
+        AbstractBindableTableScan input = call.rel(1);
+        AbstractBindableTableScan target = getFetchTarget(input);
+        if (target == null) {
+            return;
+        }
+        int fetch = intValue(limit.offset) + intValue(limit.fetch);
+        if (target.getFetch() != null && intValue(target.getFetch()) <= fetch) {
+            return;
+        }
+        AbstractBindableTableScan newTarget =
+                (AbstractBindableTableScan) target.copy(target.getTraitSet(), target.getInputs());
+        newTarget.setFetch(
+                limit.getCluster().getRexBuilder().makeExactLiteral(BigDecimal.valueOf(fetch)));
+        RelNode newInput =
+                (target == input)
+                        ? newTarget
+                        : input.copy(input.getTraitSet(), ImmutableList.of(newTarget));
+        call.transformTo(limit.copy(limit.getTraitSet(), ImmutableList.of(newInput)));
+    }
+
+    // get the graph operator which produces the input of the limit, which is the input itself or
+    // the expand under it, and which has no fused filters
+    private @Nullable AbstractBindableTableScan getFetchTarget(
+            AbstractBindableTableScan tableScan) {
+        AbstractBindableTableScan target = getProducer(tableScan);
+        // the storage may apply the fetch before the fused filters, i.e. vineyard without row
+        // filter pushdown, which returns less rows than the limit
+        return (target != null && ObjectUtils.isEmpty(target.getFilters())) ? target : null;
+    }
+
+    private @Nullable AbstractBindableTableScan getProducer(AbstractBindableTableScan tableScan) {
+        if (tableScan instanceof GraphLogicalSource || tableScan instanceof GraphLogicalExpand) {
+            return tableScan;
+        }
+        // getV on the end of edges without any filtering, the limit can be fused into the expand
+        if (tableScan instanceof GraphLogicalGetV
+                && ObjectUtils.isEmpty(tableScan.getFilters())
+                && tableScan.getTableConfig().isAll()
+                && tableScan.getInputs().size() == 1) {
+            RelNode input = tableScan.getInputs().get(0);
+            if (input instanceof HepRelVertex) {
+                input = ((HepRelVertex) input).getCurrentRel();
+            }
+            if (input instanceof GraphLogicalExpand) {
+                return (GraphLogicalExpand) input;
+            }
+        }
+        return null;
+    }
+
+    private static int intValue(@Nullable RexNode node) {
+        return (node == null) ? 0 : ((Number) ((RexLiteral) node).getValue()).intValue();
+    }
+
+    // the limit has literal offset and fetch, which may be dynamic params in prepared statements
+    private static boolean isLiteralLimit(GraphLogicalSort sort) {
+        return sort.getCollation().getFieldCollations().isEmpty()
+                && sort.fetch instanceof RexLiteral
+                && (sort.offset == null || sort.offset instanceof RexLiteral);
+    }
+
+    public static class Config implements RelRule.Config {
+        public static LimitPushDownRule.Config DEFAULT =
+                new Config()
+                        .withOperandSupplier(
+                                b0 ->
+                                        b0.operand(GraphLogicalSort.class)
+                                                .predicate(LimitPushDownRule::isLiteralLimit)
+                                                .oneInput(
+                                                        b1 ->
+                                                                b1.operand(
+                                                                                AbstractBindableTableScan
+                                                                                        .class)
+                                                                        .anyInputs()));
+
+        private RelRule.OperandTransform operandSupplier;
+        private @Nullable String description;
+        private RelBuilderFactory builderFactory;
+
+        @Override
+        public RelRule toRule() {
+            return new LimitPushDownRule(this);
+        }
+
+        @Override
+        public Config withRelBuilderFactory(RelBuilderFactory relBuilderFactory) {
+            this.builderFactory = relBuilderFactory;
+            return this;
+        }
+
+        @Override
+        public Config withDescription(@Nullable String s) {
+            this.description = s;
+            return this;
+        }
+
+        @Override
+        public Config withOperandSupplier(OperandTransform operandTransform) {
+            this.operandSupplier = operandTransform;
+            return this;
+        }
+
+        @Override
+        public OperandTransform operandSupplier() {
+            return this.operandSupplier;
+        }
+
+        @Override
+        public @Nullable String description() {
+            return this.description;
+        }
+
+        @Override
+        public RelBuilderFactory relBuilderFactory() {
+            return this.builderFactory;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.planner.rules;
+
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalGetV;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalSource;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalMultiMatch;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
+import com.alibaba.graphscope.common.ir.tools.AliasInference;
+import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.apache.calcite.plan.GraphOptCluster;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.rules.TransformationRule;
+import org.apache.calcite.tools.RelBuilderFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * eliminate the common prefixes shared by the sentences of a multi-match, i.e.
+ * `Match (a:person)-[k:knows]->(b:person)-[:knows]->(c),
+ * (a:person)-[k:knows]->(b:person)-[:created]->(d)` is rewritten to
+ * `Match (a:person)-[k:knows]->(b:person)-[:knows]->(c), (b:person)-[:created]->(d)`,
+ * then the prefix `(a:person)-[k:knows]->(b:person)` is only scanned and expanded once, and the
+ * result is joined with the other sentences by the tag `b`.
+ *
+ * A prefix can be shared only if it is identical in the sentences (including labels, filters and
+ * aliases), and all the vertices and edges in it have given tags, otherwise the anonymous elements
+ * in different sentences can be bound to different elements. I.e. given `m` parallel knows edges
+ * from a to b, the sentences with anonymous edges are joined into `m * m` rows by the tags a and b,
+ * which would be reduced to `m` rows by the rewriting. A sentence which is the prefix of a previous
+ * one is removed.
+ */
+public class MatchCommonPrefixRule<C extends MatchCommonPrefixRule.Config> extends RelRule<C>
+        implements TransformationRule {
+    protected MatchCommonPrefixRule(C config) {
+        super(config);
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        GraphLogicalMultiMatch match = call.rel(0);
+        List<List<RelNode>> chains = new ArrayList<>();
+        for (RelNode sentence : match.getSentences()) {
+            chains.add(getChain(sentence));
+        }
+        // the prefixes which can be shared by other sentences, denoted by the string of the plan
+        List<Set<String>> prefixes = new ArrayList<>();
+        List<String> digests = new ArrayList<>();
+        for (List<RelNode> chain : chains) {
+            prefixes.add(getSharedPrefixes(chain));
+            digests.add(RelOptUtil.toString(chain.get(chain.size() - 1)));
+        }
+        List<RelNode> sentences = new ArrayList<>();
+        Set<String> evaluated = new HashSet<>();
+        boolean changed = false;
+        for (int i = 0; i < chains.size(); ++i) {
+            List<RelNode> chain = chains.get(i);
+            RelNode sentence = chain.get(chain.size() - 1);
+            if (isRedundant(i, digests, prefixes)) {
+                changed = true;
+                continue;
+            }
+            // start from the last vertex of the longest prefix which has been evaluated
+            int start = 0;
+            for (int j = chain.size() - 1; j > 0; --j) {
+                if (evaluated.contains(RelOptUtil.toString(chain.get(j)))) {
+                    start = j;
+                    break;
+                }
+            }
+            if (start > 0 && isCopyable(chain, start)) {
+                sentences.add(copyFrom(chain, start));
+                changed = true;
+            } else {
+                sentences.add(sentence);
+            }
+            evaluated.addAll(prefixes.get(i));
+        }
+        if (!changed) {
+            return;
+        }
+        GraphOptCluster cluster = (GraphOptCluster) match.getCluster();
+        RelNode newMatch =
+                (sentences.size() == 1)
+                        ? GraphLogicalSingleMatch.create(
+                                cluster,
+                                null,
+                                match.getInput(),
+                                sentences.get(0),
+                                GraphOpt.Match.INNER)
+                        : GraphLogicalMultiMatch.create(
+                                cluster,
+                                null,
+                                match.getInput(),
+                                sentences.get(0),
+                                sentences.subList(1, sentences.size()));
+        call.transformTo(newMatch);
+    }
+
+    // the sentence is the prefix of a previous one, which is checked against the previous sentences
+    // only to keep the order of the fields in the match
+    private boolean isRedundant(int idx, List<String> sentences, List<Set<String>> prefixes) {
+        for (int i = 0; i < idx; ++i) {
+            if (prefixes.get(i).contains(sentences.get(idx))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the graph operators in the sentence from the start to the end
+    private List<RelNode> getChain(RelNode sentence) {
+        List<RelNode> chain = new ArrayList<>();
+        RelNode cur = sentence;
+        while (cur != null) {
+            chain.add(cur);
+            cur = cur.getInputs().isEmpty() ? null : cur.getInput(0);
+        }
+        return Lists.reverse(chain);
+    }
+
+    // the prefixes of the chain which start from a tagged source, consist of tagged expand and
+    // getV, and end with a tagged vertex
+    private Set<String> getSharedPrefixes(List<RelNode> chain) {
+        Set<String> prefixes = new HashSet<>();
+        for (int i = 0; i < chain.size(); ++i) {
+            RelNode node = chain.get(i);
+            if (i == 0 && !(node instanceof GraphLogicalSource)
+                    || i > 0
+                            && !(node instanceof GraphLogicalExpand
+                                    || node instanceof GraphLogicalGetV)) {
+                break;
+            }
+            // anonymous vertices and edges can not be shared
+            if (((AbstractBindableTableScan) node).getAliasId() == AliasInference.DEFAULT_ID) {
+                break;
+            }
+            if (node instanceof GraphLogicalExpand) {
+                continue;
+            }
+            prefixes.add(RelOptUtil.toString(node));
+        }
+        return prefixes;
+    }
+
+    // the graph operators after the start can be copied on a new source
+    private boolean isCopyable(List<RelNode> chain, int start) {
+        for (int i = start + 1; i < chain.size(); ++i) {
+            if (!(chain.get(i) instanceof GraphLogicalExpand
+                    || chain.get(i) instanceof GraphLogicalGetV)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // copy the sentence from the vertex at the start, which has been evaluated in other sentences
+    private RelNode copyFrom(List<RelNode> chain, int start) {
+        GraphLogicalGetV startV = (GraphLogicalGetV) chain.get(start);
+        RelNode cur =
+                GraphLogicalSource.create(
+                        (GraphOptCluster) startV.getCluster(),
+                        ImmutableList.of(),
+                        GraphOpt.Source.VERTEX,
+                        startV.getTableConfig(),
+                        startV.getAliasName());
+        for (int i = start + 1; i < chain.size(); ++i) {
+            RelNode node = chain.get(i);
+            cur = node.copy(node.getTraitSet(), ImmutableList.of(cur));
+        }
+        return cur;
+    }
+
+    public static class Config implements RelRule.Config {
+        public static MatchCommonPrefixRule.Config DEFAULT =
+                new Config()
+                        .withOperandSupplier(
+                                b0 -> b0.operand(GraphLogicalMultiMatch.class).anyInputs());
+
+        private RelRule.OperandTransform operandSupplier;
+        private @Nullable String description;
+        private RelBuilderFactory builderFactory;
+
+        @Override
+        public RelRule toRule() {
+            return new MatchCommonPrefixRule(this);
+        }
+
+        @Override
+        public Config withRelBuilderFactory(RelBuilderFactory relBuilderFactory) {
+            this.builderFactory = relBuilderFactory;
+            return this;
+        }
+
+        @Override
+        public Config withDescription(@Nullable String s) {
+            this.description = s;
+            return this;
+        }
+
+        @Override
+        public Config withOperandSupplier(OperandTransform operandTransform) {
+            this.operandSupplier = operandTransform;
+            return this;
+        }
+
+        @Override
+        public OperandTransform operandSupplier() {
+            return this.operandSupplier;
+        }
+
+        @Override
+        public @Nullable String description() {
+            return this.description;
+        }
+
+        @Override
+        public RelBuilderFactory relBuilderFactory() {
+            return this.builderFactory;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.alibaba.graphscope.common.ir.rel.type.TableConfig;
 import com.alibaba.graphscope.common.ir.tools.AliasInference;
 import com.alibaba.graphscope.common.ir.type.GraphSchemaType;
 import com.alibaba.graphscope.common.ir.type.GraphSchemaTypeList;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import org.apache.calcite.plan.GraphOptCluster;
@@ -49,8 +50,11 @@ public abstract class AbstractBindableTableScan extends TableScan {
     protected @Nullable ImmutableList<RexNode> filters;
     // for field trimmer
     protected @Nullable ImmutableIntList project;
+    // for limit fusion, the max count of results fetched from each partition of the source, or from
+    // each input element of the expand
+    protected @Nullable RexNode fetch;
 
-    protected final @Nullable RelNode input;
+    protected @Nullable RelNode input;
 
     protected final TableConfig tableConfig;
 
@@ -120,6 +124,10 @@ public abstract class AbstractBindableTableScan extends TableScan {
         return this.aliasId;
     }
 
+    public TableConfig getTableConfig() {
+        return this.tableConfig;
+    }
+
     // toString
 
     @Override
@@ -128,7 +136,8 @@ public abstract class AbstractBindableTableScan extends TableScan {
                 .item("tableConfig", tableConfig)
                 .item("alias", AliasInference.SIMPLE_NAME(getAliasName()))
                 .itemIf("fusedProject", project, !ObjectUtils.isEmpty(project))
-                .itemIf("fusedFilter", filters, !ObjectUtils.isEmpty(filters));
+                .itemIf("fusedFilter", filters, !ObjectUtils.isEmpty(filters))
+                .itemIf("fusedFetch", fetch, fetch != null);
     }
 
     @Override
@@ -136,6 +145,15 @@ public abstract class AbstractBindableTableScan extends TableScan {
         return this.input == null ? ImmutableList.of() : ImmutableList.of(this.input);
     }
 
+    @Override
+    public void replaceInput(int ordinalInParent, RelNode p) {
+        Preconditions.checkArgument(
+                ordinalInParent == 0 && this.input != null,
+                "invalid input ordinal " + ordinalInParent);
+        this.input = p;
+        recomputeDigest();
+    }
+
     public void setFilters(ImmutableList<RexNode> filters) {
         this.filters = Objects.requireNonNull(filters);
     }
@@ -143,4 +161,25 @@ public abstract class AbstractBindableTableScan extends TableScan {
     public @Nullable ImmutableList<RexNode> getFilters() {
         return filters;
     }
+
+    public void setFetch(RexNode fetch) {
+        this.fetch = Objects.requireNonNull(fetch);
+    }
+
+    public @Nullable RexNode getFetch() {
+        return fetch;
+    }
+
+    // the alias to copy the scan with, the default one is inferred again from the new inputs
+    protected @Nullable String getCopyAlias() {
+        return this.aliasName == AliasInference.DEFAULT_NAME ? null : this.aliasName;
+    }
+
+    // keep the fused filters, project and fetch when the scan is copied with new inputs
+    protected <T extends AbstractBindableTableScan> T copyFused(T copy) {
+        copy.filters = this.filters;
+        copy.project = this.project;
+        copy.fetch = this.fetch;
+        return copy;
+    }
 }
@@ -20,6 +20,7 @@ import com.alibaba.graphscope.common.ir.rel.type.TableConfig;
 import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
 
 import org.apache.calcite.plan.GraphOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.hint.RelHint;
@@ -55,6 +56,18 @@ public class GraphLogicalExpand extends AbstractBindableTableScan {
         return this.opt;
     }
 
+    @Override
+    public GraphLogicalExpand copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return copyFused(
+                create(
+                        (GraphOptCluster) getCluster(),
+                        getHints(),
+                        sole(inputs),
+                        getOpt(),
+                        getTableConfig(),
+                        getCopyAlias()));
+    }
+
     @Override
     public RelWriter explainTerms(RelWriter pw) {
         return super.explainTerms(pw).item("opt", getOpt());
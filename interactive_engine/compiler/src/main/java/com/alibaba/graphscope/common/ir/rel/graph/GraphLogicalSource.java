@@ -20,6 +20,8 @@ import com.alibaba.graphscope.common.ir.rel.type.TableConfig;
 import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
 
 import org.apache.calcite.plan.GraphOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.hint.RelHint;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -52,6 +54,17 @@ public class GraphLogicalSource extends AbstractBindableTableScan {
         return this.opt;
     }
 
+    @Override
+    public GraphLogicalSource copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return copyFused(
+                create(
+                        (GraphOptCluster) getCluster(),
+                        getHints(),
+                        getOpt(),
+                        getTableConfig(),
+                        getCopyAlias()));
+    }
+
     @Override
     public RelWriter explainTerms(RelWriter pw) {
         return super.explainTerms(pw).item("opt", getOpt());
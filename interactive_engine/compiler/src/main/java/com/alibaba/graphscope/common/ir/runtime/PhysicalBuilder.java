@@ -58,4 +58,31 @@ public abstract class PhysicalBuilder<R> implements AutoCloseable {
             public void close() throws Exception {}
         };
     }
+
+    /**
+     * wrap the physical plan which has been built, the plan is still available after the
+     * original builder is closed, i.e. a query waiting in the queue of the scheduler
+     */
+    public static final <R> PhysicalBuilder<R> createBuilt(
+            LogicalPlan logicalPlan, R physicalPlan) {
+        return createBuilt(logicalPlan, physicalPlan, StringUtils.EMPTY);
+    }
+
+    public static final <R> PhysicalBuilder<R> createBuilt(
+            LogicalPlan logicalPlan, R physicalPlan, String explain) {
+        return new PhysicalBuilder<R>(logicalPlan) {
+            @Override
+            public String explain() {
+                return explain;
+            }
+
+            @Override
+            public R build() {
+                return physicalPlan;
+            }
+
+            @Override
+            public void close() throws Exception {}
+        };
+    }
 }
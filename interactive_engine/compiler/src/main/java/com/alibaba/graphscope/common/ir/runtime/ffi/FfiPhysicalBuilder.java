@@ -23,6 +23,7 @@ import com.alibaba.graphscope.common.ir.rel.GraphLogicalAggregate;
 import com.alibaba.graphscope.common.ir.rel.GraphLogicalProject;
 import com.alibaba.graphscope.common.ir.rel.GraphLogicalSort;
 import com.alibaba.graphscope.common.ir.rel.GraphRelShuttleWrapper;
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
 import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalExpand;
 import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalGetV;
 import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalPathExpand;
@@ -32,6 +33,7 @@ import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
 import com.alibaba.graphscope.common.ir.runtime.RegularPhysicalBuilder;
 import com.alibaba.graphscope.common.ir.runtime.type.PhysicalNode;
 import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
+import com.alibaba.graphscope.common.ir.tools.ScanSpecs;
 import com.alibaba.graphscope.common.jna.IrCoreLibrary;
 import com.alibaba.graphscope.common.jna.type.FfiData;
 import com.alibaba.graphscope.common.jna.type.FfiResult;
@@ -48,6 +50,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -59,6 +62,7 @@ public class FfiPhysicalBuilder extends RegularPhysicalBuilder<Pointer, byte[]>
     private final IrMeta irMeta;
     private final Configs graphConfig;
     private final PlanPointer planPointer;
+    private final Map<AbstractBindableTableScan, ScanSpecs.Columns> scanColumns;
 
     public FfiPhysicalBuilder(Configs graphConfig, IrMeta irMeta, LogicalPlan logicalPlan) {
         this(graphConfig, irMeta, logicalPlan, createDefaultPlanPointer(irMeta));
@@ -66,12 +70,24 @@ public class FfiPhysicalBuilder extends RegularPhysicalBuilder<Pointer, byte[]>
 
     public FfiPhysicalBuilder(
             Configs graphConfig, IrMeta irMeta, LogicalPlan logicalPlan, PlanPointer planPointer) {
+        this(graphConfig, irMeta, logicalPlan, planPointer, ScanSpecs.inferColumns(logicalPlan));
+    }
+
+    // the columns are inferred from the whole plan, and shared by the builders of join inputs
+    private FfiPhysicalBuilder(
+            Configs graphConfig,
+            IrMeta irMeta,
+            LogicalPlan logicalPlan,
+            PlanPointer planPointer,
+            Map<AbstractBindableTableScan, ScanSpecs.Columns> scanColumns) {
         super(
                 logicalPlan,
-                new GraphRelShuttleWrapper(new RelToFfiConverter(irMeta.getSchema().isColumnId())));
+                new GraphRelShuttleWrapper(
+                        new RelToFfiConverter(irMeta.getSchema().isColumnId(), scanColumns)));
         this.graphConfig = graphConfig;
         this.irMeta = irMeta;
         this.planPointer = Objects.requireNonNull(planPointer);
+        this.scanColumns = scanColumns;
         initialize();
     }
 
@@ -133,13 +149,15 @@ public class FfiPhysicalBuilder extends RegularPhysicalBuilder<Pointer, byte[]>
                             graphConfig,
                             irMeta,
                             leftPlan,
-                            new PlanPointer(this.planPointer.ptrPlan));
+                            new PlanPointer(this.planPointer.ptrPlan),
+                            scanColumns);
             FfiPhysicalBuilder rightBuilder =
                     new FfiPhysicalBuilder(
                             graphConfig,
                             irMeta,
                             rightPlan,
-                            new PlanPointer(this.planPointer.ptrPlan));
+                            new PlanPointer(this.planPointer.ptrPlan),
+                            scanColumns);
             checkFfiResult(
                     LIB.appendJoinOperator(
                             ptrPlan,
@@ -31,8 +31,10 @@ import com.alibaba.graphscope.common.ir.rex.RexGraphVariable;
 import com.alibaba.graphscope.common.ir.runtime.proto.RexToProtoConverter;
 import com.alibaba.graphscope.common.ir.runtime.type.PhysicalNode;
 import com.alibaba.graphscope.common.ir.tools.AliasInference;
+import com.alibaba.graphscope.common.ir.tools.ScanSpecs;
 import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
 import com.alibaba.graphscope.common.ir.type.GraphLabelType;
+import com.alibaba.graphscope.common.ir.type.GraphNameOrId;
 import com.alibaba.graphscope.common.ir.type.GraphProperty;
 import com.alibaba.graphscope.common.ir.type.GraphSchemaType;
 import com.alibaba.graphscope.common.ir.type.GraphSchemaTypeList;
@@ -41,6 +43,7 @@ import com.alibaba.graphscope.common.jna.type.*;
 import com.alibaba.graphscope.gaia.proto.OuterExpression;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.sun.jna.Pointer;
 
@@ -50,6 +53,7 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.logical.LogicalFilter;
 import org.apache.calcite.rel.logical.LogicalJoin;
 import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
@@ -63,6 +67,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -72,10 +77,21 @@ import java.util.stream.Collectors;
 public class RelToFfiConverter implements GraphRelShuttle {
     private static final Logger logger = LoggerFactory.getLogger(RelToFfiConverter.class);
     private static final IrCoreLibrary LIB = IrCoreLibrary.INSTANCE;
+    // extra param of query params, the number of the leading conjunctions in the predicate which
+    // compare a single column with a constant
+    public static final String VECTORIZED_CONJUNCTIONS = "vectorized_conjunctions";
+
     private final boolean isColumnId;
+    private final Map<AbstractBindableTableScan, ScanSpecs.Columns> scanColumns;
 
     public RelToFfiConverter(boolean isColumnId) {
+        this(isColumnId, ImmutableMap.of());
+    }
+
+    public RelToFfiConverter(
+            boolean isColumnId, Map<AbstractBindableTableScan, ScanSpecs.Columns> scanColumns) {
         this.isColumnId = isColumnId;
+        this.scanColumns = scanColumns;
     }
 
     @Override
@@ -450,12 +466,42 @@ public class RelToFfiConverter implements GraphRelShuttle {
                 k -> {
                     checkFfiResult(LIB.addParamsTable(params, ArgUtils.asNameOrId(k)));
                 });
+        ScanSpecs.Columns columns = scanColumns.get(tableScan);
+        if (columns != null) {
+            if (columns.isAll()) {
+                checkFfiResult(LIB.setParamsIsAllColumns(params));
+            } else {
+                for (GraphNameOrId key : columns.getKeys()) {
+                    checkFfiResult(
+                            LIB.addParamsColumn(
+                                    params,
+                                    (key.getOpt() == GraphNameOrId.Opt.ID)
+                                            ? ArgUtils.asNameOrId(key.getId())
+                                            : ArgUtils.asNameOrId(key.getName())));
+                }
+            }
+        }
+        if (tableScan.getFetch() != null) {
+            int fetch = range(null, tableScan.getFetch()).get(1);
+            // the runtime takes `upper - 1` elements by the limit of query params
+            checkFfiResult(LIB.setParamsRange(params, 0, fetch + 1));
+        }
         if (ObjectUtils.isNotEmpty(tableScan.getFilters())) {
+            RexBuilder rexBuilder = tableScan.getCluster().getRexBuilder();
+            ScanSpecs.Filters filters =
+                    ScanSpecs.normalizeFilter(rexBuilder, tableScan.getFilters().get(0));
             OuterExpression.Expression expression =
-                    tableScan.getFilters().get(0).accept(new RexToProtoConverter(true, isColumnId));
+                    filters.compose(rexBuilder).accept(new RexToProtoConverter(true, isColumnId));
             checkFfiResult(
                     LIB.setParamsPredicatePb(
                             params, new FfiPbPointer.ByValue(expression.toByteArray())));
+            if (filters.getVectorizedCount() > 0) {
+                checkFfiResult(
+                        LIB.addParamsExtra(
+                                params,
+                                VECTORIZED_CONJUNCTIONS,
+                                String.valueOf(filters.getVectorizedCount())));
+            }
         }
         return params;
     }
@@ -105,6 +105,10 @@ public abstract class Utils {
         switch (opt) {
             case ARBITRARY:
                 return PathOpt.Arbitrary;
+            case ANY_SHORTEST:
+                return PathOpt.AnyShortest;
+            case ALL_SHORTEST:
+                return PathOpt.AllShortest;
             case SIMPLE:
             default:
                 return PathOpt.Simple;
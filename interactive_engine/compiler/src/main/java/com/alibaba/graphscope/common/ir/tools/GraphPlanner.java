@@ -25,6 +25,9 @@ import com.alibaba.graphscope.common.ir.meta.reader.LocalMetaDataReader;
 import com.alibaba.graphscope.common.ir.meta.schema.GraphOptSchema;
 import com.alibaba.graphscope.common.ir.meta.schema.IrGraphSchema;
 import com.alibaba.graphscope.common.ir.planner.rules.FilterMatchRule;
+import com.alibaba.graphscope.common.ir.planner.rules.LimitProjectTransposeRule;
+import com.alibaba.graphscope.common.ir.planner.rules.LimitPushDownRule;
+import com.alibaba.graphscope.common.ir.planner.rules.MatchCommonPrefixRule;
 import com.alibaba.graphscope.common.ir.planner.rules.NotMatchToAntiJoinRule;
 import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
 import com.alibaba.graphscope.common.ir.runtime.ProcedurePhysicalBuilder;
@@ -87,7 +90,7 @@ public class GraphPlanner {
 
     public PlannerInstance instance(ParseTree parsedQuery, IrMeta irMeta) {
         long id = generateInstanceId();
-        String name = "ir_plan_" + id;
+        String name = planName(id);
         GraphOptCluster optCluster = GraphOptCluster.create(this.optPlanner, this.rexBuilder);
         return new PlannerInstance(id, name, parsedQuery, optCluster, irMeta);
     }
@@ -97,6 +100,10 @@ public class GraphPlanner {
         return idGenerator.getAndAdd(delta);
     }
 
+    static String planName(long id) {
+        return "ir_plan_" + id;
+    }
+
     public class PlannerInstance {
         private final long id;
         private final String name;
@@ -135,6 +142,8 @@ public class GraphPlanner {
                 logicalPlan =
                         new LogicalPlan(planner.findBestExp(), logicalPlan.getDynamicParams());
             }
+            // extract before building the physical plan which removes the id predicates
+            List<Long> lookupIds = PointLookupExtractor.extract(logicalPlan);
             // build physical plan from logical plan
             PhysicalBuilder physicalBuilder;
             if (logicalPlan.isReturnEmpty()) {
@@ -144,7 +153,7 @@ public class GraphPlanner {
             } else {
                 physicalBuilder = new ProcedurePhysicalBuilder(logicalPlan);
             }
-            return new Summary(this.id, this.name, logicalPlan, physicalBuilder);
+            return new Summary(this.id, this.name, logicalPlan, physicalBuilder, lookupIds);
         }
     }
 
@@ -153,13 +162,24 @@ public class GraphPlanner {
         private final String name;
         private final LogicalPlan logicalPlan;
         private final PhysicalBuilder physicalBuilder;
+        private final @Nullable List<Long> lookupIds;
 
         public Summary(
                 long id, String name, LogicalPlan logicalPlan, PhysicalBuilder physicalBuilder) {
+            this(id, name, logicalPlan, physicalBuilder, null);
+        }
+
+        public Summary(
+                long id,
+                String name,
+                LogicalPlan logicalPlan,
+                PhysicalBuilder physicalBuilder,
+                @Nullable List<Long> lookupIds) {
             this.id = id;
             this.name = name;
             this.logicalPlan = Objects.requireNonNull(logicalPlan);
             this.physicalBuilder = Objects.requireNonNull(physicalBuilder);
+            this.lookupIds = lookupIds;
         }
 
         public long getId() {
@@ -177,6 +197,13 @@ public class GraphPlanner {
         public @Nullable PhysicalBuilder getPhysicalBuilder() {
             return physicalBuilder;
         }
+
+        /**
+         * @return ids of the vertices to look up if the plan is a point lookup, otherwise null
+         */
+        public @Nullable List<Long> getLookupIds() {
+            return lookupIds;
+        }
     }
 
     private RelOptPlanner createRelOptPlanner(PlannerConfig plannerConfig) {
@@ -199,6 +226,16 @@ public class GraphPlanner {
                                         } else if (k.equals(
                                                 NotMatchToAntiJoinRule.class.getSimpleName())) {
                                             ruleConfigs.add(NotMatchToAntiJoinRule.Config.DEFAULT);
+                                        } else if (k.equals(
+                                                LimitProjectTransposeRule.class.getSimpleName())) {
+                                            ruleConfigs.add(
+                                                    LimitProjectTransposeRule.Config.DEFAULT);
+                                        } else if (k.equals(
+                                                LimitPushDownRule.class.getSimpleName())) {
+                                            ruleConfigs.add(LimitPushDownRule.Config.DEFAULT);
+                                        } else if (k.equals(
+                                                MatchCommonPrefixRule.class.getSimpleName())) {
+                                            ruleConfigs.add(MatchCommonPrefixRule.Config.DEFAULT);
                                         } else {
                                             // todo: add more rule configs
                                         }
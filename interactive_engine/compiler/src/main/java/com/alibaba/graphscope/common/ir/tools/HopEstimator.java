@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.MatchSentence;
+import com.alibaba.graphscope.common.intermediate.operator.ApplyOp;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.MatchOp;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.PathExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.UnionOp;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalPathExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalMultiMatch;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * estimate the cost of a plan by the number of hops it expands, which is used to classify the
+ * queries before scheduling, the number of hops of a path expand is its max length, and is
+ * unbounded if the length is not a literal. Both the plans of cypher and the op collections of
+ * gremlin are estimated in the same way, sub traversals of apply, union and match are counted as
+ * well.
+ */
+public class HopEstimator {
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    public static int estimate(LogicalPlan logicalPlan) {
+        return (logicalPlan.getRegularQuery() == null)
+                ? 0
+                : estimate(logicalPlan.getRegularQuery());
+    }
+
+    public static int estimate(RelNode rel) {
+        int hops = 0;
+        if (rel instanceof GraphLogicalExpand) {
+            hops = 1;
+        } else if (rel instanceof GraphLogicalPathExpand) {
+            hops = estimatePathExpand((GraphLogicalPathExpand) rel);
+        } else if (rel instanceof GraphLogicalSingleMatch) {
+            hops = estimate(((GraphLogicalSingleMatch) rel).getSentence());
+        } else if (rel instanceof GraphLogicalMultiMatch) {
+            for (RelNode sentence : ((GraphLogicalMultiMatch) rel).getSentences()) {
+                hops = add(hops, estimate(sentence));
+            }
+        }
+        for (RelNode input : rel.getInputs()) {
+            hops = add(hops, estimate(input));
+        }
+        return hops;
+    }
+
+    public static int estimate(InterOpCollection opCollection) {
+        int hops = 0;
+        for (InterOpBase op : opCollection.unmodifiableCollection()) {
+            if (op instanceof PathExpandOp) {
+                Optional<OpArg> upper = ((PathExpandOp) op).getUpper();
+                // the upper bound is exclusive
+                hops =
+                        add(
+                                hops,
+                                upper.isPresent()
+                                        ? Math.max((Integer) upper.get().applyArg() - 1, 0)
+                                        : UNBOUNDED);
+            } else if (op instanceof ExpandOp) {
+                hops = add(hops, 1);
+            } else if (op instanceof ApplyOp) {
+                Optional<OpArg> subOps = ((ApplyOp) op).getSubOpCollection();
+                if (subOps.isPresent()) {
+                    hops = add(hops, estimate((InterOpCollection) subOps.get().applyArg()));
+                }
+            } else if (op instanceof UnionOp) {
+                Optional<OpArg> subOpsList = ((UnionOp) op).getSubOpCollectionList();
+                if (subOpsList.isPresent()) {
+                    for (Object subOps : (List) subOpsList.get().applyArg()) {
+                        hops = add(hops, estimate((InterOpCollection) subOps));
+                    }
+                }
+            } else if (op instanceof MatchOp) {
+                Optional<OpArg> sentences = ((MatchOp) op).getSentences();
+                if (sentences.isPresent()) {
+                    for (Object sentence : (List) sentences.get().applyArg()) {
+                        hops = add(hops, estimate(((MatchSentence) sentence).getBinders()));
+                    }
+                }
+            }
+        }
+        return hops;
+    }
+
+    private static int estimatePathExpand(GraphLogicalPathExpand pxd) {
+        int offset = getLiteral(pxd.getOffset(), 0);
+        int fetch = getLiteral(pxd.getFetch(), UNBOUNDED);
+        return (fetch == UNBOUNDED) ? UNBOUNDED : add(offset, Math.max(fetch - 1, 0));
+    }
+
+    private static int getLiteral(RexNode rexNode, int defaultValue) {
+        if (rexNode == null) {
+            return defaultValue;
+        }
+        if (rexNode.getKind() != SqlKind.LITERAL) {
+            return UNBOUNDED;
+        }
+        Integer value = ((RexLiteral) rexNode).getValueAs(Integer.class);
+        return (value == null) ? UNBOUNDED : value;
+    }
+
+    private static int add(int a, int b) {
+        return (int) Math.min((long) a + b, UNBOUNDED);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalAggregate;
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalProject;
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalSort;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalSource;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
+import com.alibaba.graphscope.common.ir.rel.type.group.GraphAggCall;
+import com.alibaba.graphscope.common.ir.rex.RexGraphVariable;
+import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
+import com.alibaba.graphscope.common.ir.type.GraphProperty;
+import com.google.common.collect.Lists;
+
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeUtil;
+import org.apache.commons.lang3.ObjectUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+/**
+ * extract the vertex ids from a point lookup, i.e. `Match (a) Where a.~id = 1 Return a.name`, a
+ * plan is a point lookup if it starts from the vertices of given ids and never leaves them, all the
+ * data the plan touches is owned by the servers of these vertices.
+ * The extraction should be done before building the physical plan, which removes the id predicates
+ * from the source.
+ */
+public class PointLookupExtractor {
+    /**
+     * @param logicalPlan
+     * @return null if the plan is not a point lookup
+     */
+    public static @Nullable List<Long> extract(LogicalPlan logicalPlan) {
+        if (logicalPlan.isReturnEmpty() || logicalPlan.getRegularQuery() == null) {
+            return null;
+        }
+        return extract(logicalPlan.getRegularQuery());
+    }
+
+    public static @Nullable List<Long> extract(RelNode rel) {
+        if (rel instanceof GraphLogicalSource) {
+            return extractFromSource((GraphLogicalSource) rel);
+        }
+        if (rel instanceof GraphLogicalSingleMatch) {
+            GraphLogicalSingleMatch match = (GraphLogicalSingleMatch) rel;
+            return (match.getInputs().isEmpty() && match.getMatchOpt() == GraphOpt.Match.INNER)
+                    ? extract(match.getSentence())
+                    : null;
+        }
+        // operators which only compute on the records of the input, a sub query can visit the
+        // vertices owned by other servers
+        boolean isLocal =
+                rel instanceof GraphLogicalProject
+                                && !RexUtil.SubQueryFinder.containsSubQuery((Project) rel)
+                        || rel instanceof GraphLogicalAggregate
+                                && !containsSubQuery((GraphLogicalAggregate) rel)
+                        || rel instanceof GraphLogicalSort
+                        || rel instanceof Filter
+                                && !RexUtil.SubQueryFinder.containsSubQuery((Filter) rel);
+        return (isLocal && rel.getInputs().size() == 1) ? extract(rel.getInput(0)) : null;
+    }
+
+    private static boolean containsSubQuery(GraphLogicalAggregate aggregate) {
+        if (RexUtil.SubQueryFinder.find(aggregate.getGroupKey().getVariables()) != null) {
+            return true;
+        }
+        for (GraphAggCall aggCall : aggregate.getAggCalls()) {
+            if (RexUtil.SubQueryFinder.find(aggCall.getOperands()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @Nullable List<Long> extractFromSource(GraphLogicalSource source) {
+        if (source.getOpt() != GraphOpt.Source.VERTEX || ObjectUtils.isEmpty(source.getFilters())) {
+            return null;
+        }
+        // any conjunction of the id predicates limits the source to the given ids
+        for (RexNode conjunction : RelOptUtil.conjunctions(source.getFilters().get(0))) {
+            List<Long> ids = extractIds(conjunction);
+            if (ids != null) {
+                return ids;
+            }
+        }
+        return null;
+    }
+
+    // i.e. a.~id = 1 or a.~id = 2
+    private static @Nullable List<Long> extractIds(RexNode rexNode) {
+        List<Long> ids = Lists.newArrayList();
+        for (RexNode disjunction : RelOptUtil.disjunctions(rexNode)) {
+            if (disjunction.getKind() != SqlKind.EQUALS) return null;
+            List<RexNode> operands = ((RexCall) disjunction).getOperands();
+            Long id = getIdLiteral(operands.get(0), operands.get(1));
+            if (id == null) {
+                id = getIdLiteral(operands.get(1), operands.get(0));
+            }
+            if (id == null) return null;
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static @Nullable Long getIdLiteral(RexNode variable, RexNode literal) {
+        if (!(variable instanceof RexGraphVariable)
+                || ((RexGraphVariable) variable).getProperty() == null
+                || ((RexGraphVariable) variable).getProperty().getOpt() != GraphProperty.Opt.ID
+                || literal.getKind() != SqlKind.LITERAL
+                || !SqlTypeUtil.isExactNumeric(literal.getType())) {
+            return null;
+        }
+        return ((RexLiteral) literal).getValueAs(Long.class);
+    }
+}
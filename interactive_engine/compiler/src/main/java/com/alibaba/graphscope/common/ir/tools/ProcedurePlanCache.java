@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.antlr4.Antlr4Parser;
+import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
+import com.alibaba.graphscope.common.store.IrMeta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Objects;
+
+/**
+ * Cache the plans of stored procedure calls, to skip parsing and planning a call which has been
+ * planned before. A plan is keyed by the query text and the version of the schema it is planned
+ * on, thus a plan is not reused once the schema changes. Plans of other queries are not cached.
+ */
+public class ProcedurePlanCache {
+    private final GraphPlanner graphPlanner;
+    private final Cache<Key, Plan> plans;
+
+    public ProcedurePlanCache(GraphPlanner graphPlanner, int maxSize) {
+        this.graphPlanner = Objects.requireNonNull(graphPlanner);
+        this.plans = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * @return the plan of the query, which is a new instance with its own id for a cached call
+     */
+    public GraphPlanner.Summary plan(String query, Antlr4Parser parser, IrMeta irMeta)
+            throws Exception {
+        Key key = new Key(query, irMeta.getSchema().getVersion());
+        Plan plan = plans.getIfPresent(key);
+        if (plan != null) {
+            return plan.instance(graphPlanner.generateInstanceId());
+        }
+        GraphPlanner.Summary summary =
+                graphPlanner.instance(parser.parse(query), irMeta).plan();
+        LogicalPlan logicalPlan = summary.getLogicalPlan();
+        if (logicalPlan.getProcedureCall() != null) {
+            PhysicalBuilder<byte[]> physicalBuilder = summary.getPhysicalBuilder();
+            plans.put(
+                    key,
+                    new Plan(logicalPlan, physicalBuilder.build(), physicalBuilder.explain()));
+        }
+        return summary;
+    }
+
+    public long size() {
+        return plans.size();
+    }
+
+    private static class Key {
+        private final String query;
+        private final int schemaVersion;
+
+        public Key(String query, int schemaVersion) {
+            this.query = Objects.requireNonNull(query);
+            this.schemaVersion = schemaVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return schemaVersion == key.schemaVersion && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, schemaVersion);
+        }
+    }
+
+    private static class Plan {
+        private final LogicalPlan logicalPlan;
+        // the arguments are literals of the query, thus are bound in the physical plan already
+        private final byte[] physicalPlan;
+        private final String explain;
+
+        public Plan(LogicalPlan logicalPlan, byte[] physicalPlan, String explain) {
+            this.logicalPlan = logicalPlan;
+            this.physicalPlan = physicalPlan;
+            this.explain = explain;
+        }
+
+        public GraphPlanner.Summary instance(long id) {
+            return new GraphPlanner.Summary(
+                    id,
+                    GraphPlanner.planName(id),
+                    logicalPlan,
+                    PhysicalBuilder.createBuilt(logicalPlan, physicalPlan, explain));
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalAggregate;
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalProject;
+import com.alibaba.graphscope.common.ir.rel.GraphLogicalSort;
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalGetV;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalPathExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalMultiMatch;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
+import com.alibaba.graphscope.common.ir.rel.type.group.GraphAggCall;
+import com.alibaba.graphscope.common.ir.rel.type.order.GraphRelCollations;
+import com.alibaba.graphscope.common.ir.rex.RexGraphVariable;
+import com.alibaba.graphscope.common.ir.rex.RexVariableAliasCollector;
+import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
+import com.alibaba.graphscope.common.ir.type.GraphNameOrId;
+import com.alibaba.graphscope.common.ir.type.GraphProperty;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * infer the specification of each table scan ({@code GraphLogicalSource}, {@code
+ * GraphLogicalExpand} or {@code GraphLogicalGetV}) before building the physical plan, which
+ * consists of the property columns the query touches, and the filter normalized into a list of
+ * conjunctions, where the conjunctions comparing a single column with a constant come first, so
+ * that the store can evaluate them on the encoded property buffers before decoding the others.
+ * The inference is conservative, all columns are required if a whole element is referred.
+ *
+ * <p>The columns are not given to a {@code GraphLogicalGetV} without filters, any column makes the
+ * query params of the getV queryable, which splits it into GetV(Adj) + Shuffle + GetV(Self) in
+ * the physical plan instead of fusing it into the previous expand, the columns are still inferred
+ * by ir_core in that case.
+ */
+public class ScanSpecs {
+    // give up the normalization if the cnf is too large
+    private static final int MAX_CNF_NODE_COUNT = 64;
+
+    private static final Set<SqlKind> VECTORIZED_KINDS =
+            ImmutableSet.of(
+                    SqlKind.EQUALS,
+                    SqlKind.NOT_EQUALS,
+                    SqlKind.LESS_THAN,
+                    SqlKind.LESS_THAN_OR_EQUAL,
+                    SqlKind.GREATER_THAN,
+                    SqlKind.GREATER_THAN_OR_EQUAL,
+                    SqlKind.IS_NULL,
+                    SqlKind.IS_NOT_NULL);
+
+    /**
+     * infer the property columns required by each table scan in the plan
+     * @param logicalPlan
+     * @return table scans (identified by reference) to their columns
+     */
+    public static Map<AbstractBindableTableScan, Columns> inferColumns(LogicalPlan logicalPlan) {
+        return (logicalPlan.getRegularQuery() == null)
+                ? new IdentityHashMap<>()
+                : inferColumns(logicalPlan.getRegularQuery());
+    }
+
+    public static Map<AbstractBindableTableScan, Columns> inferColumns(RelNode root) {
+        ColumnsInference inference = new ColumnsInference();
+        inference.collectAliases(root);
+        // the elements in the head are returned if the plan ends with them
+        inference.requireAll(inference.visit(root));
+        inference.columns
+                .keySet()
+                .removeIf(
+                        k ->
+                                k instanceof GraphLogicalGetV
+                                        && ObjectUtils.isEmpty(k.getFilters()));
+        return inference.columns;
+    }
+
+    /**
+     * normalize the filter of a table scan into conjunctions, conjunctions which can be vectorized
+     * come first
+     * @param rexBuilder
+     * @param filter
+     * @return
+     */
+    public static Filters normalizeFilter(RexBuilder rexBuilder, RexNode filter) {
+        RexNode cnf = RexUtil.toCnf(rexBuilder, MAX_CNF_NODE_COUNT, filter);
+        List<RexNode> vectorized = Lists.newArrayList();
+        List<RexNode> others = Lists.newArrayList();
+        for (RexNode conjunction : RelOptUtil.conjunctions(cnf)) {
+            if (isVectorized(conjunction)) {
+                vectorized.add(conjunction);
+            } else {
+                others.add(conjunction);
+            }
+        }
+        return new Filters(
+                ImmutableList.<RexNode>builder().addAll(vectorized).addAll(others).build(),
+                vectorized.size());
+    }
+
+    // i.e. HEAD.age > 10, HEAD.name = $name or HEAD.name IS NULL
+    private static boolean isVectorized(RexNode conjunction) {
+        if (!VECTORIZED_KINDS.contains(conjunction.getKind())) {
+            return false;
+        }
+        List<RexNode> operands = ((RexCall) conjunction).getOperands();
+        if (operands.size() == 1) {
+            return isSelfColumn(operands.get(0));
+        }
+        return isSelfColumn(operands.get(0)) && isConstant(operands.get(1))
+                || isSelfColumn(operands.get(1)) && isConstant(operands.get(0));
+    }
+
+    private static boolean isSelfColumn(RexNode rexNode) {
+        if (!(rexNode instanceof RexGraphVariable)) {
+            return false;
+        }
+        RexGraphVariable var = (RexGraphVariable) rexNode;
+        return var.getAliasId() == AliasInference.DEFAULT_ID
+                && var.getProperty() != null
+                && var.getProperty().getOpt() == GraphProperty.Opt.KEY;
+    }
+
+    private static boolean isConstant(RexNode rexNode) {
+        return rexNode.getKind() == SqlKind.LITERAL || rexNode.getKind() == SqlKind.DYNAMIC_PARAM;
+    }
+
+    /**
+     * property columns required by a table scan
+     */
+    public static class Columns {
+        private final Set<GraphNameOrId> keys = new LinkedHashSet<>();
+        private boolean all;
+
+        public boolean isAll() {
+            return all;
+        }
+
+        public Set<GraphNameOrId> getKeys() {
+            return all ? ImmutableSet.of() : ImmutableSet.copyOf(keys);
+        }
+
+        @Override
+        public String toString() {
+            return all
+                    ? GraphProperty.ALL_KEY
+                    : keys.stream()
+                            .map(
+                                    k ->
+                                            (k.getOpt() == GraphNameOrId.Opt.ID)
+                                                    ? String.valueOf(k.getId())
+                                                    : k.getName())
+                            .collect(Collectors.toList())
+                            .toString();
+        }
+    }
+
+    /**
+     * normalized filter of a table scan, the first {@code vectorizedCount} conjunctions compare a
+     * single column with a constant
+     */
+    public static class Filters {
+        private final ImmutableList<RexNode> conjunctions;
+        private final int vectorizedCount;
+
+        public Filters(ImmutableList<RexNode> conjunctions, int vectorizedCount) {
+            this.conjunctions = conjunctions;
+            this.vectorizedCount = vectorizedCount;
+        }
+
+        public ImmutableList<RexNode> getConjunctions() {
+            return conjunctions;
+        }
+
+        public int getVectorizedCount() {
+            return vectorizedCount;
+        }
+
+        public RexNode compose(RexBuilder rexBuilder) {
+            return RexUtil.composeConjunction(rexBuilder, conjunctions);
+        }
+    }
+
+    private static class ColumnsInference {
+        private final Map<AbstractBindableTableScan, Columns> columns = new IdentityHashMap<>();
+        private final Multimap<Integer, AbstractBindableTableScan> aliases =
+                ArrayListMultimap.create();
+
+        private void collectAliases(RelNode rel) {
+            if (rel instanceof AbstractBindableTableScan) {
+                AbstractBindableTableScan tableScan = (AbstractBindableTableScan) rel;
+                columns.put(tableScan, new Columns());
+                if (tableScan.getAliasId() != AliasInference.DEFAULT_ID) {
+                    aliases.put(tableScan.getAliasId(), tableScan);
+                }
+            } else if (rel instanceof GraphLogicalPathExpand) {
+                GraphLogicalPathExpand pxd = (GraphLogicalPathExpand) rel;
+                collectAliases(pxd.getExpand());
+                collectAliases(pxd.getGetV());
+                if (pxd.getAliasId() != AliasInference.DEFAULT_ID) {
+                    aliases.putAll(pxd.getAliasId(), pathElements(pxd));
+                }
+            } else if (rel instanceof GraphLogicalSingleMatch) {
+                collectAliases(((GraphLogicalSingleMatch) rel).getSentence());
+            } else if (rel instanceof GraphLogicalMultiMatch) {
+                ((GraphLogicalMultiMatch) rel).getSentences().forEach(k -> collectAliases(k));
+            }
+            rel.getInputs().forEach(k -> collectAliases(k));
+        }
+
+        /**
+         * @param rel
+         * @return the table scans which the head of the rel may refer to
+         */
+        private List<AbstractBindableTableScan> visit(RelNode rel) {
+            List<AbstractBindableTableScan> inputHead = Lists.newArrayList();
+            rel.getInputs().forEach(k -> inputHead.addAll(visit(k)));
+            if (rel instanceof AbstractBindableTableScan) {
+                AbstractBindableTableScan tableScan = (AbstractBindableTableScan) rel;
+                List<AbstractBindableTableScan> head = ImmutableList.of(tableScan);
+                if (ObjectUtils.isNotEmpty(tableScan.getFilters())) {
+                    tableScan.getFilters().forEach(k -> require(k, head, false));
+                }
+                return head;
+            } else if (rel instanceof GraphLogicalPathExpand) {
+                GraphLogicalPathExpand pxd = (GraphLogicalPathExpand) rel;
+                visit(pxd.getExpand());
+                visit(pxd.getGetV());
+                return pathElements(pxd);
+            } else if (rel instanceof GraphLogicalSingleMatch) {
+                return visit(((GraphLogicalSingleMatch) rel).getSentence());
+            } else if (rel instanceof GraphLogicalMultiMatch) {
+                List<AbstractBindableTableScan> head = Lists.newArrayList();
+                ((GraphLogicalMultiMatch) rel).getSentences().forEach(k -> head.addAll(visit(k)));
+                return head;
+            } else if (rel instanceof Filter) {
+                require(((Filter) rel).getCondition(), inputHead, false);
+                return inputHead;
+            } else if (rel instanceof GraphLogicalSort) {
+                GraphRelCollations.variables(
+                                ((GraphLogicalSort) rel).getCollation().getFieldCollations())
+                        .forEach(k -> require(k, inputHead, false));
+                return inputHead;
+            } else if (rel instanceof GraphLogicalProject) {
+                GraphLogicalProject project = (GraphLogicalProject) rel;
+                project.getProjects().forEach(k -> require(k, inputHead, false));
+                return project.isAppend() ? inputHead : ImmutableList.of();
+            } else if (rel instanceof GraphLogicalAggregate) {
+                GraphLogicalAggregate aggregate = (GraphLogicalAggregate) rel;
+                aggregate.getGroupKey().getVariables().forEach(k -> require(k, inputHead, false));
+                for (GraphAggCall aggCall : aggregate.getAggCalls()) {
+                    // count the elements without getting their properties
+                    boolean isCount = aggCall.getAggFunction().getKind() == SqlKind.COUNT;
+                    aggCall.getOperands().forEach(k -> require(k, inputHead, isCount));
+                }
+                return ImmutableList.of();
+            } else if (rel instanceof Join) {
+                require(((Join) rel).getCondition(), inputHead, false);
+                return ImmutableList.of();
+            }
+            // unknown operators may refer to any element
+            requireAll(columns.keySet());
+            return ImmutableList.of();
+        }
+
+        private void require(
+                RexNode rexNode, List<AbstractBindableTableScan> head, boolean ignoreElement) {
+            List<RexGraphVariable> vars =
+                    rexNode.accept(new RexVariableAliasCollector<>(true, k -> k));
+            for (RexGraphVariable var : vars) {
+                Iterable<AbstractBindableTableScan> tableScans =
+                        (var.getAliasId() == AliasInference.DEFAULT_ID)
+                                ? head
+                                : aliases.get(var.getAliasId());
+                GraphProperty property = var.getProperty();
+                for (AbstractBindableTableScan tableScan : tableScans) {
+                    Columns required = columns.get(tableScan);
+                    if (property == null) {
+                        required.all |= !ignoreElement;
+                    } else if (property.getOpt() == GraphProperty.Opt.ALL) {
+                        required.all = true;
+                    } else if (property.getOpt() == GraphProperty.Opt.KEY) {
+                        required.keys.add(property.getKey());
+                    }
+                }
+            }
+        }
+
+        private void requireAll(Iterable<AbstractBindableTableScan> tableScans) {
+            tableScans.forEach(k -> columns.get(k).all = true);
+        }
+
+        // the elements referred by the alias of the path expand
+        private List<AbstractBindableTableScan> pathElements(GraphLogicalPathExpand pxd) {
+            AbstractBindableTableScan getV = (AbstractBindableTableScan) pxd.getGetV();
+            AbstractBindableTableScan expand = (AbstractBindableTableScan) pxd.getExpand();
+            return (pxd.getResultOpt() == GraphOpt.PathExpandResult.END_V)
+                    ? ImmutableList.of(getV)
+                    : ImmutableList.of(getV, expand);
+        }
+    }
+}
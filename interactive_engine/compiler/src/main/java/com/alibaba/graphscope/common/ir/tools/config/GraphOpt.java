@@ -47,7 +47,11 @@ public abstract class GraphOpt {
 
     public enum PathExpandPath {
         ARBITRARY,
-        SIMPLE
+        SIMPLE,
+        // a shortest simple path between the start and end vertices
+        ANY_SHORTEST,
+        // all shortest simple paths between the start and end vertices
+        ALL_SHORTEST
     }
 
     public enum PathExpandResult {
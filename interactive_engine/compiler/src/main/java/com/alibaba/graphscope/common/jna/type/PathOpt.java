@@ -20,7 +20,9 @@ import com.alibaba.graphscope.common.jna.IntEnum;
 
 public enum PathOpt implements IntEnum<PathOpt> {
     Arbitrary,
-    Simple;
+    Simple,
+    AnyShortest,
+    AllShortest;
 
     @Override
     public int getInt() {
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * keep track of the running queries in the frontend, which can be listed and killed, killing a
+ * query cancels its execution in the engine by the cancel hook set after the query is submitted
+ */
+public class QueryManager {
+    private static final Logger logger = LoggerFactory.getLogger(QueryManager.class);
+
+    private final Map<Long, RunningQuery> runningQueries;
+    private final QueryScheduler scheduler;
+
+    public QueryManager() {
+        this(QueryScheduler.disabled());
+    }
+
+    public QueryManager(QueryScheduler scheduler) {
+        this.runningQueries = new ConcurrentHashMap<>();
+        this.scheduler = scheduler;
+    }
+
+    public QueryScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public RunningQuery register(long queryId, String query) {
+        RunningQuery runningQuery = new RunningQuery(queryId, query);
+        runningQueries.put(queryId, runningQuery);
+        return runningQuery;
+    }
+
+    public void unregister(long queryId) {
+        RunningQuery runningQuery = runningQueries.remove(queryId);
+        if (runningQuery != null) {
+            runningQuery.close();
+        }
+    }
+
+    public Optional<RunningQuery> getRunningQuery(long queryId) {
+        return Optional.ofNullable(runningQueries.get(queryId));
+    }
+
+    // running queries ordered by the start time
+    public List<RunningQuery> getRunningQueries() {
+        List<RunningQuery> queries = new ArrayList<>(runningQueries.values());
+        queries.sort(Comparator.comparingLong(RunningQuery::getStartMillis));
+        return queries;
+    }
+
+    /**
+     * @return false if the query is not running
+     */
+    public boolean kill(long queryId, String reason) {
+        RunningQuery runningQuery = runningQueries.get(queryId);
+        if (runningQuery == null) {
+            return false;
+        }
+        logger.info("kill query {}, reason: {}", queryId, reason);
+        runningQuery.cancel(reason);
+        return true;
+    }
+
+    public static class RunningQuery {
+        private final long queryId;
+        private final String query;
+        private final long startMillis;
+
+        private Consumer<String> cancelHook;
+        private final List<Runnable> closeHooks;
+        private String cancelReason;
+        private boolean closed;
+
+        private RunningQuery(long queryId, String query) {
+            this.queryId = queryId;
+            this.query = query;
+            this.startMillis = System.currentTimeMillis();
+            this.closeHooks = new ArrayList<>();
+        }
+
+        /**
+         * set the hook to cancel the execution in the engine, the hook is invoked immediately if
+         * the query has been killed before
+         */
+        public void setCancelHook(Consumer<String> cancelHook) {
+            String reason;
+            synchronized (this) {
+                reason = cancelReason;
+                if (reason == null) {
+                    this.cancelHook = cancelHook;
+                }
+            }
+            // hooks are invoked out of the lock, they may call back into the query
+            if (reason != null) {
+                cancelHook.accept(reason);
+            }
+        }
+
+        // the hook is invoked when the query is unregistered, or immediately if it has been
+        public void addCloseHook(Runnable closeHook) {
+            synchronized (this) {
+                if (!closed) {
+                    this.closeHooks.add(closeHook);
+                    return;
+                }
+            }
+            closeHook.run();
+        }
+
+        public void cancel(String reason) {
+            Consumer<String> hook;
+            synchronized (this) {
+                if (cancelReason != null) {
+                    return;
+                }
+                cancelReason = reason;
+                hook = cancelHook;
+            }
+            if (hook != null) {
+                hook.accept(reason);
+            }
+        }
+
+        private void close() {
+            List<Runnable> hooks;
+            synchronized (this) {
+                hooks = new ArrayList<>(closeHooks);
+                closeHooks.clear();
+                cancelHook = null;
+                closed = true;
+            }
+            for (Runnable closeHook : hooks) {
+                try {
+                    closeHook.run();
+                } catch (Exception e) {
+                    logger.warn("run close hook of query {} fail", queryId, e);
+                }
+            }
+        }
+
+        public long getQueryId() {
+            return queryId;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getElapsedMillis() {
+            return System.currentTimeMillis() - startMillis;
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelReason != null;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.FrontendConfig;
+import com.alibaba.graphscope.common.config.PegasusConfig;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * admission control of the queries before they are submitted to the engine, queries are divided
+ * into short and long classes, each class has its own limits of concurrency and memory, a query
+ * waits in the queue of its class if the limits are reached, and is rejected early if the queue is
+ * full. Queued queries are dispatched in round robin across users, so that a user can not starve
+ * others by flooding the queue.
+ */
+public class QueryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(QueryScheduler.class);
+
+    public enum QueryClass {
+        SHORT,
+        LONG
+    }
+
+    private final boolean enabled;
+    private final int shortMaxHops;
+    // memory reserved by each query, in the unit of `pegasus.memory.limit`
+    private final long queryMemory;
+    private final Map<QueryClass, ClassQueue> queues;
+    private final ScheduledThreadPoolExecutor dispatcher;
+
+    public QueryScheduler(Configs configs) {
+        this.enabled = FrontendConfig.QUERY_SCHEDULER_ENABLED.get(configs);
+        this.shortMaxHops = FrontendConfig.QUERY_SCHEDULER_SHORT_MAX_HOPS.get(configs);
+        this.queryMemory = PegasusConfig.PEGASUS_MEMORY_LIMIT.get(configs);
+        this.queues = new EnumMap<>(QueryClass.class);
+        this.queues.put(
+                QueryClass.SHORT,
+                new ClassQueue(
+                        QueryClass.SHORT,
+                        FrontendConfig.QUERY_SCHEDULER_SHORT_CONCURRENCY.get(configs),
+                        FrontendConfig.QUERY_SCHEDULER_SHORT_QUEUE_SIZE.get(configs),
+                        FrontendConfig.QUERY_SCHEDULER_SHORT_MEMORY_BUDGET.get(configs)));
+        this.queues.put(
+                QueryClass.LONG,
+                new ClassQueue(
+                        QueryClass.LONG,
+                        FrontendConfig.QUERY_SCHEDULER_LONG_CONCURRENCY.get(configs),
+                        FrontendConfig.QUERY_SCHEDULER_LONG_QUEUE_SIZE.get(configs),
+                        FrontendConfig.QUERY_SCHEDULER_LONG_MEMORY_BUDGET.get(configs)));
+        this.dispatcher =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("query-scheduler")
+                                .setDaemon(true)
+                                .build());
+        // drop the timeout of a query once it is admitted
+        this.dispatcher.setRemoveOnCancelPolicy(true);
+    }
+
+    // the scheduler is disabled, all queries are submitted immediately
+    public static QueryScheduler disabled() {
+        return new QueryScheduler(new Configs(ImmutableMap.of()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * classify the query by the hint of the user, or by the estimated cost of the plan if there is
+     * no hint, a point lookup or a query of few hops is short
+     * @param hint 'short' or 'long' given by the user, null if not given
+     * @param isPointLookup
+     * @param hops estimated hops of the plan
+     * @return
+     */
+    public QueryClass classify(@Nullable String hint, boolean isPointLookup, int hops) {
+        if (hint != null) {
+            for (QueryClass queryClass : QueryClass.values()) {
+                if (queryClass.name().equalsIgnoreCase(hint)) {
+                    return queryClass;
+                }
+            }
+            logger.warn("unknown query class hint {}, classify by the plan instead", hint);
+        }
+        return (isPointLookup || hops <= shortMaxHops) ? QueryClass.SHORT : QueryClass.LONG;
+    }
+
+    /**
+     * run the task once the query is admitted, the slot is released when the query is
+     * unregistered from the {@link QueryManager}
+     * @param query
+     * @param queryClass
+     * @param user the queries of the same user are queued together
+     * @param maxWaitMillis the query is rejected if it can not be admitted in time
+     * @param task submit the query to the engine
+     * @param onReject invoked if the query is rejected or killed before admitted
+     */
+    public void schedule(
+            QueryManager.RunningQuery query,
+            QueryClass queryClass,
+            String user,
+            long maxWaitMillis,
+            Runnable task,
+            Consumer<Throwable> onReject) {
+        if (!enabled) {
+            task.run();
+            return;
+        }
+        ClassQueue queue = queues.get(queryClass);
+        Task queued = new Task(query, user, task, onReject);
+        boolean admitted = false;
+        boolean full = false;
+        synchronized (queue) {
+            if (queue.isEmpty() && queue.canAdmit()) {
+                queue.acquire();
+                admitted = true;
+            } else if (queue.queued < queue.queueSize) {
+                queue.enqueue(queued);
+                // the hooks and the timeout are installed while the queue is locked, before
+                // `release` can admit the query. The cancel hook removes the query from the queue
+                // if it is killed before admitted, and is replaced by the one cancelling the
+                // engine job after it is submitted.
+                query.setCancelHook(
+                        reason -> {
+                            if (queue.remove(queued)) {
+                                onReject.accept(new CancellationException(reason));
+                            }
+                        });
+                query.addCloseHook(() -> queue.remove(queued));
+                queued.timeout =
+                        dispatcher.schedule(
+                                () -> {
+                                    if (queue.remove(queued)) {
+                                        queue.rejected.inc();
+                                        onReject.accept(
+                                                new RejectedExecutionException(
+                                                        String.format(
+                                                                "query %d is rejected, wait for"
+                                                                        + " more than %d ms in the"
+                                                                        + " queue",
+                                                                query.getQueryId(),
+                                                                maxWaitMillis)));
+                                    }
+                                },
+                                maxWaitMillis,
+                                TimeUnit.MILLISECONDS);
+            } else {
+                full = true;
+            }
+        }
+        if (admitted) {
+            start(queue, queued);
+            return;
+        }
+        if (full) {
+            queue.rejected.inc();
+            onReject.accept(
+                    new RejectedExecutionException(
+                            String.format(
+                                    "query %d is rejected, the queue of %s queries is full",
+                                    query.getQueryId(), queryClass)));
+            return;
+        }
+        logger.debug("query {} is queued as a {} query", query.getQueryId(), queryClass);
+    }
+
+    public int getQueuedCount(QueryClass queryClass) {
+        ClassQueue queue = queues.get(queryClass);
+        synchronized (queue) {
+            return queue.queued;
+        }
+    }
+
+    public int getRunningCount(QueryClass queryClass) {
+        ClassQueue queue = queues.get(queryClass);
+        synchronized (queue) {
+            return queue.running;
+        }
+    }
+
+    private void start(ClassQueue queue, Task task) {
+        ScheduledFuture<?> timeout = task.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        queue.waitTimer.update(System.nanoTime() - task.enqueueNanos, TimeUnit.NANOSECONDS);
+        task.query.addCloseHook(() -> release(queue));
+        task.task.run();
+    }
+
+    private void release(ClassQueue queue) {
+        List<Task> admitted = new ArrayList<>();
+        synchronized (queue) {
+            queue.running--;
+            queue.usedMemory -= queryMemory;
+            Task next;
+            while (queue.canAdmit() && (next = queue.poll()) != null) {
+                queue.acquire();
+                admitted.add(next);
+            }
+        }
+        // start the queries out of the close hook of the finished one
+        for (Task task : admitted) {
+            dispatcher.execute(
+                    () -> {
+                        try {
+                            start(queue, task);
+                        } catch (Throwable t) {
+                            task.onReject.accept(t);
+                        }
+                    });
+        }
+    }
+
+    private static class Task {
+        private final QueryManager.RunningQuery query;
+        private final String user;
+        private final Runnable task;
+        private final Consumer<Throwable> onReject;
+        private final long enqueueNanos;
+        private volatile ScheduledFuture<?> timeout;
+
+        private Task(
+                QueryManager.RunningQuery query,
+                String user,
+                Runnable task,
+                Consumer<Throwable> onReject) {
+            this.query = query;
+            this.user = user;
+            this.task = task;
+            this.onReject = onReject;
+            this.enqueueNanos = System.nanoTime();
+        }
+    }
+
+    // queue of a query class, guarded by itself
+    private class ClassQueue {
+        private final int concurrency;
+        private final int queueSize;
+        private final long memoryBudget;
+        // queued queries of each user
+        private final Map<String, Deque<Task>> userQueues;
+        // users which have queued queries, in the order of being served
+        private final Deque<String> users;
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        private int queued;
+        private int running;
+        private long usedMemory;
+
+        private ClassQueue(
+                QueryClass queryClass, int concurrency, int queueSize, int memoryBudget) {
+            this.concurrency = concurrency;
+            this.queueSize = queueSize;
+            this.memoryBudget = memoryBudget;
+            this.userQueues = new HashMap<>();
+            this.users = new ArrayDeque<>();
+            String name = queryClass.name().toLowerCase();
+            this.waitTimer =
+                    MetricManager.INSTANCE.getTimer(
+                            MetricRegistry.name(QueryScheduler.class, name, "wait"));
+            this.rejected =
+                    MetricManager.INSTANCE.getCounter(
+                            MetricRegistry.name(QueryScheduler.class, name, "rejected"));
+        }
+
+        // at least one query is admitted even if it exceeds the memory budget alone
+        private boolean canAdmit() {
+            if (running >= concurrency) {
+                return false;
+            }
+            return running == 0
+                    || memoryBudget == Integer.MAX_VALUE
+                    || usedMemory + queryMemory <= memoryBudget;
+        }
+
+        private void acquire() {
+            running++;
+            usedMemory += queryMemory;
+        }
+
+        private boolean isEmpty() {
+            return queued == 0;
+        }
+
+        private void enqueue(Task task) {
+            Deque<Task> userQueue = userQueues.get(task.user);
+            if (userQueue == null) {
+                userQueue = new ArrayDeque<>();
+                userQueues.put(task.user, userQueue);
+                users.addLast(task.user);
+            }
+            userQueue.addLast(task);
+            queued++;
+        }
+
+        // poll the first query of the next user, the user is moved to the tail
+        private @Nullable Task poll() {
+            String user = users.pollFirst();
+            if (user == null) {
+                return null;
+            }
+            Deque<Task> userQueue = userQueues.get(user);
+            Task task = userQueue.pollFirst();
+            if (userQueue.isEmpty()) {
+                userQueues.remove(user);
+            } else {
+                users.addLast(user);
+            }
+            queued--;
+            return task;
+        }
+
+        private synchronized boolean remove(Task task) {
+            Deque<Task> userQueue = userQueues.get(task.user);
+            if (userQueue == null || !userQueue.remove(task)) {
+                return false;
+            }
+            if (userQueue.isEmpty()) {
+                userQueues.remove(task.user);
+                users.remove(task.user);
+            }
+            queued--;
+            return true;
+        }
+    }
+}
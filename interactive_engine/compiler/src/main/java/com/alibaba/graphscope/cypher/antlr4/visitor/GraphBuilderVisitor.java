@@ -20,6 +20,7 @@ import com.alibaba.graphscope.common.ir.rel.type.group.GraphAggCall;
 import com.alibaba.graphscope.common.ir.rex.RexTmpVariableConverter;
 import com.alibaba.graphscope.common.ir.tools.GraphBuilder;
 import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
+import com.alibaba.graphscope.common.ir.tools.config.PathExpandConfig;
 import com.alibaba.graphscope.cypher.antlr4.visitor.type.ExprVisitorResult;
 import com.alibaba.graphscope.grammar.CypherGSBaseVisitor;
 import com.alibaba.graphscope.grammar.CypherGSParser;
@@ -37,6 +38,8 @@ public class GraphBuilderVisitor extends CypherGSBaseVisitor<GraphBuilder> {
     private final GraphBuilder builder;
     private final Set<String> uniqueNameList;
     private final ExpressionVisitor expressionVisitor;
+    // set if the pattern element is in shortestPath(..) or allShortestPaths(..)
+    private GraphOpt.PathExpandPath shortestPathOpt;
 
     public GraphBuilderVisitor(GraphBuilder builder) {
         this.builder = Objects.requireNonNull(builder);
@@ -70,16 +73,42 @@ public class GraphBuilderVisitor extends CypherGSBaseVisitor<GraphBuilder> {
         return (ctx.oC_Where() != null) ? visitOC_Where(ctx.oC_Where()) : builder;
     }
 
+    @Override
+    public GraphBuilder visitOC_ShortestPathPattern(
+            CypherGSParser.OC_ShortestPathPatternContext ctx) {
+        CypherGSParser.OC_PatternElementContext elementCtx = ctx.oC_PatternElement();
+        while (elementCtx.oC_PatternElement() != null) {
+            elementCtx = elementCtx.oC_PatternElement();
+        }
+        List<CypherGSParser.OC_PatternElementChainContext> chainCtxs =
+                elementCtx.oC_PatternElementChain();
+        if (chainCtxs.size() != 1 || !isPathExpand(chainCtxs.get(0))) {
+            throw new IllegalArgumentException(
+                    "shortest path should be a single relationship with a range of hops, i.e."
+                            + " shortestPath((a)-[*1..5]-(b))");
+        }
+        this.shortestPathOpt =
+                (ctx.SHORTESTPATH() != null)
+                        ? GraphOpt.PathExpandPath.ANY_SHORTEST
+                        : GraphOpt.PathExpandPath.ALL_SHORTEST;
+        try {
+            return visitOC_PatternElement(elementCtx);
+        } finally {
+            this.shortestPathOpt = null;
+        }
+    }
+
     @Override
     public GraphBuilder visitOC_PatternElementChain(
             CypherGSParser.OC_PatternElementChainContext ctx) {
-        CypherGSParser.OC_RelationshipPatternContext relationCtx = ctx.oC_RelationshipPattern();
-        CypherGSParser.OC_RangeLiteralContext literalCtx =
-                relationCtx.oC_RelationshipDetail().oC_RangeLiteral();
         // path_expand
-        if (literalCtx != null && literalCtx.oC_IntegerLiteral().size() > 1) {
-            builder.pathExpand(
-                    new PathExpandBuilderVisitor(this).visitOC_PatternElementChain(ctx).build());
+        if (isPathExpand(ctx)) {
+            PathExpandConfig.Builder pxdBuilder =
+                    new PathExpandBuilderVisitor(this).visitOC_PatternElementChain(ctx);
+            if (shortestPathOpt != null) {
+                pxdBuilder.pathOpt(shortestPathOpt);
+            }
+            builder.pathExpand(pxdBuilder.build());
             // extract the end vertex from path_expand results
             if (ctx.oC_NodePattern() != null) {
                 builder.getV(Utils.getVConfig(ctx.oC_NodePattern()));
@@ -93,6 +122,14 @@ public class GraphBuilderVisitor extends CypherGSBaseVisitor<GraphBuilder> {
         }
     }
 
+    private boolean isPathExpand(CypherGSParser.OC_PatternElementChainContext ctx) {
+        CypherGSParser.OC_RelationshipDetailContext detailCtx =
+                ctx.oC_RelationshipPattern().oC_RelationshipDetail();
+        CypherGSParser.OC_RangeLiteralContext literalCtx =
+                (detailCtx == null) ? null : detailCtx.oC_RangeLiteral();
+        return literalCtx != null && literalCtx.oC_IntegerLiteral().size() > 1;
+    }
+
     @Override
     public GraphBuilder visitOC_NodePattern(CypherGSParser.OC_NodePatternContext ctx) {
         // source
@@ -19,10 +19,16 @@ package com.alibaba.graphscope.cypher.executor;
 import com.alibaba.graphscope.common.client.ExecutionClient;
 import com.alibaba.graphscope.common.client.type.ExecutionRequest;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
+import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.common.ir.tools.HopEstimator;
+import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
+import com.alibaba.graphscope.common.manager.QueryManager;
+import com.alibaba.graphscope.common.manager.QueryScheduler;
 import com.alibaba.graphscope.cypher.result.CypherRecordParser;
 import com.alibaba.graphscope.cypher.result.CypherRecordProcessor;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.neo4j.fabric.stream.StatementResults;
 import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
@@ -31,32 +37,72 @@ public class GraphPlanExecution<C> implements StatementResults.SubscribableExecu
     private final ExecutionClient<C> client;
     private final GraphPlanner.Summary planSummary;
     private final QueryTimeoutConfig timeoutConfig;
+    private final QueryManager queryManager;
+    private final String statement;
+    private final String user;
+    private final @Nullable String queryClassHint;
 
     public GraphPlanExecution(
             ExecutionClient<C> client,
             GraphPlanner.Summary planSummary,
-            QueryTimeoutConfig timeoutConfig) {
+            QueryTimeoutConfig timeoutConfig,
+            QueryManager queryManager,
+            String statement,
+            String user,
+            @Nullable String queryClassHint) {
         this.client = client;
         this.planSummary = planSummary;
         this.timeoutConfig = timeoutConfig;
+        this.queryManager = queryManager;
+        this.statement = statement;
+        this.user = user;
+        this.queryClassHint = queryClassHint;
     }
 
     @Override
     public QueryExecution subscribe(QuerySubscriber querySubscriber) {
+        long queryId = this.planSummary.getId();
+        QueryManager.RunningQuery runningQuery = queryManager.register(queryId, statement);
         try {
+            LogicalPlan logicalPlan = this.planSummary.getLogicalPlan();
+            // build the physical plan before scheduling, the builder is closed once the execution
+            // is subscribed while the query may still wait in the queue
             ExecutionRequest request =
                     new ExecutionRequest(
                             this.planSummary.getId(),
                             this.planSummary.getName(),
-                            this.planSummary.getLogicalPlan(),
-                            this.planSummary.getPhysicalBuilder());
+                            logicalPlan,
+                            PhysicalBuilder.createBuilt(
+                                    logicalPlan, this.planSummary.getPhysicalBuilder().build()),
+                            this.planSummary.getLookupIds());
             CypherRecordProcessor recordProcessor =
                     new CypherRecordProcessor(
-                            new CypherRecordParser(planSummary.getLogicalPlan().getOutputType()),
-                            querySubscriber);
-            this.client.submit(request, recordProcessor, timeoutConfig);
+                            new CypherRecordParser(logicalPlan.getOutputType()),
+                            querySubscriber,
+                            queryManager,
+                            runningQuery);
+            QueryScheduler scheduler = queryManager.getScheduler();
+            QueryScheduler.QueryClass queryClass =
+                    scheduler.classify(
+                            queryClassHint,
+                            request.getLookupIds() != null,
+                            HopEstimator.estimate(logicalPlan));
+            scheduler.schedule(
+                    runningQuery,
+                    queryClass,
+                    user,
+                    timeoutConfig.getExecutionTimeoutMS(),
+                    () -> {
+                        try {
+                            this.client.submit(request, recordProcessor, timeoutConfig);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    },
+                    recordProcessor::onError);
             return recordProcessor;
         } catch (Exception e) {
+            queryManager.unregister(queryId);
             throw new RuntimeException(e);
         }
     }
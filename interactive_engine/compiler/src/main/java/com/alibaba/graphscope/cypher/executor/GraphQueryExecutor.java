@@ -19,13 +19,17 @@ package com.alibaba.graphscope.cypher.executor;
 import com.alibaba.graphscope.common.antlr4.Antlr4Parser;
 import com.alibaba.graphscope.common.client.ExecutionClient;
 import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.FrontendConfig;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.common.ir.tools.ProcedurePlanCache;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
+import com.alibaba.graphscope.common.manager.QueryManager;
 import com.alibaba.graphscope.common.store.IrMeta;
 
-import org.antlr.v4.runtime.tree.ParseTree;
+import org.apache.commons.lang3.StringUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.neo4j.fabric.config.FabricConfig;
 import org.neo4j.fabric.eval.CatalogManager;
 import org.neo4j.fabric.eval.UseEvaluation;
@@ -36,11 +40,13 @@ import org.neo4j.fabric.stream.QuerySubject;
 import org.neo4j.fabric.stream.StatementResult;
 import org.neo4j.fabric.stream.StatementResults;
 import org.neo4j.fabric.transaction.FabricTransaction;
+import org.neo4j.fabric.transaction.FabricTransactionInfo;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.values.virtual.MapValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 public class GraphQueryExecutor extends FabricExecutor {
@@ -48,12 +54,16 @@ public class GraphQueryExecutor extends FabricExecutor {
     private static final String GET_ROUTING_TABLE_STATEMENT =
             "CALL dbms.routing.getRoutingTable($routingContext, $databaseName)";
     private static String PING_STATEMENT = "CALL db.ping()";
+    // key of the query class hint in the transaction metadata, 'short' or 'long'
+    private static final String QUERY_CLASS_METADATA_KEY = "queryClass";
     private final Configs graphConfig;
     private final Antlr4Parser antlr4Parser;
     private final IrMetaQueryCallback metaQueryCallback;
     private final ExecutionClient client;
+    private final QueryManager queryManager;
 
     private final GraphPlanner graphPlanner;
+    private final ProcedurePlanCache procedurePlanCache;
     private final FabricConfig fabricConfig;
 
     public GraphQueryExecutor(
@@ -68,7 +78,8 @@ public class GraphQueryExecutor extends FabricExecutor {
             Antlr4Parser antlr4Parser,
             GraphPlanner graphPlanner,
             IrMetaQueryCallback metaQueryCallback,
-            ExecutionClient client) {
+            ExecutionClient client,
+            QueryManager queryManager) {
         super(
                 config,
                 planner,
@@ -81,8 +92,13 @@ public class GraphQueryExecutor extends FabricExecutor {
         this.graphConfig = graphConfig;
         this.antlr4Parser = antlr4Parser;
         this.graphPlanner = graphPlanner;
+        this.procedurePlanCache =
+                new ProcedurePlanCache(
+                        graphPlanner,
+                        FrontendConfig.QUERY_PROCEDURE_PLAN_CACHE_SIZE.get(graphConfig));
         this.metaQueryCallback = metaQueryCallback;
         this.client = client;
+        this.queryManager = queryManager;
     }
 
     /**
@@ -105,9 +121,8 @@ public class GraphQueryExecutor extends FabricExecutor {
                 return super.run(fabricTransaction, statement, parameters);
             }
             irMeta = metaQueryCallback.beforeExec();
-            ParseTree parseTree = antlr4Parser.parse(statement);
-            GraphPlanner.PlannerInstance instance = graphPlanner.instance(parseTree, irMeta);
-            GraphPlanner.Summary planSummary = instance.plan();
+            GraphPlanner.Summary planSummary =
+                    procedurePlanCache.plan(statement, antlr4Parser, irMeta);
             try (PhysicalBuilder physicalBuilder = planSummary.getPhysicalBuilder()) {
                 logger.debug(
                         "cypher query \"{}\", job conf name \"{}\", calcite logical plan {}",
@@ -120,7 +135,14 @@ public class GraphQueryExecutor extends FabricExecutor {
                 QuerySubject querySubject = new QuerySubject.BasicQuerySubject();
                 QueryTimeoutConfig timeoutConfig = getQueryTimeoutConfig();
                 StatementResults.SubscribableExecution execution =
-                        new GraphPlanExecution(this.client, planSummary, timeoutConfig);
+                        new GraphPlanExecution(
+                                this.client,
+                                planSummary,
+                                timeoutConfig,
+                                this.queryManager,
+                                statement,
+                                getUser(fabricTransaction),
+                                getQueryClassHint(fabricTransaction));
                 StatementResult result = StatementResults.connectVia(execution, querySubject);
                 logger.info(
                         "cypher query \"{}\", job conf name \"{}\", ir core logical plan {}",
@@ -138,6 +160,22 @@ public class GraphQueryExecutor extends FabricExecutor {
         }
     }
 
+    // the login user, or the client address if the authentication is disabled
+    private String getUser(FabricTransaction fabricTransaction) {
+        FabricTransactionInfo transactionInfo = fabricTransaction.getTransactionInfo();
+        String user = transactionInfo.getLoginContext().subject().executingUser();
+        return StringUtils.isEmpty(user)
+                ? transactionInfo.getClientConnectionInfo().clientAddress()
+                : user;
+    }
+
+    // the class of the query given in the transaction metadata, i.e. 'short' or 'long'
+    private @Nullable String getQueryClassHint(FabricTransaction fabricTransaction) {
+        Map<String, Object> metadata = fabricTransaction.getTransactionInfo().getTxMetadata();
+        Object hint = (metadata == null) ? null : metadata.get(QUERY_CLASS_METADATA_KEY);
+        return (hint == null) ? null : hint.toString();
+    }
+
     private QueryTimeoutConfig getQueryTimeoutConfig() {
         return new QueryTimeoutConfig(fabricConfig.getTransactionTimeout().toMillis());
     }
@@ -17,6 +17,7 @@
 package com.alibaba.graphscope.cypher.result;
 
 import com.alibaba.graphscope.common.client.type.ExecutionResponseListener;
+import com.alibaba.graphscope.common.manager.QueryManager;
 import com.alibaba.graphscope.common.result.RecordParser;
 import com.alibaba.graphscope.gaia.proto.IrResult;
 import com.alibaba.pegasus.common.StreamIterator;
@@ -32,6 +33,7 @@ import org.neo4j.kernel.impl.query.QuerySubscriber;
 import org.neo4j.values.AnyValue;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * return streaming records in a reactive way
@@ -41,12 +43,20 @@ public class CypherRecordProcessor implements QueryExecution, ExecutionResponseL
     private final QuerySubscriber subscriber;
     private final StreamIterator<IrResult.Record> recordIterator;
     private final Summary summary;
-
-    public CypherRecordProcessor(RecordParser<AnyValue> recordParser, QuerySubscriber subscriber) {
+    private final QueryManager queryManager;
+    private final QueryManager.RunningQuery runningQuery;
+
+    public CypherRecordProcessor(
+            RecordParser<AnyValue> recordParser,
+            QuerySubscriber subscriber,
+            QueryManager queryManager,
+            QueryManager.RunningQuery runningQuery) {
         this.recordParser = recordParser;
         this.subscriber = subscriber;
         this.recordIterator = new StreamIterator<>();
         this.summary = new EmptySummary();
+        this.queryManager = queryManager;
+        this.runningQuery = runningQuery;
         initializeSubscriber();
     }
 
@@ -97,6 +107,8 @@ public class CypherRecordProcessor implements QueryExecution, ExecutionResponseL
 
     @Override
     public void cancel() {
+        // stop the job in the engine, the records will not be consumed any more
+        this.runningQuery.cancel("query is cancelled by the client");
         this.recordIterator.close();
     }
 
@@ -114,8 +126,14 @@ public class CypherRecordProcessor implements QueryExecution, ExecutionResponseL
         }
     }
 
+    @Override
+    public void onSubmitted(Consumer<String> cancelHook) {
+        this.runningQuery.setCancelHook(cancelHook);
+    }
+
     @Override
     public void onCompleted() {
+        this.queryManager.unregister(runningQuery.getQueryId());
         try {
             this.recordIterator.finish();
         } catch (InterruptedException e) {
@@ -125,6 +143,7 @@ public class CypherRecordProcessor implements QueryExecution, ExecutionResponseL
 
     @Override
     public void onError(Throwable t) {
+        this.queryManager.unregister(runningQuery.getQueryId());
         t = (t == null) ? new RuntimeException("Unknown error") : t;
         this.recordIterator.fail(t);
     }
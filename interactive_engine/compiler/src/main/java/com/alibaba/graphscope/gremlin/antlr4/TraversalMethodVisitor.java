@@ -267,6 +267,21 @@ public class TraversalMethodVisitor extends TraversalRootVisitor<GraphTraversal>
         return traversal.endV();
     }
 
+    @Override
+    public Traversal visitTraversalMethod_shortestPath(
+            GremlinGSParser.TraversalMethod_shortestPathContext ctx) {
+        Step endStep = graphTraversal.asAdmin().getEndStep();
+        if (!(endStep instanceof PathExpandStep)) {
+            throw new InvalidGremlinScriptException(
+                    ctx.getStart().getText()
+                            + " should follow a path expand operator [out('$1..$2'),"
+                            + " in('$1..$2'), both('$1..$2')]");
+        }
+        String pathOpt =
+                ctx.getStart().getText().equals("shortestPath") ? "ANY_SHORTEST" : "ALL_SHORTEST";
+        return graphTraversal.with("PATH_OPT", pathOpt);
+    }
+
     @Override
     public Traversal visitTraversalMethod_otherV(
             GremlinGSParser.TraversalMethod_otherVContext ctx) {
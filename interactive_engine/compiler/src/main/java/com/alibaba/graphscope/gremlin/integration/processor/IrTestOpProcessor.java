@@ -21,6 +21,7 @@ import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
+import com.alibaba.graphscope.common.manager.QueryManager;
 import com.alibaba.graphscope.common.store.IrMeta;
 import com.alibaba.graphscope.gremlin.integration.result.GraphProperties;
 import com.alibaba.graphscope.gremlin.integration.result.GremlinTestResultProcessor;
@@ -62,10 +63,11 @@ public class IrTestOpProcessor extends IrStandardOpProcessor {
             GraphPlanner graphPlanner,
             ChannelFetcher fetcher,
             IrMetaQueryCallback metaQueryCallback,
+            QueryManager queryManager,
             Graph graph,
             GraphTraversalSource g,
             GraphProperties testGraph) {
-        super(configs, graphPlanner, fetcher, metaQueryCallback, graph, g);
+        super(configs, graphPlanner, fetcher, metaQueryCallback, queryManager, graph, g);
         this.context = new SimpleScriptContext();
         Bindings globalBindings = new SimpleBindings();
         globalBindings.put("g", g);
@@ -99,6 +101,7 @@ public class IrTestOpProcessor extends IrStandardOpProcessor {
                             QueryStatusCallback statusCallback =
                                     createQueryStatusCallback(script, jobId);
                             processTraversal(
+                                    ctx,
                                     traversal,
                                     new GremlinTestResultProcessor(
                                             ctx,
@@ -53,6 +53,12 @@ public class GremlinTestResultProcessor extends GremlinResultProcessor {
         this.cachedProperties = testGraph.getProperties(configs);
     }
 
+    // properties of test graph are appended to the parsed results
+    @Override
+    protected boolean canEncodeDirectly() {
+        return false;
+    }
+
     @Override
     protected void aggregateResults() {
         super.aggregateResults();
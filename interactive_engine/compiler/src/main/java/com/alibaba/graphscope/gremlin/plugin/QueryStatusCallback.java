@@ -16,13 +16,23 @@
 
 package com.alibaba.graphscope.gremlin.plugin;
 
+import com.alibaba.graphscope.common.manager.QueryManager;
+
 public class QueryStatusCallback {
     private final MetricsCollector metricsCollector;
     private final QueryLogger queryLogger;
+    // remove the query from running queries when it ends, can be null
+    private final QueryManager queryManager;
 
     public QueryStatusCallback(MetricsCollector metricsCollector, QueryLogger queryLogger) {
+        this(metricsCollector, queryLogger, null);
+    }
+
+    public QueryStatusCallback(
+            MetricsCollector metricsCollector, QueryLogger queryLogger, QueryManager queryManager) {
         this.metricsCollector = metricsCollector;
         this.queryLogger = queryLogger;
+        this.queryManager = queryManager;
     }
 
     public void onStart() {}
@@ -35,6 +45,9 @@ public class QueryStatusCallback {
                 isSucceed,
                 metricsCollector.getElapsedMillis(),
                 metricsCollector.getStartMillis());
+        if (queryManager != null) {
+            queryManager.unregister(queryLogger.getQueryId());
+        }
     }
 
     public QueryLogger getQueryLogger() {
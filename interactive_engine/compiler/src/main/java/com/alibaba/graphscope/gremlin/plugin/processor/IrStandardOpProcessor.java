@@ -26,13 +26,18 @@
 package com.alibaba.graphscope.gremlin.plugin.processor;
 
 import com.alibaba.graphscope.common.IrPlan;
+import com.alibaba.graphscope.common.client.PointLookupRouter;
 import com.alibaba.graphscope.common.client.channel.ChannelFetcher;
 import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.config.PegasusConfig;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.*;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.common.ir.tools.HopEstimator;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
+import com.alibaba.graphscope.common.manager.QueryManager;
+import com.alibaba.graphscope.common.manager.QueryScheduler;
 import com.alibaba.graphscope.common.store.IrMeta;
 import com.alibaba.graphscope.gremlin.InterOpCollectionBuilder;
 import com.alibaba.graphscope.gremlin.Utils;
@@ -45,12 +50,18 @@ import com.alibaba.graphscope.gremlin.plugin.strategy.RemoveUselessStepStrategy;
 import com.alibaba.graphscope.gremlin.plugin.strategy.ScanFusionStepStrategy;
 import com.alibaba.graphscope.gremlin.result.processor.AbstractResultProcessor;
 import com.alibaba.graphscope.gremlin.result.processor.GremlinResultProcessor;
+import com.alibaba.pegasus.JobHandle;
 import com.alibaba.pegasus.RpcClient;
 import com.alibaba.pegasus.intf.ResultProcessor;
 import com.alibaba.pegasus.service.protocol.PegasusClient;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 
+import io.grpc.Status;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
@@ -60,27 +71,46 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.InlineFilterStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
 import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.auth.AuthenticatedUser;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
 import org.apache.tinkerpop.gremlin.server.op.standard.StandardOpProcessor;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.script.SimpleBindings;
 
 public class IrStandardOpProcessor extends StandardOpProcessor {
+    // admin ops to list the running queries and kill a query by the id
+    public static final String OPS_LIST_QUERIES = "listQueries";
+    public static final String OPS_KILL_QUERY = "killQuery";
+    public static final String ARGS_QUERY_ID = "queryId";
+    // hint of the query class for scheduling, 'short' or 'long'
+    public static final String ARGS_QUERY_CLASS = "queryClass";
+
     protected Graph graph;
     protected GraphTraversalSource g;
     protected Configs configs;
@@ -91,22 +121,82 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
 
     protected IrMetaQueryCallback metaQueryCallback;
     protected final GraphPlanner graphPlanner;
+    protected final QueryManager queryManager;
+    protected final PointLookupRouter pointLookupRouter;
 
     public IrStandardOpProcessor(
             Configs configs,
             GraphPlanner graphPlanner,
             ChannelFetcher fetcher,
             IrMetaQueryCallback metaQueryCallback,
+            QueryManager queryManager,
             Graph graph,
             GraphTraversalSource g) {
         this.graph = graph;
         this.g = g;
         this.configs = configs;
         this.rpcClient = new RpcClient(fetcher.fetch());
+        this.pointLookupRouter = new PointLookupRouter(configs, fetcher);
         this.metaQueryCallback = metaQueryCallback;
+        this.queryManager = queryManager;
         this.graphPlanner = graphPlanner;
     }
 
+    @Override
+    public ThrowingConsumer<Context> select(Context ctx) throws OpProcessorException {
+        switch (ctx.getRequestMessage().getOp()) {
+            case OPS_LIST_QUERIES:
+                return this::listQueries;
+            case OPS_KILL_QUERY:
+                return this::killQuery;
+            default:
+                return super.select(ctx);
+        }
+    }
+
+    protected void listQueries(Context ctx) {
+        List<Object> queries =
+                queryManager.getRunningQueries().stream()
+                        .map(
+                                k -> {
+                                    Map<String, Object> query = new LinkedHashMap<>();
+                                    query.put("queryId", k.getQueryId());
+                                    query.put("query", k.getQuery());
+                                    query.put("elapsedMillis", k.getElapsedMillis());
+                                    query.put("cancelled", k.isCancelled());
+                                    return query;
+                                })
+                        .collect(Collectors.toList());
+        ctx.writeAndFlush(
+                ResponseMessage.build(ctx.getRequestMessage())
+                        .code(ResponseStatusCode.SUCCESS)
+                        .result(queries)
+                        .create());
+    }
+
+    protected void killQuery(Context ctx) {
+        RequestMessage msg = ctx.getRequestMessage();
+        Object queryId = msg.getArgs().get(ARGS_QUERY_ID);
+        if (!(queryId instanceof Number)) {
+            ctx.writeAndFlush(
+                    ResponseMessage.build(msg)
+                            .code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS)
+                            .statusMessage(
+                                    String.format(
+                                            "A message with [%s] op code requires a numeric [%s]"
+                                                    + " argument.",
+                                            OPS_KILL_QUERY, ARGS_QUERY_ID))
+                            .create());
+            return;
+        }
+        boolean killed = queryManager.kill(((Number) queryId).longValue(), "killed by admin");
+        ctx.writeAndFlush(
+                ResponseMessage.build(msg)
+                        .code(ResponseStatusCode.SUCCESS)
+                        .result(killed)
+                        .create());
+    }
+
     @Override
     protected void evalOpInternal(
             final Context ctx,
@@ -122,6 +212,8 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
         long jobId = graphPlanner.generateInstanceId();
         IrMeta irMeta = metaQueryCallback.beforeExec();
         QueryStatusCallback statusCallback = createQueryStatusCallback(script, jobId);
+        QueryManager.RunningQuery runningQuery = queryManager.register(jobId, script);
+        cancelOnChannelClose(ctx, runningQuery);
         GremlinExecutor.LifeCycle lifeCycle =
                 createLifeCycle(
                         ctx, gremlinExecutorSupplier, bindingsSupplier, irMeta, statusCallback);
@@ -131,7 +223,17 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
             evalFuture.handle(
                     (v, t) -> {
                         metaQueryCallback.afterExec(irMeta);
+                        if (t == null && !(v instanceof Traversal)) {
+                            // nothing is submitted to the engine
+                            queryManager.unregister(jobId);
+                        }
                         if (t != null) {
+                            // stop the job in the engine if it has been submitted
+                            runningQuery.cancel(
+                                    "query failed: "
+                                            + (t.getMessage() == null
+                                                    ? t.toString()
+                                                    : t.getMessage()));
                             statusCallback.onEnd(false);
                             if (v instanceof AbstractResultProcessor) {
                                 ((AbstractResultProcessor) v).cancel();
@@ -233,6 +335,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                         return null;
                     });
         } catch (RejectedExecutionException var17) {
+            queryManager.unregister(jobId);
             ctx.writeAndFlush(
                     ResponseMessage.build(msg)
                             .code(ResponseStatusCode.TOO_MANY_REQUESTS)
@@ -243,7 +346,19 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
 
     protected QueryStatusCallback createQueryStatusCallback(String query, long queryId) {
         return new QueryStatusCallback(
-                new MetricsCollector(evalOpTimer), new QueryLogger(query, queryId));
+                new MetricsCollector(evalOpTimer), new QueryLogger(query, queryId), queryManager);
+    }
+
+    // kill the query if the client is gone, results can not be sent back any more
+    protected void cancelOnChannelClose(Context ctx, QueryManager.RunningQuery runningQuery) {
+        if (ctx.getChannelHandlerContext() == null) {
+            return;
+        }
+        Channel channel = ctx.getChannelHandlerContext().channel();
+        ChannelFutureListener closeListener =
+                future -> queryManager.kill(runningQuery.getQueryId(), "client channel is closed");
+        channel.closeFuture().addListener(closeListener);
+        runningQuery.addCloseHook(() -> channel.closeFuture().removeListener(closeListener));
     }
 
     protected GremlinExecutor.LifeCycle createLifeCycle(
@@ -278,6 +393,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                                 if (o != null && o instanceof Traversal) {
                                     Traversal traversal = (Traversal) o;
                                     processTraversal(
+                                            ctx,
                                             traversal,
                                             new GremlinResultProcessor(
                                                     ctx, traversal, statusCallback),
@@ -294,6 +410,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
 
     // add script argument to print with ir plan
     protected void processTraversal(
+            Context ctx,
             Traversal traversal,
             ResultProcessor resultProcessor,
             IrMeta irMeta,
@@ -305,6 +422,9 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
         InterOpCollection.applyStrategies(opCollection);
         // add sink operator
         InterOpCollection.process(opCollection);
+        // extract before building the physical plan
+        List<Long> lookupIds = getLookupIds(opCollection);
+        int hops = HopEstimator.estimate(opCollection);
 
         long jobId = queryLogger.getQueryId();
         String jobName = "ir_plan_" + jobId;
@@ -318,7 +438,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                 PegasusClient.JobRequest.newBuilder()
                         .setPlan(ByteString.copyFrom(physicalPlanBytes))
                         .build();
-        PegasusClient.JobConfig jobConfig =
+        PegasusClient.JobConfig.Builder jobConfigBuilder =
                 PegasusClient.JobConfig.newBuilder()
                         .setJobId(jobId)
                         .setJobName(jobName)
@@ -326,11 +446,110 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                         .setBatchSize(PegasusConfig.PEGASUS_BATCH_SIZE.get(configs))
                         .setMemoryLimit(PegasusConfig.PEGASUS_MEMORY_LIMIT.get(configs))
                         .setBatchCapacity(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.get(configs))
-                        .setTimeLimit(timeoutConfig.getEngineTimeoutMS())
-                        .setAll(PegasusClient.Empty.newBuilder().build())
-                        .build();
+                        .setTimeLimit(timeoutConfig.getEngineTimeoutMS());
+        // send the point lookup to the servers owning the vertices only
+        PegasusClient.JobConfig jobConfig =
+                pointLookupRouter.setServers(jobConfigBuilder, lookupIds).build();
         request = request.toBuilder().setConf(jobConfig).build();
-        this.rpcClient.submit(request, resultProcessor, timeoutConfig.getChannelTimeoutMS());
+        PegasusClient.JobRequest jobRequest = request;
+        Optional<QueryManager.RunningQuery> runningQuery = queryManager.getRunningQuery(jobId);
+        if (!runningQuery.isPresent()) {
+            this.rpcClient.submit(jobRequest, resultProcessor, timeoutConfig.getChannelTimeoutMS());
+            return;
+        }
+        QueryScheduler scheduler = queryManager.getScheduler();
+        QueryScheduler.QueryClass queryClass =
+                scheduler.classify(getQueryClassHint(ctx), lookupIds != null, hops);
+        queryLogger.info("query class {}, estimated hops {}", queryClass, hops);
+        // submit the job once it is admitted by the scheduler
+        scheduler.schedule(
+                runningQuery.get(),
+                queryClass,
+                getUser(ctx),
+                timeoutConfig.getExecutionTimeoutMS(),
+                () -> {
+                    JobHandle jobHandle =
+                            this.rpcClient.submit(
+                                    jobRequest,
+                                    resultProcessor,
+                                    timeoutConfig.getChannelTimeoutMS());
+                    runningQuery.get().setCancelHook(reason -> jobHandle.cancel(reason));
+                },
+                t -> {
+                    if (t instanceof CancellationException) {
+                        resultProcessor.error(Status.CANCELLED.withDescription(t.getMessage()));
+                    } else if (resultProcessor instanceof AbstractResultProcessor) {
+                        ((AbstractResultProcessor) resultProcessor).reject(t.getMessage());
+                    } else {
+                        resultProcessor.error(
+                                Status.RESOURCE_EXHAUSTED.withDescription(t.getMessage()));
+                    }
+                });
+    }
+
+    // the class of the query given by the user, i.e. 'short' or 'long'
+    protected @Nullable String getQueryClassHint(Context ctx) {
+        Object hint = ctx.getRequestMessage().getArgs().get(ARGS_QUERY_CLASS);
+        return (hint == null) ? null : hint.toString();
+    }
+
+    // the authenticated user, or the client address if the authentication is disabled
+    protected String getUser(Context ctx) {
+        ChannelHandlerContext channelCtx = ctx.getChannelHandlerContext();
+        if (channelCtx == null) {
+            return AuthenticatedUser.ANONYMOUS_USERNAME;
+        }
+        Channel channel = channelCtx.channel();
+        AuthenticatedUser user = channel.attr(StateKey.AUTHENTICATED_USER).get();
+        if (user != null && !user.isAnonymous()) {
+            return user.getName();
+        }
+        SocketAddress address = channel.remoteAddress();
+        return (address instanceof InetSocketAddress)
+                ? ((InetSocketAddress) address).getHostString()
+                : String.valueOf(address);
+    }
+
+    /**
+     * the traversal is a point lookup if it starts from the vertices of given ids and never leaves
+     * them, i.e. `g.V(1).values('name')`
+     * @return ids of the vertices to look up, or null if the traversal is not a point lookup
+     */
+    protected @Nullable List<Long> getLookupIds(InterOpCollection opCollection) {
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+        if (ops.isEmpty() || !(ops.get(0) instanceof ScanFusionOp)) {
+            return null;
+        }
+        Optional<OpArg> idsOpt = ((ScanFusionOp) ops.get(0)).getIds();
+        if (!idsOpt.isPresent() || !(idsOpt.get().getArg() instanceof GraphStep)) {
+            return null;
+        }
+        GraphStep graphStep = (GraphStep) idsOpt.get().getArg();
+        if (!graphStep.returnsVertex()) {
+            return null;
+        }
+        // operators which only compute on the records of the input
+        for (int i = 1; i < ops.size(); ++i) {
+            InterOpBase op = ops.get(i);
+            if (!(op instanceof SelectOp
+                    || op instanceof ProjectOp
+                    || op instanceof LimitOp
+                    || op instanceof OrderOp
+                    || op instanceof DedupOp
+                    || op instanceof GroupOp
+                    || op instanceof AsNoneOp
+                    || op instanceof SinkOp)) {
+                return null;
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Object id : graphStep.getIds()) {
+            if (!(id instanceof Integer || id instanceof Long)) {
+                return null;
+            }
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
     }
 
     public static void applyStrategies(Traversal traversal) {
@@ -87,14 +87,17 @@ public class PathExpandStep extends ExpandFusionStep<Vertex> {
         String key = toCamelCaseInsensitive(originalKey);
         String value = toCamelCaseInsensitive(originalVal);
         if (key.equals("PathOpt")) {
-            if (value.equals("Arbitrary") || value.equals("Simple")) {
+            if (value.equals("Arbitrary")
+                    || value.equals("Simple")
+                    || value.equals("AnyShortest")
+                    || value.equals("AllShortest")) {
                 this.pathOpt = PathOpt.valueOf(value);
             } else {
                 throw new ExtendGremlinStepException(
                         "value "
                                 + originalVal
-                                + " is invalid, use ARBITRARY or SIMPLE instead (case"
-                                + " insensitive)");
+                                + " is invalid, use ARBITRARY, SIMPLE, ANY_SHORTEST or ALL_SHORTEST"
+                                + " instead (case insensitive)");
             }
         } else if (key.equals("ResultOpt")) {
             if (value.equals("AllV") || value.equals("EndV") || value.equals("AllVE")) {
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.gremlin.result;
+
+import com.alibaba.graphscope.common.jna.type.FfiKeyType;
+import com.alibaba.graphscope.common.result.ResultParser;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.alibaba.graphscope.gremlin.exception.GremlinResultParserException;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.NettyBufferFactory;
+import org.apache.tinkerpop.gremlin.structure.io.Buffer;
+import org.apache.tinkerpop.gremlin.structure.io.binary.DataType;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encode {@link IrResult.Results} into GraphBinary directly, without materializing the TinkerPop
+ * {@code DetachedVertex}/{@code DetachedEdge}/{@code Map}/{@code List} objects which are only
+ * created to be serialized again. The bytes written are the same as the ones produced by
+ * {@code GraphBinaryMessageSerializerV1} for the objects returned by {@link ParserUtils}, so
+ * clients can not tell the difference.
+ */
+public class GraphBinaryResultEncoder {
+    private static final byte VALUE_FLAG_NONE = 0x00;
+    private static final byte VALUE_FLAG_NULL = 0x01;
+    private static final NettyBufferFactory bufferFactory = new NettyBufferFactory();
+
+    private final GraphBinaryWriter writer;
+
+    public GraphBinaryResultEncoder() {
+        this.writer = new GraphBinaryWriter();
+    }
+
+    /**
+     * @return true if the results parsed by the given parser can be encoded directly, which
+     *     means the parser does not reorganize the results as a whole
+     */
+    public static boolean canEncode(ResultParser resultParser) {
+        return resultParser == GremlinResultParserFactory.GRAPH_ELEMENT
+                || resultParser == GremlinResultParserFactory.SINGLE_VALUE;
+    }
+
+    /**
+     * encode results in the given response as fully qualified GraphBinary values
+     *
+     * @return the number of results written to the buffer
+     */
+    public int encode(ResultParser resultParser, ByteString response, ByteBuf out) {
+        int writerIndex = out.writerIndex();
+        try {
+            IrResult.Results results = IrResult.Results.parseFrom(response);
+            IrResult.Entry entry = results.getRecord().getColumns(0).getEntry();
+            if (resultParser == GremlinResultParserFactory.GRAPH_ELEMENT) {
+                IrResult.Element element = entry.getElement();
+                switch (element.getInnerCase()) {
+                    case VERTEX:
+                    case EDGE:
+                    case GRAPH_PATH:
+                        writeElement(element, out);
+                        return 1;
+                    default:
+                        throw new GremlinResultParserException(
+                                "parse element should return vertex or edge or graph path");
+                }
+            } else if (resultParser == GremlinResultParserFactory.SINGLE_VALUE) {
+                return writeEntry(entry, out);
+            } else {
+                throw new GremlinResultParserException(
+                        "result parser " + resultParser + " can not be encoded directly");
+            }
+        } catch (InvalidProtocolBufferException e) {
+            out.writerIndex(writerIndex);
+            throw new GremlinResultParserException("parse from proto failed " + e);
+        } catch (RuntimeException e) {
+            // drop the partially written value
+            out.writerIndex(writerIndex);
+            throw e;
+        }
+    }
+
+    /**
+     * assemble a GraphBinary response message, whose result data is a list of the given count of
+     * values already encoded in data. The ownership of data is transferred to the returned buffer.
+     */
+    public ByteBuf encodeResponse(
+            UUID requestId,
+            ResponseStatusCode statusCode,
+            ByteBuf data,
+            int count,
+            ByteBufAllocator allocator)
+            throws IOException {
+        ByteBuf header = allocator.buffer();
+        try {
+            Buffer buffer = bufferFactory.create(header);
+            header.writeByte(GraphBinaryWriter.VERSION_BYTE);
+            writer.writeValue(requestId, buffer, true);
+            writer.writeValue(statusCode.getValue(), buffer, false);
+            writer.writeValue("", buffer, true);
+            writer.writeValue(Collections.emptyMap(), buffer, false);
+            writer.writeValue(Collections.emptyMap(), buffer, false);
+            header.writeByte(DataType.LIST.getCodeByte());
+            header.writeByte(VALUE_FLAG_NONE);
+            header.writeInt(count);
+        } catch (Exception e) {
+            header.release();
+            data.release();
+            throw e;
+        }
+        CompositeByteBuf response = allocator.compositeBuffer(2);
+        response.addComponents(true, header, data);
+        return response;
+    }
+
+    // the same as ParserUtils.parseEntry, empty values are skipped
+    private int writeEntry(IrResult.Entry entry, ByteBuf out) {
+        switch (entry.getInnerCase()) {
+            case ELEMENT:
+                if (isEmpty(entry.getElement())) {
+                    return 0;
+                }
+                writeElement(entry.getElement(), out);
+                return 1;
+            case COLLECTION:
+                List<IrResult.Element> elements = entry.getCollection().getCollectionList();
+                int notEmpty = 0;
+                for (IrResult.Element element : elements) {
+                    if (!isEmpty(element)) {
+                        ++notEmpty;
+                    }
+                }
+                if (notEmpty == 0) {
+                    return 0;
+                }
+                writeListHeader(notEmpty, out);
+                for (IrResult.Element element : elements) {
+                    if (!isEmpty(element)) {
+                        writeElement(element, out);
+                    }
+                }
+                return 1;
+            default:
+                throw new GremlinResultParserException("invalid " + entry.getInnerCase().name());
+        }
+    }
+
+    private boolean isEmpty(IrResult.Element element) {
+        return element.getInnerCase() == IrResult.Element.InnerCase.OBJECT
+                && element.getObject().getItemCase() == Common.Value.ItemCase.NONE;
+    }
+
+    private void writeElement(IrResult.Element element, ByteBuf out) {
+        switch (element.getInnerCase()) {
+            case VERTEX:
+                writeVertex(element.getVertex(), out);
+                break;
+            case EDGE:
+                writeEdge(element.getEdge(), out);
+                break;
+            case GRAPH_PATH:
+                List<IrResult.GraphPath.VertexOrEdge> path = element.getGraphPath().getPathList();
+                writeListHeader(path.size(), out);
+                for (IrResult.GraphPath.VertexOrEdge k : path) {
+                    if (k.getInnerCase() == IrResult.GraphPath.VertexOrEdge.InnerCase.VERTEX) {
+                        writeVertex(k.getVertex(), out);
+                    } else if (k.getInnerCase() == IrResult.GraphPath.VertexOrEdge.InnerCase.EDGE) {
+                        writeEdge(k.getEdge(), out);
+                    } else {
+                        throw new GremlinResultParserException(k.getInnerCase() + " is invalid");
+                    }
+                }
+                break;
+            case OBJECT:
+                writeCommonValue(element.getObject(), out);
+                break;
+            default:
+                throw new GremlinResultParserException(element.getInnerCase() + " is invalid");
+        }
+    }
+
+    // {id}{label}{properties}, properties are always null as in DetachedVertex
+    private void writeVertex(IrResult.Vertex vertex, ByteBuf out) {
+        out.writeByte(DataType.VERTEX.getCodeByte());
+        out.writeByte(VALUE_FLAG_NONE);
+        writeLong(vertex.getId(), out);
+        writeStringValue(getKeyName(vertex.getLabel(), FfiKeyType.Entity), out);
+        writeNull(out);
+    }
+
+    // {id}{label}{inVId}{inVLabel}{outVId}{outVLabel}{parent}{properties}
+    private void writeEdge(IrResult.Edge edge, ByteBuf out) {
+        out.writeByte(DataType.EDGE.getCodeByte());
+        out.writeByte(VALUE_FLAG_NONE);
+        writeLong(edge.getId(), out);
+        writeStringValue(getKeyName(edge.getLabel(), FfiKeyType.Relation), out);
+        writeLong(edge.getDstId(), out);
+        writeStringValue(getKeyName(edge.getDstLabel(), FfiKeyType.Entity), out);
+        writeLong(edge.getSrcId(), out);
+        writeStringValue(getKeyName(edge.getSrcLabel(), FfiKeyType.Entity), out);
+        writeNull(out);
+        writeNull(out);
+    }
+
+    private void writeCommonValue(Common.Value value, ByteBuf out) {
+        switch (value.getItemCase()) {
+            case BOOLEAN:
+                out.writeByte(DataType.BOOLEAN.getCodeByte());
+                out.writeByte(VALUE_FLAG_NONE);
+                out.writeBoolean(value.getBoolean());
+                break;
+            case I32:
+                out.writeByte(DataType.INT.getCodeByte());
+                out.writeByte(VALUE_FLAG_NONE);
+                out.writeInt(value.getI32());
+                break;
+            case I64:
+                writeLong(value.getI64(), out);
+                break;
+            case F64:
+                out.writeByte(DataType.DOUBLE.getCodeByte());
+                out.writeByte(VALUE_FLAG_NONE);
+                out.writeDouble(value.getF64());
+                break;
+            case STR:
+                writeString(value.getStr(), out);
+                break;
+            case PAIR_ARRAY:
+                // the same as the HashMap built by ParserUtils, pairs are written in the order of
+                // the HashMap, and a duplicate key overrides the value but keeps the first key
+                Map<Object, Common.Pair> pairs = new HashMap<>();
+                for (Common.Pair pair : value.getPairArray().getItemList()) {
+                    Object key = ParserUtils.parseCommonValue(pair.getKey());
+                    Common.Pair first = pairs.get(key);
+                    pairs.put(
+                            key,
+                            (first == null)
+                                    ? pair
+                                    : first.toBuilder().setVal(pair.getVal()).build());
+                }
+                out.writeByte(DataType.MAP.getCodeByte());
+                out.writeByte(VALUE_FLAG_NONE);
+                out.writeInt(pairs.size());
+                for (Common.Pair pair : pairs.values()) {
+                    writeCommonValue(pair.getKey(), out);
+                    writeCommonValue(pair.getVal(), out);
+                }
+                break;
+            case STR_ARRAY:
+                List<String> items = value.getStrArray().getItemList();
+                writeListHeader(items.size(), out);
+                for (String item : items) {
+                    writeString(item, out);
+                }
+                break;
+            case NONE:
+                // a nested none is parsed as EmptyValue by ParserUtils, which GraphBinary can not
+                // serialize, fail in the same way instead of writing a null
+                throw new GremlinResultParserException(
+                        "Serializer for type " + EmptyValue.class.getName() + " not found");
+            default:
+                throw new GremlinResultParserException(value.getItemCase() + " is unsupported yet");
+        }
+    }
+
+    private String getKeyName(Common.NameOrId key, FfiKeyType type) {
+        // avoid the ffi call if the name is already there
+        return (key.getItemCase() == Common.NameOrId.ItemCase.NAME)
+                ? key.getName()
+                : ParserUtils.getKeyName(key, type);
+    }
+
+    private void writeListHeader(int size, ByteBuf out) {
+        out.writeByte(DataType.LIST.getCodeByte());
+        out.writeByte(VALUE_FLAG_NONE);
+        out.writeInt(size);
+    }
+
+    private void writeLong(long value, ByteBuf out) {
+        out.writeByte(DataType.LONG.getCodeByte());
+        out.writeByte(VALUE_FLAG_NONE);
+        out.writeLong(value);
+    }
+
+    private void writeString(String value, ByteBuf out) {
+        out.writeByte(DataType.STRING.getCodeByte());
+        out.writeByte(VALUE_FLAG_NONE);
+        writeStringValue(value, out);
+    }
+
+    private void writeStringValue(String value, ByteBuf out) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private void writeNull(ByteBuf out) {
+        out.writeByte(DataType.UNSPECIFIED_NULL.getCodeByte());
+        out.writeByte(VALUE_FLAG_NULL);
+    }
+}
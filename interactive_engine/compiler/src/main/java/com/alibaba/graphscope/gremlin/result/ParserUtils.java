@@ -36,7 +36,6 @@ import java.util.stream.Collectors;
 
 public class ParserUtils {
     private static final Logger logger = LoggerFactory.getLogger(ParserUtils.class);
-    private static final IrCoreLibrary irCoreLib = IrCoreLibrary.INSTANCE;
 
     public static Object parseElement(IrResult.Element element) {
         switch (element.getInnerCase()) {
@@ -78,7 +77,7 @@ public class ParserUtils {
         return results.getRecord().getColumns(0).getEntry();
     }
 
-    private static Object parseCommonValue(Common.Value value) {
+    static Object parseCommonValue(Common.Value value) {
         switch (value.getItemCase()) {
             case BOOLEAN:
                 return value.getBoolean();
@@ -138,7 +137,9 @@ public class ParserUtils {
                 return key.getName();
             case ID:
                 {
-                    FfiResult.ByValue result = irCoreLib.getKeyName(key.getId(), type);
+                    // the native library is loaded only if an id is to be resolved
+                    FfiResult.ByValue result =
+                            IrCoreLibrary.INSTANCE.getKeyName(key.getId(), type);
                     if (result.code != ResultCode.Success) {
                         String errorMsg =
                                 "code is " + result.code.name() + ", msg is " + result.msg;
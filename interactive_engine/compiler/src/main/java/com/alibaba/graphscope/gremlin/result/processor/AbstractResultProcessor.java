@@ -18,10 +18,12 @@ package com.alibaba.graphscope.gremlin.result.processor;
 
 import com.alibaba.graphscope.common.result.ResultParser;
 import com.alibaba.graphscope.gremlin.plugin.QueryStatusCallback;
+import com.alibaba.graphscope.gremlin.result.GraphBinaryResultEncoder;
 import com.alibaba.pegasus.intf.ResultProcessor;
 import com.alibaba.pegasus.service.protocol.PegasusClient;
 
 import io.grpc.Status;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
@@ -29,6 +31,7 @@ import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.GraphBinaryMessageSerializerV1;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.handler.Frame;
@@ -40,6 +43,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractResultProcessor extends StandardOpProcessor
@@ -56,6 +60,15 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
     // can write back to gremlin context session if true
     protected boolean isContextWritable;
 
+    // encode results into GraphBinary frames directly if no post-processing is required,
+    // results are buffered in directResults until a batch is full
+    private GraphBinaryResultEncoder directEncoder;
+    // directEncoder is resolved on the first response instead of in the constructor, since
+    // canEncodeDirectly() can be overridden by subclasses which are not initialized yet
+    private boolean directEncoderResolved;
+    private ByteBuf directResults;
+    private int directResultCount;
+
     protected AbstractResultProcessor(
             Context writeResult, ResultParser resultParser, QueryStatusCallback statusCallback) {
         this.writeResult = writeResult;
@@ -72,26 +85,67 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
                                 .orElse(settings.resultIterationBatchSize);
         this.resultCollectors = new ArrayList<>(this.resultCollectorsBatchSize);
         this.isContextWritable = true;
+        this.directEncoderResolved = false;
+        this.directResultCount = 0;
+    }
+
+    // null if results cannot be encoded directly
+    protected synchronized GraphBinaryResultEncoder getDirectEncoder() {
+        if (!this.directEncoderResolved) {
+            this.directEncoder = canEncodeDirectly() ? new GraphBinaryResultEncoder() : null;
+            this.directEncoderResolved = true;
+        }
+        return this.directEncoder;
+    }
+
+    /**
+     * Results can be encoded from protobuf into GraphBinary directly if the client talks
+     * GraphBinary and the results are written as they are parsed, without aggregation or any other
+     * post-processing on the whole result set.
+     */
+    protected boolean canEncodeDirectly() {
+        if (!GraphBinaryResultEncoder.canEncode(resultParser)) {
+            return false;
+        }
+        ChannelHandlerContext ctx = writeResult.getChannelHandlerContext();
+        if (ctx == null) {
+            return false;
+        }
+        Boolean useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
+        MessageSerializer serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
+        return useBinary != null
+                && useBinary
+                && serializer instanceof GraphBinaryMessageSerializerV1;
     }
 
     @Override
     public synchronized void process(PegasusClient.JobResponse response) {
         try {
-            if (isContextWritable) {
+            if (isContextWritable && getDirectEncoder() != null) {
+                if (this.directResultCount >= this.resultCollectorsBatchSize) {
+                    writeDirectResults(writeResult, ResponseStatusCode.PARTIAL_CONTENT);
+                }
+                if (this.directResults == null) {
+                    this.directResults = writeResult.getChannelHandlerContext().alloc().buffer();
+                }
+                this.directResultCount +=
+                        directEncoder.encode(resultParser, response.getResp(), directResults);
+            } else if (isContextWritable) {
                 // send back a page of results if batch size is met and then reset the
                 // resultCollectors
-                if (this.resultCollectors.size() >= this.resultCollectorsBatchSize) {
+                if (isBatchFull()) {
                     aggregateResults();
                     writeResultList(
                             writeResult, resultCollectors, ResponseStatusCode.PARTIAL_CONTENT);
                     this.resultCollectors.clear();
                 }
-                resultCollectors.addAll(resultParser.parseFrom(response));
+                collectResults(response);
             }
         } catch (Exception e) {
             statusCallback.getQueryLogger().error("process response from grpc fail", e);
             // cannot write to this context any more
             isContextWritable = false;
+            releaseDirectResults();
             statusCallback.onEnd(false);
             writeResultList(
                     writeResult,
@@ -105,8 +159,12 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
         if (isContextWritable) {
             isContextWritable = false;
             statusCallback.onEnd(true);
-            aggregateResults();
-            writeResultList(writeResult, resultCollectors, ResponseStatusCode.SUCCESS);
+            if (getDirectEncoder() != null) {
+                writeDirectResults(writeResult, ResponseStatusCode.SUCCESS);
+            } else {
+                aggregateResults();
+                writeResultList(writeResult, resultCollectors, ResponseStatusCode.SUCCESS);
+            }
         }
     }
 
@@ -115,6 +173,7 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
         logger.error("error return from grpc, status {}", status);
         if (isContextWritable) {
             isContextWritable = false;
+            releaseDirectResults();
             statusCallback.onEnd(false);
             writeResultList(
                     writeResult,
@@ -123,12 +182,71 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
         }
     }
 
+    // the query is rejected by the admission control before being submitted to the engine
+    public synchronized void reject(String message) {
+        logger.warn("query is rejected, {}", message);
+        if (isContextWritable) {
+            isContextWritable = false;
+            releaseDirectResults();
+            statusCallback.onEnd(false);
+            writeResult.writeAndFlush(
+                    ResponseMessage.build(writeResult.getRequestMessage())
+                            .code(ResponseStatusCode.TOO_MANY_REQUESTS)
+                            .statusMessage(message)
+                            .create());
+        }
+    }
+
     public synchronized void cancel() {
         this.isContextWritable = false;
+        releaseDirectResults();
     }
 
     protected abstract void aggregateResults();
 
+    protected void collectResults(PegasusClient.JobResponse response) {
+        resultCollectors.addAll(resultParser.parseFrom(response));
+    }
+
+    // whether the collected results should be sent back as a page before collecting more
+    protected boolean isBatchFull() {
+        return this.resultCollectors.size() >= this.resultCollectorsBatchSize;
+    }
+
+    private void releaseDirectResults() {
+        if (this.directResults != null) {
+            this.directResults.release();
+            this.directResults = null;
+        }
+        this.directResultCount = 0;
+    }
+
+    protected void writeDirectResults(final Context context, final ResponseStatusCode statusCode) {
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
+        final int resultCount = this.directResultCount;
+        final GraphBinaryResultEncoder encoder = getDirectEncoder();
+        writeFrame(
+                context,
+                resultCount,
+                statusCode,
+                () -> {
+                    ByteBuf data =
+                            (this.directResults != null)
+                                    ? this.directResults
+                                    : ctx.alloc().buffer(0);
+                    this.directResults = null;
+                    this.directResultCount = 0;
+                    return new Frame(
+                            encoder.encodeResponse(
+                                    msg.getRequestId(),
+                                    statusCode,
+                                    data,
+                                    resultCount,
+                                    ctx.alloc()));
+                });
+    }
+
     protected void writeResultList(
             final Context context,
             final List<Object> resultList,
@@ -148,21 +266,35 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
             return;
         }
 
+        writeFrame(
+                context,
+                resultList.size(),
+                statusCode,
+                () ->
+                        makeFrame(
+                                context,
+                                msg,
+                                serializer,
+                                useBinary,
+                                resultList,
+                                statusCode,
+                                Collections.emptyMap(),
+                                Collections.emptyMap()));
+    }
+
+    private void writeFrame(
+            final Context context,
+            final int resultCount,
+            final ResponseStatusCode statusCode,
+            final Callable<Frame> frameSupplier) {
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
         boolean retryOnce = false;
         while (true) {
             if (ctx.channel().isWritable()) {
                 Frame frame = null;
                 try {
-                    frame =
-                            makeFrame(
-                                    context,
-                                    msg,
-                                    serializer,
-                                    useBinary,
-                                    resultList,
-                                    statusCode,
-                                    Collections.emptyMap(),
-                                    Collections.emptyMap());
+                    frame = frameSupplier.call();
                     ctx.writeAndFlush(frame).get();
                     break;
                 } catch (Exception e) {
@@ -171,7 +303,7 @@ public abstract class AbstractResultProcessor extends StandardOpProcessor
                     }
                     logger.error(
                             "write "
-                                    + resultList.size()
+                                    + resultCount
                                     + " result to context "
                                     + context
                                     + " status code=>"
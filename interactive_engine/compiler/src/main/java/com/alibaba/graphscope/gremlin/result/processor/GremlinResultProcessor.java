@@ -19,6 +19,7 @@ package com.alibaba.graphscope.gremlin.result.processor;
 import com.alibaba.graphscope.gremlin.plugin.QueryStatusCallback;
 import com.alibaba.graphscope.gremlin.result.GremlinResultAnalyzer;
 import com.alibaba.graphscope.gremlin.result.GroupResultParser;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.server.Context;
@@ -31,22 +32,40 @@ import java.util.Map;
 public class GremlinResultProcessor extends AbstractResultProcessor {
     private static Logger logger = LoggerFactory.getLogger(GremlinResultProcessor.class);
 
+    // groups are already aggregated by key in the engine, each group is returned only once,
+    // so they are merged into the map as they arrive and the map is sent back as a page once it
+    // holds a batch of groups, instead of keeping a singleton map per group before merging
+    private Map groupResult;
+
     public GremlinResultProcessor(
             Context writeResult, Traversal traversal, QueryStatusCallback statusCallback) {
         super(writeResult, GremlinResultAnalyzer.analyze(traversal), statusCallback);
+        this.groupResult = (resultParser instanceof GroupResultParser) ? new LinkedHashMap() : null;
+    }
+
+    @Override
+    protected void collectResults(PegasusClient.JobResponse response) {
+        if (groupResult != null) {
+            resultParser.parseFrom(response).forEach(k -> groupResult.putAll((Map) k));
+        } else {
+            super.collectResults(response);
+        }
+    }
+
+    @Override
+    protected boolean isBatchFull() {
+        return (groupResult != null)
+                ? groupResult.size() >= resultCollectorsBatchSize
+                : super.isBatchFull();
     }
 
     // format group result as a single map
     @Override
     protected void aggregateResults() {
-        if (resultParser instanceof GroupResultParser) {
-            Map groupResult = new LinkedHashMap();
-            resultCollectors.forEach(
-                    k -> {
-                        groupResult.putAll((Map) k);
-                    });
+        if (groupResult != null) {
             resultCollectors.clear();
             resultCollectors.add(groupResult);
+            groupResult = new LinkedHashMap();
         }
     }
 }
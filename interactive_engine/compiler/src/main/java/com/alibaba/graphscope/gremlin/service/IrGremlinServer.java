@@ -21,6 +21,7 @@ import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.config.FrontendConfig;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
+import com.alibaba.graphscope.common.manager.QueryManager;
 import com.alibaba.graphscope.gremlin.Utils;
 import com.alibaba.graphscope.gremlin.auth.AuthManager;
 import com.alibaba.graphscope.gremlin.auth.AuthManagerReference;
@@ -46,6 +47,7 @@ public class IrGremlinServer implements AutoCloseable {
     private final GraphPlanner graphPlanner;
     private final ChannelFetcher channelFetcher;
     private final IrMetaQueryCallback metaQueryCallback;
+    private final QueryManager queryManager;
     private final GraphProperties testGraph;
 
     private GremlinServer gremlinServer;
@@ -58,11 +60,13 @@ public class IrGremlinServer implements AutoCloseable {
             GraphPlanner graphPlanner,
             ChannelFetcher channelFetcher,
             IrMetaQueryCallback metaQueryCallback,
+            QueryManager queryManager,
             GraphProperties testGraph) {
         this.configs = configs;
         this.graphPlanner = graphPlanner;
         this.channelFetcher = channelFetcher;
         this.metaQueryCallback = metaQueryCallback;
+        this.queryManager = queryManager;
         this.testGraph = testGraph;
         InputStream input =
                 getClass().getClassLoader().getResourceAsStream("conf/gremlin-server.yaml");
@@ -80,7 +84,13 @@ public class IrGremlinServer implements AutoCloseable {
     public void start() throws Exception {
         AbstractOpProcessor standardProcessor =
                 new IrStandardOpProcessor(
-                        configs, graphPlanner, channelFetcher, metaQueryCallback, graph, g);
+                        configs,
+                        graphPlanner,
+                        channelFetcher,
+                        metaQueryCallback,
+                        queryManager,
+                        graph,
+                        g);
         IrOpLoader.addProcessor(standardProcessor.getName(), standardProcessor);
         AbstractOpProcessor testProcessor =
                 new IrTestOpProcessor(
@@ -88,6 +98,7 @@ public class IrGremlinServer implements AutoCloseable {
                         graphPlanner,
                         channelFetcher,
                         metaQueryCallback,
+                        queryManager,
                         graph,
                         g,
                         testGraph);
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.graphscope.common.client.channel.ChannelFetcher;
+import com.alibaba.graphscope.common.client.type.ExecutionRequest;
+import com.alibaba.graphscope.common.client.type.ExecutionResponseListener;
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
+import com.alibaba.graphscope.common.ir.Utils;
+import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.cypher.antlr4.parser.CypherAntlr4Parser;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HttpExecutionClientTest {
+    private HttpServer server;
+    // released to let the server send the rest of the response
+    private CountDownLatch resume;
+    // counted down once the server finishes a response
+    private CountDownLatch responded;
+
+    private static class EventCollector implements ExecutionResponseListener {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        @Override
+        public synchronized void onNext(IrResult.Record record) {
+            events.add("record_" + record.getColumns(0).getNameOrId().getId());
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            events.add("completed");
+            terminated.countDown();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            events.add("error");
+            terminated.countDown();
+        }
+
+        public synchronized List<String> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+
+    private static byte[] results(int id) {
+        IrResult.Record record =
+                IrResult.Record.newBuilder()
+                        .addColumns(
+                                IrResult.Column.newBuilder()
+                                        .setNameOrId(Common.NameOrId.newBuilder().setId(id)))
+                        .build();
+        return IrResult.CollectiveResults.newBuilder()
+                .addResults(IrResult.Results.newBuilder().setRecord(record))
+                .build()
+                .toByteArray();
+    }
+
+    @Before
+    public void init() throws IOException {
+        resume = new CountDownLatch(1);
+        responded = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // send the first record, then the second one once resumed
+        server.createContext(
+                "/",
+                exchange -> {
+                    exchange.getRequestBody().readAllBytes();
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream body = exchange.getResponseBody()) {
+                        body.write(results(0));
+                        body.flush();
+                        resume.await();
+                        body.write(results(1));
+                    } catch (IOException | InterruptedException e) {
+                        // the client is gone
+                    } finally {
+                        responded.countDown();
+                    }
+                });
+        server.start();
+    }
+
+    @After
+    public void close() {
+        resume.countDown();
+        server.stop(0);
+    }
+
+    private EventCollector submit(int servers, long timeoutMS) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        ChannelFetcher<URI> fetcher =
+                new ChannelFetcher<URI>() {
+                    @Override
+                    public List<URI> fetch() {
+                        List<URI> uris = new ArrayList<>();
+                        for (int i = 0; i < servers; ++i) {
+                            uris.add(uri);
+                        }
+                        return uris;
+                    }
+
+                    @Override
+                    public Type getType() {
+                        return Type.HTTP;
+                    }
+                };
+        Configs configs = new Configs(ImmutableMap.of());
+        GraphPlanner.Summary summary =
+                new GraphPlanner(configs)
+                        .instance(
+                                new CypherAntlr4Parser().parse("Call ldbc_ic2(10l, 20120112l)"),
+                                Utils.schemaMeta)
+                        .plan();
+        ExecutionRequest request =
+                new ExecutionRequest(
+                        summary.getId(),
+                        summary.getName(),
+                        summary.getLogicalPlan(),
+                        summary.getPhysicalBuilder());
+        EventCollector collector = new EventCollector();
+        new HttpExecutionClient(configs, fetcher)
+                .submit(request, collector, new QueryTimeoutConfig(timeoutMS));
+        return collector;
+    }
+
+    @Test
+    public void timeout_test() throws Exception {
+        EventCollector collector = submit(1, 500);
+        Assert.assertTrue(collector.terminated.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(ImmutableList.of("record_0", "error"), collector.getEvents());
+        // the rest of the response is not received after the request times out
+        resume.countDown();
+        Assert.assertTrue(responded.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        Assert.assertEquals(ImmutableList.of("record_0", "error"), collector.getEvents());
+    }
+
+    @Test
+    public void complete_test() throws Exception {
+        resume.countDown();
+        EventCollector collector = submit(2, 10000);
+        Assert.assertTrue(collector.terminated.await(10, TimeUnit.SECONDS));
+        List<String> events = collector.getEvents();
+        Assert.assertEquals(5, events.size());
+        Assert.assertEquals("completed", events.get(4));
+        Assert.assertEquals(2, events.stream().filter(k -> k.equals("record_1")).count());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.graphscope.common.client.channel.ChannelFetcher;
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PointLookupRouterTest {
+    private static final int STORES = 3;
+
+    // vertices are owned by the store of id % 3, unknown if the id is negative
+    private static class StoreFetcher implements ChannelFetcher<String> {
+        @Override
+        public List<String> fetch() {
+            return ImmutableList.of("store-0", "store-1", "store-2");
+        }
+
+        @Override
+        public Type getType() {
+            return Type.RPC;
+        }
+
+        @Override
+        public int getServerIdByVertexId(long vertexId) {
+            return vertexId < 0 ? -1 : (int) (vertexId % STORES);
+        }
+    }
+
+    private PegasusClient.JobConfig route(boolean enabled, List<Long> lookupIds) {
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of("pegasus.route.point.lookup", String.valueOf(enabled)));
+        PointLookupRouter router = new PointLookupRouter(configs, new StoreFetcher());
+        return router.setServers(PegasusClient.JobConfig.newBuilder(), lookupIds).build();
+    }
+
+    @Test
+    public void single_store_test() {
+        PegasusClient.JobConfig config = route(true, ImmutableList.of(2L, 5L));
+        Assert.assertTrue(config.hasPart());
+        Assert.assertEquals(ImmutableList.of(2L), config.getPart().getServersList());
+    }
+
+    // the engine routes by store id, which does not match the workers of a job on several stores
+    @Test
+    public void multi_store_test() {
+        Assert.assertTrue(route(true, ImmutableList.of(1L, 2L)).hasAll());
+        Assert.assertTrue(route(true, ImmutableList.of(0L, 4L, 8L)).hasAll());
+    }
+
+    @Test
+    public void unknown_store_test() {
+        Assert.assertTrue(route(true, ImmutableList.of(1L, -1L)).hasAll());
+    }
+
+    @Test
+    public void not_lookup_test() {
+        Assert.assertTrue(route(true, null).hasAll());
+        Assert.assertTrue(route(true, ImmutableList.of()).hasAll());
+    }
+
+    @Test
+    public void disabled_test() {
+        Assert.assertTrue(route(false, ImmutableList.of(2L)).hasAll());
+        PointLookupRouter router =
+                new PointLookupRouter(new Configs(ImmutableMap.of()), new StoreFetcher());
+        Assert.assertTrue(
+                router.setServers(PegasusClient.JobConfig.newBuilder(), ImmutableList.of(2L))
+                        .build()
+                        .hasAll());
+    }
+}
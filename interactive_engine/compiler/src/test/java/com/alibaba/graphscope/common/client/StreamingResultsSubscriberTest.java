@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.graphscope.common.client.type.ExecutionResponseListener;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeoutException;
+
+public class StreamingResultsSubscriberTest {
+    private static class RecordCollector implements ExecutionResponseListener {
+        private final List<IrResult.Record> records = new ArrayList<>();
+
+        @Override
+        public void onNext(IrResult.Record record) {
+            records.add(record);
+        }
+
+        @Override
+        public void onCompleted() {}
+
+        @Override
+        public void onError(Throwable t) {}
+    }
+
+    private static class CountingSubscription implements Flow.Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private IrResult.Record record(int i) {
+        return IrResult.Record.newBuilder()
+                .addColumns(
+                        IrResult.Column.newBuilder()
+                                .setNameOrId(Common.NameOrId.newBuilder().setId(i))
+                                .setEntry(
+                                        IrResult.Entry.newBuilder()
+                                                .setElement(
+                                                        IrResult.Element.newBuilder()
+                                                                .setObject(
+                                                                        Common.Value.newBuilder()
+                                                                                .setStr(
+                                                                                        "value_"
+                                                                                                + i)))))
+                .build();
+    }
+
+    private byte[] collectiveResults(List<IrResult.Record> records) {
+        IrResult.CollectiveResults.Builder builder = IrResult.CollectiveResults.newBuilder();
+        records.forEach(k -> builder.addResults(IrResult.Results.newBuilder().setRecord(k)));
+        return builder.build().toByteArray();
+    }
+
+    // the response is split into chunks of the given size
+    private void feed(StreamingResultsSubscriber subscriber, byte[] bytes, int chunkSize) {
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize));
+            subscriber.onNext(ImmutableList.of(ByteBuffer.wrap(chunk)));
+        }
+    }
+
+    @Test
+    public void decode_chunks_test() throws Exception {
+        List<IrResult.Record> expected = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            expected.add(record(i));
+        }
+        byte[] bytes = collectiveResults(expected);
+        for (int chunkSize : new int[] {1, 3, 7, 100, 4096, bytes.length}) {
+            RecordCollector collector = new RecordCollector();
+            StreamingResultsSubscriber subscriber = new StreamingResultsSubscriber(collector);
+            CountingSubscription subscription = new CountingSubscription();
+            subscriber.onSubscribe(subscription);
+            feed(subscriber, bytes, chunkSize);
+            subscriber.onComplete();
+            subscriber.getCompletion().get();
+            Assert.assertEquals(expected, collector.records);
+            // request the next chunk only after the current one is consumed
+            Assert.assertEquals(
+                    (bytes.length + chunkSize - 1) / chunkSize + 1, subscription.requested);
+        }
+    }
+
+    @Test
+    public void decode_partial_test() {
+        RecordCollector collector = new RecordCollector();
+        StreamingResultsSubscriber subscriber = new StreamingResultsSubscriber(collector);
+        subscriber.onSubscribe(new CountingSubscription());
+        byte[] first = collectiveResults(ImmutableList.of(record(0)));
+        byte[] bytes = collectiveResults(ImmutableList.of(record(0), record(1)));
+        // the first record is sent to the listener before the whole response arrives
+        feed(subscriber, Arrays.copyOfRange(bytes, 0, first.length + 2), bytes.length);
+        Assert.assertEquals(ImmutableList.of(record(0)), collector.records);
+    }
+
+    @Test
+    public void decode_truncated_test() {
+        StreamingResultsSubscriber subscriber =
+                new StreamingResultsSubscriber(new RecordCollector());
+        subscriber.onSubscribe(new CountingSubscription());
+        byte[] bytes = collectiveResults(ImmutableList.of(record(0)));
+        feed(subscriber, Arrays.copyOfRange(bytes, 0, bytes.length - 1), bytes.length);
+        subscriber.onComplete();
+        Assert.assertTrue(subscriber.getCompletion().isCompletedExceptionally());
+    }
+
+    @Test
+    public void cancel_test() {
+        RecordCollector collector = new RecordCollector();
+        StreamingResultsSubscriber subscriber = new StreamingResultsSubscriber(collector);
+        CountingSubscription subscription = new CountingSubscription();
+        subscriber.onSubscribe(subscription);
+        byte[] bytes = collectiveResults(ImmutableList.of(record(0), record(1)));
+        int half = collectiveResults(ImmutableList.of(record(0))).length;
+        feed(subscriber, Arrays.copyOfRange(bytes, 0, half), half);
+        subscriber.cancel(new TimeoutException());
+        Assert.assertTrue(subscription.cancelled);
+        Assert.assertTrue(subscriber.getCompletion().isCompletedExceptionally());
+        // the chunks arriving after cancelled are dropped
+        feed(subscriber, Arrays.copyOfRange(bytes, half, bytes.length), bytes.length);
+        Assert.assertEquals(ImmutableList.of(record(0)), collector.records);
+        Assert.assertEquals(2, subscription.requested);
+    }
+
+    @Test
+    public void cancel_before_subscribe_test() {
+        StreamingResultsSubscriber subscriber =
+                new StreamingResultsSubscriber(new RecordCollector());
+        subscriber.cancel(new TimeoutException());
+        CountingSubscription subscription = new CountingSubscription();
+        subscriber.onSubscribe(subscription);
+        Assert.assertTrue(subscription.cancelled);
+        Assert.assertEquals(0, subscription.requested);
+    }
+}
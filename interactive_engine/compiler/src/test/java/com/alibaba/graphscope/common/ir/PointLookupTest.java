@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir;
+
+import com.alibaba.graphscope.common.ir.tools.GraphBuilder;
+import com.alibaba.graphscope.common.ir.tools.GraphStdOperatorTable;
+import com.alibaba.graphscope.common.ir.tools.PointLookupExtractor;
+import com.alibaba.graphscope.common.ir.tools.config.*;
+import com.alibaba.graphscope.common.ir.type.GraphProperty;
+import com.google.common.collect.ImmutableList;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexSubQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PointLookupTest {
+    private RexNode idEquals(GraphBuilder builder, long id) {
+        return builder.call(
+                GraphStdOperatorTable.EQUALS,
+                builder.variable(null, GraphProperty.ID_KEY),
+                builder.literal(id));
+    }
+
+    private GraphBuilder source(GraphBuilder builder) {
+        return builder.source(
+                new SourceConfig(
+                        GraphOpt.Source.VERTEX, new LabelConfig(false).addLabel("person")));
+    }
+
+    // g.V(1).values("name")
+    @Test
+    public void lookup_1_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder);
+        RelNode node =
+                builder.filter(idEquals(builder, 1))
+                        .project(ImmutableList.of(builder.variable(null, "name")))
+                        .build();
+        Assert.assertEquals(ImmutableList.of(1L), PointLookupExtractor.extract(node));
+    }
+
+    // g.V(1, 2).has("age", 10).limit(1)
+    @Test
+    public void lookup_2_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder);
+        RexNode ids =
+                builder.call(GraphStdOperatorTable.OR, idEquals(builder, 1), idEquals(builder, 2));
+        RexNode age =
+                builder.call(
+                        GraphStdOperatorTable.EQUALS,
+                        builder.variable(null, "age"),
+                        builder.literal(10));
+        RelNode node = builder.filter(ids, age).limit(0, 1).build();
+        Assert.assertEquals(ImmutableList.of(1L, 2L), PointLookupExtractor.extract(node));
+    }
+
+    // g.V(1).out("knows"), the neighbors can be owned by other servers
+    @Test
+    public void not_lookup_1_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder);
+        RelNode node =
+                builder.filter(idEquals(builder, 1))
+                        .expand(
+                                new ExpandConfig(
+                                        GraphOpt.Expand.OUT,
+                                        new LabelConfig(false).addLabel("knows")))
+                        .build();
+        Assert.assertNull(PointLookupExtractor.extract(node));
+    }
+
+    // g.V().has("age", 10), the source is not limited by ids
+    @Test
+    public void not_lookup_2_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder);
+        RelNode node =
+                builder.filter(
+                                builder.call(
+                                        GraphStdOperatorTable.EQUALS,
+                                        builder.variable(null, "age"),
+                                        builder.literal(10)))
+                        .build();
+        Assert.assertNull(PointLookupExtractor.extract(node));
+    }
+
+    // g.V(1).where(out("knows")), the sub query can visit the neighbors owned by other servers
+    @Test
+    public void not_lookup_3_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode subQuery =
+                source(builder)
+                        .filter(idEquals(builder, 1))
+                        .expand(
+                                new ExpandConfig(
+                                        GraphOpt.Expand.OUT,
+                                        new LabelConfig(false).addLabel("knows")))
+                        .build();
+        source(builder);
+        RelNode node =
+                builder.filter(idEquals(builder, 1))
+                        .project(ImmutableList.of(RexSubQuery.exists(subQuery)))
+                        .build();
+        Assert.assertNull(PointLookupExtractor.extract(node));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir;
+
+import com.alibaba.graphscope.common.antlr4.Antlr4Parser;
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.ir.meta.schema.IrGraphSchema;
+import com.alibaba.graphscope.common.ir.runtime.PhysicalBuilder;
+import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.common.ir.tools.ProcedurePlanCache;
+import com.alibaba.graphscope.common.store.IrMeta;
+import com.alibaba.graphscope.cypher.antlr4.parser.CypherAntlr4Parser;
+import com.alibaba.graphscope.gaia.proto.StoredProcedure;
+import com.google.common.collect.ImmutableMap;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcedurePlanCacheTest {
+    private static final String CALL = "Call ldbc_ic2(10l, 20120112l)";
+
+    private GraphPlanner planner;
+    private ProcedurePlanCache cache;
+    // count the queries parsed, which are planned from scratch
+    private CountingParser parser;
+
+    private static class CountingParser implements Antlr4Parser {
+        private final Antlr4Parser parser = new CypherAntlr4Parser();
+        private int parsed;
+
+        @Override
+        public ParseTree parse(String statement) {
+            ++parsed;
+            return parser.parse(statement);
+        }
+    }
+
+    @Before
+    public void init() {
+        planner = new GraphPlanner(new Configs(ImmutableMap.of()));
+        cache = new ProcedurePlanCache(planner, 16);
+        parser = new CountingParser();
+    }
+
+    // the meta of the modern graph, with the schema reported in the given version
+    private IrMeta meta(int version) {
+        IrGraphSchema schema =
+                new IrGraphSchema(Utils.schemaMeta.getSchema(), false) {
+                    @Override
+                    public int getVersion() {
+                        return version;
+                    }
+                };
+        return new IrMeta(schema, Utils.schemaMeta.getStoredProcedures());
+    }
+
+    private StoredProcedure.Query build(GraphPlanner.Summary summary) throws Exception {
+        try (PhysicalBuilder<byte[]> builder = summary.getPhysicalBuilder()) {
+            return StoredProcedure.Query.parseFrom(builder.build());
+        }
+    }
+
+    @Test
+    public void reuse_plan_test() throws Exception {
+        GraphPlanner.Summary summary1 = cache.plan(CALL, parser, meta(1));
+        GraphPlanner.Summary summary2 = cache.plan(CALL, parser, meta(1));
+        Assert.assertEquals(1, parser.parsed);
+        Assert.assertEquals(1, cache.size());
+        // each call is a job of its own
+        Assert.assertNotEquals(summary1.getId(), summary2.getId());
+        Assert.assertNotEquals(summary1.getName(), summary2.getName());
+        Assert.assertSame(summary1.getLogicalPlan(), summary2.getLogicalPlan());
+        Assert.assertEquals(build(summary1), build(summary2));
+        Assert.assertEquals(
+                summary1.getPhysicalBuilder().explain(), summary2.getPhysicalBuilder().explain());
+    }
+
+    // the arguments are part of the query text, calls of different arguments are planned apart
+    @Test
+    public void bind_arguments_test() throws Exception {
+        cache.plan(CALL, parser, meta(1));
+        StoredProcedure.Query query =
+                build(cache.plan("Call ldbc_ic2(20l, 20120113l)", parser, meta(1)));
+        Assert.assertEquals(2, parser.parsed);
+        Assert.assertEquals("ldbc_ic2", query.getQueryName().getName());
+        Assert.assertEquals(20l, query.getArguments(0).getValue().getI64());
+        Assert.assertEquals(20120113l, query.getArguments(1).getValue().getI64());
+        // the cached plan of the first call is not touched by the second
+        Assert.assertEquals(
+                10l, build(cache.plan(CALL, parser, meta(1))).getArguments(0).getValue().getI64());
+        Assert.assertEquals(2, parser.parsed);
+    }
+
+    @Test
+    public void invalidate_plan_test() throws Exception {
+        cache.plan(CALL, parser, meta(1));
+        cache.plan(CALL, parser, meta(1));
+        Assert.assertEquals(1, parser.parsed);
+        // the schema is changed, the call is planned again on the new schema
+        cache.plan(CALL, parser, meta(2));
+        Assert.assertEquals(2, parser.parsed);
+        cache.plan(CALL, parser, meta(2));
+        Assert.assertEquals(2, parser.parsed);
+    }
+
+    @Test
+    public void not_procedure_test() throws Exception {
+        // the query returns empty, which is planned without the native library
+        String query = "Match (n:person) Where 1 = 2 Return n";
+        cache.plan(query, parser, meta(1));
+        cache.plan(query, parser, meta(1));
+        Assert.assertEquals(2, parser.parsed);
+        Assert.assertEquals(0, cache.size());
+    }
+}
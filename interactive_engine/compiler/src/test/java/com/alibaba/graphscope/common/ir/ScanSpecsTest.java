@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir;
+
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
+import com.alibaba.graphscope.common.ir.tools.GraphBuilder;
+import com.alibaba.graphscope.common.ir.tools.GraphStdOperatorTable;
+import com.alibaba.graphscope.common.ir.tools.ScanSpecs;
+import com.alibaba.graphscope.common.ir.tools.config.*;
+import com.google.common.collect.ImmutableList;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class ScanSpecsTest {
+    private GraphBuilder source(GraphBuilder builder, String alias) {
+        return builder.source(
+                new SourceConfig(
+                        GraphOpt.Source.VERTEX, new LabelConfig(false).addLabel("person"), alias));
+    }
+
+    private GraphBuilder expand(GraphBuilder builder, String alias) {
+        return builder.expand(
+                new ExpandConfig(
+                        GraphOpt.Expand.OUT, new LabelConfig(false).addLabel("knows"), alias));
+    }
+
+    private GraphBuilder getV(GraphBuilder builder, String alias) {
+        return builder.getV(
+                new GetVConfig(
+                        GraphOpt.GetV.END, new LabelConfig(false).addLabel("person"), alias));
+    }
+
+    private RexNode equals(GraphBuilder builder, String alias, String property, Object value) {
+        return builder.call(
+                GraphStdOperatorTable.EQUALS,
+                builder.variable(alias, property),
+                builder.literal(value));
+    }
+
+    // find the table scan with the given alias in the inputs of the rel
+    private AbstractBindableTableScan tableScan(RelNode rel, String alias) {
+        if (rel instanceof AbstractBindableTableScan
+                && ((AbstractBindableTableScan) rel).getAliasName().equals(alias)) {
+            return (AbstractBindableTableScan) rel;
+        }
+        for (RelNode input : rel.getInputs()) {
+            AbstractBindableTableScan found = tableScan(input, alias);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    // g.V().as("a").has("age", 10).out("knows").as("b").select("a", "b").by("name").by()
+    @Test
+    public void columns_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder, "a");
+        builder.filter(equals(builder, null, "age", 10));
+        expand(builder, "b");
+        RelNode node =
+                builder.project(
+                                ImmutableList.of(
+                                        builder.variable("a", "name"), builder.variable("b")))
+                        .build();
+        Map<AbstractBindableTableScan, ScanSpecs.Columns> columns = ScanSpecs.inferColumns(node);
+        ScanSpecs.Columns a = columns.get(tableScan(node, "a"));
+        Assert.assertFalse(a.isAll());
+        Assert.assertEquals("[age, name]", a.toString());
+        Assert.assertTrue(columns.get(tableScan(node, "b")).isAll());
+    }
+
+    // g.V().as("a").out("knows").as("b").count(), the elements are counted without properties
+    @Test
+    public void columns_count_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder, "a");
+        expand(builder, "b");
+        RelNode node =
+                builder.aggregate(
+                                builder.groupKey(),
+                                builder.count(false, "cnt", builder.variable("b")))
+                        .build();
+        Map<AbstractBindableTableScan, ScanSpecs.Columns> columns = ScanSpecs.inferColumns(node);
+        Assert.assertEquals("[]", columns.get(tableScan(node, "a")).toString());
+        Assert.assertEquals("[]", columns.get(tableScan(node, "b")).toString());
+    }
+
+    // g.V().as("a").out("knows").as("b").inV().as("c").values("name"), the getV without filters
+    // is given no columns, otherwise it can not be fused into the expand in the physical plan
+    @Test
+    public void columns_get_v_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder, "a");
+        expand(builder, null);
+        getV(builder, "c");
+        RelNode node = builder.project(ImmutableList.of(builder.variable("c", "name"))).build();
+        Map<AbstractBindableTableScan, ScanSpecs.Columns> columns = ScanSpecs.inferColumns(node);
+        Assert.assertNull(columns.get(tableScan(node, "c")));
+    }
+
+    // g.V().as("a").out("knows").inV().as("c").has("age", 10).values("name"), the getV with
+    // filters is split in the physical plan anyway, and is given the columns
+    @Test
+    public void columns_get_v_filter_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder, "a");
+        expand(builder, null);
+        getV(builder, "c");
+        builder.filter(equals(builder, null, "age", 10));
+        RelNode node = builder.project(ImmutableList.of(builder.variable("c", "name"))).build();
+        Map<AbstractBindableTableScan, ScanSpecs.Columns> columns = ScanSpecs.inferColumns(node);
+        Assert.assertEquals("[age, name]", columns.get(tableScan(node, "c")).toString());
+    }
+
+    // g.V().as("a"), the elements are returned
+    @Test
+    public void columns_return_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode node = source(builder, "a").build();
+        Assert.assertTrue(ScanSpecs.inferColumns(node).get(node).isAll());
+    }
+
+    // g.V().where(name = 'marko' or age = 10).has("age", 10), the vectorized conjunctions come
+    // first
+    @Test
+    public void normalize_filter_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        source(builder, "a");
+        RexNode or =
+                builder.call(
+                        GraphStdOperatorTable.OR,
+                        equals(builder, null, "name", "marko"),
+                        equals(builder, null, "age", 20));
+        RelNode node = builder.filter(or, equals(builder, null, "age", 10)).build();
+        ScanSpecs.Filters filters =
+                ScanSpecs.normalizeFilter(
+                        builder.getRexBuilder(),
+                        ((AbstractBindableTableScan) node).getFilters().get(0));
+        Assert.assertEquals(1, filters.getVectorizedCount());
+        Assert.assertEquals(
+                "[=(DEFAULT.age, 10), OR(=(DEFAULT.name, _UTF-8'marko'), =(DEFAULT.age, 20))]",
+                filters.getConjunctions().toString());
+    }
+}
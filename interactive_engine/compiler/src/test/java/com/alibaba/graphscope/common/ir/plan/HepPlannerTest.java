@@ -2,6 +2,9 @@ package com.alibaba.graphscope.common.ir.plan;
 
 import com.alibaba.graphscope.common.ir.Utils;
 import com.alibaba.graphscope.common.ir.planner.rules.FilterMatchRule;
+import com.alibaba.graphscope.common.ir.planner.rules.LimitProjectTransposeRule;
+import com.alibaba.graphscope.common.ir.planner.rules.LimitPushDownRule;
+import com.alibaba.graphscope.common.ir.planner.rules.MatchCommonPrefixRule;
 import com.alibaba.graphscope.common.ir.tools.GraphBuilder;
 import com.alibaba.graphscope.common.ir.tools.GraphStdOperatorTable;
 import com.alibaba.graphscope.common.ir.tools.config.*;
@@ -255,4 +258,242 @@ public class HepPlannerTest {
                 after2.explain().trim());
         System.out.println(after2.getRowType());
     }
+
+    // Match (p:person) Return p.name Limit 10 -> the limit is pushed under the project and fused
+    // into the source
+    @Test
+    public void push_limit_1_test() {
+        RelNode before =
+                com.alibaba.graphscope.cypher.antlr4.Utils.eval(
+                                "Match (p:person) Return p.name as name Limit 10")
+                        .build();
+        RelOptPlanner planner =
+                Utils.mockPlanner(
+                        LimitProjectTransposeRule.Config.DEFAULT, LimitPushDownRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(
+                "GraphLogicalProject(name=[p.name], isAppend=[false])\n"
+                        + "  GraphLogicalSort(fetch=[10])\n"
+                        + "    GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[p], fusedFetch=[10], opt=[VERTEX])",
+                after.explain().trim());
+    }
+
+    // g.V().hasLabel("person").out("knows").limit(2, 3) -> the expand fetches at most 5 neighbors
+    // for each person
+    @Test
+    public void push_limit_2_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode before =
+                builder.source(
+                                new SourceConfig(
+                                        GraphOpt.Source.VERTEX,
+                                        new LabelConfig(false).addLabel("person")))
+                        .expand(
+                                new ExpandConfig(
+                                        GraphOpt.Expand.OUT,
+                                        new LabelConfig(false).addLabel("knows")))
+                        .getV(new GetVConfig(GraphOpt.GetV.END, new LabelConfig(true)))
+                        .limit(2, 3)
+                        .build();
+        String beforePlan = before.explain().trim();
+        RelOptPlanner planner = Utils.mockPlanner(LimitPushDownRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        // the rule rewrites by new operators rather than changing the original plan
+        Assert.assertEquals(beforePlan, before.explain().trim());
+        Assert.assertEquals(
+                "GraphLogicalSort(offset=[2], fetch=[3])\n"
+                        + "  GraphLogicalGetV(tableConfig=[{isAll=true, tables=[software,"
+                        + " person]}], alias=[DEFAULT], opt=[END])\n"
+                        + "    GraphLogicalExpand(tableConfig=[{isAll=false, tables=[knows]}],"
+                        + " alias=[DEFAULT], fusedFetch=[5], opt=[OUT])\n"
+                        + "      GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[DEFAULT], opt=[VERTEX])",
+                after.explain().trim());
+    }
+
+    // g.V().hasLabel("person").out("knows").hasLabel("person").limit(10) -> the limit can not be
+    // fused into the expand, the neighbors may be filtered by the labels
+    @Test
+    public void push_limit_3_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode before =
+                builder.source(
+                                new SourceConfig(
+                                        GraphOpt.Source.VERTEX,
+                                        new LabelConfig(false).addLabel("person")))
+                        .expand(
+                                new ExpandConfig(
+                                        GraphOpt.Expand.OUT,
+                                        new LabelConfig(false).addLabel("knows")))
+                        .getV(
+                                new GetVConfig(
+                                        GraphOpt.GetV.END,
+                                        new LabelConfig(false).addLabel("person")))
+                        .limit(0, 10)
+                        .build();
+        String expected = before.explain().trim();
+        RelOptPlanner planner = Utils.mockPlanner(LimitPushDownRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(expected, after.explain().trim());
+    }
+
+    // g.V().hasLabel("person").has("age", 10).limit(10) -> the limit can not be fused into the
+    // source, the storage may limit the vertices before filtering
+    @Test
+    public void push_limit_4_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode before =
+                builder.source(
+                                new SourceConfig(
+                                        GraphOpt.Source.VERTEX,
+                                        new LabelConfig(false).addLabel("person")))
+                        .filter(
+                                builder.call(
+                                        GraphStdOperatorTable.EQUALS,
+                                        builder.variable(null, "age"),
+                                        builder.literal(10)))
+                        .limit(0, 10)
+                        .build();
+        String expected = before.explain().trim();
+        Assert.assertTrue(expected, expected.contains("fusedFilter"));
+        RelOptPlanner planner = Utils.mockPlanner(LimitPushDownRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(expected, after.explain().trim());
+    }
+
+    // g.V().hasLabel("person").outE("knows").has("weight", 0.5).limit(10) -> the limit can not be
+    // fused into the expand, the storage may limit the edges before filtering
+    @Test
+    public void push_limit_5_test() {
+        GraphBuilder builder = Utils.mockGraphBuilder();
+        RelNode before =
+                builder.source(
+                                new SourceConfig(
+                                        GraphOpt.Source.VERTEX,
+                                        new LabelConfig(false).addLabel("person")))
+                        .expand(
+                                new ExpandConfig(
+                                        GraphOpt.Expand.OUT,
+                                        new LabelConfig(false).addLabel("knows")))
+                        .filter(
+                                builder.call(
+                                        GraphStdOperatorTable.EQUALS,
+                                        builder.variable(null, "weight"),
+                                        builder.literal(0.5)))
+                        .limit(0, 10)
+                        .build();
+        String expected = before.explain().trim();
+        Assert.assertTrue(expected, expected.contains("fusedFilter"));
+        RelOptPlanner planner = Utils.mockPlanner(LimitPushDownRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(expected, after.explain().trim());
+    }
+
+    // Match (a:person)-[k:knows]->(b:person)-[:knows]->(c:person), (a:person)-[k:knows]->(b:person)
+    // -[:created]->(d:software) -> the prefix (a:person)-[k:knows]->(b:person) is evaluated once
+    @Test
+    public void match_common_prefix_1_test() {
+        RelNode before =
+                com.alibaba.graphscope.cypher.antlr4.Utils.eval(
+                                "Match (a:person)-[k:knows]->(b:person)-[:knows]->(c:person),"
+                                    + " (a:person)-[k:knows]->(b:person)-[:created]->(d:software)"
+                                    + " Return a, b, c, d")
+                        .build();
+        RelOptPlanner planner = Utils.mockPlanner(MatchCommonPrefixRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(
+                "GraphLogicalProject(a=[a], b=[b], c=[c], d=[d], isAppend=[false])\n"
+                        + "  GraphLogicalMultiMatch(input=[null],"
+                        + " sentences=[{s0=[GraphLogicalGetV(tableConfig=[{isAll=false,"
+                        + " tables=[person]}], alias=[c], opt=[END])\n"
+                        + "  GraphLogicalExpand(tableConfig=[{isAll=false, tables=[knows]}],"
+                        + " alias=[DEFAULT], opt=[OUT])\n"
+                        + "    GraphLogicalGetV(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[b], opt=[END])\n"
+                        + "      GraphLogicalExpand(tableConfig=[{isAll=false, tables=[knows]}],"
+                        + " alias=[k], opt=[OUT])\n"
+                        + "        GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[a], opt=[VERTEX])\n"
+                        + "], s1=[GraphLogicalGetV(tableConfig=[{isAll=false, tables=[software]}],"
+                        + " alias=[d], opt=[END])\n"
+                        + "  GraphLogicalExpand(tableConfig=[{isAll=false, tables=[created]}],"
+                        + " alias=[DEFAULT], opt=[OUT])\n"
+                        + "    GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[b], opt=[VERTEX])\n"
+                        + "]}])",
+                after.explain().trim());
+    }
+
+    // Match (a:person)-[k:knows]->(b:person)-[:created]->(d), (a:person)-[k:knows]->(b:person) ->
+    // the second sentence is the prefix of the first one, and is removed
+    @Test
+    public void match_common_prefix_2_test() {
+        RelNode before =
+                com.alibaba.graphscope.cypher.antlr4.Utils.eval(
+                                "Match (a:person)-[k:knows]->(b:person)-[:created]->(d),"
+                                        + " (a:person)-[k:knows]->(b:person)"
+                                        + " Return a, b, d")
+                        .build();
+        RelOptPlanner planner = Utils.mockPlanner(MatchCommonPrefixRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(
+                "GraphLogicalProject(a=[a], b=[b], d=[d], isAppend=[false])\n"
+                        + "  GraphLogicalSingleMatch(input=[null],"
+                        + " sentence=[GraphLogicalGetV(tableConfig=[{isAll=true, tables=[software,"
+                        + " person]}], alias=[d], opt=[END])\n"
+                        + "  GraphLogicalExpand(tableConfig=[{isAll=false, tables=[created]}],"
+                        + " alias=[DEFAULT], opt=[OUT])\n"
+                        + "    GraphLogicalGetV(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[b], opt=[END])\n"
+                        + "      GraphLogicalExpand(tableConfig=[{isAll=false, tables=[knows]}],"
+                        + " alias=[k], opt=[OUT])\n"
+                        + "        GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                        + " alias=[a], opt=[VERTEX])\n"
+                        + "], matchOpt=[INNER])",
+                after.explain().trim());
+    }
+
+    // Match (a:person)-[:knows]->(:person)-[:knows]->(c), (a:person)-[:knows]->(:person)
+    // -[:created]->(d) -> the anonymous vertices can be bound to different persons, the sentences
+    // are kept
+    @Test
+    public void match_common_prefix_3_test() {
+        RelNode before =
+                com.alibaba.graphscope.cypher.antlr4.Utils.eval(
+                                "Match (a:person)-[:knows]->(:person)-[:knows]->(c),"
+                                        + " (a:person)-[:knows]->(:person)-[:created]->(d)"
+                                        + " Return a, c, d")
+                        .build();
+        String expected = before.explain().trim();
+        RelOptPlanner planner = Utils.mockPlanner(MatchCommonPrefixRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(expected, after.explain().trim());
+    }
+
+    // Match (a:person)-[:knows]->(b:person)-[:knows]->(c), (a:person)-[:knows]->(b:person)
+    // -[:created]->(d) -> given m parallel knows edges from a to b, the sentences are joined into
+    // m * m rows, which can not be kept if the anonymous edges are shared, the sentences are kept
+    @Test
+    public void match_common_prefix_4_test() {
+        RelNode before =
+                com.alibaba.graphscope.cypher.antlr4.Utils.eval(
+                                "Match (a:person)-[:knows]->(b:person)-[:knows]->(c),"
+                                        + " (a:person)-[:knows]->(b:person)-[:created]->(d)"
+                                        + " Return a, b, c, d")
+                        .build();
+        String expected = before.explain().trim();
+        RelOptPlanner planner = Utils.mockPlanner(MatchCommonPrefixRule.Config.DEFAULT);
+        planner.setRoot(before);
+        RelNode after = planner.findBestExp();
+        Assert.assertEquals(expected, after.explain().trim());
+    }
 }
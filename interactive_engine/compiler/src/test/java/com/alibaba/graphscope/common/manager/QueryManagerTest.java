@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryManagerTest {
+    @Test
+    public void kill_query_test() {
+        QueryManager manager = new QueryManager();
+        QueryManager.RunningQuery query = manager.register(1L, "g.V()");
+        List<String> reasons = new ArrayList<>();
+        query.setCancelHook(reasons::add);
+        Assert.assertEquals(1, manager.getRunningQueries().size());
+        Assert.assertTrue(manager.kill(1L, "killed by admin"));
+        // cancel only once
+        Assert.assertTrue(manager.kill(1L, "killed again"));
+        Assert.assertEquals(1, reasons.size());
+        Assert.assertEquals("killed by admin", reasons.get(0));
+        Assert.assertTrue(query.isCancelled());
+        manager.unregister(1L);
+        Assert.assertFalse(manager.kill(1L, "not running"));
+        Assert.assertTrue(manager.getRunningQueries().isEmpty());
+    }
+
+    @Test
+    public void kill_before_submit_test() {
+        QueryManager manager = new QueryManager();
+        QueryManager.RunningQuery query = manager.register(2L, "g.V().out()");
+        manager.kill(2L, "client channel is closed");
+        List<String> reasons = new ArrayList<>();
+        // the hook is set after the query is killed, it should be invoked immediately
+        query.setCancelHook(reasons::add);
+        Assert.assertEquals(1, reasons.size());
+        Assert.assertEquals("client channel is closed", reasons.get(0));
+    }
+
+    @Test
+    public void close_hook_test() {
+        QueryManager manager = new QueryManager();
+        QueryManager.RunningQuery query = manager.register(3L, "g.V().count()");
+        AtomicInteger closed = new AtomicInteger(0);
+        query.addCloseHook(closed::incrementAndGet);
+        manager.unregister(3L);
+        manager.unregister(3L);
+        Assert.assertEquals(1, closed.get());
+        Assert.assertFalse(manager.getRunningQuery(3L).isPresent());
+    }
+}
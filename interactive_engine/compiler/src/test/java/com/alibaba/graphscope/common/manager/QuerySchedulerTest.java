@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.PathExpandOp;
+import com.alibaba.graphscope.common.ir.tools.HopEstimator;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class QuerySchedulerTest {
+    private static final long TIMEOUT_MS = 60_000;
+
+    private QueryManager createManager(int concurrency, int queueSize) {
+        return new QueryManager(
+                new QueryScheduler(
+                        new Configs(
+                                ImmutableMap.of(
+                                        "query.scheduler.enabled", "true",
+                                        "query.scheduler.long.concurrency",
+                                                String.valueOf(concurrency),
+                                        "query.scheduler.long.queue.size",
+                                                String.valueOf(queueSize)))));
+    }
+
+    // submit a long query, the id is added to `started` once the query is admitted
+    private void schedule(
+            QueryManager manager,
+            long queryId,
+            String user,
+            BlockingQueue<Long> started,
+            List<Throwable> rejected) {
+        QueryManager.RunningQuery query = manager.register(queryId, "g.V().out().out()");
+        manager.getScheduler()
+                .schedule(
+                        query,
+                        QueryScheduler.QueryClass.LONG,
+                        user,
+                        TIMEOUT_MS,
+                        () -> started.add(queryId),
+                        rejected::add);
+    }
+
+    @Test
+    public void classify_test() {
+        QueryScheduler scheduler = QueryScheduler.disabled();
+        Assert.assertEquals(QueryScheduler.QueryClass.SHORT, scheduler.classify(null, true, 3));
+        Assert.assertEquals(QueryScheduler.QueryClass.SHORT, scheduler.classify(null, false, 1));
+        Assert.assertEquals(QueryScheduler.QueryClass.LONG, scheduler.classify(null, false, 2));
+        // the hint of the user wins
+        Assert.assertEquals(QueryScheduler.QueryClass.LONG, scheduler.classify("long", true, 0));
+        Assert.assertEquals(QueryScheduler.QueryClass.SHORT, scheduler.classify("SHORT", false, 5));
+    }
+
+    @Test
+    public void reject_when_full_test() throws Exception {
+        QueryManager manager = createManager(1, 1);
+        BlockingQueue<Long> started = new LinkedBlockingQueue<>();
+        List<Throwable> rejected = new CopyOnWriteArrayList<>();
+        schedule(manager, 1L, "a", started, rejected);
+        schedule(manager, 2L, "a", started, rejected);
+        schedule(manager, 3L, "a", started, rejected);
+        Assert.assertEquals(Long.valueOf(1L), started.poll());
+        Assert.assertTrue(started.isEmpty());
+        // the queue is full
+        Assert.assertEquals(1, rejected.size());
+        Assert.assertTrue(rejected.get(0) instanceof RejectedExecutionException);
+        // the queued query is admitted after the running one finishes
+        manager.unregister(1L);
+        Assert.assertEquals(Long.valueOf(2L), started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        manager.unregister(2L);
+        manager.unregister(3L);
+    }
+
+    @Test
+    public void fair_queuing_test() throws Exception {
+        QueryManager manager = createManager(1, 10);
+        BlockingQueue<Long> started = new LinkedBlockingQueue<>();
+        List<Throwable> rejected = new CopyOnWriteArrayList<>();
+        schedule(manager, 1L, "a", started, rejected);
+        schedule(manager, 2L, "a", started, rejected);
+        schedule(manager, 3L, "a", started, rejected);
+        schedule(manager, 4L, "b", started, rejected);
+        Assert.assertEquals(Long.valueOf(1L), started.poll());
+        // the queries of user b are not blocked behind all queries of user a
+        long[] expected = {2L, 4L, 3L};
+        long running = 1L;
+        for (long queryId : expected) {
+            manager.unregister(running);
+            Assert.assertEquals(
+                    Long.valueOf(queryId), started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            running = queryId;
+        }
+        manager.unregister(running);
+        Assert.assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    public void kill_queued_query_test() throws Exception {
+        QueryManager manager = createManager(1, 10);
+        BlockingQueue<Long> started = new LinkedBlockingQueue<>();
+        List<Throwable> rejected = new CopyOnWriteArrayList<>();
+        schedule(manager, 1L, "a", started, rejected);
+        schedule(manager, 2L, "a", started, rejected);
+        schedule(manager, 3L, "a", started, rejected);
+        Assert.assertEquals(
+                1, manager.getScheduler().getRunningCount(QueryScheduler.QueryClass.LONG));
+        Assert.assertEquals(
+                2, manager.getScheduler().getQueuedCount(QueryScheduler.QueryClass.LONG));
+        // the killed query is removed from the queue
+        manager.kill(2L, "killed by admin");
+        Assert.assertEquals(1, rejected.size());
+        Assert.assertTrue(rejected.get(0) instanceof CancellationException);
+        manager.unregister(2L);
+        manager.unregister(1L);
+        Assert.assertEquals(Long.valueOf(1L), started.poll());
+        Assert.assertEquals(Long.valueOf(3L), started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        manager.unregister(3L);
+    }
+
+    @Test
+    public void estimate_gremlin_hops_test() {
+        InterOpCollection bounded = new InterOpCollection();
+        bounded.appendInterOp(new ExpandOp());
+        PathExpandOp boundedPath = new PathExpandOp();
+        boundedPath.setLower(new OpArg(1));
+        boundedPath.setUpper(new OpArg(4));
+        bounded.appendInterOp(boundedPath);
+        Assert.assertEquals(4, HopEstimator.estimate(bounded));
+
+        // a path expand without upper bound is unbounded, as estimated for cypher
+        InterOpCollection unbounded = new InterOpCollection();
+        unbounded.appendInterOp(new ExpandOp());
+        unbounded.appendInterOp(new PathExpandOp());
+        Assert.assertEquals(HopEstimator.UNBOUNDED, HopEstimator.estimate(unbounded));
+        Assert.assertEquals(
+                QueryScheduler.QueryClass.LONG,
+                QueryScheduler.disabled()
+                        .classify(null, false, HopEstimator.estimate(unbounded)));
+    }
+
+    @Test
+    public void admit_while_queueing_test() throws Exception {
+        for (int i = 0; i < 100; ++i) {
+            QueryManager manager = createManager(1, 10);
+            BlockingQueue<Long> started = new LinkedBlockingQueue<>();
+            List<Throwable> rejected = new CopyOnWriteArrayList<>();
+            schedule(manager, 1L, "a", started, rejected);
+            // the running query finishes while the next one is being queued
+            Thread release = new Thread(() -> manager.unregister(1L));
+            release.start();
+            List<String> cancelled = new CopyOnWriteArrayList<>();
+            QueryManager.RunningQuery query = manager.register(2L, "g.V().out().out()");
+            manager.getScheduler()
+                    .schedule(
+                            query,
+                            QueryScheduler.QueryClass.LONG,
+                            "a",
+                            TIMEOUT_MS,
+                            () -> {
+                                // the hook cancelling the engine job is never replaced
+                                query.setCancelHook(cancelled::add);
+                                started.add(2L);
+                            },
+                            rejected::add);
+            release.join();
+            Assert.assertEquals(Long.valueOf(1L), started.poll());
+            Assert.assertEquals(Long.valueOf(2L), started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            manager.kill(2L, "killed by admin");
+            Assert.assertEquals(1, cancelled.size());
+            Assert.assertTrue(rejected.isEmpty());
+            manager.unregister(2L);
+        }
+    }
+}
@@ -275,4 +275,44 @@ public class MatchTest {
                 SqlTypeName.CHAR,
                 node.getRowType().getFieldList().get(0).getType().getSqlTypeName());
     }
+
+    // the path expand of shortestPath(..) is expanded with path_opt = ANY_SHORTEST
+    @Test
+    public void match_15_test() {
+        RelNode node =
+                Utils.eval(
+                                "Match shortestPath((a:person {name:"
+                                    + " 'marko'})-[:knows*1..5]-(b:person)) Return b")
+                        .build();
+        Assert.assertEquals(
+                "GraphLogicalProject(b=[b], isAppend=[false])\n"
+                    + "  GraphLogicalSingleMatch(input=[null],"
+                    + " sentence=[GraphLogicalGetV(tableConfig=[{isAll=false, tables=[person]}],"
+                    + " alias=[b], opt=[OTHER])\n"
+                    + "  GraphLogicalPathExpand(expand=[GraphLogicalExpand(tableConfig=[{isAll=false,"
+                    + " tables=[knows]}], alias=[DEFAULT], opt=[BOTH])\n"
+                    + "], getV=[GraphLogicalGetV(tableConfig=[{isAll=true, tables=[software,"
+                    + " person]}], alias=[DEFAULT], opt=[OTHER])\n"
+                    + "], offset=[1], fetch=[4], path_opt=[ANY_SHORTEST], result_opt=[END_V],"
+                    + " alias=[DEFAULT])\n"
+                    + "    GraphLogicalSource(tableConfig=[{isAll=false, tables=[person]}],"
+                    + " alias=[a], fusedFilter=[[=(DEFAULT.name, _UTF-8'marko')]], opt=[VERTEX])\n"
+                    + "], matchOpt=[INNER])",
+                node.explain().trim());
+    }
+
+    // shortest path should be a single relationship with a range of hops
+    @Test
+    public void match_16_test() {
+        try {
+            Utils.eval("Match allShortestPaths((a:person)-[:knows]->(b:person)) Return b").build();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(
+                    "shortest path should be a single relationship with a range of hops, i.e."
+                            + " shortestPath((a)-[*1..5]-(b))",
+                    e.getMessage());
+            return;
+        }
+        Assert.fail();
+    }
 }
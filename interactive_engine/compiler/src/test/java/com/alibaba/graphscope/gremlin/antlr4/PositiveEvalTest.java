@@ -1131,6 +1131,17 @@ public class PositiveEvalTest {
                                 + " \"ARBITRARY\").with(\"RESULT_OPT\", \"ALL_V\")"));
     }
 
+    // g.V().out("1..5", "knows").shortestPath()
+    @Test
+    public void g_V_path_expand_out_shortest_path() {
+        Assert.assertEquals(
+                g.V().out(__.range(1, 5), "knows").with("PATH_OPT", "ANY_SHORTEST"),
+                eval("g.V().out(\"1..5\", \"knows\").shortestPath()"));
+        Assert.assertEquals(
+                g.V().out(__.range(1, 5), "knows").with("PATH_OPT", "ALL_SHORTEST"),
+                eval("g.V().out(\"1..5\", \"knows\").allShortestPaths()"));
+    }
+
     @Test
     public void g_V_id() {
         Assert.assertEquals(g.V().id(), eval("g.V().id()"));
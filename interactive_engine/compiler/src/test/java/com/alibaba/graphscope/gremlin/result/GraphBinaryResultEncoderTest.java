@@ -0,0 +1,315 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.gremlin.result;
+
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.alibaba.graphscope.gremlin.exception.GremlinResultParserException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.GraphBinaryMessageSerializerV1;
+import org.apache.tinkerpop.gremlin.driver.ser.NettyBufferFactory;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryWriter;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedEdge;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class GraphBinaryResultEncoderTest {
+    private final GraphBinaryResultEncoder encoder = new GraphBinaryResultEncoder();
+    private final GraphBinaryWriter writer = new GraphBinaryWriter();
+    private final NettyBufferFactory bufferFactory = new NettyBufferFactory();
+
+    @Test
+    public void encode_vertex_test() throws Exception {
+        IrResult.Element element =
+                IrResult.Element.newBuilder().setVertex(vertex(1L, "person")).build();
+        assertSameBytes(
+                new DetachedVertex(1L, "person", Collections.emptyMap()),
+                GremlinResultParserFactory.GRAPH_ELEMENT,
+                entry(element));
+    }
+
+    @Test
+    public void encode_edge_test() throws Exception {
+        IrResult.Edge edge =
+                IrResult.Edge.newBuilder()
+                        .setId(3L)
+                        .setLabel(name("knows"))
+                        .setSrcId(1L)
+                        .setSrcLabel(name("person"))
+                        .setDstId(2L)
+                        .setDstLabel(name("person"))
+                        .build();
+        assertSameBytes(
+                new DetachedEdge(3L, "knows", Collections.emptyMap(), 1L, "person", 2L, "person"),
+                GremlinResultParserFactory.GRAPH_ELEMENT,
+                entry(IrResult.Element.newBuilder().setEdge(edge).build()));
+    }
+
+    @Test
+    public void encode_path_test() throws Exception {
+        IrResult.GraphPath path =
+                IrResult.GraphPath.newBuilder()
+                        .addPath(
+                                IrResult.GraphPath.VertexOrEdge.newBuilder()
+                                        .setVertex(vertex(1L, "person")))
+                        .addPath(
+                                IrResult.GraphPath.VertexOrEdge.newBuilder()
+                                        .setVertex(vertex(2L, "software")))
+                        .build();
+        assertSameBytes(
+                Arrays.asList(
+                        new DetachedVertex(1L, "person", Collections.emptyMap()),
+                        new DetachedVertex(2L, "software", Collections.emptyMap())),
+                GremlinResultParserFactory.GRAPH_ELEMENT,
+                entry(IrResult.Element.newBuilder().setGraphPath(path).build()));
+    }
+
+    @Test
+    public void encode_value_test() throws Exception {
+        assertSameBytes(
+                10L,
+                GremlinResultParserFactory.SINGLE_VALUE,
+                entry(object(Common.Value.newBuilder().setI64(10L).build())));
+        assertSameBytes(
+                "marko",
+                GremlinResultParserFactory.SINGLE_VALUE,
+                entry(object(Common.Value.newBuilder().setStr("marko").build())));
+        assertSameBytes(
+                1.5d,
+                GremlinResultParserFactory.SINGLE_VALUE,
+                entry(object(Common.Value.newBuilder().setF64(1.5d).build())));
+        assertSameBytes(
+                true,
+                GremlinResultParserFactory.SINGLE_VALUE,
+                entry(object(Common.Value.newBuilder().setBoolean(true).build())));
+    }
+
+    @Test
+    public void encode_collection_test() throws Exception {
+        IrResult.Entry entry =
+                IrResult.Entry.newBuilder()
+                        .setCollection(
+                                IrResult.Collection.newBuilder()
+                                        .addCollection(
+                                                object(Common.Value.newBuilder().setI32(1).build()))
+                                        .addCollection(
+                                                object(
+                                                        Common.Value.newBuilder()
+                                                                .setNone(
+                                                                        Common.None.newBuilder()
+                                                                                .build())
+                                                                .build()))
+                                        .addCollection(
+                                                object(
+                                                        Common.Value.newBuilder()
+                                                                .setI32(2)
+                                                                .build())))
+                        .build();
+        assertSameBytes(Arrays.asList(1, 2), GremlinResultParserFactory.SINGLE_VALUE, entry);
+    }
+
+    @Test
+    public void encode_empty_value_test() {
+        ByteBuf out = Unpooled.buffer();
+        int count =
+                encoder.encode(
+                        GremlinResultParserFactory.SINGLE_VALUE,
+                        results(
+                                        entry(
+                                                object(
+                                                        Common.Value.newBuilder()
+                                                                .setNone(
+                                                                        Common.None.newBuilder()
+                                                                                .build())
+                                                                .build())))
+                                .toByteString(),
+                        out);
+        Assert.assertEquals(0, count);
+        Assert.assertEquals(0, out.readableBytes());
+        out.release();
+    }
+
+    @Test
+    public void encode_response_test() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        List<Object> values =
+                Arrays.asList(
+                        new DetachedVertex(1L, "person", Collections.emptyMap()),
+                        new DetachedVertex(2L, "person", Collections.emptyMap()));
+        ByteBuf data = Unpooled.buffer();
+        for (int i = 1; i <= 2; ++i) {
+            encoder.encode(
+                    GremlinResultParserFactory.GRAPH_ELEMENT,
+                    results(
+                                    entry(
+                                            IrResult.Element.newBuilder()
+                                                    .setVertex(vertex(i, "person"))
+                                                    .build()))
+                            .toByteString(),
+                    data);
+        }
+        ByteBuf actual =
+                encoder.encodeResponse(
+                        requestId,
+                        ResponseStatusCode.PARTIAL_CONTENT,
+                        data,
+                        2,
+                        ByteBufAllocator.DEFAULT);
+
+        ResponseMessage message =
+                ResponseMessage.build(requestId)
+                        .code(ResponseStatusCode.PARTIAL_CONTENT)
+                        .result(values)
+                        .create();
+        ByteBuf expected =
+                new GraphBinaryMessageSerializerV1()
+                        .serializeResponseAsBinary(message, ByteBufAllocator.DEFAULT);
+        try {
+            Assert.assertEquals(ByteBufUtil.hexDump(expected), ByteBufUtil.hexDump(actual));
+        } finally {
+            expected.release();
+            actual.release();
+        }
+    }
+
+    // the bytes of the map are the same as the HashMap parsed from the pairs, in which a
+    // duplicate key overrides the value
+    @Test
+    public void encode_map_test() throws Exception {
+        Common.PairArray.Builder pairs = Common.PairArray.newBuilder();
+        for (int i = 0; i < 20; ++i) {
+            pairs.addItem(pair(str("key_" + i), Common.Value.newBuilder().setI32(i).build()));
+        }
+        pairs.addItem(pair(str("key_3"), str("duplicate")));
+        pairs.addItem(pair(str("key_15"), str("duplicate")));
+        // a long key is not equal to the int key of the same value
+        pairs.addItem(pair(Common.Value.newBuilder().setI64(1L).build(), str("long")));
+        pairs.addItem(pair(Common.Value.newBuilder().setI32(1).build(), str("int")));
+        pairs.addItem(pair(Common.Value.newBuilder().setI64(1L).build(), str("long_2")));
+        Common.PairArray nested =
+                Common.PairArray.newBuilder()
+                        .addItem(pair(str("b"), str("x")))
+                        .addItem(pair(str("a"), str("y")))
+                        .addItem(pair(str("b"), str("z")))
+                        .build();
+        pairs.addItem(pair(str("nested"), Common.Value.newBuilder().setPairArray(nested).build()));
+        IrResult.Entry entry =
+                entry(object(Common.Value.newBuilder().setPairArray(pairs).build()));
+        Object expected = ParserUtils.parseEntry(entry);
+        Assert.assertEquals(23, ((Map) expected).size());
+        assertSameBytes(expected, GremlinResultParserFactory.SINGLE_VALUE, entry);
+    }
+
+    // a none nested in a map can not be serialized, as EmptyValue in the parsed map
+    @Test
+    public void encode_nested_none_test() {
+        Common.Value none = Common.Value.newBuilder().setNone(Common.None.newBuilder()).build();
+        IrResult.Entry entry =
+                entry(
+                        object(
+                                Common.Value.newBuilder()
+                                        .setPairArray(
+                                                Common.PairArray.newBuilder()
+                                                        .addItem(pair(str("a"), str("x")))
+                                                        .addItem(pair(str("b"), none)))
+                                        .build()));
+        ByteBuf expected = Unpooled.buffer();
+        try {
+            writer.write(ParserUtils.parseEntry(entry), bufferFactory.create(expected));
+            Assert.fail("EmptyValue should not be serialized");
+        } catch (IOException e) {
+            // expected
+        } finally {
+            expected.release();
+        }
+        ByteBuf actual = Unpooled.buffer();
+        actual.writeByte(1);
+        try {
+            encoder.encode(
+                    GremlinResultParserFactory.SINGLE_VALUE, results(entry).toByteString(), actual);
+            Assert.fail("EmptyValue should not be encoded");
+        } catch (GremlinResultParserException e) {
+            // the partially written value is dropped
+            Assert.assertEquals(1, actual.readableBytes());
+        } finally {
+            actual.release();
+        }
+    }
+
+    private void assertSameBytes(
+            Object expectedValue, GremlinResultParser parser, IrResult.Entry entry)
+            throws Exception {
+        ByteBuf expected = Unpooled.buffer();
+        writer.write(expectedValue, bufferFactory.create(expected));
+        ByteBuf actual = Unpooled.buffer();
+        int count = encoder.encode(parser, results(entry).toByteString(), actual);
+        try {
+            Assert.assertEquals(1, count);
+            Assert.assertEquals(ByteBufUtil.hexDump(expected), ByteBufUtil.hexDump(actual));
+        } finally {
+            expected.release();
+            actual.release();
+        }
+    }
+
+    private IrResult.Results results(IrResult.Entry entry) {
+        return IrResult.Results.newBuilder()
+                .setRecord(
+                        IrResult.Record.newBuilder()
+                                .addColumns(IrResult.Column.newBuilder().setEntry(entry)))
+                .build();
+    }
+
+    private IrResult.Entry entry(IrResult.Element element) {
+        return IrResult.Entry.newBuilder().setElement(element).build();
+    }
+
+    private IrResult.Element object(Common.Value value) {
+        return IrResult.Element.newBuilder().setObject(value).build();
+    }
+
+    private IrResult.Vertex vertex(long id, String label) {
+        return IrResult.Vertex.newBuilder().setId(id).setLabel(name(label)).build();
+    }
+
+    private Common.Value str(String value) {
+        return Common.Value.newBuilder().setStr(value).build();
+    }
+
+    private Common.Pair pair(Common.Value key, Common.Value value) {
+        return Common.Pair.newBuilder().setKey(key).setVal(value).build();
+    }
+
+    private Common.NameOrId name(String name) {
+        return Common.NameOrId.newBuilder().setName(name).build();
+    }
+}
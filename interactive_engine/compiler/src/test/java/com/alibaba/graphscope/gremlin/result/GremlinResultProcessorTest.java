@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.gremlin.result;
+
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.alibaba.graphscope.gremlin.plugin.MetricsCollector;
+import com.alibaba.graphscope.gremlin.plugin.QueryLogger;
+import com.alibaba.graphscope.gremlin.plugin.QueryStatusCallback;
+import com.alibaba.graphscope.gremlin.plugin.processor.IrStandardOpProcessor;
+import com.alibaba.graphscope.gremlin.plugin.traversal.IrCustomizedTraversalSource;
+import com.alibaba.graphscope.gremlin.result.processor.GremlinResultProcessor;
+import com.alibaba.graphscope.gremlin.transform.alias.AliasArg;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+import com.codahale.metrics.Timer;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GremlinResultProcessorTest {
+    private GraphTraversalSource g =
+            TinkerFactory.createModern().traversal(IrCustomizedTraversalSource.class);
+    private List<List<Object>> pages;
+    private List<ResponseStatusCode> statusCodes;
+
+    private Context context(EmbeddedChannel channel, int batchSize) {
+        RequestMessage msg =
+                RequestMessage.build("eval")
+                        .add("gremlin", "g.V()")
+                        .add(Tokens.ARGS_BATCH_SIZE, batchSize)
+                        .create();
+        return new Context(
+                msg, channel.pipeline().firstContext(), new Settings(), null, null, null);
+    }
+
+    private GremlinResultProcessor processor(Context context, Traversal traversal) {
+        IrStandardOpProcessor.applyStrategies(traversal);
+        QueryStatusCallback statusCallback =
+                new QueryStatusCallback(
+                        new MetricsCollector(new Timer()), new QueryLogger("g.V()", 1L));
+        return new GremlinResultProcessor(context, traversal, statusCallback) {
+            // record the pages instead of serializing them
+            @Override
+            protected void writeResultList(
+                    Context context, List<Object> resultList, ResponseStatusCode statusCode) {
+                pages.add(new ArrayList<>(resultList));
+                statusCodes.add(statusCode);
+            }
+        };
+    }
+
+    // a group of groupCount() returned by a worker
+    private PegasusClient.JobResponse group(String key, long count) {
+        IrResult.Record record =
+                IrResult.Record.newBuilder()
+                        .addColumns(column(AliasArg.GROUP_KEYS + "_1_0", str(key)))
+                        .addColumns(
+                                column(
+                                        AliasArg.GROUP_VALUES + "_1_0",
+                                        Common.Value.newBuilder().setI64(count).build()))
+                        .build();
+        return PegasusClient.JobResponse.newBuilder()
+                .setResp(IrResult.Results.newBuilder().setRecord(record).build().toByteString())
+                .build();
+    }
+
+    private IrResult.Column column(String alias, Common.Value value) {
+        return IrResult.Column.newBuilder()
+                .setNameOrId(Common.NameOrId.newBuilder().setName(alias))
+                .setEntry(
+                        IrResult.Entry.newBuilder()
+                                .setElement(IrResult.Element.newBuilder().setObject(value)))
+                .build();
+    }
+
+    private Common.Value str(String value) {
+        return Common.Value.newBuilder().setStr(value).build();
+    }
+
+    private static Map<Object, Object> map(Object... keyValues) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Before
+    public void init() {
+        pages = new ArrayList<>();
+        statusCodes = new ArrayList<>();
+    }
+
+    // groups of 3 workers are merged into pages of at most 3 groups, a key returned by more than
+    // one worker is counted once in a page and keeps the latest value
+    @Test
+    public void merge_group_test() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        GremlinResultProcessor processor =
+                processor(context(channel, 3), g.V().groupCount().by("name"));
+        processor.process(group("marko", 1L)); // worker 0
+        processor.process(group("josh", 2L)); // worker 1
+        processor.process(group("marko", 3L)); // worker 1, duplicate
+        processor.process(group("vadas", 4L)); // worker 2
+        Assert.assertTrue(pages.isEmpty());
+        processor.process(group("peter", 5L)); // worker 2
+        processor.finish();
+
+        Assert.assertEquals(
+                Arrays.asList(ResponseStatusCode.PARTIAL_CONTENT, ResponseStatusCode.SUCCESS),
+                statusCodes);
+        Assert.assertEquals(
+                Collections.singletonList(map("marko", 3L, "josh", 2L, "vadas", 4L)),
+                pages.get(0));
+        Assert.assertEquals(Collections.singletonList(map("peter", 5L)), pages.get(1));
+    }
+
+    @Test
+    public void reject_test() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        GremlinResultProcessor processor = processor(context(channel, 64), g.V());
+        processor.reject("too many queries of user [u]");
+        ResponseMessage response = channel.readOutbound();
+        Assert.assertEquals(ResponseStatusCode.TOO_MANY_REQUESTS, response.getStatus().getCode());
+        Assert.assertEquals("too many queries of user [u]", response.getStatus().getMessage());
+        // nothing is written once the query is rejected
+        processor.finish();
+        Assert.assertNull(channel.readOutbound());
+        Assert.assertTrue(pages.isEmpty());
+    }
+}
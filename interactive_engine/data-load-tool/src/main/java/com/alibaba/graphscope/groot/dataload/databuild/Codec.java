@@ -35,6 +35,8 @@ public class Codec {
     private final List<Integer> offsets;
     private final byte[] nullBytesHolder;
     private final int fixedPropertiesCount;
+    // the encoded default values of properties, precomputed to avoid encoding them for each record
+    private final byte[][] defaultBytes;
 
     public Codec(GraphElement graphElement) {
         this.version = graphElement.getVersionId();
@@ -71,6 +73,36 @@ public class Codec {
 
         this.propertyDefs = propertyList;
         this.fixedPropertiesCount = fixedLenPropCount;
+        this.defaultBytes = new byte[propertyList.size()][];
+        for (int i = 0; i < propertyList.size(); i++) {
+            GraphProperty propertyDef = propertyList.get(i);
+            if (propertyDef.getDefaultValue() != null) {
+                this.defaultBytes[i] =
+                        new PropertyValue(propertyDef.getDataType(), propertyDef.getDefaultValue())
+                                .getValBytes();
+            }
+        }
+    }
+
+    /**
+     * @return the length of the encoded properties, which is used to allocate the output buffer
+     */
+    public int getEncodedLength(Map<Integer, PropertyValue> propertiesMap) {
+        int varOffsetsPos = this.offsets.get(this.offsets.size() - 1);
+        int length = varOffsetsPos + 3 * (this.propertyDefs.size() - this.fixedPropertiesCount);
+        for (int i = this.fixedPropertiesCount; i < this.propertyDefs.size(); i++) {
+            byte[] valBytes = getValBytes(i, propertiesMap);
+            if (valBytes != null) {
+                length += valBytes.length;
+            }
+        }
+        return length;
+    }
+
+    // the value of the property, or the default value if it is absent
+    private byte[] getValBytes(int idx, Map<Integer, PropertyValue> propertiesMap) {
+        PropertyValue propertyValue = propertiesMap.get(this.propertyDefs.get(idx).getId());
+        return (propertyValue != null) ? propertyValue.getValBytes() : this.defaultBytes[idx];
     }
 
     public void encode(Map<Integer, PropertyValue> propertiesMap, ByteBuffer scratch) {
@@ -78,14 +110,9 @@ public class Codec {
         scratch.put(this.nullBytesHolder);
 
         for (int i = 0; i < this.fixedPropertiesCount; i++) {
-            GraphProperty propertyDef = this.propertyDefs.get(i);
-            PropertyValue propertyValue = propertiesMap.get(propertyDef.getId());
-            if (propertyValue != null) {
-                writeBytes(scratch, this.offsets.get(i), propertyValue.getValBytes());
-            } else if (propertyDef.getDefaultValue() != null) {
-                PropertyValue defaultValue =
-                        new PropertyValue(propertyDef.getDataType(), propertyDef.getDefaultValue());
-                writeBytes(scratch, this.offsets.get(i), defaultValue.getValBytes());
+            byte[] valBytes = getValBytes(i, propertiesMap);
+            if (valBytes != null) {
+                writeBytes(scratch, this.offsets.get(i), valBytes);
             } else {
                 setNull(i, scratch);
             }
@@ -96,23 +123,14 @@ public class Codec {
         ((Buffer) scratch).position(dataOffset);
         int varEndOffset = 0;
         for (int i = this.fixedPropertiesCount; i < this.propertyDefs.size(); i++) {
-            GraphProperty propertyDef = this.propertyDefs.get(i);
-            PropertyValue propertyValue = propertiesMap.get(propertyDef.getId());
-            if (propertyValue != null) {
-                byte[] valBytes = propertyValue.getValBytes();
-                scratch.put(valBytes);
-                varEndOffset += valBytes.length;
-            } else if (propertyDef.getDefaultValue() != null) {
-                PropertyValue defaultValue =
-                        new PropertyValue(propertyDef.getDataType(), propertyDef.getDefaultValue());
-                byte[] valBytes = defaultValue.getValBytes();
+            byte[] valBytes = getValBytes(i, propertiesMap);
+            if (valBytes != null) {
                 scratch.put(valBytes);
                 varEndOffset += valBytes.length;
             } else {
                 setNull(i, scratch);
             }
-            byte[] endOffsetBytes = lengthBytes(varEndOffset);
-            writeBytes(scratch, varOffsetsPos, endOffsetBytes);
+            writeLength(scratch, varOffsetsPos, varEndOffset);
             varOffsetsPos += 3;
         }
     }
@@ -130,11 +148,9 @@ public class Codec {
         }
     }
 
-    private byte[] lengthBytes(int len) {
-        byte[] res = new byte[3];
-        res[0] = (byte) (len & 255);
-        res[1] = (byte) (len >> 8 & 255);
-        res[2] = (byte) (len >> 16);
-        return res;
+    private void writeLength(ByteBuffer scratch, int offset, int len) {
+        scratch.put(offset, (byte) (len & 255));
+        scratch.put(offset + 1, (byte) (len >> 8 & 255));
+        scratch.put(offset + 2, (byte) (len >> 16));
     }
 }
@@ -32,20 +32,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, BytesWritable> {
     private static final Logger logger = LoggerFactory.getLogger(DataBuildMapper.class);
 
-    public static final SimpleDateFormat SRC_FMT =
-            new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
-    public static final SimpleDateFormat DST_FMT = new SimpleDateFormat("yyyyMMddHHmmssSSS");
+    // the formatters are immutable and thread-safe, which can be shared by the mappers in threads
+    public static final DateTimeFormatter SRC_FMT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    public static final DateTimeFormatter DST_FMT =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
 
     private GraphSchema graphSchema;
     private DataEncoder dataEncoder;
-    private String separator;
+    private LineParser lineParser;
     private Map<String, ColumnMappingInfo> fileToColumnMappingInfo;
 
     private final BytesWritable outKey = new BytesWritable();
@@ -56,7 +60,7 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
     @Override
     protected void setup(Context context) throws IOException {
         Configuration conf = context.getConfiguration();
-        this.separator = conf.get(DataLoadConfig.SEPARATOR);
+        this.lineParser = new LineParser(conf.get(DataLoadConfig.SEPARATOR));
         String schemaJson = conf.get(DataLoadConfig.SCHEMA_JSON);
         this.graphSchema = GraphSchemaMapper.parseFromJson(schemaJson).toGraphSchema();
         this.dataEncoder = new DataEncoder(this.graphSchema);
@@ -67,7 +71,6 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
                         columnMappingsJson, new TypeReference<Map<String, ColumnMappingInfo>>() {});
         this.ldbcCustomize = conf.getBoolean(DataLoadConfig.LDBC_CUSTOMIZE, false);
         this.skipHeader = conf.getBoolean(DataLoadConfig.SKIP_HEADER, true);
-        DST_FMT.setTimeZone(TimeZone.getTimeZone("GMT+00:00"));
     }
 
     @Override
@@ -87,17 +90,16 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
         int labelId = columnMappingInfo.getLabelId();
         long tableId = columnMappingInfo.getTableId();
         Map<Integer, Integer> propertiesColumnMapping = columnMappingInfo.getPropertiesColMap();
-        String[] items = value.toString().split(separator);
+        LineParser items = this.lineParser;
+        // the fields refer to the bytes of the line, and are only decoded if they are mapped
+        items.parse(value);
         GraphElement type = this.graphSchema.getElement(labelId);
         Map<Integer, PropertyValue> propertiesMap =
                 buildPropertiesMap(type, items, propertiesColumnMapping);
-        BytesRef valRef = this.dataEncoder.encodeProperties(labelId, propertiesMap);
-        this.outVal.set(valRef.getArray(), valRef.getOffset(), valRef.getLength());
+        this.dataEncoder.encodeProperties(labelId, propertiesMap, this.outVal);
         if (type instanceof GraphVertex) {
-            BytesRef keyBytesRef =
-                    this.dataEncoder.encodeVertexKey((GraphVertex) type, propertiesMap, tableId);
-            this.outKey.set(
-                    keyBytesRef.getArray(), keyBytesRef.getOffset(), keyBytesRef.getLength());
+            this.dataEncoder.encodeVertexKey(
+                    (GraphVertex) type, propertiesMap, tableId, this.outKey);
             context.write(this.outKey, this.outVal);
         } else if (type instanceof GraphEdge) {
             int srcLabelId = columnMappingInfo.getSrcLabelId();
@@ -110,31 +112,27 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
             GraphElement dstType = this.graphSchema.getElement(dstLabelId);
             Map<Integer, PropertyValue> dstPkMap = buildPropertiesMap(dstType, items, dstPkColMap);
 
-            BytesRef outEdgeKeyRef =
-                    this.dataEncoder.encodeEdgeKey(
-                            (GraphVertex) srcType,
-                            srcPkMap,
-                            (GraphVertex) dstType,
-                            dstPkMap,
-                            (GraphEdge) type,
-                            propertiesMap,
-                            tableId,
-                            true);
-            this.outKey.set(
-                    outEdgeKeyRef.getArray(), outEdgeKeyRef.getOffset(), outEdgeKeyRef.getLength());
+            this.dataEncoder.encodeEdgeKey(
+                    (GraphVertex) srcType,
+                    srcPkMap,
+                    (GraphVertex) dstType,
+                    dstPkMap,
+                    (GraphEdge) type,
+                    propertiesMap,
+                    tableId,
+                    true,
+                    this.outKey);
             context.write(this.outKey, this.outVal);
-            BytesRef inEdgeKeyRef =
-                    this.dataEncoder.encodeEdgeKey(
-                            (GraphVertex) srcType,
-                            srcPkMap,
-                            (GraphVertex) dstType,
-                            dstPkMap,
-                            (GraphEdge) type,
-                            propertiesMap,
-                            tableId,
-                            false);
-            this.outKey.set(
-                    inEdgeKeyRef.getArray(), inEdgeKeyRef.getOffset(), inEdgeKeyRef.getLength());
+            this.dataEncoder.encodeEdgeKey(
+                    (GraphVertex) srcType,
+                    srcPkMap,
+                    (GraphVertex) dstType,
+                    dstPkMap,
+                    (GraphEdge) type,
+                    propertiesMap,
+                    tableId,
+                    false,
+                    this.outKey);
             context.write(this.outKey, this.outVal);
         } else {
             throw new IllegalArgumentException(
@@ -143,7 +141,7 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
     }
 
     private Map<Integer, PropertyValue> buildPropertiesMap(
-            GraphElement typeDef, String[] items, Map<Integer, Integer> columnMapping) {
+            GraphElement typeDef, LineParser items, Map<Integer, Integer> columnMapping) {
         Map<Integer, PropertyValue> operationProperties = new HashMap<>(columnMapping.size());
         columnMapping.forEach(
                 (colIdx, propertyId) -> {
@@ -156,7 +154,7 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
                                         + typeDef.getLabel()
                                         + "]");
                     }
-                    if (colIdx >= items.length) {
+                    if (colIdx >= items.size()) {
                         throw new IllegalArgumentException(
                                 "label ["
                                         + typeDef.getLabel()
@@ -165,12 +163,12 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
                                         + "] -> ["
                                         + propertyId
                                         + "], data ["
-                                        + Arrays.toString(items)
+                                        + items
                                         + "]");
                     }
                     DataType dataType = propertyDef.getDataType();
 
-                    String val = items[colIdx];
+                    String val = items.get(colIdx);
                     if (ldbcCustomize) {
                         String name = propertyDef.getName();
                         switch (name) {
@@ -191,8 +189,8 @@ public class DataBuildMapper extends Mapper<LongWritable, Text, BytesWritable, B
 
     public static String convertDate(String input) {
         try {
-            return DST_FMT.format(SRC_FMT.parse(input));
-        } catch (ParseException e) {
+            return DST_FMT.format(SRC_FMT.parse(input, OffsetDateTime::from));
+        } catch (DateTimeParseException e) {
             throw new RuntimeException(e);
         }
     }
@@ -22,6 +22,8 @@ import com.alibaba.graphscope.groot.common.schema.wrapper.PropertyValue;
 import com.alibaba.graphscope.groot.common.util.PkHashUtils;
 import com.alibaba.graphscope.groot.common.util.SchemaUtils;
 
+import org.apache.hadoop.io.BytesWritable;
+
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -32,6 +34,10 @@ import java.util.Map;
 public class DataEncoder {
 
     private static final long SNAPSHOT_ID = ~0L;
+    // table id, vertex id and snapshot id
+    private static final int VERTEX_KEY_LENGTH = 24;
+    // table id, src and dst vertex ids, edge id and snapshot id
+    private static final int EDGE_KEY_LENGTH = 40;
     private final ByteBuffer scratch = ByteBuffer.allocate(1 << 20);
     private final Map<GraphElement, List<Integer>> labelPkIds = new HashMap<>();
 
@@ -44,14 +50,33 @@ public class DataEncoder {
     public BytesRef encodeVertexKey(
             GraphVertex type, Map<Integer, PropertyValue> propertiesMap, long tableId) {
         clear(scratch);
+        writeVertexKey(type, propertiesMap, tableId, scratch);
+        flip(scratch);
+        return new BytesRef(scratch.array(), 0, scratch.limit());
+    }
+
+    /**
+     * encode the vertex key into the output directly, without copying from the scratch buffer
+     */
+    public void encodeVertexKey(
+            GraphVertex type,
+            Map<Integer, PropertyValue> propertiesMap,
+            long tableId,
+            BytesWritable output) {
+        writeVertexKey(type, propertiesMap, tableId, wrap(output, VERTEX_KEY_LENGTH));
+    }
+
+    private void writeVertexKey(
+            GraphVertex type,
+            Map<Integer, PropertyValue> propertiesMap,
+            long tableId,
+            ByteBuffer buffer) {
         List<Integer> pkIds =
                 labelPkIds.computeIfAbsent(type, k -> SchemaUtils.getVertexPrimaryKeyList(type));
         long hashId = getHashId(type.getLabelId(), propertiesMap, pkIds);
-        scratch.putLong(tableId << 1);
-        scratch.putLong(hashId);
-        scratch.putLong(SNAPSHOT_ID);
-        flip(scratch);
-        return new BytesRef(scratch.array(), 0, scratch.limit());
+        buffer.putLong(tableId << 1);
+        buffer.putLong(hashId);
+        buffer.putLong(SNAPSHOT_ID);
     }
 
     public BytesRef encodeEdgeKey(
@@ -64,6 +89,55 @@ public class DataEncoder {
             long tableId,
             boolean outEdge) {
         clear(scratch);
+        writeEdgeKey(
+                srcType,
+                srcPkMap,
+                dstType,
+                dstPkMap,
+                type,
+                propertiesMap,
+                tableId,
+                outEdge,
+                scratch);
+        flip(scratch);
+        return new BytesRef(scratch.array(), 0, scratch.limit());
+    }
+
+    /**
+     * encode the edge key into the output directly, without copying from the scratch buffer
+     */
+    public void encodeEdgeKey(
+            GraphVertex srcType,
+            Map<Integer, PropertyValue> srcPkMap,
+            GraphVertex dstType,
+            Map<Integer, PropertyValue> dstPkMap,
+            GraphEdge type,
+            Map<Integer, PropertyValue> propertiesMap,
+            long tableId,
+            boolean outEdge,
+            BytesWritable output) {
+        writeEdgeKey(
+                srcType,
+                srcPkMap,
+                dstType,
+                dstPkMap,
+                type,
+                propertiesMap,
+                tableId,
+                outEdge,
+                wrap(output, EDGE_KEY_LENGTH));
+    }
+
+    private void writeEdgeKey(
+            GraphVertex srcType,
+            Map<Integer, PropertyValue> srcPkMap,
+            GraphVertex dstType,
+            Map<Integer, PropertyValue> dstPkMap,
+            GraphEdge type,
+            Map<Integer, PropertyValue> propertiesMap,
+            long tableId,
+            boolean outEdge,
+            ByteBuffer buffer) {
         List<Integer> srcPkIds =
                 labelPkIds.computeIfAbsent(
                         srcType, k -> SchemaUtils.getVertexPrimaryKeyList(srcType));
@@ -82,18 +156,16 @@ public class DataEncoder {
         }
 
         if (outEdge) {
-            scratch.putLong(tableId << 1);
-            scratch.putLong(srcId);
-            scratch.putLong(dstId);
+            buffer.putLong(tableId << 1);
+            buffer.putLong(srcId);
+            buffer.putLong(dstId);
         } else {
-            scratch.putLong(tableId << 1 | 1);
-            scratch.putLong(dstId);
-            scratch.putLong(srcId);
+            buffer.putLong(tableId << 1 | 1);
+            buffer.putLong(dstId);
+            buffer.putLong(srcId);
         }
-        scratch.putLong(eid);
-        scratch.putLong(SNAPSHOT_ID);
-        flip(scratch);
-        return new BytesRef(scratch.array(), 0, scratch.limit());
+        buffer.putLong(eid);
+        buffer.putLong(SNAPSHOT_ID);
     }
 
     public BytesRef encodeProperties(int labelId, Map<Integer, PropertyValue> propertiesMap) {
@@ -104,6 +176,21 @@ public class DataEncoder {
         return new BytesRef(scratch.array(), 0, scratch.limit());
     }
 
+    /**
+     * encode the properties into the output directly, without copying from the scratch buffer
+     */
+    public void encodeProperties(
+            int labelId, Map<Integer, PropertyValue> propertiesMap, BytesWritable output) {
+        Codec codec = this.labelToCodec.get(labelId);
+        codec.encode(propertiesMap, wrap(output, codec.getEncodedLength(propertiesMap)));
+    }
+
+    // resize the output to the length of the encoded bytes, and write to it by a byte buffer
+    private static ByteBuffer wrap(BytesWritable output, int length) {
+        output.setSize(length);
+        return ByteBuffer.wrap(output.getBytes(), 0, length);
+    }
+
     private long getHashId(
             int labelId, Map<Integer, PropertyValue> operationProperties, List<Integer> pkIds) {
         List<byte[]> pks = new ArrayList<>(pkIds.size());
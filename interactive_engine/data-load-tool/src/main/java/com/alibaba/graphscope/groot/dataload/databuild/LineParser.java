@@ -0,0 +1,141 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Split a line into fields without copying the line, a field is decoded to string only when it is
+ * accessed. The results are the same as `String.split(separator)`, i.e. the trailing empty fields
+ * are removed. A separator which is a regular expression rather than a literal string falls back
+ * to `String.split`.
+ */
+public class LineParser {
+    private static final String REGEX_META_CHARS = ".$|()[{^?*+\\";
+
+    // the separator in utf-8 if it is a literal string
+    private final byte[] separator;
+    private final String regex;
+
+    private byte[] bytes;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+    // the fields split by the regular expression
+    private String[] items;
+
+    public LineParser(String separator) {
+        String literal = toLiteral(separator);
+        this.separator = (literal == null) ? null : literal.getBytes(StandardCharsets.UTF_8);
+        this.regex = separator;
+    }
+
+    public void parse(Text line) {
+        parse(line.getBytes(), line.getLength());
+    }
+
+    public void parse(byte[] bytes, int length) {
+        if (this.separator == null) {
+            this.items = new String(bytes, 0, length, StandardCharsets.UTF_8).split(regex);
+            this.size = this.items.length;
+            return;
+        }
+        this.bytes = bytes;
+        this.size = 0;
+        int start = 0;
+        int i = 0;
+        while (i <= length - separator.length) {
+            if (matches(bytes, i)) {
+                add(start, i);
+                i += separator.length;
+                start = i;
+            } else {
+                ++i;
+            }
+        }
+        if (this.size == 0) { // no separator is found, the line is a single field
+            add(0, length);
+            return;
+        }
+        add(start, length);
+        while (this.size > 0 && starts[this.size - 1] == ends[this.size - 1]) {
+            --this.size;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String get(int idx) {
+        if (idx >= size) {
+            throw new IndexOutOfBoundsException("index " + idx + " out of fields " + toString());
+        }
+        if (this.separator == null) {
+            return items[idx];
+        }
+        return new String(bytes, starts[idx], ends[idx] - starts[idx], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        String[] fields = new String[size];
+        for (int i = 0; i < size; ++i) {
+            fields[i] = get(i);
+        }
+        return Arrays.toString(fields);
+    }
+
+    private boolean matches(byte[] bytes, int offset) {
+        for (int j = 0; j < separator.length; ++j) {
+            if (bytes[offset + j] != separator[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        ++size;
+    }
+
+    // the literal string of the separator, or null if it is a regular expression
+    private static String toLiteral(String separator) {
+        if (separator.isEmpty()) {
+            return null;
+        }
+        if (separator.length() == 2
+                && separator.charAt(0) == '\\'
+                && !Character.isLetterOrDigit(separator.charAt(1))) {
+            return separator.substring(1);
+        }
+        for (int i = 0; i < separator.length(); ++i) {
+            if (REGEX_META_CHARS.indexOf(separator.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return separator;
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.CombineTextInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.map.MultithreadedMapper;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
 import org.slf4j.Logger;
@@ -110,6 +111,8 @@ public class OfflineBuild {
         boolean skipHeader =
                 properties.getProperty(DataLoadConfig.SKIP_HEADER, "true").equalsIgnoreCase("true");
         String separator = properties.getProperty(DataLoadConfig.SEPARATOR, "\\|");
+        int mapperThreads =
+                Integer.parseInt(properties.getProperty(DataLoadConfig.MAPPER_THREADS, "1"));
 
         Configuration conf = new Configuration();
         conf.setBoolean("mapreduce.map.speculative", false);
@@ -124,7 +127,14 @@ public class OfflineBuild {
         conf.setBoolean(DataLoadConfig.SKIP_HEADER, skipHeader);
         Job job = Job.getInstance(conf, "build graph data");
         job.setJarByClass(OfflineBuild.class);
-        job.setMapperClass(DataBuildMapper.class);
+        if (mapperThreads > 1) {
+            // the mappers share nothing but the immutable schema and formatters
+            job.setMapperClass(MultithreadedMapper.class);
+            MultithreadedMapper.setMapperClass(job, DataBuildMapper.class);
+            MultithreadedMapper.setNumberOfThreads(job, mapperThreads);
+        } else {
+            job.setMapperClass(DataBuildMapper.class);
+        }
         job.setPartitionerClass(DataBuildPartitioner.class);
         job.setReducerClass(DataBuildReducer.class);
         job.setNumReduceTasks(partitionNum);
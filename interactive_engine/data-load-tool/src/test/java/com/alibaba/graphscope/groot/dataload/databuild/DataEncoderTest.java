@@ -0,0 +1,189 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import com.alibaba.graphscope.groot.common.schema.api.GraphEdge;
+import com.alibaba.graphscope.groot.common.schema.api.GraphVertex;
+import com.alibaba.graphscope.groot.common.schema.wrapper.*;
+
+import org.apache.hadoop.io.BytesWritable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DataEncoderTest {
+    private static final int PERSON_LABEL_ID = 1;
+    private static final int KNOWS_LABEL_ID = 2;
+    private static final long PERSON_TABLE_ID = 10L;
+    private static final long KNOWS_TABLE_ID = 11L;
+
+    private final GraphDef graphDef = buildSchema();
+    private final GraphVertex person = (GraphVertex) graphDef.getElement(PERSON_LABEL_ID);
+    private final GraphEdge knows = (GraphEdge) graphDef.getElement(KNOWS_LABEL_ID);
+
+    @Test
+    void testEncodeProperties() {
+        DataEncoder encoder = new DataEncoder(graphDef);
+        // the output is reused by records of different lengths
+        BytesWritable output = new BytesWritable();
+        for (Map<Integer, PropertyValue> properties :
+                Arrays.asList(
+                        personProperties(1L, "a long name of the first person", 30, "beijing"),
+                        personProperties(2L, "b", 40, null),
+                        personProperties(3L, "", 50, ""))) {
+            BytesRef expected = encoder.encodeProperties(PERSON_LABEL_ID, properties);
+            encoder.encodeProperties(PERSON_LABEL_ID, properties, output);
+            Assertions.assertArrayEquals(toBytes(expected), toBytes(output));
+        }
+        Map<Integer, PropertyValue> edgeProperties = knowsProperties(0.5, "since 2010");
+        BytesRef expected = encoder.encodeProperties(KNOWS_LABEL_ID, edgeProperties);
+        encoder.encodeProperties(KNOWS_LABEL_ID, edgeProperties, output);
+        Assertions.assertArrayEquals(toBytes(expected), toBytes(output));
+    }
+
+    @Test
+    void testEncodedLength() {
+        Codec codec = new Codec(person);
+        DataEncoder encoder = new DataEncoder(graphDef);
+        for (Map<Integer, PropertyValue> properties :
+                Arrays.asList(
+                        personProperties(1L, "name", 30, "beijing"),
+                        // city is absent and encoded as the default value
+                        personProperties(2L, "name", 30, null),
+                        // age is absent and encoded as null
+                        personProperties(3L, "name", null, "hangzhou"))) {
+            BytesRef encoded = encoder.encodeProperties(PERSON_LABEL_ID, properties);
+            Assertions.assertEquals(encoded.getLength(), codec.getEncodedLength(properties));
+        }
+    }
+
+    @Test
+    void testEncodeVertexKey() {
+        DataEncoder encoder = new DataEncoder(graphDef);
+        BytesWritable output = new BytesWritable();
+        for (long id = 0; id < 10; id++) {
+            Map<Integer, PropertyValue> properties = personProperties(id, "name", 30, null);
+            BytesRef expected = encoder.encodeVertexKey(person, properties, PERSON_TABLE_ID);
+            encoder.encodeVertexKey(person, properties, PERSON_TABLE_ID, output);
+            Assertions.assertArrayEquals(toBytes(expected), toBytes(output));
+        }
+    }
+
+    @Test
+    void testEncodeEdgeKey() {
+        DataEncoder encoder = new DataEncoder(graphDef);
+        BytesWritable output = new BytesWritable();
+        Map<Integer, PropertyValue> src = personProperties(1L, "a", 30, null);
+        Map<Integer, PropertyValue> dst = personProperties(2L, "b", 40, null);
+        Map<Integer, PropertyValue> properties = knowsProperties(0.5, "since 2010");
+        for (boolean outEdge : new boolean[] {true, false}) {
+            BytesRef expected =
+                    encoder.encodeEdgeKey(
+                            person, src, person, dst, knows, properties, KNOWS_TABLE_ID, outEdge);
+            encoder.encodeEdgeKey(
+                    person, src, person, dst, knows, properties, KNOWS_TABLE_ID, outEdge, output);
+            byte[] expectedBytes = toBytes(expected);
+            byte[] outputBytes = toBytes(output);
+            Assertions.assertEquals(expectedBytes.length, outputBytes.length);
+            // the edge id in [24, 32) is generated by time, as edges have no primary key
+            Assertions.assertArrayEquals(
+                    Arrays.copyOfRange(expectedBytes, 0, 24),
+                    Arrays.copyOfRange(outputBytes, 0, 24));
+            Assertions.assertArrayEquals(
+                    Arrays.copyOfRange(expectedBytes, 32, 40),
+                    Arrays.copyOfRange(outputBytes, 32, 40));
+        }
+    }
+
+    private static byte[] toBytes(BytesRef ref) {
+        return Arrays.copyOfRange(
+                ref.getArray(), ref.getOffset(), ref.getOffset() + ref.getLength());
+    }
+
+    private static byte[] toBytes(BytesWritable output) {
+        return Arrays.copyOf(output.getBytes(), output.getLength());
+    }
+
+    private static Map<Integer, PropertyValue> personProperties(
+            long id, String name, Integer age, String city) {
+        Map<Integer, PropertyValue> properties = new HashMap<>();
+        properties.put(1, new PropertyValue(DataType.LONG, id));
+        properties.put(2, new PropertyValue(DataType.STRING, name));
+        if (age != null) {
+            properties.put(3, new PropertyValue(DataType.INT, age));
+        }
+        if (city != null) {
+            properties.put(4, new PropertyValue(DataType.STRING, city));
+        }
+        return properties;
+    }
+
+    private static Map<Integer, PropertyValue> knowsProperties(double weight, String note) {
+        Map<Integer, PropertyValue> properties = new HashMap<>();
+        properties.put(5, new PropertyValue(DataType.DOUBLE, weight));
+        properties.put(6, new PropertyValue(DataType.STRING, note));
+        return properties;
+    }
+
+    private static GraphDef buildSchema() {
+        TypeDef personDef =
+                TypeDef.newBuilder()
+                        .setLabel("person")
+                        .setLabelId(new LabelId(PERSON_LABEL_ID))
+                        .setTypeEnum(TypeEnum.VERTEX)
+                        .addPropertyDef(property(1, "id", DataType.LONG, true, null))
+                        .addPropertyDef(property(2, "name", DataType.STRING, false, null))
+                        .addPropertyDef(property(3, "age", DataType.INT, false, null))
+                        .addPropertyDef(
+                                property(
+                                        4,
+                                        "city",
+                                        DataType.STRING,
+                                        false,
+                                        new PropertyValue(DataType.STRING, "hangzhou")))
+                        .build();
+        TypeDef knowsDef =
+                TypeDef.newBuilder()
+                        .setLabel("knows")
+                        .setLabelId(new LabelId(KNOWS_LABEL_ID))
+                        .setTypeEnum(TypeEnum.EDGE)
+                        .addPropertyDef(property(5, "weight", DataType.DOUBLE, false, null))
+                        .addPropertyDef(property(6, "note", DataType.STRING, false, null))
+                        .build();
+        GraphDef.Builder builder = GraphDef.newBuilder();
+        String[] names = {"id", "name", "age", "city", "weight", "note"};
+        for (int i = 0; i < names.length; i++) {
+            builder.putPropertyNameToId(names[i], i + 1);
+        }
+        return builder.addTypeDef(personDef)
+                .addTypeDef(knowsDef)
+                .putVertexTableId(personDef.getTypeLabelId(), PERSON_TABLE_ID)
+                .build();
+    }
+
+    private static PropertyDef property(
+            int id, String name, DataType dataType, boolean pk, PropertyValue defaultValue) {
+        return PropertyDef.newBuilder()
+                .setId(id)
+                .setInnerId(id)
+                .setName(name)
+                .setDataType(dataType)
+                .setPk(pk)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+}
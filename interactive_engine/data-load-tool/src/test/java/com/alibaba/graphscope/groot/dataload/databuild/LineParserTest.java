@@ -0,0 +1,88 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LineParserTest {
+    private static final String[] LINES = {
+        "",
+        "a",
+        "a,b,c",
+        "a,,c",
+        ",a",
+        "a,b,",
+        "a,b,,,",
+        ",",
+        ",,,",
+        "a|b|c",
+        "a||b|",
+        "a::b:::c::",
+        "a;b,c;",
+        "a  b\tc ",
+        "名字,年龄,城市,"
+    };
+
+    @Test
+    void testLiteralSeparator() {
+        checkSplit(",");
+        checkSplit("::");
+    }
+
+    @Test
+    void testEscapedSeparator() {
+        checkSplit("\\|");
+        checkSplit("\\.");
+    }
+
+    @Test
+    void testRegexSeparator() {
+        checkSplit("|");
+        checkSplit("[,;]");
+        checkSplit("\\s+");
+        checkSplit(":+");
+    }
+
+    @Test
+    void testReusedText() {
+        LineParser parser = new LineParser(",");
+        Text text = new Text("aaaa,bbbb,cccc,dddd");
+        parser.parse(text);
+        Assertions.assertEquals(4, parser.size());
+        // the backing bytes are reused and longer than the new line
+        text.set("x,y");
+        parser.parse(text);
+        Assertions.assertEquals(2, parser.size());
+        Assertions.assertEquals("x", parser.get(0));
+        Assertions.assertEquals("y", parser.get(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> parser.get(2));
+    }
+
+    // the fields are the same as String.split
+    private void checkSplit(String separator) {
+        LineParser parser = new LineParser(separator);
+        for (String line : LINES) {
+            String[] expected = line.split(separator);
+            parser.parse(new Text(line));
+            Assertions.assertEquals(
+                    expected.length, parser.size(), "line [" + line + "] by [" + separator + "]");
+            for (int i = 0; i < expected.length; i++) {
+                Assertions.assertEquals(
+                        expected[i], parser.get(i), "line [" + line + "] by [" + separator + "]");
+            }
+        }
+    }
+}
@@ -143,3 +143,26 @@ pub extern "C" fn getBackupList(handle: GraphBackupHandle) -> Box<JnaResponse> {
         response
     }
 }
+
+#[no_mangle]
+pub extern "C" fn getBackupSize(handle: GraphBackupHandle, backup_id: i32) -> Box<JnaResponse> {
+    trace!("getBackupSize");
+    unsafe {
+        let graph_be = &*(handle as *const GraphBackupEngine);
+        match graph_be.get_backup_size(backup_id) {
+            Ok(size) => {
+                let mut response = JnaResponse::new_success();
+                if let Err(e) = response.data(size.to_ne_bytes().to_vec()) {
+                    response.success(false);
+                    let msg = format!("{:?}", e);
+                    response.err_msg(&msg);
+                }
+                response
+            }
+            Err(e) => {
+                let msg = format!("{:?}", e);
+                JnaResponse::new_error(&msg)
+            }
+        }
+    }
+}
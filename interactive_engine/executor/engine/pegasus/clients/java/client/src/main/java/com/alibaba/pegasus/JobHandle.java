@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.pegasus;
+
+import com.alibaba.pegasus.service.protocol.PegasusClient.JobRequest;
+
+import io.grpc.stub.ClientCallStreamObserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * handle of a job submitted to all servers, cancelling the handle cancels the outstanding grpc
+ * calls, and the servers stop the job once the calls are cancelled
+ */
+public class JobHandle {
+    private static final Logger logger = LoggerFactory.getLogger(JobHandle.class);
+
+    private final long jobId;
+    private final List<ClientCallStreamObserver<JobRequest>> calls;
+    private String cancelReason;
+
+    public JobHandle(long jobId) {
+        this.jobId = jobId;
+        this.calls = new ArrayList<>();
+    }
+
+    synchronized void addCall(ClientCallStreamObserver<JobRequest> call) {
+        if (cancelReason != null) {
+            // the job is cancelled before the call starts
+            call.cancel(cancelReason, null);
+        } else {
+            calls.add(call);
+        }
+    }
+
+    /**
+     * cancel the calls of the job which are not finished yet, it is no-op if the job is already
+     * cancelled
+     */
+    public synchronized void cancel(String reason) {
+        if (cancelReason != null) {
+            return;
+        }
+        cancelReason = reason;
+        logger.info("cancel job {}, reason: {}", jobId, reason);
+        for (ClientCallStreamObserver<JobRequest> call : calls) {
+            call.cancel(reason, null);
+        }
+        calls.clear();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+}
@@ -19,15 +19,18 @@ package com.alibaba.pegasus;
 import com.alibaba.pegasus.intf.ResultProcessor;
 import com.alibaba.pegasus.service.protocol.JobServiceGrpc;
 import com.alibaba.pegasus.service.protocol.JobServiceGrpc.JobServiceStub;
+import com.alibaba.pegasus.service.protocol.PegasusClient.JobConfig;
 import com.alibaba.pegasus.service.protocol.PegasusClient.JobRequest;
 import com.alibaba.pegasus.service.protocol.PegasusClient.JobResponse;
 
 import io.grpc.Status;
-import io.grpc.stub.StreamObserver;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -48,17 +51,46 @@ public class RpcClient {
                         .collect(Collectors.toList());
     }
 
-    public void submit(JobRequest jobRequest, ResultProcessor processor, long rpcTimeoutMS) {
-        AtomicInteger counter = new AtomicInteger(this.channels.size());
+    /**
+     * submit the job to the servers it runs on, which are all servers unless a part of servers is
+     * given in the job config, results are streamed back to the processor
+     *
+     * @return the handle to cancel the job
+     */
+    public JobHandle submit(JobRequest jobRequest, ResultProcessor processor, long rpcTimeoutMS) {
+        List<JobServiceStub> targetStubs = getTargetStubs(jobRequest.getConf());
+        AtomicInteger counter = new AtomicInteger(targetStubs.size());
         AtomicBoolean finished = new AtomicBoolean(false);
-        serviceStubs.forEach(
+        JobHandle handle = new JobHandle(jobRequest.getConf().getJobId());
+        targetStubs.forEach(
                 asyncStub -> {
                     asyncStub
                             .withDeadlineAfter(rpcTimeoutMS, TimeUnit.MILLISECONDS)
                             .submit(
                                     jobRequest,
-                                    new JobResponseObserver(processor, finished, counter));
+                                    new JobResponseObserver(processor, finished, counter, handle));
                 });
+        return handle;
+    }
+
+    // the server id is the index of its channel
+    private List<JobServiceStub> getTargetStubs(JobConfig jobConfig) {
+        if (jobConfig.getServersCase() != JobConfig.ServersCase.PART
+                || jobConfig.getPart().getServersCount() == 0) {
+            return serviceStubs;
+        }
+        List<JobServiceStub> targetStubs = new ArrayList<>();
+        for (long serverId : jobConfig.getPart().getServersList()) {
+            if (serverId < 0 || serverId >= serviceStubs.size()) {
+                throw new IllegalArgumentException(
+                        "server id "
+                                + serverId
+                                + " is out of range, server num is "
+                                + serviceStubs.size());
+            }
+            targetStubs.add(serviceStubs.get((int) serverId));
+        }
+        return targetStubs;
     }
 
     public void shutdown() throws InterruptedException {
@@ -67,16 +99,27 @@ public class RpcClient {
         }
     }
 
-    private static class JobResponseObserver implements StreamObserver<JobResponse> {
+    private static class JobResponseObserver
+            implements ClientResponseObserver<JobRequest, JobResponse> {
         private final ResultProcessor processor;
         private final AtomicBoolean finished;
         private final AtomicInteger counter;
+        private final JobHandle handle;
 
         public JobResponseObserver(
-                ResultProcessor processor, AtomicBoolean finished, AtomicInteger counter) {
+                ResultProcessor processor,
+                AtomicBoolean finished,
+                AtomicInteger counter,
+                JobHandle handle) {
             this.processor = processor;
             this.finished = finished;
             this.counter = counter;
+            this.handle = handle;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<JobRequest> requestStream) {
+            handle.addCall(requestStream);
         }
 
         @Override
@@ -94,6 +137,8 @@ public class RpcClient {
             }
             Status status = Status.fromThrowable(throwable);
             logger.error("get job response error: {}", status);
+            // the results are incomplete, stop the job on the other servers
+            handle.cancel("job failed on one server: " + status);
             processor.error(status);
         }
 
@@ -167,8 +167,20 @@ where
         let conf = parse_conf_req(conf.unwrap());
         pegasus::wait_servers_ready(conf.servers());
         let (tx, rx) = tokio::sync::mpsc::unbounded_channel();
+        let closed = tx.clone();
         let rpc_sink = RpcSink::new(conf.job_id, tx);
         let sink = ResultSink::<Vec<u8>>::with(rpc_sink);
+        // the response stream is dropped once the client cancels the call, e.g. the query is
+        // killed or timed out in frontend, cancel the job then to stop the workers in time;
+        // it is no-op if the job is already finished when the stream is dropped;
+        let cancel_hook = sink.get_cancel_hook().clone();
+        let cancel_job_id = conf.job_id;
+        tokio::spawn(async move {
+            closed.closed().await;
+            if !cancel_hook.swap(true, Ordering::SeqCst) {
+                debug!("response stream of job {} is closed;", cancel_job_id);
+            }
+        });
         if conf.trace_enable {
             info!("submitting job({}) with id {}", conf.job_name, conf.job_id);
         }
@@ -2232,6 +2232,8 @@ mod graph {
     pub enum PathOpt {
         Arbitrary = 0,
         Simple = 1,
+        AnyShortest = 2,
+        AllShortest = 3,
     }
 
     #[allow(dead_code)]
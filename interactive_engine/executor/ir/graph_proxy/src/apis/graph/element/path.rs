@@ -97,7 +97,10 @@ impl GraphPath {
         match result_opt {
             pb::path_expand::ResultOpt::EndV => match path_opt {
                 pb::path_expand::PathOpt::Arbitrary => GraphPath::EndV((entry.into(), 1)),
-                pb::path_expand::PathOpt::Simple => {
+                // shortest paths are simple paths, which are further pruned by the hops when expanding
+                pb::path_expand::PathOpt::Simple
+                | pb::path_expand::PathOpt::AnyShortest
+                | pb::path_expand::PathOpt::AllShortest => {
                     let entry = entry.into();
                     let id = entry.id();
                     GraphPath::SimpleEndV((entry, vec![id], 1))
@@ -105,7 +108,9 @@ impl GraphPath {
             },
             pb::path_expand::ResultOpt::AllV | pb::path_expand::ResultOpt::AllVE => match path_opt {
                 pb::path_expand::PathOpt::Arbitrary => GraphPath::AllPath(vec![entry.into()]),
-                pb::path_expand::PathOpt::Simple => GraphPath::SimpleAllPath(vec![entry.into()]),
+                pb::path_expand::PathOpt::Simple
+                | pb::path_expand::PathOpt::AnyShortest
+                | pb::path_expand::PathOpt::AllShortest => GraphPath::SimpleAllPath(vec![entry.into()]),
             },
         }
     }
@@ -158,6 +163,15 @@ impl GraphPath {
         }
     }
 
+    /// The id of the start vertex, which is unknown if only the end vertex is preserved.
+    pub fn get_path_start_id(&self) -> Option<ID> {
+        match self {
+            GraphPath::AllPath(ref p) | GraphPath::SimpleAllPath(ref p) => p.first().map(|e| e.id()),
+            GraphPath::SimpleEndV((_, ref ids, _)) => ids.first().cloned(),
+            GraphPath::EndV(_) => None,
+        }
+    }
+
     pub fn take_path(self) -> Option<Vec<VertexOrEdge>> {
         match self {
             GraphPath::AllPath(p) | GraphPath::SimpleAllPath(p) => Some(p),
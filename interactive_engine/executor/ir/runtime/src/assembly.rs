@@ -38,7 +38,7 @@ use crate::error::{FnExecError, FnGenError, FnGenResult};
 use crate::process::functions::{ApplyGen, CompareFunction, FoldGen, GroupGen, JoinKeyGen, KeyFunction};
 use crate::process::operator::accum::accumulator::Accumulator;
 use crate::process::operator::accum::{SampleAccum, SampleAccumFactoryGen};
-use crate::process::operator::filter::FilterFuncGen;
+use crate::process::operator::filter::{FilterFuncGen, ShortestPathFilter};
 use crate::process::operator::flatmap::FlatMapFuncGen;
 use crate::process::operator::keyed::KeyFunctionGen;
 use crate::process::operator::map::{FilterMapFuncGen, MapFuncGen};
@@ -183,6 +183,26 @@ impl<P: PartitionInfo, C: ClusterInfo> IRJobAssembly<P, C> {
         IRJobAssembly { udf_gen }
     }
 
+    // collect the paths of a hop in each worker before pruning them to the shortest ones. Paths reaching
+    // pairs visited in previous hops are dropped when collected, so that a worker holds at most the
+    // paths it outputs for the hop.
+    fn filter_shortest(
+        stream: Stream<Record>, filter: Arc<ShortestPathFilter>, hop: usize,
+    ) -> Result<Stream<Record>, BuildJobError> {
+        let pruner = filter.clone();
+        stream
+            .fold_partition(vec![], move || {
+                let pruner = pruner.clone();
+                move |mut level: Vec<Record>, next| {
+                    if !pruner.is_pruned(hop, &next)? {
+                        level.push(next);
+                    }
+                    Ok(level)
+                }
+            })?
+            .unfold(move |level| Ok(filter.filter_level(hop, level)?.into_iter()))
+    }
+
     fn install(
         &self, mut stream: Stream<Record>, plan: &[pb::PhysicalOpr],
     ) -> Result<Stream<Record>, BuildJobError> {
@@ -550,8 +570,54 @@ impl<P: PartitionInfo, C: ClusterInfo> IRJobAssembly<P, C> {
                             range
                         ))))?;
                     }
+                    let path_opt = pb::path_expand::PathOpt::from_i32(path.path_opt).ok_or(
+                        FnGenError::from(ParsePbError::ParseError(format!(
+                            "invalid path_opt {:?} in PathExpand Operator",
+                            path.path_opt
+                        ))),
+                    )?;
+                    let mut path_start = path.clone();
+                    // shortest paths are expanded from the distinct start vertices, and then joined back
+                    // to the input records by their start vertices
+                    let mut shortest = None;
+                    if ShortestPathFilter::is_shortest(path_opt) {
+                        if path.condition.is_some() {
+                            Err(FnGenError::unsupported_error(
+                                "UNTIL condition in shortest PathExpand Operator",
+                            ))?;
+                        }
+                        // the start token is kept in a column that the base expand does not write
+                        let token_tag = base
+                            .edge_expand
+                            .as_ref()
+                            .and_then(|e| e.alias)
+                            .max(base.get_v.as_ref().and_then(|v| v.alias))
+                            .map(|alias| alias + 1)
+                            .unwrap_or(0);
+                        let filter = Arc::new(ShortestPathFilter::new(
+                            path_opt,
+                            token_tag,
+                            pegasus::get_current_worker().index,
+                        ));
+                        let start_tag = path.start_tag;
+                        let (input_stream, start_stream) = stream.copied()?;
+                        let start_filter = filter.clone();
+                        stream = start_stream
+                            .filter_map(move |input| Ok(ShortestPathFilter::get_start(&input, start_tag)))?
+                            .key_by(|start| Ok((ShortestPathFilter::get_start_key(&start, None)?, start)))?
+                            .dedup()?
+                            .map(move |pair| Ok(start_filter.tag_start(pair.value)))?;
+                        // `dedup` shuffles the starts by the hash of their ids, send them back to the
+                        // workers owning their partitions to be expanded from
+                        let router = self
+                            .udf_gen
+                            .gen_shuffle(&pb::repartition::Shuffle { shuffle_key: None })?;
+                        stream = stream.repartition(move |t| router.route(t));
+                        path_start.start_tag = None;
+                        shortest = Some((input_stream, filter));
+                    }
                     // path start
-                    let path_start_func = self.udf_gen.gen_path_start(path.clone())?;
+                    let path_start_func = self.udf_gen.gen_path_start(path_start)?;
                     stream = stream
                         .filter_map_with_name("PathStart", move |input| path_start_func.exec(input))?;
                     // path base expand
@@ -599,28 +665,76 @@ impl<P: PartitionInfo, C: ClusterInfo> IRJobAssembly<P, C> {
                         base_expand_plan.push(getv.clone().into());
                     }
 
-                    for _ in 0..range.lower {
-                        stream = self.install(stream, &base_expand_plan)?;
-                    }
-                    let times = range.upper - range.lower - 1;
-                    if times > 0 {
-                        if let Some(condition) = path.condition.as_ref() {
-                            let mut until = IterCondition::max_iters(times as u32);
-                            let func = self
-                                .udf_gen
-                                .gen_filter(algebra_pb::Select { predicate: Some(condition.clone()) })?;
-                            until.set_until(func);
-                            // Notice that if UNTIL condition set, we expand path without `Emit`
-                            stream = stream
-                                .iterate_until(until, |start| self.install(start, &base_expand_plan[..]))?;
-                        } else {
-                            let (mut hop_stream, copied_stream) = stream.copied()?;
-                            stream = copied_stream;
-                            for _ in 0..times {
+                    if let Some((input_stream, filter)) = shortest {
+                        // expand hop by hop, and each hop is pruned by the pairs of (start, end)
+                        // vertices that are reached in previous hops, which terminates the
+                        // expansion once no shorter path can be found. The pairs are visited per
+                        // worker, thus the paths of each hop are shuffled to the worker of their end
+                        // vertices before being filtered, which the base expand does only if it
+                        // needs repartition
+                        let shuffle_end = !matches!(prev_op_kind, OpKind::Repartition(_));
+                        let mut hop_stream = Self::filter_shortest(stream, filter.clone(), 0)?;
+                        let mut shortest_stream: Option<Stream<Record>> = None;
+                        for hop in 0..range.upper {
+                            if hop > 0 {
                                 hop_stream = self.install(hop_stream, &base_expand_plan[..])?;
+                                if shuffle_end {
+                                    let router = self
+                                        .udf_gen
+                                        .gen_shuffle(&pb::repartition::Shuffle { shuffle_key: None })?;
+                                    hop_stream = hop_stream.repartition(move |t| router.route(t));
+                                }
+                                hop_stream =
+                                    Self::filter_shortest(hop_stream, filter.clone(), hop as usize)?;
+                            }
+                            if hop >= range.lower {
                                 let copied = hop_stream.copied()?;
                                 hop_stream = copied.0;
-                                stream = stream.merge(copied.1)?;
+                                shortest_stream = Some(match shortest_stream {
+                                    Some(shortest_stream) => shortest_stream.merge(copied.1)?,
+                                    None => copied.1,
+                                });
+                            }
+                        }
+                        // the range has been checked to be non-empty
+                        let shortest_stream = shortest_stream
+                            .unwrap()
+                            .key_by(move |path| Ok((filter.get_expanded_start_id(&path)?, path)))?;
+                        let start_tag = path.start_tag;
+                        stream = input_stream
+                            .filter(move |input| {
+                                Ok(ShortestPathFilter::get_start_id(input, start_tag).is_some())
+                            })?
+                            .key_by(move |input| {
+                                Ok((ShortestPathFilter::get_start_key(&input, start_tag)?, input))
+                            })?
+                            .inner_join(shortest_stream)?
+                            .map(|(input, path)| ShortestPathFilter::join_path(input.value, path.value))?;
+                    } else {
+                        for _ in 0..range.lower {
+                            stream = self.install(stream, &base_expand_plan)?;
+                        }
+                        let times = range.upper - range.lower - 1;
+                        if times > 0 {
+                            if let Some(condition) = path.condition.as_ref() {
+                                let mut until = IterCondition::max_iters(times as u32);
+                                let func = self
+                                    .udf_gen
+                                    .gen_filter(algebra_pb::Select { predicate: Some(condition.clone()) })?;
+                                until.set_until(func);
+                                // Notice that if UNTIL condition set, we expand path without `Emit`
+                                stream = stream.iterate_until(until, |start| {
+                                    self.install(start, &base_expand_plan[..])
+                                })?;
+                            } else {
+                                let (mut hop_stream, copied_stream) = stream.copied()?;
+                                stream = copied_stream;
+                                for _ in 0..times {
+                                    hop_stream = self.install(hop_stream, &base_expand_plan[..])?;
+                                    let copied = hop_stream.copied()?;
+                                    hop_stream = copied.0;
+                                    stream = stream.merge(copied.1)?;
+                                }
                             }
                         }
                     }
@@ -14,12 +14,15 @@
 //! limitations under the License.
 mod coin;
 mod select;
+mod shortest_path;
 
 use pegasus::api::function::FilterFunction;
 
 use crate::error::FnGenResult;
 use crate::process::record::Record;
 
+pub use shortest_path::ShortestPathFilter;
+
 pub trait FilterFuncGen {
     fn gen_filter(self) -> FnGenResult<Box<dyn FilterFunction<Record>>>;
 }
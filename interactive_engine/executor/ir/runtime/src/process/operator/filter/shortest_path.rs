@@ -0,0 +1,340 @@
+//
+//! Copyright 2023 Alibaba Group Holding Limited.
+//!
+//! Licensed under the Apache License, Version 2.0 (the "License");
+//! you may not use this file except in compliance with the License.
+//! You may obtain a copy of the License at
+//!
+//! http://www.apache.org/licenses/LICENSE-2.0
+//!
+//! Unless required by applicable law or agreed to in writing, software
+//! distributed under the License is distributed on an "AS IS" BASIS,
+//! WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//! See the License for the specific language governing permissions and
+//! limitations under the License.
+
+use std::sync::atomic::{AtomicU64, Ordering};
+use std::sync::Mutex;
+
+use ahash::HashMap;
+use dyn_type::Object;
+use graph_proxy::apis::{GraphElement, ID};
+use ir_common::generated::physical as pb;
+use ir_common::KeyId;
+use pegasus::api::function::FnResult;
+
+use crate::error::FnExecError;
+use crate::process::entry::{DynEntry, Entry};
+use crate::process::record::Record;
+
+/// Prune the paths of a level-synchronous path expansion to the shortest ones.
+///
+/// The expansion starts from distinct start vertices, each of which is given a token that is unique
+/// in the job, so that starts in different scopes (e.g., of an apply) never share the pruning.
+/// The shortest paths are joined back to the input records by their start vertices afterwards,
+/// which keeps all the input records and their other columns.
+///
+/// All the paths expanded in the same hop are collected before filtering, and the paths are
+/// shuffled to the worker of their end vertices, thus the first hop that reaches an end vertex
+/// from a start is the shortest one. Paths reaching a visited pair of (start, end) in later
+/// hops are dropped, which also stops them from being expanded any further.
+///
+/// The pairs visited are kept until the job ends. Within a hop, a worker buffers the paths that
+/// reach pairs not visited in previous hops, i.e., at most the paths it outputs for that hop.
+#[derive(Debug)]
+pub struct ShortestPathFilter {
+    path_opt: pb::path_expand::PathOpt,
+    // the column of the token of the start in the expanded records, followed by the column of the
+    // start vertex, as the start is not preserved in the paths of `EndV`
+    token_tag: KeyId,
+    // the hop that each pair of (start token, end vertex) is first reached in
+    visited: Mutex<HashMap<(u64, ID), usize>>,
+    // the worker index in the highest bits, and a sequence in the rest
+    next_token: AtomicU64,
+}
+
+const TOKEN_WORKER_SHIFT: u32 = 40;
+
+impl ShortestPathFilter {
+    pub fn new(path_opt: pb::path_expand::PathOpt, token_tag: KeyId, worker_index: u32) -> Self {
+        ShortestPathFilter {
+            path_opt,
+            token_tag,
+            visited: Mutex::new(HashMap::default()),
+            next_token: AtomicU64::new((worker_index as u64) << TOKEN_WORKER_SHIFT),
+        }
+    }
+
+    pub fn is_shortest(path_opt: pb::path_expand::PathOpt) -> bool {
+        path_opt == pb::path_expand::PathOpt::AnyShortest
+            || path_opt == pb::path_expand::PathOpt::AllShortest
+    }
+
+    /// The id of the start vertex of an input record, which is the join key of the shortest paths.
+    pub fn get_start_id(record: &Record, start_tag: Option<KeyId>) -> Option<ID> {
+        record
+            .get(start_tag)
+            .and_then(|entry| entry.as_vertex())
+            .map(|v| v.id())
+    }
+
+    /// The id of the start vertex, which is expected to exist after the records are filtered by
+    /// `get_start_id`.
+    pub fn get_start_key(record: &Record, start_tag: Option<KeyId>) -> FnResult<ID> {
+        let id = Self::get_start_id(record, start_tag).ok_or(FnExecError::unexpected_data_error(
+            &format!("the start vertex of record {:?} is not found in shortest path expansion", record),
+        ))?;
+        Ok(id)
+    }
+
+    /// A record of the start vertex only, to be expanded from.
+    pub fn get_start(record: &Record, start_tag: Option<KeyId>) -> Option<Record> {
+        record
+            .get(start_tag)
+            .and_then(|entry| entry.as_vertex())
+            .map(|v| Record::new(v.clone(), None))
+    }
+
+    /// Tag a distinct start with a new token, the start vertex is kept as the head of the record.
+    pub fn tag_start(&self, mut start: Record) -> Record {
+        let token = self.next_token.fetch_add(1, Ordering::Relaxed);
+        let head = start.get(None).cloned();
+        let columns = start.get_columns_mut();
+        columns.insert(self.token_tag as usize, DynEntry::new(Object::from(token)));
+        if let Some(head) = head {
+            columns.insert(self.token_tag as usize + 1, head);
+        }
+        start
+    }
+
+    /// The id of the start vertex of an expanded record, which is the join key of the input records.
+    pub fn get_expanded_start_id(&self, record: &Record) -> FnResult<ID> {
+        let id = record
+            .get(Some(self.token_tag + 1))
+            .and_then(|entry| entry.as_vertex())
+            .map(|v| v.id())
+            .ok_or(FnExecError::unexpected_data_error(&format!(
+                "the start vertex is not preserved in record {:?} in shortest path expansion",
+                record
+            )))?;
+        Ok(id)
+    }
+
+    fn get_token(&self, record: &Record) -> FnResult<u64> {
+        let token = record
+            .get(Some(self.token_tag))
+            .and_then(|entry| entry.as_object())
+            .and_then(|obj| obj.as_u64().ok())
+            .ok_or(FnExecError::unexpected_data_error(&format!(
+                "the start token is not preserved in record {:?} in shortest path expansion",
+                record
+            )))?;
+        Ok(token)
+    }
+
+    fn get_key(&self, record: &Record) -> FnResult<(u64, ID)> {
+        let path = record
+            .get(None)
+            .and_then(|entry| entry.as_graph_path())
+            .ok_or(FnExecError::unexpected_data_error(&format!(
+                "the head of record {:?} is not a path in shortest path expansion",
+                record
+            )))?;
+        Ok((self.get_token(record)?, path.get_path_end().id()))
+    }
+
+    /// Whether the path can be dropped before its hop is collected, as its pair of (start, end)
+    /// has been reached in a previous hop.
+    pub fn is_pruned(&self, hop: usize, record: &Record) -> FnResult<bool> {
+        let key = self.get_key(record)?;
+        let visited = self
+            .visited
+            .lock()
+            .map_err(|e| FnExecError::unexpected_data_error(&format!("{:?}", e)))?;
+        Ok(visited
+            .get(&key)
+            .map(|first_hop| *first_hop < hop)
+            .unwrap_or(false))
+    }
+
+    /// Filter the paths of the given hop, the head of each record is expected to be the path.
+    pub fn filter_level(&self, hop: usize, level: Vec<Record>) -> FnResult<Vec<Record>> {
+        let mut keys = Vec::with_capacity(level.len());
+        for record in level.iter() {
+            keys.push(self.get_key(record)?);
+        }
+        let mut visited = self
+            .visited
+            .lock()
+            .map_err(|e| FnExecError::unexpected_data_error(&format!("{:?}", e)))?;
+        let mut shortest = Vec::with_capacity(level.len());
+        for (record, key) in level.into_iter().zip(keys.into_iter()) {
+            match visited.get(&key) {
+                Some(first_hop) => {
+                    // ties of the shortest hop are kept for all shortest paths
+                    if *first_hop == hop && self.path_opt == pb::path_expand::PathOpt::AllShortest {
+                        shortest.push(record);
+                    }
+                }
+                None => {
+                    visited.insert(key, hop);
+                    shortest.push(record);
+                }
+            }
+        }
+        Ok(shortest)
+    }
+
+    /// Replace the head of the input record by the shortest path expanded from its start.
+    pub fn join_path(mut input: Record, expanded: Record) -> FnResult<Record> {
+        let path = expanded
+            .get(None)
+            .cloned()
+            .ok_or(FnExecError::unexpected_data_error(&format!(
+                "the head of record {:?} is not a path in shortest path expansion",
+                expanded
+            )))?;
+        input.append_arc_entry(path, None);
+        Ok(input)
+    }
+}
+
+#[cfg(test)]
+mod tests {
+    use graph_proxy::apis::{DynDetails, GraphElement, GraphPath, Vertex, ID};
+    use ir_common::generated::physical as pb;
+    use ir_common::KeyId;
+
+    use super::ShortestPathFilter;
+    use crate::process::entry::Entry;
+    use crate::process::record::Record;
+
+    const TAG_X: KeyId = 0;
+    const TAG_A: KeyId = 1;
+    const TOKEN_TAG: KeyId = 2;
+
+    fn vertex(id: ID) -> Vertex {
+        Vertex::new(id, None, DynDetails::default())
+    }
+
+    fn expand(start: &Record, ids: &[ID]) -> Record {
+        let mut record = start.clone();
+        let head = record.get(None).unwrap().as_vertex().unwrap().clone();
+        let mut path = GraphPath::new(
+            head,
+            pb::path_expand::PathOpt::AnyShortest,
+            pb::path_expand::ResultOpt::AllV,
+        );
+        for id in ids {
+            path.append(vertex(*id));
+        }
+        record.append(path, None);
+        record
+    }
+
+    fn end_id(record: &Record) -> ID {
+        record
+            .get(None)
+            .unwrap()
+            .as_graph_path()
+            .unwrap()
+            .get_path_end()
+            .id()
+    }
+
+    // MATCH (x)-->(a), shortestPath((a)-[*0..]-(b)), with two rows of x sharing the same a
+    #[test]
+    fn shortest_keeps_input_rows_test() {
+        let filter = ShortestPathFilter::new(pb::path_expand::PathOpt::AnyShortest, TOKEN_TAG, 0);
+        let mut row1 = Record::new(vertex(10), Some(TAG_X));
+        row1.append(vertex(1), Some(TAG_A));
+        let mut row2 = Record::new(vertex(20), Some(TAG_X));
+        row2.append(vertex(1), Some(TAG_A));
+        assert_eq!(ShortestPathFilter::get_start_id(&row1, Some(TAG_A)), Some(1));
+        assert_eq!(ShortestPathFilter::get_start_id(&row2, Some(TAG_A)), Some(1));
+
+        // the starts are deduplicated before expanding
+        let start = filter.tag_start(ShortestPathFilter::get_start(&row1, Some(TAG_A)).unwrap());
+        let hop0 = filter
+            .filter_level(0, vec![expand(&start, &[])])
+            .unwrap();
+        assert_eq!(hop0.len(), 1);
+        let hop1 = filter
+            .filter_level(1, vec![expand(&start, &[2]), expand(&start, &[3])])
+            .unwrap();
+        assert_eq!(hop1.len(), 2);
+        assert_eq!(filter.get_expanded_start_id(&hop1[0]).unwrap(), 1);
+        // (1, 2) is reached in hop 1 and (1, 1) in hop 0
+        assert!(filter
+            .is_pruned(2, &expand(&start, &[3, 2]))
+            .unwrap());
+        assert!(filter
+            .is_pruned(2, &expand(&start, &[3, 1]))
+            .unwrap());
+        assert!(!filter
+            .is_pruned(2, &expand(&start, &[3, 4]))
+            .unwrap());
+
+        // both input rows are joined with each shortest path
+        let mut results = vec![];
+        for path in hop0.iter().chain(hop1.iter()) {
+            for row in vec![row1.clone(), row2.clone()] {
+                results.push(ShortestPathFilter::join_path(row, path.clone()).unwrap());
+            }
+        }
+        assert_eq!(results.len(), 6);
+        let mut pairs: Vec<(ID, ID)> = results
+            .iter()
+            .map(|r| (r.get(Some(TAG_X)).unwrap().as_vertex().unwrap().id(), end_id(r)))
+            .collect();
+        pairs.sort();
+        assert_eq!(pairs, vec![(10, 1), (10, 2), (10, 3), (20, 1), (20, 2), (20, 3)]);
+        for result in results {
+            assert!(result.get(Some(TOKEN_TAG)).is_none());
+            assert!(result.get(Some(TOKEN_TAG + 1)).is_none());
+        }
+    }
+
+    #[test]
+    fn shortest_distinct_tokens_test() {
+        // the same start vertex in two scopes gets two tokens, which do not prune each other
+        let filter = ShortestPathFilter::new(pb::path_expand::PathOpt::AnyShortest, TOKEN_TAG, 3);
+        let start1 = filter.tag_start(Record::new(vertex(1), None));
+        let start2 = filter.tag_start(Record::new(vertex(1), None));
+        let hop1 = filter
+            .filter_level(1, vec![expand(&start1, &[2])])
+            .unwrap();
+        assert_eq!(hop1.len(), 1);
+        assert!(filter
+            .is_pruned(2, &expand(&start1, &[3, 2]))
+            .unwrap());
+        assert!(!filter
+            .is_pruned(2, &expand(&start2, &[3, 2]))
+            .unwrap());
+        let hop2 = filter
+            .filter_level(2, vec![expand(&start2, &[3, 2])])
+            .unwrap();
+        assert_eq!(hop2.len(), 1);
+    }
+
+    #[test]
+    fn all_shortest_keeps_ties_test() {
+        let filter = ShortestPathFilter::new(pb::path_expand::PathOpt::AllShortest, TOKEN_TAG, 0);
+        let start = filter.tag_start(Record::new(vertex(1), None));
+        let hop2 = filter
+            .filter_level(2, vec![expand(&start, &[2, 4]), expand(&start, &[3, 4])])
+            .unwrap();
+        assert_eq!(hop2.len(), 2);
+        let hop3 = filter
+            .filter_level(3, vec![expand(&start, &[5, 6, 4])])
+            .unwrap();
+        assert!(hop3.is_empty());
+
+        let filter = ShortestPathFilter::new(pb::path_expand::PathOpt::AnyShortest, TOKEN_TAG, 0);
+        let start = filter.tag_start(Record::new(vertex(1), None));
+        let hop2 = filter
+            .filter_level(2, vec![expand(&start, &[2, 4]), expand(&start, &[3, 4])])
+            .unwrap();
+        assert_eq!(hop2.len(), 1);
+    }
+}
@@ -57,10 +57,15 @@ impl<P: PartitionInfo, C: ClusterInfo> Router for DefaultRouter<P, C> {
     type C = C;
     fn route(&self, data: PartitionKeyId) -> GraphProxyResult<WorkerId> {
         let partition_id = self.partition_info.get_partition_id(&data)?;
-        let server_id = self
-            .partition_info
-            .get_server_id(partition_id)?;
         let servers_num = self.cluster_info.get_server_num()?;
+        // A job submitted to a single server (e.g., a point lookup sent only to the server owning the
+        // vertices) numbers its workers from 0 on that server, whatever the server's id is.
+        let server_id = if servers_num == 1 {
+            0
+        } else {
+            self.partition_info
+                .get_server_id(partition_id)?
+        };
         let magic_num = (data as u32) / servers_num;
         let workers_num = self.cluster_info.get_local_worker_num()?;
         // The route logics is as follows:
@@ -239,4 +239,10 @@ pub trait GraphBackup {
     ///
     /// Returns the available backup id vector(may be empty)。
     fn get_backup_list(&self) -> Vec<BackupId>;
+
+    /// Get the total bytes of files in the backup of `backup_id`, including the files shared with
+    /// other backups. This interface is thread safe.
+    ///
+    /// If `backup_id` is not available, `GraphError` will be returned.
+    fn get_backup_size(&self, backup_id: BackupId) -> GraphResult<u64>;
 }
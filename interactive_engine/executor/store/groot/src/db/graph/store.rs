@@ -62,6 +62,10 @@ impl GraphBackup for GraphBackupEngine {
     fn get_backup_list(&self) -> Vec<BackupId> {
         self.engine.get_backup_list()
     }
+
+    fn get_backup_size(&self, backup_id: BackupId) -> GraphResult<u64> {
+        self.engine.get_backup_size(backup_id)
+    }
 }
 
 impl MultiVersionGraph for GraphStore {
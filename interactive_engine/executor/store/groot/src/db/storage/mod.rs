@@ -24,6 +24,7 @@ pub trait ExternalStorageBackup {
     fn restore_from_backup(&mut self, restore_path: &str, backup_id: BackupId) -> GraphResult<()>;
     fn verify_backup(&self, backup_id: BackupId) -> GraphResult<()>;
     fn get_backup_list(&self) -> Vec<BackupId>;
+    fn get_backup_size(&self, backup_id: BackupId) -> GraphResult<u64>;
 }
 
 pub enum StorageRes {
@@ -11,6 +11,8 @@ use crate::db::storage::{KvPair, RawBytes};
 
 pub struct RocksDB {
     db: Arc<DB>,
+    // bytes per second of copying files in backups of this partition, 0 for unlimited
+    backup_rate_limit: u64,
 }
 
 pub struct RocksDBBackupEngine {
@@ -25,7 +27,23 @@ impl RocksDB {
             let msg = format!("open rocksdb at {} failed, because {}", path, e.into_string());
             gen_graph_err!(GraphErrorCode::ExternalStorageError, msg, open, options, path)
         })?;
-        let ret = RocksDB { db: Arc::new(db) };
+        let backup_rate_limit = options
+            .get("store.backup.rate.limit.mb.per.second")
+            .map(|conf_str| conf_str.parse::<u64>().unwrap() * 1024 * 1024)
+            .unwrap_or(0);
+        // the limit is the budget of the whole store, at most `store.backup.thread.count`
+        // partitions are copied at the same time, each of them takes an equal share
+        let backup_thread_count = options
+            .get("store.backup.thread.count")
+            .map(|conf_str| conf_str.parse::<u64>().unwrap())
+            .unwrap_or(1)
+            .max(1);
+        let backup_rate_limit = if backup_rate_limit > 0 {
+            (backup_rate_limit / backup_thread_count).max(1)
+        } else {
+            0
+        };
+        let ret = RocksDB { db: Arc::new(db), backup_rate_limit };
         Ok(ret)
     }
 }
@@ -114,7 +132,7 @@ impl ExternalStorage for RocksDB {
     }
 
     fn open_backup_engine(&self, backup_path: &str) -> GraphResult<Box<dyn ExternalStorageBackup>> {
-        let backup_opts = BackupEngineOptions::new(backup_path).map_err(|e| {
+        let mut backup_opts = BackupEngineOptions::new(backup_path).map_err(|e| {
             let msg = format!(
                 "Gen BackupEngineOptions error for path {}, because {}",
                 backup_path.to_string(),
@@ -122,6 +140,9 @@ impl ExternalStorage for RocksDB {
             );
             gen_graph_err!(GraphErrorCode::ExternalStorageError, msg)
         })?;
+        if self.backup_rate_limit > 0 {
+            backup_opts.set_backup_rate_limit(self.backup_rate_limit);
+        }
         let env = Env::new().map_err(|e| {
             let msg = format!("Gen rocksdb Env failed because {}", e.into_string());
             gen_graph_err!(GraphErrorCode::ExternalStorageError, msg)
@@ -232,6 +253,18 @@ impl ExternalStorageBackup for RocksDBBackupEngine {
             .map(|info| info.backup_id as BackupId)
             .collect()
     }
+
+    fn get_backup_size(&self, backup_id: BackupId) -> GraphResult<u64> {
+        self.backup_engine
+            .get_backup_info()
+            .into_iter()
+            .find(|info| info.backup_id == backup_id as u32)
+            .map(|info| info.size)
+            .ok_or_else(|| {
+                let msg = format!("rocksdb backup {} not found", backup_id);
+                gen_graph_err!(GraphErrorCode::ExternalStorageError, msg)
+            })
+    }
 }
 
 #[allow(unused_variables)]
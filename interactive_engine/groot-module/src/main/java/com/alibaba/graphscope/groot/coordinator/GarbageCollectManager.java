@@ -2,73 +2,248 @@ package com.alibaba.graphscope.groot.coordinator;
 
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.CoordinatorConfig;
 import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
+import com.alibaba.graphscope.groot.metrics.MetricsAgent;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
-public class GarbageCollectManager {
+/**
+ * Tracks the minimum query snapshot reported by every frontend and pushes the derived GC
+ * watermark (offline version) to stores. Stores are only contacted when the watermark moves, and
+ * every store is synchronized independently so that a slow store does not delay the others. A
+ * low frequency resync task retries stores whose last synchronization failed.
+ */
+public class GarbageCollectManager implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(GarbageCollectManager.class);
+
+    public static final String GC_MIN_QUERY_SNAPSHOT_ID = "gc.min.query.snapshot.id";
+    public static final String GC_STORE_OFFLINE_VERSION = "gc.store.offline.version";
+    public static final String GC_STORE_RETAINED_VERSION_COUNT = "gc.store.retained.version.count";
+
+    // offline version is min query snapshot id - 1, which is -1 for snapshot 0, so -1 can not be
+    // used as the placeholder before any snapshot is reported or acknowledged
+    private static final long UNINITIALIZED = Long.MIN_VALUE;
+
     private Configs configs;
     private ConcurrentHashMap<Integer, Long> hashMap;
     private RoleClients<CoordinatorSnapshotClient> clients;
-    private ScheduledExecutorService updateStoreMinSnapshotScheduler;
+    private int storeCount;
+
+    private volatile long offlineVersion = UNINITIALIZED;
+    private volatile long maxQuerySnapshotId = UNINITIALIZED;
+    // last offline version acknowledged by each store
+    private final AtomicLongArray storeOfflineVersions;
+    private AtomicBoolean[] storeSyncing;
+
+    private ExecutorService syncExecutor;
+    private ScheduledExecutorService resyncScheduler;
 
     public GarbageCollectManager(Configs configs, RoleClients<CoordinatorSnapshotClient> clients) {
         this.configs = configs;
         this.hashMap = new ConcurrentHashMap<>();
         this.clients = clients;
+        this.storeCount = CommonConfig.STORE_NODE_COUNT.get(configs);
+        this.storeOfflineVersions = new AtomicLongArray(this.storeCount);
+        this.storeSyncing = new AtomicBoolean[this.storeCount];
+        for (int i = 0; i < this.storeCount; i++) {
+            this.storeOfflineVersions.set(i, UNINITIALIZED);
+            this.storeSyncing[i] = new AtomicBoolean(false);
+        }
+        initMetrics();
     }
 
     public void put(int frontendId, long snapshotId) {
-        hashMap.put(frontendId, snapshotId);
+        Long prev = hashMap.put(frontendId, snapshotId);
+        if (prev != null && prev == snapshotId) {
+            return;
+        }
+        updateOfflineVersion();
+    }
+
+    private synchronized void updateOfflineVersion() {
+        if (hashMap.isEmpty()) {
+            return;
+        }
+        long minSnapshotId = Long.MAX_VALUE;
+        long maxSnapshotId = Long.MIN_VALUE;
+        for (long snapshotId : hashMap.values()) {
+            minSnapshotId = Math.min(minSnapshotId, snapshotId);
+            maxSnapshotId = Math.max(maxSnapshotId, snapshotId);
+        }
+        this.maxQuerySnapshotId = maxSnapshotId;
+        long newOfflineVersion = minSnapshotId - 1;
+        if (newOfflineVersion == this.offlineVersion) {
+            return;
+        }
+        this.offlineVersion = newOfflineVersion;
+        if (this.syncExecutor == null) {
+            // not started yet, stores will be synchronized once started
+            return;
+        }
+        if (newOfflineVersion % 100 == 0) {
+            logger.info("Offline version updated to {}", newOfflineVersion);
+        }
+        for (int i = 0; i < this.storeCount; i++) {
+            syncStore(i);
+        }
+    }
+
+    private void syncStore(int storeId) {
+        if (!storeSyncing[storeId].compareAndSet(false, true)) {
+            // the running task will pick up the latest offline version before it finishes
+            return;
+        }
+        try {
+            this.syncExecutor.execute(() -> doSyncStore(storeId));
+        } catch (Exception e) {
+            storeSyncing[storeId].set(false);
+            logger.error("submit synchronize task of store [" + storeId + "] failed", e);
+        }
+    }
+
+    private void doSyncStore(int storeId) {
+        boolean success = true;
+        try {
+            long target;
+            while ((target = this.offlineVersion) != storeOfflineVersions.get(storeId)) {
+                clients.getClient(storeId).synchronizeSnapshot(target);
+                storeOfflineVersions.set(storeId, target);
+            }
+        } catch (Exception e) {
+            success = false;
+            logger.error(
+                    "synchronize offline version to store [" + storeId + "] failed, will retry", e);
+        } finally {
+            storeSyncing[storeId].set(false);
+        }
+        // watermark may have moved after the loop checked it, but before the flag was released
+        if (success && this.offlineVersion != storeOfflineVersions.get(storeId)) {
+            syncStore(storeId);
+        }
+    }
+
+    private void resyncLaggingStores() {
+        long target = this.offlineVersion;
+        if (target == UNINITIALIZED) {
+            return;
+        }
+        for (int i = 0; i < this.storeCount; i++) {
+            if (storeOfflineVersions.get(i) != target) {
+                syncStore(i);
+            }
+        }
     }
 
     public void start() {
-        this.updateStoreMinSnapshotScheduler =
+        this.syncExecutor =
+                Executors.newFixedThreadPool(
+                        Math.max(
+                                1,
+                                Math.min(
+                                        this.storeCount,
+                                        CoordinatorConfig.GC_SYNC_THREAD_COUNT.get(configs))),
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "store-min-snapshot-sync", logger));
+        this.resyncScheduler =
                 Executors.newSingleThreadScheduledExecutor(
                         ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
                                 "update-store-min-snapshot-scheduler", logger));
-        this.updateStoreMinSnapshotScheduler.scheduleWithFixedDelay(
+        long resyncIntervalMs = CoordinatorConfig.GC_RESYNC_INTERVAL_MS.get(configs);
+        this.resyncScheduler.scheduleWithFixedDelay(
                 () -> {
                     try {
-                        if (!hashMap.isEmpty()) {
-                            long offlineVersion = Collections.min(hashMap.values()) - 1;
-                            for (int i = 0; i < CommonConfig.STORE_NODE_COUNT.get(configs); i++) {
-                                CoordinatorSnapshotClient client = clients.getClient(i);
-                                client.synchronizeSnapshot(offlineVersion);
-                                if (i == 0 && offlineVersion % 100 == 0) {
-                                    logger.info("Offline version updated to {}", offlineVersion);
-                                }
-                            }
-                        }
+                        resyncLaggingStores();
                     } catch (Exception e) {
                         logger.error("error in updateStoreMinSnapshotScheduler, ignore", e);
                     }
                 },
                 5000L,
-                2000L,
+                resyncIntervalMs,
                 TimeUnit.MILLISECONDS);
     }
 
     public void stop() {
-        if (updateStoreMinSnapshotScheduler != null) {
-            updateStoreMinSnapshotScheduler.shutdownNow();
+        if (resyncScheduler != null) {
+            resyncScheduler.shutdownNow();
             try {
-                if (!updateStoreMinSnapshotScheduler.awaitTermination(
-                        1000, TimeUnit.MILLISECONDS)) {
+                if (!resyncScheduler.awaitTermination(1000, TimeUnit.MILLISECONDS)) {
                     logger.error("updateStoreMinSnapshotScheduler await timeout before shutdown");
                 }
             } catch (InterruptedException e) {
                 logger.error("updateStoreMinSnapshotScheduler awaitTermination exception ", e);
             }
         }
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+            try {
+                if (!syncExecutor.awaitTermination(1000, TimeUnit.MILLISECONDS)) {
+                    logger.error("storeMinSnapshotSyncExecutor await timeout before shutdown");
+                }
+            } catch (InterruptedException e) {
+                logger.error("storeMinSnapshotSyncExecutor awaitTermination exception ", e);
+            }
+        }
+    }
+
+    public long getOfflineVersion() {
+        return this.offlineVersion;
+    }
+
+    public long getStoreOfflineVersion(int storeId) {
+        return this.storeOfflineVersions.get(storeId);
+    }
+
+    @Override
+    public void initMetrics() {
+        // metrics are derived from the snapshot ids and offline versions kept by the manager
+    }
+
+    @Override
+    public Map<String, String> getMetrics() {
+        long maxSnapshotId = this.maxQuerySnapshotId;
+        List<String> offlineVersions = new ArrayList<>(this.storeCount);
+        List<Long> retainedCounts = new ArrayList<>(this.storeCount);
+        for (int i = 0; i < this.storeCount; i++) {
+            long storeOfflineVersion = storeOfflineVersions.get(i);
+            offlineVersions.add(versionToString(storeOfflineVersion));
+            retainedCounts.add(
+                    storeOfflineVersion == UNINITIALIZED
+                            ? 0L
+                            : Math.max(0L, maxSnapshotId - storeOfflineVersion));
+        }
+        long offlineVersion = this.offlineVersion;
+        Map<String, String> metrics = new HashMap<>();
+        metrics.put(
+                GC_MIN_QUERY_SNAPSHOT_ID,
+                offlineVersion == UNINITIALIZED ? "" : String.valueOf(offlineVersion + 1));
+        metrics.put(GC_STORE_OFFLINE_VERSION, String.valueOf(offlineVersions));
+        metrics.put(GC_STORE_RETAINED_VERSION_COUNT, String.valueOf(retainedCounts));
+        return metrics;
+    }
+
+    private static String versionToString(long version) {
+        return version == UNINITIALIZED ? "" : String.valueOf(version);
+    }
+
+    @Override
+    public String[] getMetricKeys() {
+        return new String[] {
+            GC_MIN_QUERY_SNAPSHOT_ID, GC_STORE_OFFLINE_VERSION, GC_STORE_RETAINED_VERSION_COUNT
+        };
     }
 }
@@ -14,6 +14,8 @@ import com.alibaba.graphscope.groot.operation.OperationBatch;
 import com.alibaba.graphscope.groot.operation.OperationBlob;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch.Builder;
+import com.alibaba.graphscope.proto.groot.WriteStoreRequest;
+import com.alibaba.graphscope.proto.groot.WriteStoreResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +24,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -39,6 +43,8 @@ public class BatchSender implements MetricsAgent {
     public static final String SEND_CALLBACK_LATENCY_PER_SECOND_MS =
             "send.callback.latency.per.second.ms";
 
+    private static final long IDLE_PARK_NANO = TimeUnit.MILLISECONDS.toNanos(100L);
+
     private MetaService metaService;
     private StoreWriter storeWriter;
 
@@ -46,8 +52,11 @@ public class BatchSender implements MetricsAgent {
     private int storeCount;
     private int sendOperationLimit;
 
+    private int windowSize;
+    private long backoffNano;
+
     private List<BlockingQueue<StoreDataBatch>> storeSendBuffer;
-    private BlockingQueue<SendTask> sendTasks;
+    private List<SendWindow> sendWindows;
 
     private Thread sendThread;
     private volatile boolean shouldStop = true;
@@ -70,17 +79,25 @@ public class BatchSender implements MetricsAgent {
         this.storeCount = CommonConfig.STORE_NODE_COUNT.get(configs);
         this.bufferSize = IngestorConfig.INGESTOR_SENDER_BUFFER_MAX_COUNT.get(configs);
         this.sendOperationLimit = IngestorConfig.INGESTOR_SENDER_OPERATION_MAX_COUNT.get(configs);
+        this.windowSize = IngestorConfig.INGESTOR_SENDER_WINDOW_SIZE.get(configs);
+        this.backoffNano =
+                TimeUnit.MILLISECONDS.toNanos(
+                        IngestorConfig.INGESTOR_SENDER_BACKOFF_MS.get(configs));
         this.receiverQueueSize = StoreConfig.STORE_QUEUE_BUFFER_SIZE.get(configs);
         initMetrics();
         metricsCollector.register(this, () -> updateMetrics());
     }
 
     public void start() {
+        // the store applies the requests of a session in order, a new session starts from sequence
+        // 0, and each start of the sender is a new session
+        String session = UUID.randomUUID().toString();
         this.storeSendBuffer = new ArrayList<>(this.storeCount);
-        this.sendTasks = new ArrayBlockingQueue<>(this.storeCount);
+        this.sendWindows = new ArrayList<>(this.storeCount);
         for (int i = 0; i < this.storeCount; i++) {
-            this.storeSendBuffer.add(new ArrayBlockingQueue<>(this.bufferSize));
-            this.sendTasks.add(new SendTask(i, null));
+            BlockingQueue<StoreDataBatch> buffer = new ArrayBlockingQueue<>(this.bufferSize);
+            this.storeSendBuffer.add(buffer);
+            this.sendWindows.add(new SendWindow(i, session, buffer));
         }
 
         this.shouldStop = false;
@@ -154,6 +171,7 @@ public class BatchSender implements MetricsAgent {
                                 logger.warn("Buffer of store [" + storeId + "] is full");
                             }
                             curBuffer.put(batchBuilder.build());
+                            wakeUpSender();
                             break;
                         } catch (InterruptedException e) {
                             logger.warn("send buffer interrupted", e);
@@ -162,99 +180,245 @@ public class BatchSender implements MetricsAgent {
                 });
     }
 
-    class SendTask {
+    /** a request sent to the store and not acknowledged yet */
+    class SendRequest {
+        WriteStoreRequest request;
+        int batchCount;
+        int operationCount;
+        // the requests before it are acknowledged when it is sent
+        long ackedBeforeSend;
+
+        public SendRequest(WriteStoreRequest request, int batchCount, int operationCount) {
+            this.request = request;
+            this.batchCount = batchCount;
+            this.operationCount = operationCount;
+        }
+    }
+
+    /**
+     * Requests to a store are pipelined, at most `windowSize` of them are in flight. The batches in
+     * flight are bounded by the credits granted in the latest response of the store. If a request
+     * is rejected or failed, the sender stops sending new ones, waits for all the responses in
+     * flight and then resends from the first unacknowledged request, the store acknowledges the
+     * already applied ones without writing them again.
+     *
+     * <p>If the store rejects a request with an expected sequence before a request that has been
+     * acknowledged, the store has lost the session, e.g., it restarted or dropped the session for
+     * being idle. The unacknowledged requests are then resent from sequence 0 in a new session.
+     */
+    class SendWindow {
         int storeId;
-        List<StoreDataBatch> dataToRetry;
+        String session;
+        BlockingQueue<StoreDataBatch> buffer;
+        // in the order of sequence
+        List<SendRequest> unacked = new ArrayList<>();
+        // count of the requests at the head of `unacked` which are sent
+        int sentCount;
+        long nextSequence;
+        // all the requests before it are acknowledged
+        long ackedSequence;
+        boolean sessionLost;
+        int inFlightCount;
+        int inFlightBatches;
+        int credits;
+        boolean needResend;
+        long backoffUntilNano;
 
-        public SendTask(int storeId, List<StoreDataBatch> dataToRetry) {
+        public SendWindow(int storeId, String session, BlockingQueue<StoreDataBatch> buffer) {
             this.storeId = storeId;
-            this.dataToRetry = dataToRetry;
+            this.session = session;
+            this.buffer = buffer;
+            this.credits = receiverQueueSize;
         }
     }
 
     private void sendBatch() {
-        SendTask sendTask;
-        try {
-            sendTask = this.sendTasks.poll(1000L, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            logger.warn("polling send task interrupted", e);
-            return;
+        boolean sent = false;
+        long now = System.nanoTime();
+        long parkNano = IDLE_PARK_NANO;
+        for (SendWindow window : this.sendWindows) {
+            List<SendRequest> toSend = new ArrayList<>();
+            synchronized (window) {
+                if (now < window.backoffUntilNano) {
+                    parkNano = Math.min(parkNano, window.backoffUntilNano - now);
+                    continue;
+                }
+                if (window.needResend) {
+                    if (window.inFlightCount > 0) {
+                        continue;
+                    }
+                    window.needResend = false;
+                    window.sentCount = 0;
+                    if (window.sessionLost) {
+                        resetSession(window);
+                    }
+                }
+                while (window.inFlightCount < this.windowSize) {
+                    SendRequest sendRequest;
+                    if (window.sentCount < window.unacked.size()) {
+                        sendRequest = window.unacked.get(window.sentCount);
+                    } else {
+                        sendRequest = pollRequest(window);
+                        if (sendRequest == null) {
+                            break;
+                        }
+                        window.unacked.add(sendRequest);
+                    }
+                    sendRequest.ackedBeforeSend = window.ackedSequence;
+                    window.sentCount++;
+                    window.inFlightCount++;
+                    window.inFlightBatches += sendRequest.batchCount;
+                    toSend.add(sendRequest);
+                }
+            }
+            for (SendRequest sendRequest : toSend) {
+                send(window, sendRequest);
+                sent = true;
+            }
         }
-        if (sendTask == null) {
-            return;
+        if (!sent) {
+            LockSupport.parkNanos(parkNano);
         }
+    }
 
-        int storeId = sendTask.storeId;
-        List<StoreDataBatch> dataToSend = sendTask.dataToRetry;
-        if (dataToSend == null) {
-            dataToSend = new ArrayList<>();
-            BlockingQueue<StoreDataBatch> buffer = this.storeSendBuffer.get(storeId);
-            StoreDataBatch dataBatch;
-            int operationCount = 0;
-            int batchCount = 0;
-            while (operationCount < this.sendOperationLimit
-                    && batchCount < this.receiverQueueSize) {
-                try {
-                    dataBatch = buffer.poll(100L, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    dataBatch = null;
-                    logger.warn("polling send buffer interrupted", e);
-                }
-                if (dataBatch == null) {
-                    break;
-                }
-                dataToSend.add(dataBatch);
-                operationCount += dataBatch.getSize();
-                batchCount++;
+    // collect batches from the buffer within the credits, the window is locked
+    private SendRequest pollRequest(SendWindow window) {
+        int batchLimit = Math.min(window.credits - window.inFlightBatches, this.receiverQueueSize);
+        if (batchLimit <= 0) {
+            if (window.inFlightCount > 0) {
+                // wait for the responses to refresh the credits
+                return null;
             }
+            // probe the store with a single batch after backoff
+            batchLimit = 1;
         }
+        WriteStoreRequest.Builder builder =
+                WriteStoreRequest.newBuilder()
+                        .setSession(window.session)
+                        .setSequence(window.nextSequence);
+        int operationCount = 0;
+        int batchCount = 0;
+        StoreDataBatch dataBatch;
+        while (operationCount < this.sendOperationLimit
+                && batchCount < batchLimit
+                && (dataBatch = window.buffer.poll()) != null) {
+            builder.addDataBatches(dataBatch.toProto());
+            operationCount += dataBatch.getSize();
+            batchCount++;
+        }
+        if (batchCount == 0) {
+            return null;
+        }
+        window.nextSequence++;
+        return new SendRequest(builder.build(), batchCount, operationCount);
+    }
 
-        if (dataToSend.size() > 0) {
-            List<StoreDataBatch> finalDataToSend = dataToSend;
-            long beforeWriteTime = System.nanoTime();
-            this.storeWriter.write(
-                    storeId,
-                    dataToSend,
-                    new CompletionCallback<Integer>() {
-                        @Override
-                        public void onCompleted(Integer res) {
-                            sendBytesMetric.add(res);
-                            sendRecordsMetric.add(
-                                    finalDataToSend.stream()
-                                            .collect(
-                                                    Collectors.summingInt(
-                                                            batch -> batch.getSize())));
-                            finish(true);
+    private void send(SendWindow window, SendRequest sendRequest) {
+        int storeId = window.storeId;
+        long beforeWriteTime = System.nanoTime();
+        this.storeWriter.writeInSession(
+                storeId,
+                sendRequest.request,
+                new CompletionCallback<WriteStoreResponse>() {
+                    @Override
+                    public void onCompleted(WriteStoreResponse res) {
+                        if (res.getSuccess()) {
+                            sendBytesMetric.add(sendRequest.request.getSerializedSize());
+                            sendRecordsMetric.add(sendRequest.operationCount);
+                        } else {
+                            logger.debug(
+                                    "request ["
+                                            + sendRequest.request.getSequence()
+                                            + "] rejected by store ["
+                                            + storeId
+                                            + "], expected ["
+                                            + res.getNextSequence()
+                                            + "]");
                         }
+                        finish(res);
+                    }
 
-                        @Override
-                        public void onError(Throwable t) {
-                            logger.warn(
-                                    "send to store [" + storeId + "] failed. will retry later", t);
-                            finish(false);
-                        }
+                    @Override
+                    public void onError(Throwable t) {
+                        logger.warn("send to store [" + storeId + "] failed. will retry later", t);
+                        finish(null);
+                    }
 
-                        private void finish(boolean suc) {
-                            long finishTime = System.nanoTime();
-                            callbackLatencyMetrics.get(storeId).add(finishTime - beforeWriteTime);
-                            if (suc) {
-                                addTask(storeId, null);
+                    private void finish(WriteStoreResponse res) {
+                        long finishTime = System.nanoTime();
+                        callbackLatencyMetrics.get(storeId).add(finishTime - beforeWriteTime);
+                        synchronized (window) {
+                            window.inFlightCount--;
+                            window.inFlightBatches -= sendRequest.batchCount;
+                            if (res != null) {
+                                window.credits = res.getCredits();
+                            }
+                            if (res != null && res.getSuccess()) {
+                                ack(window, sendRequest.request.getSequence());
                             } else {
-                                addTask(storeId, finalDataToSend);
+                                if (res != null) {
+                                    resync(window, sendRequest, res.getNextSequence());
+                                }
+                                window.needResend = true;
+                            }
+                            if (window.needResend || window.credits <= window.inFlightBatches) {
+                                window.backoffUntilNano = finishTime + backoffNano;
                             }
                         }
-                    });
-        } else {
-            addTask(storeId, null);
+                        wakeUpSender();
+                    }
+                });
+    }
+
+    // requests are applied in order, so the ones before an acknowledged request are applied too
+    private void ack(SendWindow window, long sequence) {
+        while (!window.unacked.isEmpty()
+                && window.unacked.get(0).request.getSequence() <= sequence) {
+            window.unacked.remove(0);
+            window.sentCount = Math.max(window.sentCount - 1, 0);
+        }
+        window.ackedSequence = Math.max(window.ackedSequence, sequence + 1);
+    }
+
+    // follow the sequence expected by the store in a rejection, the window is locked
+    private void resync(SendWindow window, SendRequest sendRequest, long expectedSequence) {
+        if (expectedSequence < sendRequest.ackedBeforeSend) {
+            // the store forgot the requests acknowledged before this one was sent
+            window.sessionLost = true;
+        } else if (expectedSequence > 0) {
+            // the responses of the applied requests may be lost
+            ack(window, expectedSequence - 1);
+        }
+    }
+
+    // resend the unacknowledged requests in a new session, no request is in flight
+    private void resetSession(SendWindow window) {
+        window.sessionLost = false;
+        window.session = UUID.randomUUID().toString();
+        long sequence = 0L;
+        for (SendRequest sendRequest : window.unacked) {
+            sendRequest.request =
+                    sendRequest.request.toBuilder()
+                            .setSession(window.session)
+                            .setSequence(sequence++)
+                            .build();
         }
+        window.nextSequence = sequence;
+        window.ackedSequence = 0L;
+        logger.warn(
+                "store ["
+                        + window.storeId
+                        + "] lost the write session, resend "
+                        + window.unacked.size()
+                        + " requests in session ["
+                        + window.session
+                        + "]");
     }
 
-    private void addTask(int storeId, List<StoreDataBatch> dataToRetry) {
-        if (!sendTasks.offer(new SendTask(storeId, dataToRetry))) {
-            logger.error(
-                    "Unexpected error, failed to add send task to queue. storeId ["
-                            + storeId
-                            + "]");
+    private void wakeUpSender() {
+        Thread thread = this.sendThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
         }
     }
 
@@ -74,4 +74,24 @@ public class StoreWriteClient extends RpcClient {
                     public void onCompleted() {}
                 });
     }
+
+    public void writeStoreInSession(
+            WriteStoreRequest req, CompletionCallback<WriteStoreResponse> callback) {
+        stub.writeStore(
+                req,
+                new StreamObserver<WriteStoreResponse>() {
+                    @Override
+                    public void onNext(WriteStoreResponse writeStoreResponse) {
+                        callback.onCompleted(writeStoreResponse);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        callback.onError(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {}
+                });
+    }
 }
@@ -16,8 +16,11 @@ package com.alibaba.graphscope.groot.ingestor;
 import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.RoleType;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.groot.rpc.ChannelClass;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
+import com.alibaba.graphscope.proto.groot.WriteStoreRequest;
+import com.alibaba.graphscope.proto.groot.WriteStoreResponse;
 
 import io.grpc.ManagedChannel;
 
@@ -30,7 +33,7 @@ public class StoreWriteClients extends RoleClients<StoreWriteClient> implements
             ChannelManager channelManager,
             RoleType targetRole,
             Function<ManagedChannel, StoreWriteClient> clientBuilder) {
-        super(channelManager, targetRole, clientBuilder);
+        super(channelManager, targetRole, ChannelClass.WRITE, clientBuilder);
     }
 
     @Override
@@ -40,4 +43,12 @@ public class StoreWriteClients extends RoleClients<StoreWriteClient> implements
             CompletionCallback<Integer> callback) {
         this.getClient(storeId).writeStore(storeDataBatches, callback);
     }
+
+    @Override
+    public void writeInSession(
+            int storeId,
+            WriteStoreRequest request,
+            CompletionCallback<WriteStoreResponse> callback) {
+        this.getClient(storeId).writeStoreInSession(request, callback);
+    }
 }
@@ -15,10 +15,22 @@ package com.alibaba.graphscope.groot.ingestor;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.proto.groot.WriteStoreRequest;
+import com.alibaba.graphscope.proto.groot.WriteStoreResponse;
 
 import java.util.List;
 
 public interface StoreWriter {
     void write(
             int storeId, List<StoreDataBatch> storeDataBatch, CompletionCallback<Integer> callback);
+
+    /**
+     * Write a request of the sender session, the store applies the requests of a session in the
+     * order of sequence. Rejected requests are completed with an unsuccessful response rather than
+     * an error, which carries the sequence the store expects and the credits it grants.
+     */
+    void writeInSession(
+            int storeId,
+            WriteStoreRequest request,
+            CompletionCallback<WriteStoreResponse> callback);
 }
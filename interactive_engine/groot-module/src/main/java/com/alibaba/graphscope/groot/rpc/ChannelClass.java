@@ -0,0 +1,34 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.rpc;
+
+/**
+ * Traffic classes of the rpc to a node, each class has its own connections, so that the small
+ * control rpc, e.g. snapshot and heartbeat, are not blocked behind large write payloads.
+ */
+public enum ChannelClass {
+    CONTROL("control"),
+    WRITE("write"),
+    QUERY("query");
+
+    private final String name;
+
+    ChannelClass(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
@@ -17,18 +17,32 @@ import com.alibaba.graphscope.groot.common.RoleType;
 import com.alibaba.graphscope.groot.common.config.*;
 import com.alibaba.graphscope.groot.common.exception.NodeConnectException;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
 import io.grpc.NameResolver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Maintains the channels to the nodes of the registered roles. Each node has a pool of channels for
+ * each traffic class, and each channel is a separate connection, the channel of a class is chosen
+ * in round robin.
+ */
 public class ChannelManager {
     private static final Logger logger = LoggerFactory.getLogger(ChannelManager.class);
     public static final String SCHEME = "node";
@@ -36,113 +50,151 @@ public class ChannelManager {
     private Configs configs;
     private NameResolver.Factory nameResolverFactory;
 
-    private Set<RoleType> targetRoles = new HashSet<>();
-    private Map<RoleType, Map<Integer, ManagedChannel>> roleToChannels;
+    private Map<RoleType, Set<ChannelClass>> targetRoles = new HashMap<>();
+    private Map<RoleType, Map<Integer, ChannelPool>> roleToChannels;
 
     private int rpcMaxBytes;
+    private String writeCompression;
 
     public ChannelManager(Configs configs, NameResolver.Factory nameResolverFactory) {
         this.configs = configs;
         this.nameResolverFactory = nameResolverFactory;
 
         this.rpcMaxBytes = CommonConfig.RPC_MAX_BYTES_MB.get(configs) * 1024 * 1024;
+        this.writeCompression = CommonConfig.RPC_WRITE_COMPRESSION.get(configs);
     }
 
     public void start() {
         this.roleToChannels = new HashMap<>();
-        for (RoleType role : this.targetRoles) {
-            Map<Integer, ManagedChannel> idxToChannel =
+        for (Map.Entry<RoleType, Set<ChannelClass>> roleEntry : this.targetRoles.entrySet()) {
+            RoleType role = roleEntry.getKey();
+            Map<Integer, ChannelPool> idxToChannel =
                     this.roleToChannels.computeIfAbsent(role, k -> new HashMap<>());
             int count =
                     Integer.parseInt(
                             this.configs.get(
                                     String.format(CommonConfig.NODE_COUNT_FORMAT, role.getName()),
                                     "0"));
-            if (CommonConfig.DISCOVERY_MODE.get(configs).equalsIgnoreCase("file")) {
-                String hostTemplate;
-                int port;
-                switch (role) {
-                    case FRONTEND:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_FRONTEND.get(configs);
-                        port = CommonConfig.RPC_PORT.get(configs);
-                        break;
-                    case INGESTOR:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_INGESTOR.get(configs);
-                        port = CommonConfig.RPC_PORT.get(configs);
-                        break;
-                    case COORDINATOR:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_COORDINATOR.get(configs);
-                        port = CommonConfig.RPC_PORT.get(configs);
-                        break;
-                    case STORE:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = CommonConfig.RPC_PORT.get(configs);
-                        break;
-                    case EXECUTOR_GRAPH:
-                    case EXECUTOR_MANAGE:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = StoreConfig.EXECUTOR_GRAPH_PORT.get(configs);
-                        break;
-                    case EXECUTOR_QUERY:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = StoreConfig.EXECUTOR_QUERY_PORT.get(configs);
-                        break;
-                    case EXECUTOR_ENGINE:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = StoreConfig.EXECUTOR_ENGINE_PORT.get(configs);
-                        break;
-                    case GAIA_ENGINE:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = GaiaConfig.GAIA_ENGINE_PORT.get(configs);
-                        break;
-                    case GAIA_RPC:
-                        hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
-                        port = GaiaConfig.GAIA_RPC_PORT.get(configs);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("invalid role [" + role + "]");
-                }
-                for (int i = 0; i < count; i++) {
-                    String host = hostTemplate.replace("{}", String.valueOf(i));
-                    logger.info(
-                            "Creating channel to role {} #{}, host {}, port {}",
-                            role.getName(),
-                            i,
-                            host,
-                            port);
-                    ManagedChannel channel =
-                            ManagedChannelBuilder.forAddress(host, port)
-                                    .maxInboundMessageSize(this.rpcMaxBytes)
-                                    .usePlaintext()
-                                    .build();
-                    idxToChannel.put(i, channel);
-                }
-            } else {
-                for (int i = 0; i < count; i++) {
-                    logger.info("Create channel to role {} #{}", role.getName(), i);
-                    String uri = SCHEME + "://" + role.getName() + "/" + i;
-                    ManagedChannel channel =
-                            ManagedChannelBuilder.forTarget(uri)
-                                    .nameResolverFactory(this.nameResolverFactory)
-                                    .maxInboundMessageSize(this.rpcMaxBytes)
-                                    .usePlaintext()
-                                    .build();
-                    idxToChannel.put(i, channel);
+            for (int i = 0; i < count; i++) {
+                ChannelPool pool = new ChannelPool();
+                for (ChannelClass channelClass : roleEntry.getValue()) {
+                    int poolSize = getPoolSize(channelClass);
+                    List<ManagedChannel> channels = new ArrayList<>(poolSize);
+                    for (int j = 0; j < poolSize; j++) {
+                        channels.add(createChannel(role, i, channelClass));
+                    }
+                    pool.channels.put(channelClass, channels);
                 }
+                idxToChannel.put(i, pool);
             }
         }
         logger.info("ChannelManager started");
     }
 
+    private ManagedChannel createChannel(RoleType role, int idx, ChannelClass channelClass) {
+        ManagedChannelBuilder<?> builder;
+        if (CommonConfig.DISCOVERY_MODE.get(configs).equalsIgnoreCase("file")) {
+            String hostTemplate;
+            int port;
+            switch (role) {
+                case FRONTEND:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_FRONTEND.get(configs);
+                    port = CommonConfig.RPC_PORT.get(configs);
+                    break;
+                case INGESTOR:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_INGESTOR.get(configs);
+                    port = CommonConfig.RPC_PORT.get(configs);
+                    break;
+                case COORDINATOR:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_COORDINATOR.get(configs);
+                    port = CommonConfig.RPC_PORT.get(configs);
+                    break;
+                case STORE:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = CommonConfig.RPC_PORT.get(configs);
+                    break;
+                case EXECUTOR_GRAPH:
+                case EXECUTOR_MANAGE:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = StoreConfig.EXECUTOR_GRAPH_PORT.get(configs);
+                    break;
+                case EXECUTOR_QUERY:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = StoreConfig.EXECUTOR_QUERY_PORT.get(configs);
+                    break;
+                case EXECUTOR_ENGINE:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = StoreConfig.EXECUTOR_ENGINE_PORT.get(configs);
+                    break;
+                case GAIA_ENGINE:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = GaiaConfig.GAIA_ENGINE_PORT.get(configs);
+                    break;
+                case GAIA_RPC:
+                    hostTemplate = DiscoveryConfig.DNS_NAME_PREFIX_STORE.get(configs);
+                    port = GaiaConfig.GAIA_RPC_PORT.get(configs);
+                    break;
+                default:
+                    throw new IllegalArgumentException("invalid role [" + role + "]");
+            }
+            String host = hostTemplate.replace("{}", String.valueOf(idx));
+            logger.info(
+                    "Creating {} channel to role {} #{}, host {}, port {}",
+                    channelClass.getName(),
+                    role.getName(),
+                    idx,
+                    host,
+                    port);
+            builder = ManagedChannelBuilder.forAddress(host, port);
+        } else {
+            logger.info(
+                    "Create {} channel to role {} #{}",
+                    channelClass.getName(),
+                    role.getName(),
+                    idx);
+            String uri = SCHEME + "://" + role.getName() + "/" + idx;
+            builder =
+                    ManagedChannelBuilder.forTarget(uri)
+                            .nameResolverFactory(this.nameResolverFactory);
+        }
+        builder.maxInboundMessageSize(this.rpcMaxBytes).usePlaintext();
+        if (channelClass == ChannelClass.WRITE && !this.writeCompression.isEmpty()) {
+            builder.intercept(new CompressionInterceptor(this.writeCompression));
+        }
+        return builder.build();
+    }
+
+    private int getPoolSize(ChannelClass channelClass) {
+        int poolSize;
+        switch (channelClass) {
+            case CONTROL:
+                poolSize = CommonConfig.RPC_CHANNEL_CONTROL_COUNT.get(configs);
+                break;
+            case WRITE:
+                poolSize = CommonConfig.RPC_CHANNEL_WRITE_COUNT.get(configs);
+                break;
+            case QUERY:
+                poolSize = CommonConfig.RPC_CHANNEL_QUERY_COUNT.get(configs);
+                break;
+            default:
+                throw new IllegalArgumentException("invalid channel class [" + channelClass + "]");
+        }
+        return Math.max(poolSize, 1);
+    }
+
     public void stop() {
         if (roleToChannels != null) {
-            for (Map.Entry<RoleType, Map<Integer, ManagedChannel>> roleToEntry :
+            for (Map.Entry<RoleType, Map<Integer, ChannelPool>> roleToEntry :
                     roleToChannels.entrySet()) {
                 RoleType role = roleToEntry.getKey();
-                Map<Integer, ManagedChannel> idToChannel = roleToEntry.getValue();
+                Map<Integer, ChannelPool> idToChannel = roleToEntry.getValue();
                 logger.debug("shutdown channels for role [" + role.getName() + "] now");
-                for (ManagedChannel channel : idToChannel.values()) {
-                    channel.shutdown();
+                for (ChannelPool pool : idToChannel.values()) {
+                    for (List<ManagedChannel> channels : pool.channels.values()) {
+                        for (ManagedChannel channel : channels) {
+                            channel.shutdown();
+                        }
+                    }
                 }
             }
             this.roleToChannels = null;
@@ -151,19 +203,78 @@ public class ChannelManager {
     }
 
     public void registerRole(RoleType role) {
-        this.targetRoles.add(role);
-        logger.debug("role [" + role.getName() + "] registered");
+        registerRole(role, ChannelClass.CONTROL);
+    }
+
+    public void registerRole(RoleType role, ChannelClass channelClass) {
+        this.targetRoles
+                .computeIfAbsent(role, k -> EnumSet.noneOf(ChannelClass.class))
+                .add(channelClass);
+        logger.debug(
+                "role [" + role.getName() + "] registered for [" + channelClass.getName() + "]");
     }
 
     public ManagedChannel getChannel(RoleType role, int idx) {
-        Map<Integer, ManagedChannel> idToChannel = this.roleToChannels.get(role);
+        return getChannel(role, idx, ChannelClass.CONTROL);
+    }
+
+    /** get the next channel of the class in the pool of the node */
+    public ManagedChannel getChannel(RoleType role, int idx, ChannelClass channelClass) {
+        List<ManagedChannel> channels = getChannels(role, idx, channelClass);
+        if (channels.size() == 1) {
+            return channels.get(0);
+        }
+        ChannelPool pool = this.roleToChannels.get(role).get(idx);
+        int next = pool.next.get(channelClass).getAndIncrement();
+        return channels.get(Math.floorMod(next, channels.size()));
+    }
+
+    /** get all channels of the class in the pool of the node */
+    public List<ManagedChannel> getChannels(RoleType role, int idx, ChannelClass channelClass) {
+        Map<Integer, ChannelPool> idToChannel = this.roleToChannels.get(role);
         if (idToChannel == null) {
             throw new NodeConnectException("invalid role [" + role + "]");
         }
-        ManagedChannel channel = idToChannel.get(idx);
-        if (channel == null) {
+        ChannelPool pool = idToChannel.get(idx);
+        if (pool == null) {
             throw new NodeConnectException("not connected to role [" + role + "] #[" + idx + "]");
         }
-        return channel;
+        List<ManagedChannel> channels = pool.channels.get(channelClass);
+        if (channels == null) {
+            throw new NodeConnectException(
+                    "role ["
+                            + role
+                            + "] is not registered for ["
+                            + channelClass.getName()
+                            + "] channels");
+        }
+        return channels;
+    }
+
+    private static class ChannelPool {
+        private final Map<ChannelClass, List<ManagedChannel>> channels =
+                new EnumMap<>(ChannelClass.class);
+        private final Map<ChannelClass, AtomicInteger> next = new EnumMap<>(ChannelClass.class);
+
+        private ChannelPool() {
+            for (ChannelClass channelClass : ChannelClass.values()) {
+                this.next.put(channelClass, new AtomicInteger());
+            }
+        }
+    }
+
+    /** compress the messages of all calls on the channel */
+    private static class CompressionInterceptor implements ClientInterceptor {
+        private final String compressorName;
+
+        private CompressionInterceptor(String compressorName) {
+            this.compressorName = compressorName;
+        }
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            return next.newCall(method, callOptions.withCompression(this.compressorName));
+        }
     }
 }
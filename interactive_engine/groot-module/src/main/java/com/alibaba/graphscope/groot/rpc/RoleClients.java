@@ -17,12 +17,16 @@ import com.alibaba.graphscope.groot.common.RoleType;
 
 import io.grpc.ManagedChannel;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
- * This class maintains connections with nodes of a role, provides RpcClient for client use
+ * This class maintains connections with nodes of a role, provides RpcClient for client use. A
+ * client is built on each channel in the pool of the node, and they are used in round robin.
  *
  * @param <T>
  */
@@ -30,33 +34,54 @@ public class RoleClients<T extends RpcClient> {
 
     private ChannelManager channelManager;
     private RoleType targetRole;
+    private ChannelClass channelClass;
 
-    private Map<Integer, T> clients;
+    private Map<Integer, List<T>> clients;
     private Function<ManagedChannel, T> clientBuilder;
+    private AtomicInteger next;
 
     public RoleClients(
             ChannelManager channelManager,
             RoleType targetRole,
             Function<ManagedChannel, T> clientBuilder) {
+        this(channelManager, targetRole, ChannelClass.CONTROL, clientBuilder);
+    }
+
+    public RoleClients(
+            ChannelManager channelManager,
+            RoleType targetRole,
+            ChannelClass channelClass,
+            Function<ManagedChannel, T> clientBuilder) {
         this.channelManager = channelManager;
         this.targetRole = targetRole;
+        this.channelClass = channelClass;
         this.clientBuilder = clientBuilder;
         this.clients = new ConcurrentHashMap<>();
-        channelManager.registerRole(targetRole);
+        this.next = new AtomicInteger();
+        channelManager.registerRole(targetRole, channelClass);
     }
 
     public T getClient(int clientId) {
-        T client = this.clients.get(clientId);
-        if (client == null) {
+        List<T> nodeClients = this.clients.get(clientId);
+        if (nodeClients == null) {
             synchronized (this) {
-                client = this.clients.get(clientId);
-                if (client == null) {
-                    ManagedChannel channel = this.channelManager.getChannel(targetRole, clientId);
-                    client = clientBuilder.apply(channel);
-                    this.clients.put(clientId, client);
+                nodeClients = this.clients.get(clientId);
+                if (nodeClients == null) {
+                    List<ManagedChannel> channels =
+                            this.channelManager.getChannels(targetRole, clientId, channelClass);
+                    nodeClients = new ArrayList<>(channels.size());
+                    for (ManagedChannel channel : channels) {
+                        nodeClients.add(clientBuilder.apply(channel));
+                    }
+                    this.clients.put(clientId, nodeClients);
                 }
             }
         }
+        T client =
+                nodeClients.size() == 1
+                        ? nodeClients.get(0)
+                        : nodeClients.get(
+                                Math.floorMod(this.next.getAndIncrement(), nodeClients.size()));
         client.checkChannelState();
         return client;
     }
@@ -19,6 +19,8 @@ import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.common.exception.BackupException;
 import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
+import com.alibaba.graphscope.groot.metrics.MetricsAgent;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,28 +29,46 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class BackupAgent {
+public class BackupAgent implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(BackupAgent.class);
 
+    public static final String BACKUP_PARTITION_PROGRESS = "backup.partition.progress";
+    public static final String BACKUP_LAST_SIZE_BYTES = "backup.last.size.bytes";
+    public static final String BACKUP_LAST_INCREMENTAL_BYTES = "backup.last.incremental.bytes";
+    public static final String BACKUP_LAST_DURATION_MS = "backup.last.duration.ms";
+
     private int storeId;
     private boolean backupEnable;
     private int backupThreadCount;
+    private boolean restoreVerifyEnable;
     private StoreService storeService;
     private Map<Integer, GraphPartitionBackup> idToPartitionBackup;
     private ExecutorService backupExecutor;
 
-    public BackupAgent(Configs configs, StoreService storeService) {
+    private AtomicInteger finishedPartitionCount;
+    private volatile int totalPartitionCount;
+    private AtomicLong lastSizeBytes;
+    private AtomicLong lastIncrementalBytes;
+    private volatile long lastDurationMs;
+
+    public BackupAgent(
+            Configs configs, StoreService storeService, MetricsCollector metricsCollector) {
         this.storeId = CommonConfig.NODE_IDX.get(configs);
         this.backupEnable = BackupConfig.BACKUP_ENABLE.get(configs);
         this.backupThreadCount = BackupConfig.STORE_BACKUP_THREAD_COUNT.get(configs);
+        this.restoreVerifyEnable = BackupConfig.STORE_RESTORE_VERIFY_ENABLE.get(configs);
         this.storeService = storeService;
+        initMetrics();
+        metricsCollector.register(this);
     }
 
     public void start() {
@@ -131,6 +151,11 @@ public class BackupAgent {
         StoreBackupId storeBackupId = new StoreBackupId(globalBackupId);
         AtomicInteger counter = new AtomicInteger(this.idToPartitionBackup.size());
         AtomicBoolean finished = new AtomicBoolean(false);
+        AtomicLong sizeBytes = new AtomicLong(0L);
+        AtomicLong incrementalBytes = new AtomicLong(0L);
+        long startTime = System.currentTimeMillis();
+        this.finishedPartitionCount.set(0);
+        this.totalPartitionCount = this.idToPartitionBackup.size();
         for (Map.Entry<Integer, GraphPartitionBackup> entry : this.idToPartitionBackup.entrySet()) {
             this.backupExecutor.execute(
                     () -> {
@@ -139,9 +164,30 @@ public class BackupAgent {
                         }
                         try {
                             int partitionId = entry.getKey();
-                            int partitionBackupId = entry.getValue().createNewPartitionBackup();
+                            GraphPartitionBackup partitionBackup = entry.getValue();
+                            long prevSize = getLatestPartitionBackupSize(partitionBackup);
+                            // copying is throttled by the rate limiter of the backup engine
+                            int partitionBackupId = partitionBackup.createNewPartitionBackup();
+                            long size = partitionBackup.getPartitionBackupSize(partitionBackupId);
+                            sizeBytes.addAndGet(size);
+                            // files dropped by compactions may shrink the new backup
+                            incrementalBytes.addAndGet(Math.max(0L, size - prevSize));
+                            this.finishedPartitionCount.incrementAndGet();
                             storeBackupId.addPartitionBackupId(partitionId, partitionBackupId);
                             if (counter.decrementAndGet() == 0) {
+                                this.lastSizeBytes.set(sizeBytes.get());
+                                this.lastIncrementalBytes.set(incrementalBytes.get());
+                                this.lastDurationMs = System.currentTimeMillis() - startTime;
+                                logger.info(
+                                        "store backup #["
+                                                + globalBackupId
+                                                + "] of ["
+                                                + sizeBytes.get()
+                                                + "] bytes (["
+                                                + incrementalBytes.get()
+                                                + "] bytes incremental) created in ["
+                                                + this.lastDurationMs
+                                                + "] ms");
                                 callback.onCompleted(storeBackupId);
                             }
                         } catch (Exception e) {
@@ -277,10 +323,14 @@ public class BackupAgent {
                             if (!Files.isDirectory(partitionRestorePath)) {
                                 Files.createDirectories(partitionRestorePath);
                             }
+                            int partitionBackupId =
+                                    storeBackupId.getPartitionToBackupId().get(partitionId);
+                            if (this.restoreVerifyEnable) {
+                                entry.getValue().verifyPartitionBackup(partitionBackupId);
+                            }
                             entry.getValue()
                                     .restoreFromPartitionBackup(
-                                            storeBackupId.getPartitionToBackupId().get(partitionId),
-                                            partitionRestorePath.toString());
+                                            partitionBackupId, partitionRestorePath.toString());
                             if (counter.decrementAndGet() == 0) {
                                 callback.onCompleted(null);
                             }
@@ -294,10 +344,51 @@ public class BackupAgent {
         }
     }
 
+    private static long getLatestPartitionBackupSize(GraphPartitionBackup partitionBackup)
+            throws IOException {
+        List<Integer> partitionBackupIds = partitionBackup.getPartitionBackupIdList();
+        if (partitionBackupIds.isEmpty()) {
+            return 0L;
+        }
+        return partitionBackup.getPartitionBackupSize(Collections.max(partitionBackupIds));
+    }
+
     private void checkEnable() throws BackupException {
         if (!this.backupEnable) {
             throw new BackupException(
                     "store backup agent is disable now, storeId [" + this.storeId + "]");
         }
     }
+
+    @Override
+    public void initMetrics() {
+        this.finishedPartitionCount = new AtomicInteger(0);
+        this.totalPartitionCount = 0;
+        this.lastSizeBytes = new AtomicLong(0L);
+        this.lastIncrementalBytes = new AtomicLong(0L);
+        this.lastDurationMs = 0L;
+    }
+
+    @Override
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new HashMap<>();
+        metrics.put(
+                BACKUP_PARTITION_PROGRESS,
+                this.finishedPartitionCount.get() + "/" + this.totalPartitionCount);
+        metrics.put(BACKUP_LAST_SIZE_BYTES, String.valueOf(this.lastSizeBytes.get()));
+        metrics.put(
+                BACKUP_LAST_INCREMENTAL_BYTES, String.valueOf(this.lastIncrementalBytes.get()));
+        metrics.put(BACKUP_LAST_DURATION_MS, String.valueOf(this.lastDurationMs));
+        return metrics;
+    }
+
+    @Override
+    public String[] getMetricKeys() {
+        return new String[] {
+            BACKUP_PARTITION_PROGRESS,
+            BACKUP_LAST_SIZE_BYTES,
+            BACKUP_LAST_INCREMENTAL_BYTES,
+            BACKUP_LAST_DURATION_MS
+        };
+    }
 }
@@ -28,5 +28,14 @@ public interface GraphPartitionBackup extends Closeable {
 
     void partitionBackupGc(List<Integer> readyPartitionBackupIds) throws IOException;
 
+    List<Integer> getPartitionBackupIdList() throws IOException;
+
+    /**
+     * Total bytes of files in the partition backup reported by the backup engine, including the
+     * table files shared with previous backups. The bytes copied by a new backup are the difference
+     * from the size of the previous one.
+     */
+    long getPartitionBackupSize(int partitionBackupId) throws IOException;
+
     int getId();
 }
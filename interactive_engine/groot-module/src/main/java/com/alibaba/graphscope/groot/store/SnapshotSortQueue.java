@@ -138,6 +138,11 @@ public class SnapshotSortQueue {
         return this.size.get();
     }
 
+    /** number of batches can be offered to any of the queues without blocking */
+    public int remainingCapacity() {
+        return this.innerQueues.stream().mapToInt(q -> q.remainingCapacity()).min().orElse(0);
+    }
+
     public List<Integer> innerQueueSizes() {
         return this.innerQueues.stream().map(q -> q.size()).collect(Collectors.toList());
     }
@@ -38,6 +38,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -63,9 +64,12 @@ public class StoreService implements MetricsAgent {
     private final Configs storeConfigs;
     private final int storeId;
     private final int writeThreadCount;
+    private final int writeLaneCount;
     private final MetaService metaService;
     private Map<Integer, GraphPartition> idToPartition;
     private ExecutorService writeExecutor;
+    private List<ExecutorService> writeLanes;
+    private Map<Integer, ExecutorService> partitionToLane;
     private ExecutorService ingestExecutor;
     private ExecutorService garbageCollectExecutor;
     private ThreadPoolExecutor downloadExecutor;
@@ -81,6 +85,7 @@ public class StoreService implements MetricsAgent {
         this.storeId = CommonConfig.NODE_IDX.get(storeConfigs);
         this.enableGc = StoreConfig.STORE_GC_ENABLE.get(storeConfigs);
         this.writeThreadCount = StoreConfig.STORE_WRITE_THREAD_COUNT.get(storeConfigs);
+        this.writeLaneCount = StoreConfig.STORE_WRITE_LANE_COUNT.get(storeConfigs);
         this.metaService = metaService;
         metricsCollector.register(this, () -> updateMetrics());
     }
@@ -108,6 +113,23 @@ public class StoreService implements MetricsAgent {
                         new LinkedBlockingQueue<>(),
                         ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
                                 "store-write", logger));
+        int laneCount = Math.max(Math.min(this.writeLaneCount, partitionIds.size()), 1);
+        this.writeLanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            this.writeLanes.add(
+                    new ThreadPoolExecutor(
+                            1,
+                            1,
+                            0L,
+                            TimeUnit.MILLISECONDS,
+                            new LinkedBlockingQueue<>(),
+                            ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                    "store-write-lane-" + i, logger)));
+        }
+        this.partitionToLane = new HashMap<>(partitionIds.size());
+        for (int i = 0; i < partitionIds.size(); i++) {
+            this.partitionToLane.put(partitionIds.get(i), this.writeLanes.get(i % laneCount));
+        }
         this.ingestExecutor =
                 new ThreadPoolExecutor(
                         1,
@@ -176,6 +198,12 @@ public class StoreService implements MetricsAgent {
             }
             this.idToPartition = null;
         }
+        if (this.writeLanes != null) {
+            for (ExecutorService lane : this.writeLanes) {
+                lane.shutdown();
+            }
+            this.writeLanes = null;
+        }
         if (this.writeExecutor != null) {
             this.writeExecutor.shutdown();
             try {
@@ -232,6 +260,90 @@ public class StoreService implements MetricsAgent {
         return hasDdl.get();
     }
 
+    /**
+     * Write the batch by the lanes of the partitions without waiting. Batches of a partition are
+     * written in the order they are submitted, and the batches of different partitions, even of
+     * different snapshots, are written concurrently. The failed writes are retried by the lane.
+     *
+     * @param callback completed with whether the batch has DDL after all partitions are written
+     */
+    public void asyncBatchWrite(
+            StoreDataBatch storeDataBatch, CompletionCallback<Boolean> callback) {
+        long snapshotId = storeDataBatch.getSnapshotId();
+        List<Map.Entry<Integer, OperationBatch>> partitionBatches = new ArrayList<>();
+        for (Map<Integer, OperationBatch> partitionToBatch : storeDataBatch.getDataBatch()) {
+            for (Map.Entry<Integer, OperationBatch> e : partitionToBatch.entrySet()) {
+                // Ignore Marker
+                if (e.getKey() == -1) {
+                    continue;
+                }
+                if (!this.partitionToLane.containsKey(e.getKey())) {
+                    callback.onError(
+                            new IllegalStateException(
+                                    "partition [" + e.getKey() + "] is not initialized / exists"));
+                    return;
+                }
+                partitionBatches.add(e);
+            }
+        }
+        if (partitionBatches.isEmpty()) {
+            callback.onCompleted(false);
+            return;
+        }
+        AtomicBoolean hasDdl = new AtomicBoolean(false);
+        AtomicInteger counter = new AtomicInteger(partitionBatches.size());
+        for (Map.Entry<Integer, OperationBatch> e : partitionBatches) {
+            int partitionId = e.getKey();
+            OperationBatch batch = e.getValue();
+            this.partitionToLane
+                    .get(partitionId)
+                    .execute(
+                            () -> {
+                                try {
+                                    if (writePartitionWithRetry(partitionId, snapshotId, batch)) {
+                                        hasDdl.set(true);
+                                    }
+                                } catch (Exception ex) {
+                                    callback.onError(ex);
+                                    return;
+                                }
+                                if (counter.decrementAndGet() == 0) {
+                                    callback.onCompleted(hasDdl.get());
+                                }
+                            });
+        }
+    }
+
+    private boolean writePartitionWithRetry(int partitionId, long snapshotId, OperationBatch batch)
+            throws InterruptedException {
+        while (true) {
+            if (shouldStop) {
+                throw new IllegalStateException("StoreService is stopped");
+            }
+            try {
+                long beforeWriteTime = System.nanoTime();
+                GraphPartition partition = this.idToPartition.get(partitionId);
+                if (partition == null) {
+                    throw new IllegalStateException(
+                            "partition [" + partitionId + "] is not initialized / exists");
+                }
+                boolean hasDdl = partition.writeBatch(snapshotId, batch);
+                long afterWriteTime = System.nanoTime();
+                this.partitionToMetric.get(partitionId).add(afterWriteTime - beforeWriteTime);
+                return hasDdl;
+            } catch (Exception ex) {
+                logger.error(
+                        "write to partition ["
+                                + partitionId
+                                + "] failed, snapshotId ["
+                                + snapshotId
+                                + "]. will retry",
+                        ex);
+                Thread.sleep(1000L);
+            }
+        }
+    }
+
     private Map<Integer, OperationBatch> writeStore(
             long snapshotId, Map<Integer, OperationBatch> partitionToBatch, AtomicBoolean hasDdl)
             throws ExecutionException, InterruptedException {
@@ -13,6 +13,7 @@
  */
 package com.alibaba.graphscope.groot.store;
 
+import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.proto.groot.StoreDataBatchPb;
 import com.alibaba.graphscope.proto.groot.StoreWriteGrpc;
@@ -21,15 +22,76 @@ import com.alibaba.graphscope.proto.groot.WriteStoreResponse;
 
 import io.grpc.stub.StreamObserver;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class StoreWriteService extends StoreWriteGrpc.StoreWriteImplBase {
+    private static final Logger logger = LoggerFactory.getLogger(StoreWriteService.class);
+
+    // max time a request is buffered for the requests before it in the same session
+    private static final long DEFAULT_SEQUENCE_WAIT_MS = 1000L;
+    // a session without requests for this long is dropped, the sender resyncs its sequence
+    private static final long DEFAULT_SESSION_IDLE_MS = TimeUnit.MINUTES.toMillis(10L);
+    // max requests buffered ahead of the expected sequence in a session
+    private static final int MAX_PENDING_REQUESTS = 64;
 
     private WriterAgent writerAgent;
+    private Map<String, WriteSession> sessions;
+    private long sequenceWaitMs;
+    private long sessionIdleMs;
+
+    private ScheduledExecutorService scheduler;
 
     public StoreWriteService(WriterAgent writerAgent) {
+        this(writerAgent, DEFAULT_SEQUENCE_WAIT_MS, DEFAULT_SESSION_IDLE_MS);
+    }
+
+    public StoreWriteService(WriterAgent writerAgent, long sequenceWaitMs, long sessionIdleMs) {
         this.writerAgent = writerAgent;
+        this.sessions = new ConcurrentHashMap<>();
+        this.sequenceWaitMs = sequenceWaitMs;
+        this.sessionIdleMs = sessionIdleMs;
+    }
+
+    public void start() {
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "store-write-session", logger));
+        long interval = Math.max(this.sequenceWaitMs / 2, 1L);
+        this.scheduler.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        checkSessions();
+                    } catch (Exception e) {
+                        logger.error("check write sessions failed", e);
+                    }
+                },
+                interval,
+                interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+            try {
+                this.scheduler.awaitTermination(3000L, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Ignore
+            }
+            this.scheduler = null;
+        }
     }
 
     @Override
@@ -41,13 +103,186 @@ public class StoreWriteService extends StoreWriteGrpc.StoreWriteImplBase {
             for (StoreDataBatchPb pb : dataBatchesList) {
                 batches.add(StoreDataBatch.parseProto(pb));
             }
-            boolean success = writerAgent.writeStore2(batches);
-            WriteStoreResponse response =
-                    WriteStoreResponse.newBuilder().setSuccess(success).build();
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+            if (request.getSession().isEmpty()) {
+                boolean success = writerAgent.writeStore2(batches);
+                responseObserver.onNext(
+                        WriteStoreResponse.newBuilder().setSuccess(success).build());
+                responseObserver.onCompleted();
+            } else {
+                long now = System.currentTimeMillis();
+                // touched within the compute, so that an idle session is never dropped while used
+                WriteSession session =
+                        sessions.compute(
+                                request.getSession(),
+                                (k, v) -> {
+                                    WriteSession s = v == null ? new WriteSession() : v;
+                                    s.lastAccessTime = now;
+                                    return s;
+                                });
+                session.write(request.getSequence(), batches, responseObserver);
+            }
         } catch (Exception e) {
             responseObserver.onError(e);
         }
     }
+
+    /** Reject the requests buffered for too long, and drop the idle sessions. */
+    public void checkSessions() {
+        long now = System.currentTimeMillis();
+        for (WriteSession session : sessions.values()) {
+            session.expirePending(now - this.sequenceWaitMs);
+        }
+        for (String id : sessions.keySet()) {
+            sessions.computeIfPresent(
+                    id,
+                    (k, session) -> {
+                        if (session.isIdle(now - this.sessionIdleMs)) {
+                            logger.info("drop idle write session [" + k + "]");
+                            return null;
+                        }
+                        return session;
+                    });
+        }
+    }
+
+    private static class PendingRequest {
+        List<StoreDataBatch> batches;
+        StreamObserver<WriteStoreResponse> observer;
+        long arriveTime;
+
+        PendingRequest(
+                List<StoreDataBatch> batches,
+                StreamObserver<WriteStoreResponse> observer,
+                long arriveTime) {
+            this.batches = batches;
+            this.observer = observer;
+            this.arriveTime = arriveTime;
+        }
+    }
+
+    /**
+     * Requests of a sender session are applied in the order of sequence. A request ahead of the
+     * expected sequence is buffered with its response pending, and is applied once the ones before
+     * it are; it is rejected if they do not arrive in time, and the sender resends from the
+     * expected sequence. The resent requests which are already applied are acknowledged without
+     * writing again, and the batches of a partially applied request are skipped.
+     *
+     * <p>A new session buffers the requests ahead of sequence 0 the same way, since the pipelined
+     * requests of a new sender may arrive out of order. After the store restarts, or the session
+     * is dropped for being idle, the requests of the sender never meet sequence 0, and are rejected
+     * with it once they expire, from which the sender learns that the session is lost.
+     */
+    private class WriteSession {
+        private long nextSequence = 0L;
+        // batches of the request of `nextSequence` already in the buffer
+        private int appliedBatches = 0;
+        private TreeMap<Long, PendingRequest> pending = new TreeMap<>();
+        private volatile long lastAccessTime;
+
+        private void write(
+                long sequence,
+                List<StoreDataBatch> batches,
+                StreamObserver<WriteStoreResponse> observer)
+                throws InterruptedException {
+            // responses are sent after the session is unlocked
+            List<StreamObserver<WriteStoreResponse>> accepted = new ArrayList<>();
+            List<StreamObserver<WriteStoreResponse>> rejected = new ArrayList<>();
+            boolean full = false;
+            synchronized (this) {
+                if (sequence < this.nextSequence) {
+                    logger.debug("request [" + sequence + "] is already applied");
+                    accepted.add(observer);
+                } else if (sequence > this.nextSequence) {
+                    if (this.pending.size() >= MAX_PENDING_REQUESTS) {
+                        rejected.add(observer);
+                    } else {
+                        PendingRequest previous =
+                                this.pending.put(
+                                        sequence,
+                                        new PendingRequest(
+                                                batches, observer, System.currentTimeMillis()));
+                        if (previous != null) {
+                            // replaced by the resent one
+                            rejected.add(previous.observer);
+                        }
+                    }
+                } else if (apply(batches)) {
+                    accepted.add(observer);
+                    Map.Entry<Long, PendingRequest> head;
+                    while ((head = this.pending.firstEntry()) != null
+                            && head.getKey() <= this.nextSequence) {
+                        this.pending.pollFirstEntry();
+                        PendingRequest request = head.getValue();
+                        if (head.getKey() < this.nextSequence || apply(request.batches)) {
+                            accepted.add(request.observer);
+                        } else {
+                            rejected.add(request.observer);
+                            full = true;
+                            break;
+                        }
+                    }
+                } else {
+                    rejected.add(observer);
+                    full = true;
+                }
+                if (full) {
+                    // the buffer is full, the requests behind can not be applied either
+                    this.pending.values().forEach(r -> rejected.add(r.observer));
+                    this.pending.clear();
+                }
+            }
+            accepted.forEach(o -> respond(o, true));
+            rejected.forEach(o -> respond(o, false));
+        }
+
+        // the session is locked
+        private boolean apply(List<StoreDataBatch> batches) throws InterruptedException {
+            this.appliedBatches +=
+                    writerAgent.offerStoreBatches(
+                            batches.subList(this.appliedBatches, batches.size()));
+            if (this.appliedBatches < batches.size()) {
+                return false;
+            }
+            this.nextSequence++;
+            this.appliedBatches = 0;
+            return true;
+        }
+
+        private void respond(StreamObserver<WriteStoreResponse> observer, boolean success) {
+            long nextSequence;
+            synchronized (this) {
+                nextSequence = this.nextSequence;
+            }
+            try {
+                observer.onNext(
+                        WriteStoreResponse.newBuilder()
+                                .setSuccess(success)
+                                .setCredits(writerAgent.getBufferCredits())
+                                .setNextSequence(nextSequence)
+                                .build());
+                observer.onCompleted();
+            } catch (Exception e) {
+                logger.warn("respond to write session failed", e);
+            }
+        }
+
+        private void expirePending(long arriveBefore) {
+            List<StreamObserver<WriteStoreResponse>> rejected = new ArrayList<>();
+            synchronized (this) {
+                Iterator<PendingRequest> iterator = this.pending.values().iterator();
+                while (iterator.hasNext()) {
+                    PendingRequest request = iterator.next();
+                    if (request.arriveTime < arriveBefore) {
+                        rejected.add(request.observer);
+                        iterator.remove();
+                    }
+                }
+            }
+            rejected.forEach(o -> respond(o, false));
+        }
+
+        private synchronized boolean isIdle(long accessBefore) {
+            return this.pending.isEmpty() && this.lastAccessTime < accessBefore;
+        }
+    }
 }
@@ -13,8 +13,10 @@
  */
 package com.alibaba.graphscope.groot.store;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.StoreConfig;
 import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
 import com.alibaba.graphscope.groot.coordinator.SnapshotInfo;
 import com.alibaba.graphscope.groot.meta.MetaService;
@@ -26,21 +28,30 @@ import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * WriterAgent is running on the GraphNode, it will cache data from IngestNode and write to the
- * store engine in the order of (snapshotId, queueId). WriterAgent will also send the ingest
- * progress to the SnapshotManager.
+ * store engine in the order of (snapshotId, queueId). The batches are split by partition and
+ * written concurrently, each partition applies its batches in order. WriterAgent will also send the
+ * ingest progress to the SnapshotManager.
  */
 public class WriterAgent implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(WriterAgent.class);
@@ -53,6 +64,10 @@ public class WriterAgent implements MetricsAgent {
     public static final String STORE_WRITE_TOTAL = "store.write.total";
     public static final String BUFFER_WRITE_PER_SECOND_MS = "buffer.write.per.second.ms";
 
+    private static final long RETRY_BACKOFF_MIN_MS = 100L;
+    private static final long RETRY_BACKOFF_MAX_MS = 5000L;
+    private static final long RETRY_WAIT_NANO = TimeUnit.MILLISECONDS.toNanos(10L);
+
     private Configs configs;
     private int storeId;
     private int queueCount;
@@ -69,6 +84,12 @@ public class WriterAgent implements MetricsAgent {
     private ExecutorService commitExecutor;
     private List<Long> consumedQueueOffsets;
     private Thread consumeThread;
+    // batches being written, in the order of polled
+    private Deque<PendingBatch> pendingBatches;
+    private Semaphore inflightBatchPermits;
+    // batches waiting to be written again, no new batch is written meanwhile
+    private AtomicInteger retryingBatches;
+    private ScheduledExecutorService retryScheduler;
 
     private volatile long lastUpdateTime;
     private volatile long totalWrite;
@@ -115,6 +136,15 @@ public class WriterAgent implements MetricsAgent {
             this.consumedQueueOffsets.add(-1L);
         }
 
+        this.pendingBatches = new ArrayDeque<>();
+        this.inflightBatchPermits =
+                new Semaphore(StoreConfig.STORE_WRITE_INFLIGHT_BATCH_COUNT.get(this.configs));
+        this.retryingBatches = new AtomicInteger(0);
+        this.retryScheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "writer-agent-retry", logger));
+
         this.consumeThread = new Thread(() -> processBatches());
         this.consumeThread.setName("store-consume");
         this.consumeThread.setDaemon(true);
@@ -143,6 +173,10 @@ public class WriterAgent implements MetricsAgent {
             }
             this.consumeThread = null;
         }
+        if (this.retryScheduler != null) {
+            this.retryScheduler.shutdownNow();
+            this.retryScheduler = null;
+        }
         if (this.commitExecutor != null) {
             this.commitExecutor.shutdown();
             try {
@@ -172,21 +206,44 @@ public class WriterAgent implements MetricsAgent {
     }
 
     public boolean writeStore2(List<StoreDataBatch> storeDataBatches) throws InterruptedException {
+        return offerStoreBatches(storeDataBatches) == storeDataBatches.size();
+    }
+
+    /**
+     * Offer the batches to the buffer in order, stop at the first batch that can not be buffered in
+     * time.
+     *
+     * @return count of the batches accepted
+     */
+    public int offerStoreBatches(List<StoreDataBatch> storeDataBatches)
+            throws InterruptedException {
         long beforeOfferTime = System.nanoTime();
+        int accepted = 0;
         for (StoreDataBatch storeDataBatch : storeDataBatches) {
             int queueId = storeDataBatch.getQueueId();
             if (!this.bufferQueue.offerQueue(queueId, storeDataBatch)) {
-                return false;
+                return accepted;
             }
+            accepted++;
         }
         long afterOfferTime = System.nanoTime();
         this.bufferWritePerSecondMetric.add(afterOfferTime - beforeOfferTime);
-        return true;
+        return accepted;
+    }
+
+    /** number of batches the buffer can accept now, granted to the senders as credits */
+    public int getBufferCredits() {
+        return this.bufferQueue.remainingCapacity();
     }
 
     private void processBatches() {
         while (!shouldStop) {
             try {
+                if (this.retryingBatches.get() > 0) {
+                    // keep the order of the batches in each partition
+                    LockSupport.parkNanos(RETRY_WAIT_NANO);
+                    continue;
+                }
                 long beforePollNano = System.nanoTime();
                 StoreDataBatch storeDataBatch = this.bufferQueue.poll();
                 long afterPollNano = System.nanoTime();
@@ -197,39 +254,140 @@ public class WriterAgent implements MetricsAgent {
                 if (storeDataBatch == null) {
                     continue;
                 }
-                long batchSnapshotId = storeDataBatch.getSnapshotId();
-                logger.debug("polled one batch [" + batchSnapshotId + "]");
-                boolean hasDdl = writeEngineWithRetry(storeDataBatch);
-                int writeCount = storeDataBatch.getSize();
-                this.totalWrite += writeCount;
-                if (this.consumeSnapshotId < batchSnapshotId) {
-                    SnapshotInfo availSnapshotInfo = this.availSnapshotInfoRef.get();
-                    long availDdlSnapshotId = availSnapshotInfo.getDdlSnapshotId();
-                    if (availDdlSnapshotId < this.consumeDdlSnapshotId) {
-                        availDdlSnapshotId = this.consumeDdlSnapshotId;
+                logger.debug("polled one batch [" + storeDataBatch.getSnapshotId() + "]");
+                this.inflightBatchPermits.acquire();
+                PendingBatch pendingBatch = new PendingBatch(storeDataBatch);
+                synchronized (this.pendingBatches) {
+                    this.pendingBatches.addLast(pendingBatch);
+                }
+                writeBatch(pendingBatch, 0);
+            } catch (Exception e) {
+                logger.error("error in processBatches, ignore", e);
+            }
+        }
+    }
+
+    /**
+     * Write the batch to the store engine, a failed batch is written again after backoff until the
+     * agent stops. The store service rejects a batch before writing any partition of it, e.g. the
+     * partition does not exist, in the consume thread, so the consume thread pauses before writing
+     * the batches after it.
+     */
+    private void writeBatch(PendingBatch pendingBatch, int attempt) {
+        StoreDataBatch storeDataBatch = pendingBatch.storeDataBatch;
+        // the callback may fail for several partitions of the batch
+        AtomicBoolean failed = new AtomicBoolean(false);
+        this.storeService.asyncBatchWrite(
+                storeDataBatch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        finishBatch(pendingBatch, hasDdl);
                     }
-                    long prevSnapshotId = batchSnapshotId - 1;
-                    long availSnapshotId = availSnapshotInfo.getSnapshotId();
-                    if (availSnapshotId < prevSnapshotId) {
-                        availSnapshotId = prevSnapshotId;
+
+                    @Override
+                    public void onError(Throwable t) {
+                        if (!failed.compareAndSet(false, true)) {
+                            return;
+                        }
+                        if (shouldStop) {
+                            logger.warn(
+                                    "writeEngine failed. snapshotId ["
+                                            + storeDataBatch.getSnapshotId()
+                                            + "] is dropped as WriterAgent stopped",
+                                    t);
+                            abortBatch(pendingBatch);
+                            return;
+                        }
+                        long backoffMs =
+                                Math.min(
+                                        RETRY_BACKOFF_MIN_MS << Math.min(attempt, 16),
+                                        RETRY_BACKOFF_MAX_MS);
+                        logger.error(
+                                "writeEngine failed. queueId ["
+                                        + storeDataBatch.getQueueId()
+                                        + "], snapshotId ["
+                                        + storeDataBatch.getSnapshotId()
+                                        + "], offset ["
+                                        + storeDataBatch.getOffset()
+                                        + "]. will retry in ["
+                                        + backoffMs
+                                        + "] ms",
+                                t);
+                        retryingBatches.incrementAndGet();
+                        try {
+                            retryScheduler.schedule(
+                                    () -> {
+                                        try {
+                                            writeBatch(pendingBatch, attempt + 1);
+                                        } finally {
+                                            // a synchronous failure is counted again before this
+                                            retryingBatches.decrementAndGet();
+                                        }
+                                    },
+                                    backoffMs,
+                                    TimeUnit.MILLISECONDS);
+                        } catch (Exception e) {
+                            // the scheduler is shut down as the agent stops
+                            retryingBatches.decrementAndGet();
+                            abortBatch(pendingBatch);
+                        }
                     }
-                    this.consumeSnapshotId = batchSnapshotId;
-                    this.availSnapshotInfoRef.set(
-                            new SnapshotInfo(availSnapshotId, availDdlSnapshotId));
-                    this.commitExecutor.execute(() -> asyncCommit());
-                }
+                });
+    }
 
-                if (hasDdl) {
-                    this.consumeDdlSnapshotId = batchSnapshotId;
-                }
+    /**
+     * Batches are written concurrently but completed in the order they are polled, so the consumed
+     * snapshotId and queue offsets advance in the same way as writing the batches one by one.
+     */
+    private void finishBatch(PendingBatch pendingBatch, boolean hasDdl) {
+        synchronized (this.pendingBatches) {
+            pendingBatch.done = true;
+            pendingBatch.hasDdl = hasDdl;
+            while (!this.pendingBatches.isEmpty() && this.pendingBatches.peekFirst().done) {
+                PendingBatch head = this.pendingBatches.pollFirst();
+                consumeBatch(head.storeDataBatch, head.hasDdl);
+                this.inflightBatchPermits.release();
+            }
+        }
+    }
 
-                int queueId = storeDataBatch.getQueueId();
-                long offset = storeDataBatch.getOffset();
-                this.consumedQueueOffsets.set(queueId, offset);
-            } catch (Exception e) {
-                logger.error("error in processBatches, ignore", e);
+    /** Drop the batch without consuming it, which only happens when the agent stops. */
+    private void abortBatch(PendingBatch pendingBatch) {
+        synchronized (this.pendingBatches) {
+            if (this.pendingBatches.remove(pendingBatch)) {
+                this.inflightBatchPermits.release();
+            }
+        }
+    }
+
+    private void consumeBatch(StoreDataBatch storeDataBatch, boolean hasDdl) {
+        long batchSnapshotId = storeDataBatch.getSnapshotId();
+        int writeCount = storeDataBatch.getSize();
+        this.totalWrite += writeCount;
+        if (this.consumeSnapshotId < batchSnapshotId) {
+            SnapshotInfo availSnapshotInfo = this.availSnapshotInfoRef.get();
+            long availDdlSnapshotId = availSnapshotInfo.getDdlSnapshotId();
+            if (availDdlSnapshotId < this.consumeDdlSnapshotId) {
+                availDdlSnapshotId = this.consumeDdlSnapshotId;
+            }
+            long prevSnapshotId = batchSnapshotId - 1;
+            long availSnapshotId = availSnapshotInfo.getSnapshotId();
+            if (availSnapshotId < prevSnapshotId) {
+                availSnapshotId = prevSnapshotId;
             }
+            this.consumeSnapshotId = batchSnapshotId;
+            this.availSnapshotInfoRef.set(new SnapshotInfo(availSnapshotId, availDdlSnapshotId));
+            this.commitExecutor.execute(() -> asyncCommit());
+        }
+
+        if (hasDdl) {
+            this.consumeDdlSnapshotId = batchSnapshotId;
         }
+
+        int queueId = storeDataBatch.getQueueId();
+        long offset = storeDataBatch.getOffset();
+        this.consumedQueueOffsets.set(queueId, offset);
     }
 
     private void asyncCommit() {
@@ -260,25 +418,14 @@ public class WriterAgent implements MetricsAgent {
         }
     }
 
-    private boolean writeEngineWithRetry(StoreDataBatch storeDataBatch) {
-        while (!shouldStop) {
-            try {
-                return this.storeService.batchWrite(storeDataBatch);
-            } catch (Exception e) {
-                logger.error(
-                        "writeEngine failed. queueId ["
-                                + storeDataBatch.getQueueId()
-                                + "], "
-                                + "snapshotId ["
-                                + storeDataBatch.getSnapshotId()
-                                + "], "
-                                + "offset ["
-                                + storeDataBatch.getOffset()
-                                + "]. will retry",
-                        e);
-            }
+    private static class PendingBatch {
+        private final StoreDataBatch storeDataBatch;
+        private boolean done;
+        private boolean hasDdl;
+
+        private PendingBatch(StoreDataBatch storeDataBatch) {
+            this.storeDataBatch = storeDataBatch;
         }
-        return false;
     }
 
     @Override
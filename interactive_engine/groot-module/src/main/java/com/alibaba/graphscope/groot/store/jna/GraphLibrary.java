@@ -44,6 +44,8 @@ public interface GraphLibrary extends Library {
 
     JnaResponse getBackupList(Pointer bePointer);
 
+    JnaResponse getBackupSize(Pointer bePointer, int backupId);
+
     void dropJnaResponse(JnaResponse jnaResponse);
 
     Pointer createWrapperPartitionGraph(Pointer graphStore);
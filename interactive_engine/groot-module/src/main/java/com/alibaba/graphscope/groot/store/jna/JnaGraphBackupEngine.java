@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 public class JnaGraphBackupEngine implements GraphPartitionBackup {
@@ -96,20 +97,7 @@ public class JnaGraphBackupEngine implements GraphPartitionBackup {
         if (readyPartitionBackupIds.isEmpty()) {
             return;
         }
-        int[] partitionBackupIds;
-        try (JnaResponse jnaResponse = GraphLibrary.INSTANCE.getBackupList(this.bePointer)) {
-            if (!jnaResponse.success()) {
-                String errMsg = jnaResponse.getErrMsg();
-                throw new IOException(errMsg);
-            }
-            byte[] data = jnaResponse.getData();
-            if (data == null) {
-                return;
-            }
-            IntBuffer intBuf = ByteBuffer.wrap(data).order(ByteOrder.nativeOrder()).asIntBuffer();
-            partitionBackupIds = new int[intBuf.remaining()];
-            intBuf.get(partitionBackupIds);
-        }
+        List<Integer> partitionBackupIds = getPartitionBackupIdList();
         for (int bId : partitionBackupIds) {
             if (!readyPartitionBackupIds.contains(bId)) {
                 try (JnaResponse jnaResponse =
@@ -127,6 +115,47 @@ public class JnaGraphBackupEngine implements GraphPartitionBackup {
         }
     }
 
+    @Override
+    public List<Integer> getPartitionBackupIdList() throws IOException {
+        try (JnaResponse jnaResponse = GraphLibrary.INSTANCE.getBackupList(this.bePointer)) {
+            if (!jnaResponse.success()) {
+                String errMsg = jnaResponse.getErrMsg();
+                throw new IOException(errMsg);
+            }
+            byte[] data = jnaResponse.getData();
+            if (data == null) {
+                return new ArrayList<>();
+            }
+            IntBuffer intBuf = ByteBuffer.wrap(data).order(ByteOrder.nativeOrder()).asIntBuffer();
+            List<Integer> partitionBackupIds = new ArrayList<>(intBuf.remaining());
+            while (intBuf.hasRemaining()) {
+                partitionBackupIds.add(intBuf.get());
+            }
+            return partitionBackupIds;
+        }
+    }
+
+    @Override
+    public long getPartitionBackupSize(int partitionBackupId) throws IOException {
+        try (JnaResponse jnaResponse =
+                GraphLibrary.INSTANCE.getBackupSize(this.bePointer, partitionBackupId)) {
+            if (!jnaResponse.success()) {
+                String errMsg = jnaResponse.getErrMsg();
+                throw new IOException(errMsg);
+            }
+            byte[] data = jnaResponse.getData();
+            if (data == null || data.length != Long.BYTES) {
+                throw new IOException(
+                        "fail to get size of backup ["
+                                + partitionBackupId
+                                + "] from jna response, partition ["
+                                + this.partitionId
+                                + "]");
+            }
+            return ByteBuffer.wrap(data).order(ByteOrder.nativeOrder()).getLong();
+        }
+    }
+
     @Override
     public int getId() {
         return this.partitionId;
@@ -7,7 +7,8 @@ import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.store.StoreService;
 
 public interface ComputeServiceProducer {
-    AbstractService makeGraphService(SchemaFetcher schemaFetcher, ChannelManager channelManager);
+    AbstractService makeGraphService(
+            SchemaFetcher schemaFetcher, ChannelManager channelManager, MetaService metaService);
 
     AbstractService makeExecutorService(
             StoreService storeService, MetaService metaService, DiscoveryFactory discoveryFactory);
@@ -25,6 +25,8 @@ import com.alibaba.graphscope.groot.frontend.IngestorWriteClient;
 import com.alibaba.graphscope.groot.meta.DefaultMetaService;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.meta.MetaStore;
+import com.alibaba.graphscope.groot.metrics.MetricsCollectService;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.GrootNameResolverFactory;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
@@ -131,6 +133,9 @@ public class Coordinator extends NodeBase {
         this.garbageCollectManager = new GarbageCollectManager(configs, coordinatorSnapshotClients);
         CoordinatorSnapshotService coordinatorSnapshotService =
                 new CoordinatorSnapshotService(garbageCollectManager);
+        MetricsCollector metricsCollector = new MetricsCollector(configs);
+        metricsCollector.register(this.garbageCollectManager);
+        MetricsCollectService metricsCollectService = new MetricsCollectService(metricsCollector);
         this.rpcServer =
                 new RpcServer(
                         configs,
@@ -140,7 +145,8 @@ public class Coordinator extends NodeBase {
                         schemaService,
                         idAllocateService,
                         backupService,
-                        coordinatorSnapshotService);
+                        coordinatorSnapshotService,
+                        metricsCollectService);
         this.logRecycler = new LogRecycler(configs, logService, this.snapshotManager);
         this.graphInitializer = new GraphInitializer(configs, this.curator, metaStore, logService);
     }
@@ -170,6 +176,7 @@ public class Coordinator extends NodeBase {
 
     @Override
     public void close() throws IOException {
+        this.garbageCollectManager.stop();
         this.backupManager.stop();
         this.logRecycler.stop();
         this.rpcServer.stop();
@@ -49,6 +49,7 @@ import com.alibaba.graphscope.groot.metrics.MetricsCollectClient;
 import com.alibaba.graphscope.groot.metrics.MetricsCollectService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.rpc.AuthorizationServerInterceptor;
+import com.alibaba.graphscope.groot.rpc.ChannelClass;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.GrootNameResolverFactory;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
@@ -92,7 +93,11 @@ public class Frontend extends NodeBase {
         this.metaService = new DefaultMetaService(configs);
         MetricsCollector metricsCollector = new MetricsCollector(configs);
         RoleClients<IngestorWriteClient> ingestorWriteClients =
-                new RoleClients<>(this.channelManager, RoleType.INGESTOR, IngestorWriteClient::new);
+                new RoleClients<>(
+                        this.channelManager,
+                        RoleType.INGESTOR,
+                        ChannelClass.WRITE,
+                        IngestorWriteClient::new);
         FrontendSnapshotService frontendSnapshotService =
                 new FrontendSnapshotService(snapshotCache);
         RoleClients<MetricsCollectClient> frontendMetricsCollectClients =
@@ -156,7 +161,8 @@ public class Frontend extends NodeBase {
         WrappedSchemaFetcher wrappedSchemaFetcher =
                 new WrappedSchemaFetcher(snapshotCache, metaService);
         ComputeServiceProducer serviceProducer = ServiceProducerFactory.getProducer(configs);
-        this.graphService = serviceProducer.makeGraphService(wrappedSchemaFetcher, channelManager);
+        this.graphService =
+                serviceProducer.makeGraphService(wrappedSchemaFetcher, channelManager, metaService);
     }
 
     private RpcServer buildServiceServer(Configs configs, BindableService... services) {
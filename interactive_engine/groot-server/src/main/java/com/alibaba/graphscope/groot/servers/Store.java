@@ -37,6 +37,7 @@ public class Store extends NodeBase {
     private MetaService metaService;
     private StoreService storeService;
     private WriterAgent writerAgent;
+    private StoreWriteService storeWriteService;
     private BackupAgent backupAgent;
     private RpcServer rpcServer;
     private AbstractService executorService;
@@ -62,8 +63,8 @@ public class Store extends NodeBase {
                         this.metaService,
                         snapshotCommitter,
                         metricsCollector);
-        StoreWriteService storeWriteService = new StoreWriteService(this.writerAgent);
-        this.backupAgent = new BackupAgent(configs, this.storeService);
+        this.storeWriteService = new StoreWriteService(this.writerAgent);
+        this.backupAgent = new BackupAgent(configs, this.storeService, metricsCollector);
         StoreBackupService storeBackupService = new StoreBackupService(this.backupAgent);
         StoreSchemaService storeSchemaService = new StoreSchemaService(this.storeService);
         StoreIngestService storeIngestService = new StoreIngestService(this.storeService);
@@ -72,7 +73,7 @@ public class Store extends NodeBase {
                 new RpcServer(
                         configs,
                         localNodeProvider,
-                        storeWriteService,
+                        this.storeWriteService,
                         storeBackupService,
                         storeSchemaService,
                         storeIngestService,
@@ -99,6 +100,7 @@ public class Store extends NodeBase {
         }
         this.writerAgent.init(availSnapshotId);
         this.writerAgent.start();
+        this.storeWriteService.start();
         this.backupAgent.start();
         try {
             this.rpcServer.start();
@@ -115,6 +117,7 @@ public class Store extends NodeBase {
         this.executorService.stop();
         this.rpcServer.stop();
         this.backupAgent.stop();
+        this.storeWriteService.stop();
         this.writerAgent.stop();
         this.storeService.stop();
         this.metaService.stop();
@@ -26,22 +26,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FrontendQueryManager extends IrMetaQueryCallback {
     private static final Logger logger = LoggerFactory.getLogger(FrontendQueryManager.class);
-    private static final int QUEUE_SIZE = 1024 * 1024;
 
-    // manage queries <snapshotId, is_done>
-    private BlockingQueue<QueryStatus> queryQueue;
+    // manage snapshots used by in-flight queries <snapshotId, running query count>
+    private QuerySnapshotTracker snapshotTracker;
     private SnapshotUpdateCommitter committer;
     private ScheduledExecutorService updateExecutor;
-    private long oldSnapshotId = Long.MIN_VALUE;
+    private AtomicBoolean updatePending;
+    private volatile long oldSnapshotId = Long.MIN_VALUE;
     private int frontendId;
 
     public FrontendQueryManager(
             IrMetaFetcher fetcher, int frontendId, SnapshotUpdateCommitter committer) {
         super(fetcher);
-        this.queryQueue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        this.snapshotTracker = new QuerySnapshotTracker();
+        this.updatePending = new AtomicBoolean(false);
         this.committer = committer;
         this.frontendId = frontendId;
     }
@@ -61,6 +63,8 @@ public class FrontendQueryManager extends IrMetaQueryCallback {
                                                             + t.getName());
                                         })
                                 .build());
+        // the periodic update advances the min snapshot when there are no running queries,
+        // releasing the oldest running query triggers an update immediately.
         updateExecutor.scheduleWithFixedDelay(
                 new UpdateSnapshot(), 5000, 2000, TimeUnit.MILLISECONDS);
     }
@@ -79,42 +83,43 @@ public class FrontendQueryManager extends IrMetaQueryCallback {
     }
 
     @Override
-    public synchronized IrMeta beforeExec() {
-        try {
-            IrMeta irMeta = super.beforeExec();
-            QueryStatus status = new QueryStatus(irMeta.getSnapshotId().getId());
-            queryQueue.put(status);
-            return irMeta;
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    public IrMeta beforeExec() {
+        IrMeta irMeta = super.beforeExec();
+        snapshotTracker.acquire(irMeta.getSnapshotId().getId());
+        return irMeta;
     }
 
-    // set the QueryStatus as done after the execution of the query
+    // release the snapshot after the execution of the query
     @Override
-    public synchronized void afterExec(IrMeta irMeta) {
+    public void afterExec(IrMeta irMeta) {
         long snapshotId = irMeta.getSnapshotId().getId();
-        queryQueue.forEach(
-                k -> {
-                    if (k.snapshotId == snapshotId) {
-                        k.isDone = true;
-                    }
-                });
+        if (snapshotTracker.release(snapshotId)
+                && snapshotId < snapshotTracker.minActiveSnapshotId(Long.MAX_VALUE)) {
+            triggerUpdate();
+        }
+    }
+
+    private void triggerUpdate() {
+        ScheduledExecutorService executor = this.updateExecutor;
+        if (executor == null || !updatePending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new UpdateSnapshot());
+        } catch (RejectedExecutionException e) {
+            updatePending.set(false);
+            logger.warn("trigger snapshot update rejected", e);
+        }
     }
 
     private class UpdateSnapshot implements Runnable {
         @Override
         public void run() {
+            updatePending.set(false);
             long minSnapshotId = 0L;
             try {
-                while (!queryQueue.isEmpty() && queryQueue.peek().isDone) {
-                    queryQueue.remove();
-                }
-                if (queryQueue.isEmpty()) {
-                    minSnapshotId = fetcher.fetch().get().getSnapshotId().getId();
-                } else {
-                    minSnapshotId = queryQueue.peek().snapshotId;
-                }
+                long latestSnapshotId = fetcher.fetch().get().getSnapshotId().getId();
+                minSnapshotId = snapshotTracker.minActiveSnapshotId(latestSnapshotId);
                 if (minSnapshotId > oldSnapshotId) {
                     committer.updateSnapshot(frontendId, minSnapshotId);
                     oldSnapshotId = minSnapshotId;
@@ -124,14 +129,4 @@ public class FrontendQueryManager extends IrMetaQueryCallback {
             }
         }
     }
-
-    private class QueryStatus {
-        public long snapshotId;
-        public boolean isDone;
-
-        public QueryStatus(long snapshotId) {
-            this.snapshotId = snapshotId;
-            this.isDone = false;
-        }
-    }
 }
@@ -51,10 +51,11 @@ public class IrServiceProducer implements ComputeServiceProducer {
 
     @Override
     public AbstractService makeGraphService(
-            SchemaFetcher schemaFetcher, ChannelManager channelManager) {
+            SchemaFetcher schemaFetcher, ChannelManager channelManager, MetaService metaService) {
         int executorCount = CommonConfig.STORE_NODE_COUNT.get(configs);
         ChannelFetcher channelFetcher =
-                new RpcChannelManagerFetcher(channelManager, executorCount, RoleType.GAIA_RPC);
+                new RpcChannelManagerFetcher(
+                        channelManager, executorCount, RoleType.GAIA_RPC, metaService);
         com.alibaba.graphscope.common.config.Configs irConfigs = getConfigs();
         IrMetaFetcher irMetaFetcher = new GrootMetaFetcher(schemaFetcher);
         SnapshotUpdateCommitter updateCommitter = new SnapshotUpdateCommitter(channelManager);
@@ -106,6 +107,7 @@ public class IrServiceProducer implements ComputeServiceProducer {
         addToConfigMapIfExist(PegasusConfig.PEGASUS_BATCH_SIZE.getKey(), configMap);
         addToConfigMapIfExist(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.getKey(), configMap);
         addToConfigMapIfExist(PegasusConfig.PEGASUS_MEMORY_LIMIT.getKey(), configMap);
+        addToConfigMapIfExist(PegasusConfig.PEGASUS_ROUTE_POINT_LOOKUP.getKey(), configMap);
         // add authentication
         addToConfigMapIfExist(AuthConfig.AUTH_USERNAME.getKey(), configMap);
         addToConfigMapIfExist(AuthConfig.AUTH_PASSWORD.getKey(), configMap);
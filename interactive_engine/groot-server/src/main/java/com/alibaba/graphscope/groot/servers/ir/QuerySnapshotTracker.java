@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.groot.servers.ir;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Lock-free tracker of the snapshots used by in-flight queries, keyed by snapshot id with the
+ * number of running queries as value. Acquire and release are O(log n) in the number of distinct
+ * active snapshots, and the minimum active snapshot is read from the head of the map.
+ */
+public class QuerySnapshotTracker {
+    private final ConcurrentSkipListMap<Long, Integer> activeSnapshots =
+            new ConcurrentSkipListMap<>();
+
+    public void acquire(long snapshotId) {
+        activeSnapshots.merge(snapshotId, 1, Integer::sum);
+    }
+
+    /**
+     * Release one query on the given snapshot.
+     *
+     * @return true if the snapshot is no longer used by any query
+     */
+    public boolean release(long snapshotId) {
+        Integer remaining =
+                activeSnapshots.computeIfPresent(snapshotId, (k, v) -> v <= 1 ? null : v - 1);
+        return remaining == null;
+    }
+
+    /**
+     * @return the minimum snapshot id used by in-flight queries, or defaultValue if there is none
+     */
+    public long minActiveSnapshotId(long defaultValue) {
+        Map.Entry<Long, Integer> first = activeSnapshots.firstEntry();
+        return first == null ? defaultValue : first.getKey();
+    }
+
+    public int activeSnapshotCount() {
+        return activeSnapshots.size();
+    }
+}
@@ -18,6 +18,9 @@ package com.alibaba.graphscope.groot.servers.ir;
 
 import com.alibaba.graphscope.common.client.channel.ChannelFetcher;
 import com.alibaba.graphscope.groot.common.RoleType;
+import com.alibaba.graphscope.groot.common.util.PartitionUtils;
+import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.rpc.ChannelClass;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.pegasus.RpcChannel;
 
@@ -28,23 +31,35 @@ public class RpcChannelManagerFetcher implements ChannelFetcher<RpcChannel> {
     private ChannelManager manager;
     private int nodeCount;
     private RoleType targetRole;
+    private MetaService metaService;
 
-    public RpcChannelManagerFetcher(ChannelManager manager, int nodeCount, RoleType targetRole) {
+    public RpcChannelManagerFetcher(
+            ChannelManager manager, int nodeCount, RoleType targetRole, MetaService metaService) {
         this.manager = manager;
         this.nodeCount = nodeCount;
         this.targetRole = targetRole;
-        this.manager.registerRole(this.targetRole);
+        this.metaService = metaService;
+        this.manager.registerRole(this.targetRole, ChannelClass.QUERY);
     }
 
     @Override
     public List<RpcChannel> fetch() {
         List<RpcChannel> channels = new ArrayList<>();
         for (int i = 0; i < nodeCount; ++i) {
-            channels.add(new RpcChannel(manager.getChannel(this.targetRole, i)));
+            channels.add(
+                    new RpcChannel(manager.getChannel(this.targetRole, i, ChannelClass.QUERY)));
         }
         return channels;
     }
 
+    // the vertex is partitioned by its id, the same as the way it is written to the store
+    @Override
+    public int getServerIdByVertexId(long vertexId) {
+        int partitionId =
+                PartitionUtils.getPartitionIdFromKey(vertexId, metaService.getPartitionCount());
+        return metaService.getStoreIdByPartition(partitionId);
+    }
+
     @Override
     public Type getType() {
         return Type.RPC;
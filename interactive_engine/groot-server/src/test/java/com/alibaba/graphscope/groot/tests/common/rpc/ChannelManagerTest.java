@@ -17,11 +17,16 @@ import com.alibaba.graphscope.groot.common.RoleType;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.common.exception.NodeConnectException;
+import com.alibaba.graphscope.groot.rpc.ChannelClass;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 
+import io.grpc.ManagedChannel;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 public class ChannelManagerTest {
 
     @Test
@@ -39,4 +44,32 @@ public class ChannelManagerTest {
                 NodeConnectException.class, () -> channelManager.getChannel(RoleType.STORE, 1));
         channelManager.stop();
     }
+
+    @Test
+    void testChannelPool() {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(CommonConfig.DISCOVERY_MODE.getKey(), "zookeeper")
+                        .put(CommonConfig.RPC_CHANNEL_WRITE_COUNT.getKey(), "2")
+                        .put(CommonConfig.RPC_WRITE_COMPRESSION.getKey(), "gzip")
+                        .build();
+        ChannelManager channelManager = new ChannelManager(configs, new MockFactory());
+        channelManager.registerRole(RoleType.STORE);
+        channelManager.registerRole(RoleType.STORE, ChannelClass.WRITE);
+        channelManager.start();
+        List<ManagedChannel> writeChannels =
+                channelManager.getChannels(RoleType.STORE, 0, ChannelClass.WRITE);
+        Assertions.assertEquals(2, writeChannels.size());
+        // write channels are separated from the control channel, and chosen in round robin
+        ManagedChannel control = channelManager.getChannel(RoleType.STORE, 0);
+        Assertions.assertFalse(writeChannels.contains(control));
+        ManagedChannel first = channelManager.getChannel(RoleType.STORE, 0, ChannelClass.WRITE);
+        ManagedChannel second = channelManager.getChannel(RoleType.STORE, 0, ChannelClass.WRITE);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertThrows(
+                NodeConnectException.class,
+                () -> channelManager.getChannel(RoleType.STORE, 0, ChannelClass.QUERY));
+        channelManager.stop();
+    }
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.coordinator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.common.config.CommonConfig;
+import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.coordinator.CoordinatorSnapshotClient;
+import com.alibaba.graphscope.groot.coordinator.GarbageCollectManager;
+import com.alibaba.graphscope.groot.rpc.RoleClients;
+
+import org.junit.jupiter.api.Test;
+
+public class GarbageCollectManagerTest {
+
+    @Test
+    void testSyncOnlyWhenOfflineVersionMoves() {
+        Configs configs =
+                Configs.newBuilder().put(CommonConfig.STORE_NODE_COUNT.getKey(), "2").build();
+        RoleClients<CoordinatorSnapshotClient> roleClients = mock(RoleClients.class);
+        CoordinatorSnapshotClient client0 = mock(CoordinatorSnapshotClient.class);
+        CoordinatorSnapshotClient client1 = mock(CoordinatorSnapshotClient.class);
+        when(roleClients.getClient(0)).thenReturn(client0);
+        when(roleClients.getClient(1)).thenReturn(client1);
+
+        GarbageCollectManager manager = new GarbageCollectManager(configs, roleClients);
+        manager.start();
+        try {
+            manager.put(0, 10L);
+            manager.put(1, 12L);
+            verify(client0, timeout(5000L)).synchronizeSnapshot(9L);
+            verify(client1, timeout(5000L)).synchronizeSnapshot(9L);
+
+            // min snapshot unchanged, no more rpc
+            manager.put(1, 15L);
+            manager.put(0, 20L);
+            verify(client0, timeout(5000L)).synchronizeSnapshot(14L);
+            verify(client1, timeout(5000L)).synchronizeSnapshot(14L);
+            verify(client0, times(2)).synchronizeSnapshot(anyLong());
+            assertEquals(14L, manager.getOfflineVersion());
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    void testSyncOfflineVersionOfFirstSnapshot() {
+        Configs configs =
+                Configs.newBuilder().put(CommonConfig.STORE_NODE_COUNT.getKey(), "1").build();
+        RoleClients<CoordinatorSnapshotClient> roleClients = mock(RoleClients.class);
+        CoordinatorSnapshotClient client0 = mock(CoordinatorSnapshotClient.class);
+        when(roleClients.getClient(0)).thenReturn(client0);
+
+        GarbageCollectManager manager = new GarbageCollectManager(configs, roleClients);
+        assertEquals("", manager.getMetrics().get(GarbageCollectManager.GC_MIN_QUERY_SNAPSHOT_ID));
+        manager.start();
+        try {
+            // offline version of snapshot 0 is -1, which is still pushed to stores
+            manager.put(0, 0L);
+            verify(client0, timeout(5000L)).synchronizeSnapshot(-1L);
+            assertEquals(-1L, manager.getOfflineVersion());
+            assertEquals(
+                    "0", manager.getMetrics().get(GarbageCollectManager.GC_MIN_QUERY_SNAPSHOT_ID));
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    void testInitMetricsKeepsStoreOfflineVersions() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder().put(CommonConfig.STORE_NODE_COUNT.getKey(), "1").build();
+        RoleClients<CoordinatorSnapshotClient> roleClients = mock(RoleClients.class);
+        CoordinatorSnapshotClient client0 = mock(CoordinatorSnapshotClient.class);
+        when(roleClients.getClient(0)).thenReturn(client0);
+
+        GarbageCollectManager manager = new GarbageCollectManager(configs, roleClients);
+        assertEquals(Long.MIN_VALUE, manager.getStoreOfflineVersion(0));
+        manager.start();
+        try {
+            manager.put(0, 5L);
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (manager.getStoreOfflineVersion(0) != 4L
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(4L, manager.getStoreOfflineVersion(0));
+            // version acknowledged by the store is not reset, thus not synchronized again
+            manager.initMetrics();
+            assertEquals(4L, manager.getStoreOfflineVersion(0));
+            verify(client0, times(1)).synchronizeSnapshot(anyLong());
+        } finally {
+            manager.stop();
+        }
+    }
+}
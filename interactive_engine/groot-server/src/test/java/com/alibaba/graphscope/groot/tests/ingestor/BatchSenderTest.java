@@ -20,6 +20,7 @@ import static org.mockito.Mockito.*;
 import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.IngestorConfig;
 import com.alibaba.graphscope.groot.common.schema.wrapper.LabelId;
 import com.alibaba.graphscope.groot.ingestor.BatchSender;
 import com.alibaba.graphscope.groot.ingestor.StoreWriter;
@@ -30,9 +31,13 @@ import com.alibaba.graphscope.groot.operation.OperationBlob;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.operation.VertexId;
 import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
+import com.alibaba.graphscope.proto.groot.WriteStoreRequest;
+import com.alibaba.graphscope.proto.groot.WriteStoreResponse;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -71,8 +76,11 @@ public class BatchSenderTest {
         CountDownLatch latch = new CountDownLatch(1);
         doAnswer(
                         invocationOnMock -> {
-                            StoreDataBatch storeBatch = invocationOnMock.getArgument(1);
+                            WriteStoreRequest request = invocationOnMock.getArgument(1);
                             CompletionCallback callback = invocationOnMock.getArgument(2);
+                            assertEquals(request.getDataBatchesCount(), 1);
+                            StoreDataBatch storeBatch =
+                                    StoreDataBatch.parseProto(request.getDataBatches(0));
                             assertAll(
                                     () -> assertEquals(storeBatch.getRequestId(), requestId),
                                     () -> assertEquals(storeBatch.getQueueId(), queueId),
@@ -94,12 +102,17 @@ public class BatchSenderTest {
                             assertEquals(
                                     dataBatch.get(1).get(-1).getOperationBlob(0),
                                     OperationBlob.MARKER_OPERATION_BLOB);
-                            callback.onCompleted(0);
+                            callback.onCompleted(
+                                    WriteStoreResponse.newBuilder()
+                                            .setSuccess(true)
+                                            .setCredits(128)
+                                            .setNextSequence(request.getSequence() + 1)
+                                            .build());
                             latch.countDown();
                             return null;
                         })
                 .when(mockStoreWriter)
-                .write(anyInt(), any(), any());
+                .writeInSession(anyInt(), any(), any());
 
         BatchSender batchSender =
                 new BatchSender(
@@ -111,4 +124,131 @@ public class BatchSenderTest {
 
         batchSender.stop();
     }
+
+    @Test
+    void testResendAfterRejected() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(IngestorConfig.INGESTOR_SENDER_BACKOFF_MS.getKey(), "10")
+                        .build();
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionCount()).thenReturn(1);
+        when(mockMetaService.getStoreIdByPartition(anyInt())).thenReturn(0);
+
+        // the store rejects the first request and accepts the resent one
+        StoreWriter mockStoreWriter = mock(StoreWriter.class);
+        List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+        doAnswer(
+                        invocationOnMock -> {
+                            WriteStoreRequest request = invocationOnMock.getArgument(1);
+                            CompletionCallback callback = invocationOnMock.getArgument(2);
+                            sequences.add(request.getSequence());
+                            boolean success = sequences.size() > 1;
+                            callback.onCompleted(
+                                    WriteStoreResponse.newBuilder()
+                                            .setSuccess(success)
+                                            .setCredits(success ? 128 : 0)
+                                            .setNextSequence(success ? 1L : 0L)
+                                            .build());
+                            latch.countDown();
+                            return null;
+                        })
+                .when(mockStoreWriter)
+                .writeInSession(anyInt(), any(), any());
+
+        BatchSender batchSender =
+                new BatchSender(
+                        configs, mockMetaService, mockStoreWriter, new MetricsCollector(configs));
+        batchSender.start();
+
+        OperationBatch batch =
+                OperationBatch.newBuilder()
+                        .addOperationBlob(
+                                new OverwriteVertexOperation(
+                                                new VertexId(0L),
+                                                new LabelId(0),
+                                                Collections.EMPTY_MAP)
+                                        .toBlob())
+                        .build();
+        batchSender.asyncSendWithRetry("test_resend", 0, 10L, 50L, batch);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(sequences.subList(0, 2), Arrays.asList(0L, 0L));
+
+        batchSender.stop();
+    }
+
+    @Test
+    void testResendInNewSessionAfterStoreRestart() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(IngestorConfig.INGESTOR_SENDER_BACKOFF_MS.getKey(), "10")
+                        .build();
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionCount()).thenReturn(1);
+        when(mockMetaService.getStoreIdByPartition(anyInt())).thenReturn(0);
+
+        // the store accepts the first request, then restarts and forgets the session
+        StoreWriter mockStoreWriter = mock(StoreWriter.class);
+        List<WriteStoreRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstLatch = new CountDownLatch(1);
+        CountDownLatch resentLatch = new CountDownLatch(1);
+        doAnswer(
+                        invocationOnMock -> {
+                            WriteStoreRequest request = invocationOnMock.getArgument(1);
+                            CompletionCallback callback = invocationOnMock.getArgument(2);
+                            requests.add(request);
+                            boolean restarted = requests.size() > 1;
+                            boolean success =
+                                    !restarted
+                                            || !request.getSession()
+                                                            .equals(requests.get(0).getSession())
+                                                    && request.getSequence() == 0L;
+                            callback.onCompleted(
+                                    WriteStoreResponse.newBuilder()
+                                            .setSuccess(success)
+                                            .setCredits(128)
+                                            .setNextSequence(
+                                                    success ? request.getSequence() + 1 : 0L)
+                                            .build());
+                            if (!restarted) {
+                                firstLatch.countDown();
+                            } else if (success) {
+                                resentLatch.countDown();
+                            }
+                            return null;
+                        })
+                .when(mockStoreWriter)
+                .writeInSession(anyInt(), any(), any());
+
+        BatchSender batchSender =
+                new BatchSender(
+                        configs, mockMetaService, mockStoreWriter, new MetricsCollector(configs));
+        batchSender.start();
+
+        OperationBatch batch =
+                OperationBatch.newBuilder()
+                        .addOperationBlob(
+                                new OverwriteVertexOperation(
+                                                new VertexId(0L),
+                                                new LabelId(0),
+                                                Collections.EMPTY_MAP)
+                                        .toBlob())
+                        .build();
+        batchSender.asyncSendWithRetry("test_restart", 0, 10L, 50L, batch);
+        assertTrue(firstLatch.await(5L, TimeUnit.SECONDS));
+        batchSender.asyncSendWithRetry("test_restart", 0, 11L, 51L, batch);
+        assertTrue(resentLatch.await(5L, TimeUnit.SECONDS));
+
+        WriteStoreRequest rejected = requests.get(1);
+        WriteStoreRequest resent = requests.get(requests.size() - 1);
+        assertEquals(1L, rejected.getSequence());
+        assertNotEquals(requests.get(0).getSession(), resent.getSession());
+        assertEquals(0L, resent.getSequence());
+        assertEquals(rejected.getDataBatchesList(), resent.getDataBatchesList());
+
+        batchSender.stop();
+    }
 }
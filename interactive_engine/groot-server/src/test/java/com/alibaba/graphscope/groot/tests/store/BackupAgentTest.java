@@ -13,12 +13,14 @@
  */
 package com.alibaba.graphscope.groot.tests.store;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.BackupConfig;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.store.BackupAgent;
 import com.alibaba.graphscope.groot.store.GraphPartition;
 import com.alibaba.graphscope.groot.store.StoreBackupId;
@@ -57,7 +59,8 @@ public class BackupAgentTest {
         when(mockJnaStore0.openBackupEngine()).thenReturn(mockJnaBackupEngine0);
         when(mockJnaStore1.openBackupEngine()).thenReturn(mockJnaBackupEngine1);
 
-        BackupAgent backupAgent = new BackupAgent(configs, mockStoreService);
+        BackupAgent backupAgent =
+                new BackupAgent(configs, mockStoreService, new MetricsCollector(configs));
         backupAgent.start();
 
         StoreBackupId storeBackupId = new StoreBackupId(5);
@@ -69,9 +72,20 @@ public class BackupAgentTest {
 
         when(mockJnaBackupEngine0.createNewPartitionBackup()).thenReturn(7);
         when(mockJnaBackupEngine1.createNewPartitionBackup()).thenReturn(6);
+        // partition 0 has 2 previous backups, partition 1 has none
+        when(mockJnaBackupEngine0.getPartitionBackupIdList()).thenReturn(Arrays.asList(2, 4));
+        when(mockJnaBackupEngine1.getPartitionBackupIdList()).thenReturn(Arrays.asList());
+        when(mockJnaBackupEngine0.getPartitionBackupSize(4)).thenReturn(60L);
+        when(mockJnaBackupEngine0.getPartitionBackupSize(7)).thenReturn(100L);
+        when(mockJnaBackupEngine1.getPartitionBackupSize(6)).thenReturn(200L);
         CompletionCallback<StoreBackupId> createCallback = mock(CompletionCallback.class);
         backupAgent.createNewStoreBackup(5, createCallback);
         verify(createCallback, timeout(5000L)).onCompleted(storeBackupId);
+        Map<String, String> metrics = backupAgent.getMetrics();
+        assertEquals("300", metrics.get(BackupAgent.BACKUP_LAST_SIZE_BYTES));
+        assertEquals("240", metrics.get(BackupAgent.BACKUP_LAST_INCREMENTAL_BYTES));
+        verify(mockJnaBackupEngine0, never()).getPartitionBackupSize(2);
+        assertEquals("2/2", metrics.get(BackupAgent.BACKUP_PARTITION_PROGRESS));
 
         CompletionCallback<Void> verifyCallback = mock(CompletionCallback.class);
         backupAgent.verifyStoreBackup(storeBackupId, verifyCallback);
@@ -87,6 +101,8 @@ public class BackupAgentTest {
 
         CompletionCallback<Void> restoreCallback = mock(CompletionCallback.class);
         backupAgent.restoreFromStoreBackup(storeBackupId, "restore_root", restoreCallback);
+        verify(mockJnaBackupEngine0, timeout(5000L).times(2)).verifyPartitionBackup(7);
+        verify(mockJnaBackupEngine1, timeout(5000L).times(2)).verifyPartitionBackup(6);
         verify(mockJnaBackupEngine0, timeout(5000L))
                 .restoreFromPartitionBackup(7, Paths.get("restore_root", "0").toString());
         verify(mockJnaBackupEngine1, timeout(5000L))
@@ -73,6 +73,89 @@ public class StoreRpcTest {
         verify(observer).onCompleted();
     }
 
+    @Test
+    void testStoreWriteServiceSession() throws InterruptedException {
+        WriterAgent writerAgent = mock(WriterAgent.class);
+        when(writerAgent.offerStoreBatches(any())).thenReturn(0);
+        when(writerAgent.getBufferCredits()).thenReturn(5);
+        StoreWriteService storeWriteService = new StoreWriteService(writerAgent, 0L, 60000L);
+        StreamObserver observer = mock(StreamObserver.class);
+        WriteStoreRequest.Builder builder = WriteStoreRequest.newBuilder().setSession("session");
+        storeWriteService.writeStore(builder.setSequence(0L).build(), observer);
+        // the resent request is acknowledged without writing again
+        storeWriteService.writeStore(builder.setSequence(0L).build(), observer);
+        verify(writerAgent, times(1)).offerStoreBatches(any());
+        verify(observer, times(2)).onNext(writeResponse(true, 1L));
+
+        // a request ahead of the expected one is buffered, and is applied after it
+        StreamObserver aheadObserver = mock(StreamObserver.class);
+        storeWriteService.writeStore(builder.setSequence(2L).build(), aheadObserver);
+        verify(aheadObserver, never()).onNext(any());
+        StreamObserver nextObserver = mock(StreamObserver.class);
+        storeWriteService.writeStore(builder.setSequence(1L).build(), nextObserver);
+        verify(nextObserver).onNext(writeResponse(true, 3L));
+        verify(aheadObserver).onNext(writeResponse(true, 3L));
+        verify(aheadObserver).onCompleted();
+        verify(writerAgent, times(3)).offerStoreBatches(any());
+
+        // the request is rejected if the ones before it are missing for too long
+        storeWriteService.writeStore(builder.setSequence(4L).build(), aheadObserver);
+        Thread.sleep(5L);
+        storeWriteService.checkSessions();
+        verify(aheadObserver).onNext(writeResponse(false, 3L));
+        verify(writerAgent, times(3)).offerStoreBatches(any());
+    }
+
+    @Test
+    void testStoreWriteServiceNewSession() throws InterruptedException {
+        WriterAgent writerAgent = mock(WriterAgent.class);
+        when(writerAgent.offerStoreBatches(any())).thenReturn(0);
+        when(writerAgent.getBufferCredits()).thenReturn(5);
+        StoreWriteService storeWriteService = new StoreWriteService(writerAgent, 0L, 0L);
+        StreamObserver observer = mock(StreamObserver.class);
+        WriteStoreRequest.Builder builder = WriteStoreRequest.newBuilder().setSession("session");
+        storeWriteService.writeStore(builder.setSequence(0L).build(), observer);
+        verify(observer).onNext(writeResponse(true, 1L));
+
+        // the idle session is dropped, a request of the new session waits for the ones before it,
+        // and is rejected with the expected sequence 0 if they never arrive
+        Thread.sleep(5L);
+        storeWriteService.checkSessions();
+        StreamObserver aheadObserver = mock(StreamObserver.class);
+        storeWriteService.writeStore(builder.setSequence(1L).build(), aheadObserver);
+        verify(aheadObserver, never()).onNext(any());
+        Thread.sleep(5L);
+        storeWriteService.checkSessions();
+        verify(aheadObserver).onNext(writeResponse(false, 0L));
+        verify(writerAgent, times(1)).offerStoreBatches(any());
+    }
+
+    @Test
+    void testStoreWriteServiceNewSessionReordered() {
+        WriterAgent writerAgent = mock(WriterAgent.class);
+        when(writerAgent.offerStoreBatches(any())).thenReturn(0);
+        when(writerAgent.getBufferCredits()).thenReturn(5);
+        StoreWriteService storeWriteService = new StoreWriteService(writerAgent, 60000L, 60000L);
+        WriteStoreRequest.Builder builder = WriteStoreRequest.newBuilder().setSession("session");
+        // the pipelined requests of a new session may arrive out of order
+        StreamObserver aheadObserver = mock(StreamObserver.class);
+        storeWriteService.writeStore(builder.setSequence(1L).build(), aheadObserver);
+        verify(aheadObserver, never()).onNext(any());
+        StreamObserver firstObserver = mock(StreamObserver.class);
+        storeWriteService.writeStore(builder.setSequence(0L).build(), firstObserver);
+        verify(firstObserver).onNext(writeResponse(true, 2L));
+        verify(aheadObserver).onNext(writeResponse(true, 2L));
+        verify(writerAgent, times(2)).offerStoreBatches(any());
+    }
+
+    private static WriteStoreResponse writeResponse(boolean success, long nextSequence) {
+        return WriteStoreResponse.newBuilder()
+                .setSuccess(success)
+                .setCredits(5)
+                .setNextSequence(nextSequence)
+                .build();
+    }
+
     @Test
     void testStoreBackupService() {
         BackupAgent mockBackupAgent = mock(BackupAgent.class);
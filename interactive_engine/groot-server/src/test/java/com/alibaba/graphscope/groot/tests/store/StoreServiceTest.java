@@ -16,8 +16,10 @@ package com.alibaba.graphscope.groot.tests.store;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.StoreConfig;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
@@ -30,6 +32,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 public class StoreServiceTest {
@@ -66,4 +69,55 @@ public class StoreServiceTest {
         spyStoreService.stop();
         verify(mockGraphPartition).close();
     }
+
+    @Test
+    void testAsyncBatchWrite() throws IOException, InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_WRITE_LANE_COUNT.getKey(), "2")
+                        .build();
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionsByStoreId(0)).thenReturn(Arrays.asList(0, 1));
+
+        StoreService spyStoreService =
+                spy(new StoreService(configs, mockMetaService, new MetricsCollector(configs)));
+        GraphPartition partition0 = mock(GraphPartition.class);
+        GraphPartition partition1 = mock(GraphPartition.class);
+        doReturn(partition0).when(spyStoreService).makeGraphPartition(any(), eq(0));
+        doReturn(partition1).when(spyStoreService).makeGraphPartition(any(), eq(1));
+        OperationBatch operationBatch =
+                OperationBatch.newBuilder()
+                        .addOperationBlob(OperationBlob.MARKER_OPERATION_BLOB)
+                        .build();
+        when(partition1.writeBatch(21L, operationBatch)).thenReturn(true);
+
+        spyStoreService.start();
+        // both partitions are written before the batch is completed
+        StoreDataBatch storeDataBatch =
+                StoreDataBatch.newBuilder()
+                        .snapshotId(21L)
+                        .addOperation(0, OperationBlob.MARKER_OPERATION_BLOB)
+                        .addOperation(1, OperationBlob.MARKER_OPERATION_BLOB)
+                        .build();
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        spyStoreService.asyncBatchWrite(
+                storeDataBatch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        future.complete(hasDdl);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        assertEquals(future.join(), true);
+        verify(partition0).writeBatch(21L, operationBatch);
+        verify(partition1).writeBatch(21L, operationBatch);
+        spyStoreService.stop();
+    }
 }
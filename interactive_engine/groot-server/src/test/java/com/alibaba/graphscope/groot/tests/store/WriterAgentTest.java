@@ -15,6 +15,7 @@ package com.alibaba.graphscope.groot.tests.store;
 
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.common.config.StoreConfig;
@@ -27,8 +28,10 @@ import com.alibaba.graphscope.groot.store.WriterAgent;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WriterAgentTest {
 
@@ -40,6 +43,14 @@ public class WriterAgentTest {
                         .put(StoreConfig.STORE_COMMIT_INTERVAL_MS.getKey(), "10")
                         .build();
         StoreService mockStoreService = mock(StoreService.class);
+        doAnswer(
+                        invocation -> {
+                            CompletionCallback<Boolean> callback = invocation.getArgument(1);
+                            callback.onCompleted(false);
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
 
         MetaService mockMetaService = mock(MetaService.class);
         when(mockMetaService.getQueueCount()).thenReturn(1);
@@ -61,10 +72,66 @@ public class WriterAgentTest {
                 StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
         writerAgent.writeStore(storeDataBatch);
 
-        verify(mockStoreService, timeout(5000L).times(1)).batchWrite(storeDataBatch);
+        verify(mockStoreService, timeout(5000L).times(1))
+                .asyncBatchWrite(eq(storeDataBatch), any());
         verify(mockSnapshotCommitter, timeout(5000L).times(1))
                 .commitSnapshotId(0, 1L, 0L, Collections.singletonList(10L));
 
         writerAgent.stop();
     }
+
+    @Test
+    void testWriterAgentRetryOnError() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_COMMIT_INTERVAL_MS.getKey(), "10")
+                        .put(StoreConfig.STORE_WRITE_INFLIGHT_BATCH_COUNT.getKey(), "1")
+                        .build();
+        // the first write of each batch fails
+        StoreService mockStoreService = mock(StoreService.class);
+        AtomicInteger attempts = new AtomicInteger(0);
+        doAnswer(
+                        invocation -> {
+                            CompletionCallback<Boolean> callback = invocation.getArgument(1);
+                            if (attempts.getAndIncrement() % 2 == 0) {
+                                callback.onError(new IllegalStateException("write failed"));
+                            } else {
+                                callback.onCompleted(false);
+                            }
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        SnapshotCommitter mockSnapshotCommitter = mock(SnapshotCommitter.class);
+
+        WriterAgent writerAgent =
+                new WriterAgent(
+                        configs,
+                        mockStoreService,
+                        mockMetaService,
+                        mockSnapshotCommitter,
+                        new MetricsCollector(configs));
+        writerAgent.init(0L);
+
+        writerAgent.start();
+
+        StoreDataBatch batch1 =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
+        StoreDataBatch batch2 =
+                StoreDataBatch.newBuilder().snapshotId(3L).queueId(0).offset(11L).build();
+        writerAgent.writeStore2(Arrays.asList(batch1, batch2));
+
+        // the failed batch is written again, and its permit is released for the next batch
+        verify(mockStoreService, timeout(5000L).times(2)).asyncBatchWrite(eq(batch1), any());
+        verify(mockStoreService, timeout(5000L).times(2)).asyncBatchWrite(eq(batch2), any());
+        verify(mockSnapshotCommitter, timeout(5000L).atLeastOnce())
+                .commitSnapshotId(0, 2L, 0L, Collections.singletonList(11L));
+
+        writerAgent.stop();
+    }
 }